@@ -0,0 +1,180 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+final class ArbolBK {
+
+    record Resultado(String palabra, int distancia) {
+    }
+
+    static final int MINIMO_PARA_RECONSTRUIR = 1024;
+
+    private Nodo raiz;
+    private int nodos;
+    private int inactivas;
+
+    void agregar(String palabra) {
+        if (raiz == null) {
+            raiz = new Nodo(palabra);
+            nodos = 1;
+            return;
+        }
+        Nodo nodo = raiz;
+        while (true) {
+            // La arista se etiqueta con la distancia exacta, así que aquí no hay cota que aprovechar.
+            int distancia = distancia(nodo.palabra, palabra, Integer.MAX_VALUE);
+            if (distancia == 0) {
+                if (!nodo.activa) {
+                    nodo.activa = true;
+                    inactivas--;
+                }
+                return;
+            }
+            Nodo hijo = nodo.hijo(distancia);
+            if (hijo == null) {
+                nodo.agregarHijo(distancia, new Nodo(palabra));
+                nodos++;
+                return;
+            }
+            nodo = hijo;
+        }
+    }
+
+    // Las palabras desactivadas siguen en el árbol como nodos de paso; cuando pasan a ser la mitad se
+    // reconstruye sólo con las activas para que no crezca indefinidamente con las bajas del catálogo.
+    void desactivar(String palabra) {
+        Nodo nodo = raiz;
+        while (nodo != null) {
+            int distancia = distancia(nodo.palabra, palabra, nodo.distanciaMaximaDeHijos);
+            if (distancia == 0) {
+                if (nodo.activa) {
+                    nodo.activa = false;
+                    inactivas++;
+                    reconstruirSiConviene();
+                }
+                return;
+            }
+            nodo = distancia > nodo.distanciaMaximaDeHijos ? null : nodo.hijo(distancia);
+        }
+    }
+
+    int cantidadDeNodos() {
+        return nodos;
+    }
+
+    private void reconstruirSiConviene() {
+        if (nodos < MINIMO_PARA_RECONSTRUIR || inactivas * 2 < nodos) {
+            return;
+        }
+        List<String> activas = new ArrayList<>(nodos - inactivas);
+        Deque<Nodo> pendientes = new ArrayDeque<>();
+        pendientes.add(raiz);
+        while (!pendientes.isEmpty()) {
+            Nodo nodo = pendientes.poll();
+            if (nodo.activa) {
+                activas.add(nodo.palabra);
+            }
+            for (int i = 0; i < nodo.cantidadHijos; i++) {
+                pendientes.add(nodo.hijos[i]);
+            }
+        }
+        raiz = null;
+        nodos = 0;
+        inactivas = 0;
+        for (String palabra : activas) {
+            agregar(palabra);
+        }
+    }
+
+    List<Resultado> buscar(String palabra, int distanciaMaxima) {
+        List<Resultado> resultados = new ArrayList<>();
+        if (raiz == null) {
+            return resultados;
+        }
+        Deque<Nodo> pendientes = new ArrayDeque<>();
+        pendientes.push(raiz);
+        while (!pendientes.isEmpty()) {
+            Nodo nodo = pendientes.pop();
+            // Más allá de distanciaMaxima + la arista más larga no hay coincidencia ni hijo que visitar.
+            int cota = distanciaMaxima + nodo.distanciaMaximaDeHijos;
+            int distancia = distancia(nodo.palabra, palabra, cota);
+            if (distancia > cota) {
+                continue;
+            }
+            if (distancia <= distanciaMaxima && nodo.activa) {
+                resultados.add(new Resultado(nodo.palabra, distancia));
+            }
+            for (int i = 0; i < nodo.cantidadHijos; i++) {
+                if (Math.abs(nodo.distancias[i] - distancia) <= distanciaMaxima) {
+                    pendientes.push(nodo.hijos[i]);
+                }
+            }
+        }
+        return resultados;
+    }
+
+    static int distancia(String a, String b, int maxima) {
+        if (Math.abs(a.length() - b.length()) > maxima) {
+            return maxima + 1;
+        }
+        int[] anterior = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            int minimoDeFila = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int sustitucion = anterior[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                actual[j] = Math.min(sustitucion, Math.min(anterior[j] + 1, actual[j - 1] + 1));
+                minimoDeFila = Math.min(minimoDeFila, actual[j]);
+            }
+            if (minimoDeFila > maxima) {
+                return maxima + 1;
+            }
+            int[] intercambio = anterior;
+            anterior = actual;
+            actual = intercambio;
+        }
+        return anterior[b.length()];
+    }
+
+    private static final class Nodo {
+
+        final String palabra;
+        boolean activa = true;
+        int[] distancias = new int[0];
+        Nodo[] hijos = new Nodo[0];
+        int cantidadHijos;
+        int distanciaMaximaDeHijos;
+
+        Nodo(String palabra) {
+            this.palabra = palabra;
+        }
+
+        Nodo hijo(int distancia) {
+            for (int i = 0; i < cantidadHijos; i++) {
+                if (distancias[i] == distancia) {
+                    return hijos[i];
+                }
+            }
+            return null;
+        }
+
+        void agregarHijo(int distancia, Nodo hijo) {
+            if (cantidadHijos == hijos.length) {
+                int capacidad = Math.max(2, hijos.length * 2);
+                distancias = Arrays.copyOf(distancias, capacidad);
+                hijos = Arrays.copyOf(hijos, capacidad);
+            }
+            distancias[cantidadHijos] = distancia;
+            hijos[cantidadHijos++] = hijo;
+            distanciaMaximaDeHijos = Math.max(distanciaMaximaDeHijos, distancia);
+        }
+    }
+}
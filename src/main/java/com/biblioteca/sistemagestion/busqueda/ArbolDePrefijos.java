@@ -0,0 +1,242 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+final class ArbolDePrefijos {
+
+    static final int SUGERENCIAS_POR_NODO = 10;
+
+    record Entrada(String clave, String texto, int popularidad) {
+    }
+
+    static final Comparator<Entrada> POR_POPULARIDAD = Comparator
+            .comparingInt(Entrada::popularidad).reversed()
+            .thenComparing(Entrada::clave);
+
+    private static final Nodo[] SIN_HIJOS = new Nodo[0];
+    private static final Entrada[] SIN_ENTRADAS = new Entrada[0];
+
+    private final Nodo raiz = new Nodo("");
+    private int cantidadClaves;
+
+    void sumar(String clave, String texto, int delta) {
+        List<Nodo> camino = new ArrayList<>();
+        Nodo nodo = raiz;
+        camino.add(nodo);
+        int posicion = 0;
+        while (posicion < clave.length()) {
+            int indice = nodo.buscarHijo(clave.charAt(posicion));
+            if (indice < 0) {
+                if (delta <= 0) {
+                    return;
+                }
+                Nodo hoja = new Nodo(clave.substring(posicion));
+                nodo.insertarHijo(-indice - 1, hoja);
+                nodo = hoja;
+                camino.add(nodo);
+                break;
+            }
+            Nodo hijo = nodo.hijos[indice];
+            int comunes = prefijoComun(hijo.etiqueta, clave, posicion);
+            if (comunes < hijo.etiqueta.length()) {
+                if (delta <= 0) {
+                    return;
+                }
+                Nodo intermedio = new Nodo(hijo.etiqueta.substring(0, comunes));
+                hijo.etiqueta = hijo.etiqueta.substring(comunes);
+                intermedio.hijos = new Nodo[]{hijo};
+                intermedio.mejores = hijo.mejores;
+                nodo.hijos[indice] = intermedio;
+                hijo = intermedio;
+            }
+            nodo = hijo;
+            camino.add(nodo);
+            posicion += comunes;
+        }
+
+        if (nodo.entrada == null) {
+            if (delta <= 0) {
+                return;
+            }
+            cantidadClaves++;
+            nodo.entrada = new Entrada(clave, texto, delta);
+        } else if (nodo.entrada.popularidad() + delta > 0) {
+            nodo.entrada = new Entrada(nodo.entrada.clave(), nodo.entrada.texto(), nodo.entrada.popularidad() + delta);
+        } else {
+            cantidadClaves--;
+            clave = nodo.entrada.clave();
+            nodo.entrada = null;
+        }
+        if (nodo.entrada != null) {
+            clave = nodo.entrada.clave();
+        }
+
+        Entrada nueva = nodo.entrada;
+        boolean empeora = delta < 0;
+        for (int i = camino.size() - 1; i >= 0; i--) {
+            Nodo actual = camino.get(i);
+            if (i > 0 && actual.entrada == null && actual.hijos.length == 0) {
+                camino.get(i - 1).quitarHijo(actual);
+            } else if (i > 0 && actual.entrada == null && actual.hijos.length == 1) {
+                Nodo unico = actual.hijos[0];
+                unico.etiqueta = actual.etiqueta + unico.etiqueta;
+                camino.get(i - 1).reemplazarHijo(actual, unico);
+            } else {
+                actual.actualizarMejores(clave, nueva, empeora);
+            }
+        }
+    }
+
+    List<Entrada> sugerir(String prefijo, int limite) {
+        Nodo nodo = raiz;
+        int posicion = 0;
+        while (posicion < prefijo.length()) {
+            int indice = nodo.buscarHijo(prefijo.charAt(posicion));
+            if (indice < 0) {
+                return List.of();
+            }
+            Nodo hijo = nodo.hijos[indice];
+            int comunes = prefijoComun(hijo.etiqueta, prefijo, posicion);
+            if (comunes < hijo.etiqueta.length() && posicion + comunes < prefijo.length()) {
+                return List.of();
+            }
+            nodo = hijo;
+            posicion += comunes;
+        }
+        Entrada[] mejores = nodo.mejores;
+        return List.of(Arrays.copyOf(mejores, Math.min(limite, mejores.length)));
+    }
+
+    int cantidadClaves() {
+        return cantidadClaves;
+    }
+
+    private static int prefijoComun(String etiqueta, String texto, int desde) {
+        int limite = Math.min(etiqueta.length(), texto.length() - desde);
+        int i = 0;
+        while (i < limite && etiqueta.charAt(i) == texto.charAt(desde + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Nodo {
+
+        String etiqueta;
+        Nodo[] hijos = SIN_HIJOS;
+        Entrada entrada;
+        Entrada[] mejores = SIN_ENTRADAS;
+
+        Nodo(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+
+        int buscarHijo(char inicial) {
+            int bajo = 0;
+            int alto = hijos.length - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                char actual = hijos[medio].etiqueta.charAt(0);
+                if (actual < inicial) {
+                    bajo = medio + 1;
+                } else if (actual > inicial) {
+                    alto = medio - 1;
+                } else {
+                    return medio;
+                }
+            }
+            return -(bajo + 1);
+        }
+
+        void insertarHijo(int indice, Nodo hijo) {
+            Nodo[] nuevos = new Nodo[hijos.length + 1];
+            System.arraycopy(hijos, 0, nuevos, 0, indice);
+            nuevos[indice] = hijo;
+            System.arraycopy(hijos, indice, nuevos, indice + 1, hijos.length - indice);
+            hijos = nuevos;
+        }
+
+        void quitarHijo(Nodo hijo) {
+            int indice = buscarHijo(hijo.etiqueta.charAt(0));
+            Nodo[] nuevos = new Nodo[hijos.length - 1];
+            System.arraycopy(hijos, 0, nuevos, 0, indice);
+            System.arraycopy(hijos, indice + 1, nuevos, indice, hijos.length - indice - 1);
+            hijos = nuevos;
+        }
+
+        void reemplazarHijo(Nodo anterior, Nodo nuevo) {
+            for (int i = 0; i < hijos.length; i++) {
+                if (hijos[i] == anterior) {
+                    hijos[i] = nuevo;
+                    return;
+                }
+            }
+        }
+
+        // Todas las entradas de una clave comparten la instancia de String del nodo terminal,
+        // por eso alcanza con comparar referencias.
+        void actualizarMejores(String clave, Entrada nueva, boolean empeora) {
+            int indice = -1;
+            for (int i = 0; i < mejores.length; i++) {
+                if (mejores[i].clave() == clave) {
+                    indice = i;
+                    break;
+                }
+            }
+            boolean completo = mejores.length == SUGERENCIAS_POR_NODO;
+            if (indice >= 0 && completo && (nueva == null || empeora)) {
+                recalcularMejores();
+                return;
+            }
+            if (nueva == null) {
+                if (indice >= 0) {
+                    Entrada[] restantes = new Entrada[mejores.length - 1];
+                    System.arraycopy(mejores, 0, restantes, 0, indice);
+                    System.arraycopy(mejores, indice + 1, restantes, indice, restantes.length - indice);
+                    mejores = restantes;
+                }
+                return;
+            }
+            if (indice < 0 && completo && POR_POPULARIDAD.compare(nueva, mejores[mejores.length - 1]) >= 0) {
+                return;
+            }
+
+            int tamanio = indice >= 0 || !completo ? mejores.length + (indice >= 0 ? 0 : 1) : SUGERENCIAS_POR_NODO;
+            Entrada[] actualizadas = new Entrada[tamanio];
+            int destino = 0;
+            boolean insertada = false;
+            for (Entrada entrada : mejores) {
+                if (entrada.clave() == clave) {
+                    continue;
+                }
+                if (!insertada && POR_POPULARIDAD.compare(nueva, entrada) < 0) {
+                    actualizadas[destino++] = nueva;
+                    insertada = true;
+                }
+                if (destino == tamanio) {
+                    break;
+                }
+                actualizadas[destino++] = entrada;
+            }
+            if (!insertada) {
+                actualizadas[destino] = nueva;
+            }
+            mejores = actualizadas;
+        }
+
+        void recalcularMejores() {
+            List<Entrada> candidatas = new ArrayList<>();
+            if (entrada != null) {
+                candidatas.add(entrada);
+            }
+            for (Nodo hijo : hijos) {
+                candidatas.addAll(Arrays.asList(hijo.mejores));
+            }
+            candidatas.sort(POR_POPULARIDAD);
+            mejores = candidatas.subList(0, Math.min(SUGERENCIAS_POR_NODO, candidatas.size())).toArray(SIN_ENTRADAS);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.OyenteDeMutaciones;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+@Component
+public class AutocompletadoDeCatalogo implements OyenteDeMutaciones<Libro> {
+
+    public static final int SUGERENCIAS_MAXIMAS = ArbolDePrefijos.SUGERENCIAS_POR_NODO;
+
+    private static final char SEPARADOR_DE_CLAVE = '\0';
+
+    private final StampedLock lock = new StampedLock();
+    private final ArbolDePrefijos titulos = new ArbolDePrefijos();
+    private final ArbolDePrefijos autores = new ArbolDePrefijos();
+    private final Map<Long, Claves> clavesPorLibro = new HashMap<>();
+
+    public AutocompletadoDeCatalogo(LibroRepository libroRepository) {
+        Objects.requireNonNull(libroRepository, "LibroRepository no puede ser nulo.");
+        libroRepository.agregarOyente(this);
+        guardados(libroRepository.findAll());
+    }
+
+    @Override
+    public void guardado(Libro libro) {
+        Entrada entrada = entradaDe(libro);
+        long sello = lock.writeLock();
+        try {
+            agregar(entrada);
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    @Override
+    public void guardados(List<Libro> libros) {
+        List<Entrada> entradas = new ArrayList<>(libros.size());
+        for (Libro libro : libros) {
+            entradas.add(entradaDe(libro));
+        }
+        long sello = lock.writeLock();
+        try {
+            entradas.forEach(this::agregar);
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    @Override
+    public boolean admiteLotes() {
+        return true;
+    }
+
+    @Override
+    public void estadoCambiado(Libro libro) {
+    }
+
+    @Override
+    public void eliminado(long id) {
+        long sello = lock.writeLock();
+        try {
+            Claves anteriores = clavesPorLibro.remove(id);
+            if (anteriores != null) {
+                restar(anteriores);
+            }
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    public List<Sugerencia> sugerir(String prefijo, int limite) {
+        String clave = NormalizadorDeTexto.clave(prefijo);
+        if (clave.isEmpty() || limite < 1) {
+            return List.of();
+        }
+        List<Sugerencia> sugerencias = new ArrayList<>(limite * 2);
+        long sello = lock.readLock();
+        try {
+            for (ArbolDePrefijos.Entrada entrada : titulos.sugerir(clave, limite)) {
+                sugerencias.add(new Sugerencia(entrada.texto(), TipoDeSugerencia.TITULO, entrada.popularidad()));
+            }
+            Set<String> autoresVistos = new HashSet<>();
+            for (ArbolDePrefijos.Entrada entrada : autores.sugerir(clave, ArbolDePrefijos.SUGERENCIAS_POR_NODO)) {
+                String autorCompleto = entrada.clave().substring(entrada.clave().indexOf(SEPARADOR_DE_CLAVE) + 1);
+                if (autoresVistos.add(autorCompleto) && autoresVistos.size() <= limite) {
+                    sugerencias.add(new Sugerencia(entrada.texto(), TipoDeSugerencia.AUTOR, entrada.popularidad()));
+                }
+            }
+        } finally {
+            lock.unlockRead(sello);
+        }
+        sugerencias.sort(Comparator.comparingInt(Sugerencia::popularidad).reversed());
+        return sugerencias.subList(0, Math.min(limite, sugerencias.size()));
+    }
+
+    private static Entrada entradaDe(Libro libro) {
+        String titulo = libro.getTitulo() == null ? "" : libro.getTitulo().strip();
+        String autor = libro.getAutor() == null ? "" : libro.getAutor().strip();
+        Claves claves = new Claves(NormalizadorDeTexto.clave(titulo), NormalizadorDeTexto.clave(autor));
+        return new Entrada(libro.getId(), titulo, autor, claves);
+    }
+
+    private void agregar(Entrada entrada) {
+        Claves nuevas = entrada.claves();
+        Claves anteriores = clavesPorLibro.put(entrada.id(), nuevas);
+        if (anteriores != null) {
+            restar(anteriores);
+        }
+        if (!nuevas.titulo().isEmpty()) {
+            titulos.sumar(nuevas.titulo(), entrada.titulo(), 1);
+        }
+        for (String clave : clavesDeAutor(nuevas.autor())) {
+            autores.sumar(clave, entrada.autor(), 1);
+        }
+    }
+
+    private void restar(Claves claves) {
+        if (!claves.titulo().isEmpty()) {
+            titulos.sumar(claves.titulo(), null, -1);
+        }
+        for (String clave : clavesDeAutor(claves.autor())) {
+            autores.sumar(clave, null, -1);
+        }
+    }
+
+    private static List<String> clavesDeAutor(String autor) {
+        List<String> claves = new ArrayList<>();
+        if (autor.isEmpty()) {
+            return claves;
+        }
+        int inicio = 0;
+        while (inicio >= 0) {
+            claves.add(autor.substring(inicio) + SEPARADOR_DE_CLAVE + autor);
+            int espacio = autor.indexOf(' ', inicio);
+            inicio = espacio < 0 ? -1 : espacio + 1;
+        }
+        return claves;
+    }
+
+    private record Claves(String titulo, String autor) {
+    }
+
+    private record Entrada(long id, String titulo, String autor, Claves claves) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+public record AutorEncontrado(String autor, int distancia, int libros) {
+}
@@ -0,0 +1,189 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.OyenteDeMutaciones;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+@Component
+public class BuscadorDeAutores implements OyenteDeMutaciones<Libro> {
+
+    public static final int DISTANCIA_MAXIMA = 2;
+
+    private static final Comparator<AutorEncontrado> POR_CERCANIA = Comparator
+            .comparingInt(AutorEncontrado::distancia)
+            .thenComparing(Comparator.comparingInt(AutorEncontrado::libros).reversed())
+            .thenComparing(AutorEncontrado::autor);
+
+    private final StampedLock lock = new StampedLock();
+    private final ArbolBK palabras = new ArbolBK();
+    private final Map<String, Set<String>> autoresPorPalabra = new HashMap<>();
+    private final Map<String, Autor> autores = new HashMap<>();
+    private final Map<Long, String> autorPorLibro = new HashMap<>();
+
+    public BuscadorDeAutores(LibroRepository libroRepository) {
+        Objects.requireNonNull(libroRepository, "LibroRepository no puede ser nulo.");
+        libroRepository.agregarOyente(this);
+        guardados(libroRepository.findAll());
+    }
+
+    @Override
+    public void guardado(Libro libro) {
+        long sello = lock.writeLock();
+        try {
+            agregar(libro);
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    @Override
+    public void guardados(List<Libro> libros) {
+        long sello = lock.writeLock();
+        try {
+            libros.forEach(this::agregar);
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    @Override
+    public boolean admiteLotes() {
+        return true;
+    }
+
+    @Override
+    public void estadoCambiado(Libro libro) {
+    }
+
+    @Override
+    public void eliminado(long id) {
+        long sello = lock.writeLock();
+        try {
+            String anterior = autorPorLibro.remove(id);
+            if (anterior != null) {
+                quitarLibroDeAutor(anterior);
+            }
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    public List<AutorEncontrado> buscar(String nombre, int limite) {
+        List<String> terminos = NormalizadorDeTexto.terminos(nombre);
+        if (terminos.isEmpty() || limite < 1) {
+            return List.of();
+        }
+
+        long sello = lock.readLock();
+        try {
+            Map<String, int[]> distanciasPorAutor = new HashMap<>();
+            for (int t = 0; t < terminos.size(); t++) {
+                String termino = terminos.get(t);
+                for (ArbolBK.Resultado resultado : palabras.buscar(termino, distanciaPermitida(termino))) {
+                    for (String clave : autoresPorPalabra.get(resultado.palabra())) {
+                        int[] distancias = distanciasPorAutor.computeIfAbsent(clave, c -> nuevasDistancias(terminos.size()));
+                        distancias[t] = Math.min(distancias[t], resultado.distancia());
+                    }
+                }
+            }
+
+            List<AutorEncontrado> encontrados = new ArrayList<>();
+            for (Map.Entry<String, int[]> candidato : distanciasPorAutor.entrySet()) {
+                int total = 0;
+                for (int distancia : candidato.getValue()) {
+                    total += distancia;
+                    if (total > DISTANCIA_MAXIMA) {
+                        break;
+                    }
+                }
+                if (total <= DISTANCIA_MAXIMA) {
+                    Autor autor = autores.get(candidato.getKey());
+                    encontrados.add(new AutorEncontrado(autor.texto, total, autor.libros));
+                }
+            }
+            encontrados.sort(POR_CERCANIA);
+            return encontrados.subList(0, Math.min(limite, encontrados.size()));
+        } finally {
+            lock.unlockRead(sello);
+        }
+    }
+
+    private void agregar(Libro libro) {
+        String texto = libro.getAutor() == null ? "" : libro.getAutor().strip();
+        String clave = NormalizadorDeTexto.clave(texto);
+        String anterior = autorPorLibro.put(libro.getId(), clave);
+        if (anterior != null) {
+            quitarLibroDeAutor(anterior);
+        }
+        if (clave.isEmpty()) {
+            autorPorLibro.remove(libro.getId());
+            return;
+        }
+        Autor autor = autores.get(clave);
+        if (autor == null) {
+            autor = new Autor(texto, NormalizadorDeTexto.terminos(texto));
+            autores.put(clave, autor);
+            for (String palabra : autor.palabras) {
+                Set<String> conPalabra = autoresPorPalabra.computeIfAbsent(palabra, p -> new HashSet<>());
+                if (conPalabra.isEmpty()) {
+                    palabras.agregar(palabra);
+                }
+                conPalabra.add(clave);
+            }
+        }
+        autor.libros++;
+    }
+
+    private void quitarLibroDeAutor(String clave) {
+        Autor autor = autores.get(clave);
+        if (--autor.libros > 0) {
+            return;
+        }
+        autores.remove(clave);
+        for (String palabra : autor.palabras) {
+            Set<String> conPalabra = autoresPorPalabra.get(palabra);
+            conPalabra.remove(clave);
+            if (conPalabra.isEmpty()) {
+                autoresPorPalabra.remove(palabra);
+                palabras.desactivar(palabra);
+            }
+        }
+    }
+
+    private static int distanciaPermitida(String termino) {
+        if (termino.length() <= 3) {
+            return 0;
+        }
+        return termino.length() <= 5 ? 1 : DISTANCIA_MAXIMA;
+    }
+
+    private static int[] nuevasDistancias(int cantidad) {
+        int[] distancias = new int[cantidad];
+        Arrays.fill(distancias, DISTANCIA_MAXIMA + 1);
+        return distancias;
+    }
+
+    private static final class Autor {
+
+        final String texto;
+        final List<String> palabras;
+        int libros;
+
+        Autor(String texto, List<String> palabras) {
+            this.texto = texto;
+            this.palabras = palabras.stream().distinct().toList();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+public record Coincidencia(long id, double puntaje) {
+}
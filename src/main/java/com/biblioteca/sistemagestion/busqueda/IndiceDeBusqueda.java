@@ -0,0 +1,278 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.OyenteDeMutaciones;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.StampedLock;
+
+@Component
+public class IndiceDeBusqueda implements OyenteDeMutaciones<Libro> {
+
+    private static final float PESO_TITULO = 2f;
+    private static final float PESO_AUTOR = 1f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Comparator<Coincidencia> POR_RELEVANCIA = Comparator
+            .comparingDouble(Coincidencia::puntaje)
+            .thenComparing(Comparator.comparingLong(Coincidencia::id).reversed());
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, Postings> postingsPorTermino = new HashMap<>();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private long longitudTotal;
+
+    public IndiceDeBusqueda(LibroRepository libroRepository) {
+        Objects.requireNonNull(libroRepository, "LibroRepository no puede ser nulo.");
+        libroRepository.agregarOyente(this);
+        guardados(libroRepository.findAll());
+    }
+
+    @Override
+    public void guardado(Libro libro) {
+        Analizado analizado = analizar(libro);
+        long sello = lock.writeLock();
+        try {
+            indexar(analizado);
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    @Override
+    public void guardados(List<Libro> libros) {
+        List<Analizado> analizados = new ArrayList<>(libros.size());
+        for (Libro libro : libros) {
+            analizados.add(analizar(libro));
+        }
+        long sello = lock.writeLock();
+        try {
+            analizados.forEach(this::indexar);
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    @Override
+    public boolean admiteLotes() {
+        return true;
+    }
+
+    @Override
+    public void estadoCambiado(Libro libro) {
+    }
+
+    @Override
+    public void eliminado(long id) {
+        long sello = lock.writeLock();
+        try {
+            quitarLibro(id);
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    public List<Coincidencia> buscar(String consulta, int limite) {
+        List<String> terminos = NormalizadorDeTexto.terminos(consulta).stream().distinct().toList();
+        if (terminos.isEmpty() || limite < 1) {
+            return List.of();
+        }
+
+        long sello = lock.readLock();
+        try {
+            int cantidadLibros = documentos.size();
+            double longitudMedia = cantidadLibros == 0 ? 1 : (double) longitudTotal / cantidadLibros;
+            List<Termino> encontrados = new ArrayList<>(terminos.size());
+            for (String termino : terminos) {
+                Postings postings = postingsPorTermino.get(termino);
+                if (postings != null) {
+                    double idf = Math.log(1 + (cantidadLibros - postings.tamanio + 0.5) / (postings.tamanio + 0.5));
+                    encontrados.add(new Termino(postings, idf));
+                }
+            }
+            encontrados.sort(Comparator.comparingDouble(Termino::cota));
+            return mejoresCoincidencias(encontrados.toArray(new Termino[0]), longitudMedia, limite);
+        } finally {
+            lock.unlockRead(sello);
+        }
+    }
+
+    private static List<Coincidencia> mejoresCoincidencias(Termino[] terminos, double longitudMedia, int limite) {
+        double[] cotasAcumuladas = new double[terminos.length];
+        double acumulada = 0;
+        for (int i = 0; i < terminos.length; i++) {
+            acumulada += terminos[i].cota();
+            cotasAcumuladas[i] = acumulada;
+        }
+
+        PriorityQueue<Coincidencia> mejores = new PriorityQueue<>(limite + 1, POR_RELEVANCIA);
+        int[] posiciones = new int[terminos.length];
+        double umbral = 0;
+        int primerEsencial = 0;
+        while (primerEsencial < terminos.length) {
+            long candidato = Long.MAX_VALUE;
+            for (int i = primerEsencial; i < terminos.length; i++) {
+                Postings postings = terminos[i].postings();
+                if (posiciones[i] < postings.tamanio) {
+                    candidato = Math.min(candidato, postings.ids[posiciones[i]]);
+                }
+            }
+            if (candidato == Long.MAX_VALUE) {
+                break;
+            }
+
+            double puntaje = 0;
+            for (int i = primerEsencial; i < terminos.length; i++) {
+                Postings postings = terminos[i].postings();
+                if (posiciones[i] < postings.tamanio && postings.ids[posiciones[i]] == candidato) {
+                    puntaje += terminos[i].puntaje(posiciones[i], longitudMedia);
+                    posiciones[i]++;
+                }
+            }
+            for (int i = primerEsencial - 1; i >= 0 && puntaje + cotasAcumuladas[i] > umbral; i--) {
+                Postings postings = terminos[i].postings();
+                posiciones[i] = postings.avanzarHasta(posiciones[i], candidato);
+                if (posiciones[i] < postings.tamanio && postings.ids[posiciones[i]] == candidato) {
+                    puntaje += terminos[i].puntaje(posiciones[i], longitudMedia);
+                }
+            }
+
+            if (mejores.size() < limite) {
+                mejores.add(new Coincidencia(candidato, puntaje));
+            } else if (puntaje > umbral) {
+                mejores.poll();
+                mejores.add(new Coincidencia(candidato, puntaje));
+            } else {
+                continue;
+            }
+            if (mejores.size() == limite) {
+                umbral = mejores.peek().puntaje();
+                while (primerEsencial < terminos.length && cotasAcumuladas[primerEsencial] <= umbral) {
+                    primerEsencial++;
+                }
+            }
+        }
+
+        List<Coincidencia> resultado = new ArrayList<>(mejores);
+        resultado.sort(POR_RELEVANCIA.reversed());
+        return resultado;
+    }
+
+    private static Analizado analizar(Libro libro) {
+        Map<String, Float> frecuencias = new LinkedHashMap<>();
+        int longitud = 0;
+        for (String termino : NormalizadorDeTexto.terminos(libro.getTitulo())) {
+            frecuencias.merge(termino, PESO_TITULO, Float::sum);
+            longitud++;
+        }
+        for (String termino : NormalizadorDeTexto.terminos(libro.getAutor())) {
+            frecuencias.merge(termino, PESO_AUTOR, Float::sum);
+            longitud++;
+        }
+        return new Analizado(libro.getId(), frecuencias, longitud);
+    }
+
+    private void indexar(Analizado analizado) {
+        long id = analizado.id();
+        quitarLibro(id);
+        for (Map.Entry<String, Float> frecuencia : analizado.frecuencias().entrySet()) {
+            postingsPorTermino.computeIfAbsent(frecuencia.getKey(), t -> new Postings())
+                    .agregar(id, frecuencia.getValue(), analizado.longitud());
+        }
+        documentos.put(id, new Documento(analizado.frecuencias().keySet().toArray(new String[0]), analizado.longitud()));
+        longitudTotal += analizado.longitud();
+    }
+
+    private void quitarLibro(long id) {
+        Documento documento = documentos.remove(id);
+        if (documento == null) {
+            return;
+        }
+        longitudTotal -= documento.longitud();
+        for (String termino : documento.terminos()) {
+            Postings postings = postingsPorTermino.get(termino);
+            postings.quitar(id);
+            if (postings.tamanio == 0) {
+                postingsPorTermino.remove(termino);
+            }
+        }
+    }
+
+    private record Documento(String[] terminos, int longitud) {
+    }
+
+    private record Analizado(long id, Map<String, Float> frecuencias, int longitud) {
+    }
+
+    private record Termino(Postings postings, double idf) {
+
+        double cota() {
+            return idf * (K1 + 1);
+        }
+
+        double puntaje(int posicion, double longitudMedia) {
+            double tf = postings.frecuencias[posicion];
+            double normalizacion = 1 - B + B * postings.longitudes[posicion] / longitudMedia;
+            return idf * tf * (K1 + 1) / (tf + K1 * normalizacion);
+        }
+    }
+
+    private static final class Postings {
+
+        long[] ids = new long[4];
+        float[] frecuencias = new float[4];
+        int[] longitudes = new int[4];
+        int tamanio;
+
+        void agregar(long id, float frecuencia, int longitud) {
+            int posicion = tamanio == 0 || ids[tamanio - 1] < id ? tamanio : Arrays.binarySearch(ids, 0, tamanio, id);
+            if (posicion < 0) {
+                posicion = -posicion - 1;
+            }
+            if (tamanio == ids.length) {
+                ids = Arrays.copyOf(ids, tamanio * 2);
+                frecuencias = Arrays.copyOf(frecuencias, tamanio * 2);
+                longitudes = Arrays.copyOf(longitudes, tamanio * 2);
+            }
+            System.arraycopy(ids, posicion, ids, posicion + 1, tamanio - posicion);
+            System.arraycopy(frecuencias, posicion, frecuencias, posicion + 1, tamanio - posicion);
+            System.arraycopy(longitudes, posicion, longitudes, posicion + 1, tamanio - posicion);
+            ids[posicion] = id;
+            frecuencias[posicion] = frecuencia;
+            longitudes[posicion] = longitud;
+            tamanio++;
+        }
+
+        int avanzarHasta(int desde, long id) {
+            int salto = 1;
+            int hasta = desde;
+            while (hasta < tamanio && ids[hasta] < id) {
+                desde = hasta + 1;
+                hasta += salto;
+                salto <<= 1;
+            }
+            int posicion = Arrays.binarySearch(ids, desde, Math.min(hasta + 1, tamanio), id);
+            return posicion < 0 ? -posicion - 1 : posicion;
+        }
+
+        void quitar(long id) {
+            int posicion = Arrays.binarySearch(ids, 0, tamanio, id);
+            int restantes = tamanio - posicion - 1;
+            System.arraycopy(ids, posicion + 1, ids, posicion, restantes);
+            System.arraycopy(frecuencias, posicion + 1, frecuencias, posicion, restantes);
+            System.arraycopy(longitudes, posicion + 1, longitudes, posicion, restantes);
+            tamanio--;
+        }
+    }
+}
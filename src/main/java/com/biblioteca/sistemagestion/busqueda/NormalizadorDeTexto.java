@@ -0,0 +1,70 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+final class NormalizadorDeTexto {
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "la", "las", "lo", "los",
+            "o", "para", "por", "se", "un", "una", "y");
+
+    private NormalizadorDeTexto() {
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 0x80) {
+                String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+                StringBuilder sinMarcas = new StringBuilder(descompuesto.length());
+                for (int j = 0; j < descompuesto.length(); j++) {
+                    char c = descompuesto.charAt(j);
+                    if (!esMarcaDiacritica(c)) {
+                        sinMarcas.append(c);
+                    }
+                }
+                return sinMarcas.toString().toLowerCase(Locale.ROOT);
+            }
+        }
+        return texto.toLowerCase(Locale.ROOT);
+    }
+
+    static String clave(String texto) {
+        return String.join(" ", palabras(texto));
+    }
+
+    static List<String> terminos(String texto) {
+        List<String> terminos = palabras(texto);
+        terminos.removeIf(PALABRAS_VACIAS::contains);
+        return terminos;
+    }
+
+    private static List<String> palabras(String texto) {
+        String normalizado = normalizar(texto);
+        List<String> palabras = new ArrayList<>();
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean esParteDePalabra = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (esParteDePalabra && inicio < 0) {
+                inicio = i;
+            } else if (!esParteDePalabra && inicio >= 0) {
+                palabras.add(normalizado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return palabras;
+    }
+
+    private static boolean esMarcaDiacritica(char c) {
+        int tipo = Character.getType(c);
+        return tipo == Character.NON_SPACING_MARK
+                || tipo == Character.COMBINING_SPACING_MARK
+                || tipo == Character.ENCLOSING_MARK;
+    }
+}
@@ -0,0 +1,4 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+public record Sugerencia(String texto, TipoDeSugerencia tipo, int popularidad) {
+}
@@ -0,0 +1,6 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+public enum TipoDeSugerencia {
+    TITULO,
+    AUTOR
+}
@@ -0,0 +1,79 @@
+package com.biblioteca.sistemagestion.cache;
+
+import com.biblioteca.sistemagestion.dtos.EstadisticasDeCacheDTO;
+import com.biblioteca.sistemagestion.repositorios.OyenteDeMutaciones;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+public class CacheDeLecturas<T> implements OyenteDeMutaciones<T> {
+
+    private final AsyncCache<Long, T> cache;
+    private final Function<T, Long> identificador;
+    private final LongAdder invalidaciones = new LongAdder();
+
+    public CacheDeLecturas(long capacidad, Function<T, Long> identificador) {
+        if (capacidad < 0) {
+            throw new IllegalArgumentException("La capacidad de la caché no puede ser negativa.");
+        }
+        this.identificador = Objects.requireNonNull(identificador, "El identificador no puede ser nulo.");
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(capacidad)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<T> obtener(long id, LongFunction<Optional<T>> cargador) {
+        Objects.requireNonNull(cargador, "El cargador no puede ser nulo.");
+        // La carga corre fuera del mapa de Caffeine: los oyentes invalidan desde dentro de la
+        // sección crítica del repositorio y no deben esperar a una lectura que necesita ese mismo lock.
+        CompletableFuture<T> nueva = new CompletableFuture<>();
+        CompletableFuture<T> futuro = cache.get(id, (clave, executor) -> nueva);
+        if (futuro == nueva) {
+            try {
+                nueva.complete(cargador.apply(id).orElse(null));
+            } catch (RuntimeException | Error e) {
+                nueva.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(futuro.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    public EstadisticasDeCacheDTO estadisticas() {
+        CacheStats stats = cache.synchronous().stats();
+        return new EstadisticasDeCacheDTO(stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount(), invalidaciones.sum(), cache.synchronous().estimatedSize());
+    }
+
+    @Override
+    public void guardado(T entidad) {
+        invalidar(identificador.apply(entidad));
+    }
+
+    @Override
+    public void eliminado(long id) {
+        invalidar(id);
+    }
+
+    private void invalidar(long id) {
+        if (cache.asMap().remove(id) != null) {
+            invalidaciones.increment();
+        }
+    }
+}
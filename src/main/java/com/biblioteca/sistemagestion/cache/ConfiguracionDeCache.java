@@ -0,0 +1,29 @@
+package com.biblioteca.sistemagestion.cache;
+
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ConfiguracionDeCache {
+
+    @Bean
+    public CacheDeLecturas<Libro> cacheDeLibros(LibroRepository libroRepository,
+                                                @Value("${biblioteca.cache.libros.capacidad:10000}") long capacidad) {
+        CacheDeLecturas<Libro> cache = new CacheDeLecturas<>(capacidad, Libro::getId);
+        libroRepository.agregarOyente(cache);
+        return cache;
+    }
+
+    @Bean
+    public CacheDeLecturas<Usuario> cacheDeUsuarios(UsuarioRepository usuarioRepository,
+                                                    @Value("${biblioteca.cache.usuarios.capacidad:10000}") long capacidad) {
+        CacheDeLecturas<Usuario> cache = new CacheDeLecturas<>(capacidad, Usuario::getId);
+        usuarioRepository.agregarOyente(cache);
+        return cache;
+    }
+}
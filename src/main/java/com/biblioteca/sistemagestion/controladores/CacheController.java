@@ -0,0 +1,34 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.biblioteca.sistemagestion.cache.CacheDeLecturas;
+import com.biblioteca.sistemagestion.dtos.EstadisticasDeCacheDTO;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final CacheDeLecturas<Libro> cacheDeLibros;
+    private final CacheDeLecturas<Usuario> cacheDeUsuarios;
+
+    public CacheController(CacheDeLecturas<Libro> cacheDeLibros, CacheDeLecturas<Usuario> cacheDeUsuarios) {
+        this.cacheDeLibros = Objects.requireNonNull(cacheDeLibros, "La caché de libros no puede ser nula.");
+        this.cacheDeUsuarios = Objects.requireNonNull(cacheDeUsuarios, "La caché de usuarios no puede ser nula.");
+    }
+
+    @GetMapping("/estadisticas")
+    public Map<String, EstadisticasDeCacheDTO> obtenerEstadisticas() {
+        Map<String, EstadisticasDeCacheDTO> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("libros", cacheDeLibros.estadisticas());
+        estadisticas.put("usuarios", cacheDeUsuarios.estadisticas());
+        return estadisticas;
+    }
+}
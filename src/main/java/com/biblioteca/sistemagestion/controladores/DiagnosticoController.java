@@ -0,0 +1,28 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.biblioteca.sistemagestion.diagnostico.MonitorDeAnclajes;
+import com.biblioteca.sistemagestion.dtos.InformeDeAnclajesDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/diagnostico")
+public class DiagnosticoController {
+
+    private final ObjectProvider<MonitorDeAnclajes> monitorDeAnclajes;
+
+    public DiagnosticoController(ObjectProvider<MonitorDeAnclajes> monitorDeAnclajes) {
+        this.monitorDeAnclajes = Objects.requireNonNull(monitorDeAnclajes, "El proveedor del monitor no puede ser nulo.");
+    }
+
+    @GetMapping("/anclajes")
+    public ResponseEntity<InformeDeAnclajesDTO> obtenerAnclajes() {
+        MonitorDeAnclajes monitor = monitorDeAnclajes.getIfAvailable();
+        return monitor == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(monitor.informe());
+    }
+}
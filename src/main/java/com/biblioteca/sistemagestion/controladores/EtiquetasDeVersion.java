@@ -0,0 +1,67 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
+import com.biblioteca.sistemagestion.servicios.VersionDeRecurso;
+import com.biblioteca.sistemagestion.servicios.VersionesDelCatalogo;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+final class EtiquetasDeVersion {
+
+    private EtiquetasDeVersion() {
+    }
+
+    static String etiqueta(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    static boolean noModificado(WebRequest request, VersionDeRecurso version) {
+        return request.checkNotModified("\"" + version.etiqueta() + "\"", version.ultimaModificacion().toEpochMilli());
+    }
+
+    static boolean noModificado(ServerWebExchange exchange, VersionDeRecurso version) {
+        return exchange.checkNotModified("\"" + version.etiqueta() + "\"", version.ultimaModificacion());
+    }
+
+    static String etiquetaDeLibro(Long version) {
+        return version == null ? null : "\"" + VersionesDelCatalogo.etiquetaDeLibro(version) + "\"";
+    }
+
+    static Long versionEsperada(String ifMatch) {
+        String contenido = contenidoDeIfMatch(ifMatch);
+        return contenido == null ? null : version(contenido, ifMatch);
+    }
+
+    // Las etiquetas de libro llevan el arranque del proceso: una de otro arranque puede nombrar la misma
+    // versión de un libro distinto, así que no vale como precondición aunque el número coincida.
+    static Long versionEsperadaDeLibro(String ifMatch) {
+        String contenido = contenidoDeIfMatch(ifMatch);
+        if (contenido == null) {
+            return null;
+        }
+        String prefijo = VersionesDelCatalogo.ARRANQUE + "-";
+        if (!contenido.startsWith(prefijo)) {
+            throw new ConflictoDeVersionException("La etiqueta " + ifMatch + " no corresponde a la versión actual del libro.");
+        }
+        return version(contenido.substring(prefijo.length()), ifMatch);
+    }
+
+    private static String contenidoDeIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etiqueta = ifMatch.trim();
+        if (etiqueta.length() < 3 || etiqueta.charAt(0) != '"' || etiqueta.charAt(etiqueta.length() - 1) != '"') {
+            throw new IllegalArgumentException("La cabecera If-Match debe contener una única etiqueta fuerte: " + ifMatch);
+        }
+        return etiqueta.substring(1, etiqueta.length() - 1);
+    }
+
+    private static Long version(String contenido, String ifMatch) {
+        try {
+            return Long.parseLong(contenido);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("La cabecera If-Match no corresponde a una versión válida: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+final class ExportacionNdjson {
+
+    static final int ELEMENTOS_POR_ENVIO = 1000;
+
+    @FunctionalInterface
+    interface Recorrido<T> {
+        void recorrer(Consumer<? super T> accion);
+    }
+
+    private ExportacionNdjson() {
+    }
+
+    static <T> ResponseEntity<StreamingResponseBody> respuesta(ObjectMapper objectMapper, Recorrido<T> recorrido) {
+        ObjectWriter escritor = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody cuerpo = salida -> {
+            try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+                generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                int[] pendientes = {0};
+                recorrido.recorrer(elemento -> {
+                    try {
+                        escritor.writeValue(generador, elemento);
+                        generador.writeRaw('\n');
+                        if (++pendientes[0] == ELEMENTOS_POR_ENVIO) {
+                            generador.flush();
+                            pendientes[0] = 0;
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generador.flush();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(cuerpo);
+    }
+}
@@ -1,6 +1,16 @@
 package com.biblioteca.sistemagestion.controladores;
 
+import com.biblioteca.sistemagestion.busqueda.AutorEncontrado;
+import com.biblioteca.sistemagestion.busqueda.Sugerencia;
+import com.biblioteca.sistemagestion.dtos.InformeDeImportacionDTO;
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.importacion.LectorDeCatalogo;
 import com.biblioteca.sistemagestion.servicios.LibroService;
+import com.biblioteca.sistemagestion.servicios.VersionDeRecurso;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import com.biblioteca.sistemagestion.modelo.Libro;
@@ -11,39 +21,90 @@ import org.springframework.web.bind.annotation.PathVariable;
 import java.util.Optional;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.net.URI;
 import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import com.biblioteca.sistemagestion.excepciones.LibroNoEncontradoException;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/libros")
 public class LibroController {
 
     private final LibroService libroService;
+    private final ObjectMapper objectMapper;
 
-    public LibroController(LibroService libroService) {
+    public LibroController(LibroService libroService, ObjectMapper objectMapper) {
         this.libroService = Objects.requireNonNull(libroService, "LibroService no puede ser nulo.");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "ObjectMapper no puede ser nulo.");
     }
 
-    @GetMapping
-    public List<Libro> obtenerTodos() {
-
+    @GetMapping(params = {"!limite", "!cursor", "!orden"})
+    public List<Libro> obtenerTodos(WebRequest request) {
+        if (EtiquetasDeVersion.noModificado(request, libroService.obtenerVersionDelCatalogo())) {
+            return null;
+        }
         return libroService.obtenerTodosLosLibros();
     }
 
+    @GetMapping(params = {"!limite", "!cursor", "!orden"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return ExportacionNdjson.<Libro>respuesta(objectMapper, libroService::recorrerLibros);
+    }
+
+    @GetMapping("/busqueda")
+    public List<Libro> buscar(@RequestParam String q, @RequestParam(required = false) Integer limite) {
+        return libroService.buscarLibros(q, limite);
+    }
+
+    @GetMapping("/sugerencias")
+    public List<Sugerencia> sugerir(@RequestParam String prefijo, @RequestParam(required = false) Integer limite) {
+        return libroService.sugerir(prefijo, limite);
+    }
+
+    @GetMapping("/autores")
+    public List<AutorEncontrado> buscarAutores(@RequestParam String nombre,
+                                               @RequestParam(required = false) Integer limite) {
+        return libroService.buscarAutores(nombre, limite);
+    }
+
+    @GetMapping
+    public PaginaDTO<Libro> obtenerPagina(@RequestParam(required = false) Integer limite,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) String orden,
+                                          WebRequest request) {
+        if (EtiquetasDeVersion.noModificado(request, libroService.obtenerVersionDelCatalogo())) {
+            return null;
+        }
+        return libroService.obtenerPaginaDeLibros(cursor, limite, orden);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Libro> obtenerLibroPorId(@PathVariable Long id) {
+    public ResponseEntity<Libro> obtenerLibroPorId(@PathVariable Long id, WebRequest request) {
+        Optional<VersionDeRecurso> version = libroService.obtenerVersionDeLibro(id);
+        if (version.isPresent() && EtiquetasDeVersion.noModificado(request, version.get())) {
+            return null;
+        }
         Optional<Libro> libroOptional = libroService.obtenerLibroPorId(id);
 
         if (libroOptional.isPresent()) {
-            return ResponseEntity.ok(libroOptional.get());
+            Libro libro = libroOptional.get();
+            return ResponseEntity.ok().eTag(EtiquetasDeVersion.etiquetaDeLibro(libro.getVersion())).body(libro);
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -59,10 +120,25 @@ public class LibroController {
         return ResponseEntity.created(location).body(libroCreado);
     }
 
+    @PostMapping(value = "/importacion", consumes = "text/csv")
+    public InformeDeImportacionDTO importarCsv(InputStream cuerpo) throws IOException {
+        try (Reader lector = new InputStreamReader(cuerpo, StandardCharsets.UTF_8)) {
+            return libroService.importarLibros(LectorDeCatalogo.desdeCsv(lector));
+        }
+    }
+
+    @PostMapping(value = "/importacion", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public InformeDeImportacionDTO importarNdjson(InputStream cuerpo) throws IOException {
+        try (Reader lector = new InputStreamReader(cuerpo, StandardCharsets.UTF_8)) {
+            return libroService.importarLibros(LectorDeCatalogo.desdeNdjson(lector, objectMapper));
+        }
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Libro> actualizarLibro(@PathVariable Long id, @RequestBody Libro libroDetails) {
-        Libro libroActualizado = libroService.actualizarLibro(id, libroDetails);
-        return ResponseEntity.ok(libroActualizado);
+    public ResponseEntity<Libro> actualizarLibro(@PathVariable Long id, @RequestBody Libro libroDetails,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Libro libroActualizado = libroService.actualizarLibro(id, libroDetails, EtiquetasDeVersion.versionEsperadaDeLibro(ifMatch));
+        return ResponseEntity.ok().eTag(EtiquetasDeVersion.etiquetaDeLibro(libroActualizado.getVersion())).body(libroActualizado);
     }
 
     @DeleteMapping("/{id}")
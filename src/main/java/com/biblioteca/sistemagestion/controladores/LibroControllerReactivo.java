@@ -0,0 +1,145 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.biblioteca.sistemagestion.busqueda.AutorEncontrado;
+import com.biblioteca.sistemagestion.busqueda.Sugerencia;
+import com.biblioteca.sistemagestion.dtos.InformeDeImportacionDTO;
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.importacion.FilaDeImportacion;
+import com.biblioteca.sistemagestion.importacion.LectorDeCatalogo;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.servicios.LibroServiceReactivo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Function;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/libros")
+public class LibroControllerReactivo {
+
+    static final int BUFFERES_POR_DEMANDA = 16;
+
+    private final LibroServiceReactivo libroService;
+    private final ObjectMapper objectMapper;
+
+    public LibroControllerReactivo(LibroServiceReactivo libroService, ObjectMapper objectMapper) {
+        this.libroService = Objects.requireNonNull(libroService, "LibroServiceReactivo no puede ser nulo.");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "ObjectMapper no puede ser nulo.");
+    }
+
+    @GetMapping(params = {"!limite", "!cursor", "!orden"},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<Libro>>> obtenerTodos(ServerWebExchange exchange) {
+        return libroService.obtenerVersionDelCatalogo()
+                .map(version -> EtiquetasDeVersion.noModificado(exchange, version)
+                        ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).<Flux<Libro>>build()
+                        : ResponseEntity.ok(libroService.obtenerTodosLosLibros()));
+    }
+
+    @GetMapping("/busqueda")
+    public Flux<Libro> buscar(@RequestParam String q, @RequestParam(required = false) Integer limite) {
+        return libroService.buscarLibros(q, limite);
+    }
+
+    @GetMapping("/sugerencias")
+    public Flux<Sugerencia> sugerir(@RequestParam String prefijo, @RequestParam(required = false) Integer limite) {
+        return libroService.sugerir(prefijo, limite);
+    }
+
+    @GetMapping("/autores")
+    public Flux<AutorEncontrado> buscarAutores(@RequestParam String nombre,
+                                               @RequestParam(required = false) Integer limite) {
+        return libroService.buscarAutores(nombre, limite);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<PaginaDTO<Libro>>> obtenerPagina(@RequestParam(required = false) Integer limite,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) String orden,
+                                                                ServerWebExchange exchange) {
+        return libroService.obtenerVersionDelCatalogo()
+                .flatMap(version -> EtiquetasDeVersion.noModificado(exchange, version)
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<PaginaDTO<Libro>>build())
+                        : libroService.obtenerPaginaDeLibros(cursor, limite, orden).map(ResponseEntity::ok));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Libro>> obtenerLibroPorId(@PathVariable Long id, ServerWebExchange exchange) {
+        return libroService.obtenerVersionDeLibro(id)
+                .map(version -> EtiquetasDeVersion.noModificado(exchange, version))
+                .defaultIfEmpty(false)
+                .flatMap(noModificado -> noModificado
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<Libro>build())
+                        : libroService.obtenerLibroPorId(id)
+                                .map(libro -> ResponseEntity.ok().eTag(EtiquetasDeVersion.etiquetaDeLibro(libro.getVersion())).body(libro))
+                                .defaultIfEmpty(ResponseEntity.notFound().build()));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Libro>> crearLibro(@RequestBody Libro libro, ServerWebExchange exchange) {
+        return libroService.crearLibro(libro).map(libroCreado -> {
+            URI location = UriComponentsBuilder
+                    .fromUri(exchange.getRequest().getURI()).path("/{id}")
+                    .buildAndExpand(libroCreado.getId()).toUri();
+            return ResponseEntity.created(location).body(libroCreado);
+        });
+    }
+
+    @PostMapping(value = "/importacion", consumes = "text/csv")
+    public Mono<InformeDeImportacionDTO> importarCsv(@RequestBody Flux<DataBuffer> cuerpo) {
+        return libroService.importarLibros(filas(cuerpo, LectorDeCatalogo::desdeCsv));
+    }
+
+    @PostMapping(value = "/importacion", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<InformeDeImportacionDTO> importarNdjson(@RequestBody Flux<DataBuffer> cuerpo) {
+        return libroService.importarLibros(filas(cuerpo, lector -> LectorDeCatalogo.desdeNdjson(lector, objectMapper)));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Libro>> actualizarLibro(@PathVariable Long id, @RequestBody Libro libroDetails,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return libroService.actualizarLibro(id, libroDetails, EtiquetasDeVersion.versionEsperadaDeLibro(ifMatch))
+                .map(libroActualizado -> ResponseEntity.ok()
+                        .eTag(EtiquetasDeVersion.etiquetaDeLibro(libroActualizado.getVersion())).body(libroActualizado));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> eliminarLibro(@PathVariable Long id) {
+        return libroService.eliminarLibro(id).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    // El cuerpo se lee como flujo bloqueante desde el hilo del servicio que consume las filas, pidiendo buferes a demanda
+    private static Flux<FilaDeImportacion> filas(Flux<DataBuffer> cuerpo, Function<Reader, Iterator<FilaDeImportacion>> lectura) {
+        return Flux.using(
+                () -> new InputStreamReader(DataBufferUtils.subscriberInputStream(cuerpo, BUFFERES_POR_DEMANDA),
+                        StandardCharsets.UTF_8),
+                lector -> Flux.fromIterable(() -> lectura.apply(lector)),
+                lector -> {
+                    try {
+                        lector.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+}
@@ -1,8 +1,16 @@
 package com.biblioteca.sistemagestion.controladores;
 
+import com.biblioteca.sistemagestion.dtos.DevolucionEnLoteRequestDTO;
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.dtos.PrestamoEnLoteRequestDTO;
 import com.biblioteca.sistemagestion.dtos.PrestamoRequestDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDeDevolucionDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDePrestamoDTO;
 import com.biblioteca.sistemagestion.modelo.Prestamo;
 import com.biblioteca.sistemagestion.servicios.PrestamoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import com.biblioteca.sistemagestion.excepciones.LibroNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoNoDisponibleException;
@@ -10,6 +18,7 @@ import com.biblioteca.sistemagestion.excepciones.PrestamoNoEncontradoException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -19,13 +28,16 @@ import java.util.Objects;
 import java.util.Optional;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/prestamos")
 public class PrestamoController {
 
     private final PrestamoService prestamoService;
+    private final ObjectMapper objectMapper;
 
-    public PrestamoController(PrestamoService prestamoService) {
+    public PrestamoController(PrestamoService prestamoService, ObjectMapper objectMapper) {
         this.prestamoService = Objects.requireNonNull(prestamoService, "PrestamoService no puede ser nulo.");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "ObjectMapper no puede ser nulo.");
     }
 
     @PostMapping
@@ -42,6 +54,17 @@ public class PrestamoController {
         return ResponseEntity.created(location).body(prestamoCreado);
     }
 
+    @PostMapping("/lote")
+    public ResponseEntity<List<ResultadoDePrestamoDTO>> realizarPrestamos(@RequestBody PrestamoEnLoteRequestDTO requestDTO)
+            throws UsuarioNoEncontradoException, IllegalArgumentException {
+        List<ResultadoDePrestamoDTO> resultados = prestamoService.realizarPrestamos(
+                requestDTO.usuarioId(),
+                requestDTO.librosIds(),
+                requestDTO.fechaDevolucionSugerida()
+        );
+        return ResponseEntity.ok(resultados);
+    }
+
     @PostMapping("/{prestamoId}/devolver")
     public ResponseEntity<Prestamo> registrarDevolucion(@PathVariable Long prestamoId)
             throws PrestamoNoEncontradoException, IllegalStateException {
@@ -49,11 +72,36 @@ public class PrestamoController {
         return ResponseEntity.ok(prestamoDevuelto);
     }
 
-    @GetMapping
+    @PostMapping("/devoluciones")
+    public ResponseEntity<List<ResultadoDeDevolucionDTO>> registrarDevoluciones(@RequestBody DevolucionEnLoteRequestDTO requestDTO)
+            throws IllegalArgumentException {
+        boolean porPrestamo = requestDTO.prestamosIds() != null;
+        if (porPrestamo == (requestDTO.librosIds() != null)) {
+            throw new IllegalArgumentException("Debe indicarse exactamente una de las listas prestamosIds o librosIds.");
+        }
+        List<ResultadoDeDevolucionDTO> resultados = porPrestamo
+                ? prestamoService.registrarDevoluciones(requestDTO.prestamosIds())
+                : prestamoService.registrarDevolucionesPorLibro(requestDTO.librosIds());
+        return ResponseEntity.ok(resultados);
+    }
+
+    @GetMapping(params = {"!limite", "!cursor", "!orden"})
     public List<Prestamo> obtenerTodosLosPrestamos() {
         return prestamoService.obtenerTodosLosPrestamos();
     }
 
+    @GetMapping(params = {"!limite", "!cursor", "!orden"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarPrestamos() {
+        return ExportacionNdjson.<Prestamo>respuesta(objectMapper, prestamoService::recorrerPrestamos);
+    }
+
+    @GetMapping
+    public PaginaDTO<Prestamo> obtenerPaginaDePrestamos(@RequestParam(required = false) Integer limite,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) String orden) {
+        return prestamoService.obtenerPaginaDePrestamos(cursor, limite, orden);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Prestamo> obtenerPrestamoPorId(@PathVariable Long id) {
         Optional<Prestamo> prestamoOptional = prestamoService.obtenerPrestamoPorId(id);
@@ -73,4 +121,11 @@ public class PrestamoController {
         List<Prestamo> prestamos = prestamoService.obtenerPrestamosPorLibro(libroId);
         return ResponseEntity.ok(prestamos);
     }
+
+    @GetMapping("/libro/{libroId}/activo")
+    public ResponseEntity<Prestamo> obtenerPrestamoActivoPorLibro(@PathVariable Long libroId) {
+        return prestamoService.obtenerPrestamoActivoPorLibro(libroId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.biblioteca.sistemagestion.dtos.DevolucionEnLoteRequestDTO;
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.dtos.PrestamoEnLoteRequestDTO;
+import com.biblioteca.sistemagestion.dtos.PrestamoRequestDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDeDevolucionDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDePrestamoDTO;
+import com.biblioteca.sistemagestion.modelo.Prestamo;
+import com.biblioteca.sistemagestion.servicios.PrestamoServiceReactivo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Objects;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/prestamos")
+public class PrestamoControllerReactivo {
+
+    private final PrestamoServiceReactivo prestamoService;
+
+    public PrestamoControllerReactivo(PrestamoServiceReactivo prestamoService) {
+        this.prestamoService = Objects.requireNonNull(prestamoService, "PrestamoServiceReactivo no puede ser nulo.");
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Prestamo>> realizarPrestamo(@RequestBody PrestamoRequestDTO requestDTO,
+                                                           ServerWebExchange exchange) {
+        return prestamoService.realizarPrestamo(
+                requestDTO.libroId(),
+                requestDTO.usuarioId(),
+                requestDTO.fechaDevolucionSugerida()
+        ).map(prestamoCreado -> {
+            URI location = UriComponentsBuilder
+                    .fromUri(exchange.getRequest().getURI()).path("/{id}")
+                    .buildAndExpand(prestamoCreado.getId()).toUri();
+            return ResponseEntity.created(location).body(prestamoCreado);
+        });
+    }
+
+    @PostMapping("/lote")
+    public Flux<ResultadoDePrestamoDTO> realizarPrestamos(@RequestBody PrestamoEnLoteRequestDTO requestDTO) {
+        return prestamoService.realizarPrestamos(
+                requestDTO.usuarioId(),
+                requestDTO.librosIds(),
+                requestDTO.fechaDevolucionSugerida()
+        );
+    }
+
+    @PostMapping("/{prestamoId}/devolver")
+    public Mono<Prestamo> registrarDevolucion(@PathVariable Long prestamoId) {
+        return prestamoService.registrarDevolucion(prestamoId);
+    }
+
+    @PostMapping("/devoluciones")
+    public Flux<ResultadoDeDevolucionDTO> registrarDevoluciones(@RequestBody DevolucionEnLoteRequestDTO requestDTO) {
+        boolean porPrestamo = requestDTO.prestamosIds() != null;
+        if (porPrestamo == (requestDTO.librosIds() != null)) {
+            throw new IllegalArgumentException("Debe indicarse exactamente una de las listas prestamosIds o librosIds.");
+        }
+        return porPrestamo
+                ? prestamoService.registrarDevoluciones(requestDTO.prestamosIds())
+                : prestamoService.registrarDevolucionesPorLibro(requestDTO.librosIds());
+    }
+
+    @GetMapping(params = {"!limite", "!cursor", "!orden"},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Prestamo> obtenerTodosLosPrestamos() {
+        return prestamoService.obtenerTodosLosPrestamos();
+    }
+
+    @GetMapping
+    public Mono<PaginaDTO<Prestamo>> obtenerPaginaDePrestamos(@RequestParam(required = false) Integer limite,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) String orden) {
+        return prestamoService.obtenerPaginaDePrestamos(cursor, limite, orden);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Prestamo>> obtenerPrestamoPorId(@PathVariable Long id) {
+        return prestamoService.obtenerPrestamoPorId(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/usuario/{usuarioId}")
+    public Flux<Prestamo> obtenerPrestamosPorUsuario(@PathVariable Long usuarioId) {
+        return prestamoService.obtenerPrestamosPorUsuario(usuarioId);
+    }
+
+    @GetMapping("/libro/{libroId}")
+    public Flux<Prestamo> obtenerPrestamosPorLibro(@PathVariable Long libroId) {
+        return prestamoService.obtenerPrestamosPorLibro(libroId);
+    }
+
+    @GetMapping("/libro/{libroId}/activo")
+    public Mono<ResponseEntity<Prestamo>> obtenerPrestamoActivoPorLibro(@PathVariable Long libroId) {
+        return prestamoService.obtenerPrestamoActivoPorLibro(libroId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -1,9 +1,13 @@
 package com.biblioteca.sistemagestion.controladores;
 
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
 import com.biblioteca.sistemagestion.modelo.Usuario;
 import com.biblioteca.sistemagestion.servicios.UsuarioService;
 import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +19,7 @@ import java.util.Objects;
 import java.util.Optional;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/usuarios")
 public class UsuarioController {
 
@@ -24,16 +29,23 @@ public class UsuarioController {
         this.usuarioService = Objects.requireNonNull(usuarioService, "UsuarioService no puede ser nulo.");
     }
 
-    @GetMapping
+    @GetMapping(params = {"!limite", "!cursor", "!orden"})
     public List<Usuario> obtenerTodosLosUsuarios() {
         return usuarioService.obtenerTodosLosUsuarios();
     }
 
+    @GetMapping
+    public PaginaDTO<Usuario> obtenerPaginaDeUsuarios(@RequestParam(required = false) Integer limite,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) String orden) {
+        return usuarioService.obtenerPaginaDeUsuarios(cursor, limite, orden);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Usuario> obtenerUsuarioPorId(@PathVariable Long id) {
         Optional<Usuario> usuarioOptional = usuarioService.obtenerUsuarioPorId(id);
         return usuarioOptional
-                .map(ResponseEntity::ok)
+                .map(usuario -> ResponseEntity.ok().eTag(EtiquetasDeVersion.etiqueta(usuario.getVersion())).body(usuario))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -48,10 +60,12 @@ public class UsuarioController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Usuario> actualizarUsuario(@PathVariable Long id, @RequestBody Usuario usuarioDetails)
-            throws UsuarioNoEncontradoException, RecursoDuplicadoException, IllegalArgumentException {
-        Usuario usuarioActualizado = usuarioService.actualizarUsuario(id, usuarioDetails);
-        return ResponseEntity.ok(usuarioActualizado);
+    public ResponseEntity<Usuario> actualizarUsuario(@PathVariable Long id, @RequestBody Usuario usuarioDetails,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws UsuarioNoEncontradoException, RecursoDuplicadoException, IllegalArgumentException, ConflictoDeVersionException {
+        Usuario usuarioActualizado = usuarioService.actualizarUsuario(id, usuarioDetails,
+                EtiquetasDeVersion.versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(EtiquetasDeVersion.etiqueta(usuarioActualizado.getVersion())).body(usuarioActualizado);
     }
 
     @DeleteMapping("/{id}")
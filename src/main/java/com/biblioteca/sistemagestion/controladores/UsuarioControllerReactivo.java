@@ -0,0 +1,72 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import com.biblioteca.sistemagestion.servicios.UsuarioServiceReactivo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Objects;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/usuarios")
+public class UsuarioControllerReactivo {
+
+    private final UsuarioServiceReactivo usuarioService;
+
+    public UsuarioControllerReactivo(UsuarioServiceReactivo usuarioService) {
+        this.usuarioService = Objects.requireNonNull(usuarioService, "UsuarioServiceReactivo no puede ser nulo.");
+    }
+
+    @GetMapping(params = {"!limite", "!cursor", "!orden"},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Usuario> obtenerTodosLosUsuarios() {
+        return usuarioService.obtenerTodosLosUsuarios();
+    }
+
+    @GetMapping
+    public Mono<PaginaDTO<Usuario>> obtenerPaginaDeUsuarios(@RequestParam(required = false) Integer limite,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) String orden) {
+        return usuarioService.obtenerPaginaDeUsuarios(cursor, limite, orden);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Usuario>> obtenerUsuarioPorId(@PathVariable Long id) {
+        return usuarioService.obtenerUsuarioPorId(id)
+                .map(usuario -> ResponseEntity.ok().eTag(EtiquetasDeVersion.etiqueta(usuario.getVersion())).body(usuario))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Usuario>> crearUsuario(@RequestBody Usuario usuario, ServerWebExchange exchange) {
+        return usuarioService.crearUsuario(usuario).map(usuarioCreado -> {
+            URI location = UriComponentsBuilder
+                    .fromUri(exchange.getRequest().getURI()).path("/{id}")
+                    .buildAndExpand(usuarioCreado.getId()).toUri();
+            return ResponseEntity.created(location).body(usuarioCreado);
+        });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Usuario>> actualizarUsuario(@PathVariable Long id, @RequestBody Usuario usuarioDetails,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return usuarioService.actualizarUsuario(id, usuarioDetails, EtiquetasDeVersion.versionEsperada(ifMatch))
+                .map(usuarioActualizado -> ResponseEntity.ok()
+                        .eTag(EtiquetasDeVersion.etiqueta(usuarioActualizado.getVersion())).body(usuarioActualizado));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> eliminarUsuario(@PathVariable Long id) {
+        return usuarioService.eliminarUsuario(id).thenReturn(ResponseEntity.noContent().build());
+    }
+}
@@ -0,0 +1,98 @@
+package com.biblioteca.sistemagestion.diagnostico;
+
+import com.biblioteca.sistemagestion.dtos.AnclajeDTO;
+import com.biblioteca.sistemagestion.dtos.InformeDeAnclajesDTO;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@ConditionalOnProperty(name = "biblioteca.diagnostico.anclajes.habilitado", havingValue = "true")
+public class MonitorDeAnclajes implements AutoCloseable {
+
+    static final String EVENTO = "jdk.VirtualThreadPinned";
+    static final int RECIENTES_MAXIMOS = 20;
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorDeAnclajes.class);
+    private static final String PAQUETE_DE_LA_APLICACION = "com.biblioteca.";
+
+    private final RecordingStream flujo = new RecordingStream();
+    private final LongAdder eventos = new LongAdder();
+    private final LongAdder nanosAnclados = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<AnclajeDTO> recientes = new ArrayDeque<>(RECIENTES_MAXIMOS);
+
+    public MonitorDeAnclajes(@Value("${biblioteca.diagnostico.anclajes.umbral-ms:20}") long umbralMs) {
+        if (umbralMs < 0) {
+            throw new IllegalArgumentException("El umbral de anclaje no puede ser negativo.");
+        }
+        flujo.enable(EVENTO).withThreshold(Duration.ofMillis(umbralMs)).withStackTrace();
+        flujo.onEvent(EVENTO, this::registrar);
+        flujo.startAsync();
+    }
+
+    public InformeDeAnclajesDTO informe() {
+        List<AnclajeDTO> copia;
+        lock.lock();
+        try {
+            copia = new ArrayList<>(recientes);
+        } finally {
+            lock.unlock();
+        }
+        return new InformeDeAnclajesDTO(eventos.sum(), nanosAnclados.sum() / 1e6, copia);
+    }
+
+    @Override
+    public void close() {
+        flujo.close();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        long nanos = evento.getDuration().toNanos();
+        AnclajeDTO anclaje = new AnclajeDTO(evento.getStartTime(),
+                evento.getThread() == null ? null : evento.getThread().getJavaName(),
+                nanos / 1e6, marcoResponsable(evento.getStackTrace()));
+        log.warn("Hilo virtual anclado a su portador durante {} ms en {}", anclaje.milisegundos(), anclaje.marco());
+
+        lock.lock();
+        try {
+            if (recientes.size() == RECIENTES_MAXIMOS) {
+                recientes.removeLast();
+            }
+            recientes.addFirst(anclaje);
+        } finally {
+            lock.unlock();
+        }
+        nanosAnclados.add(nanos);
+        eventos.increment();
+    }
+
+    private static String marcoResponsable(RecordedStackTrace pila) {
+        if (pila == null || pila.getFrames().isEmpty()) {
+            return null;
+        }
+        RecordedFrame responsable = pila.getFrames().get(0);
+        for (RecordedFrame marco : pila.getFrames()) {
+            if (marco.isJavaFrame() && marco.getMethod().getType().getName().startsWith(PAQUETE_DE_LA_APLICACION)) {
+                responsable = marco;
+                break;
+            }
+        }
+        return responsable.getMethod().getType().getName() + "." + responsable.getMethod().getName()
+                + ":" + responsable.getLineNumber();
+    }
+}
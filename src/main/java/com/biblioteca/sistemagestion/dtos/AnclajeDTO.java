@@ -0,0 +1,10 @@
+package com.biblioteca.sistemagestion.dtos;
+
+import java.time.Instant;
+
+public record AnclajeDTO(
+        Instant instante,
+        String hilo,
+        double milisegundos,
+        String marco
+) {}
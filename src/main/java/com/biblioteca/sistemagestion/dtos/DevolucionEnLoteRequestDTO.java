@@ -0,0 +1,8 @@
+package com.biblioteca.sistemagestion.dtos;
+
+import java.util.List;
+
+public record DevolucionEnLoteRequestDTO(
+        List<Long> prestamosIds,
+        List<Long> librosIds
+) {}
@@ -0,0 +1,7 @@
+package com.biblioteca.sistemagestion.dtos;
+
+public record ErrorDeImportacionDTO(
+        long fila,
+        String isbn,
+        String mensaje
+) {}
@@ -0,0 +1,10 @@
+package com.biblioteca.sistemagestion.dtos;
+
+public record EstadisticasDeCacheDTO(
+        long aciertos,
+        long fallos,
+        double tasaDeAciertos,
+        long desalojos,
+        long invalidaciones,
+        long tamanioEstimado
+) {}
@@ -0,0 +1,9 @@
+package com.biblioteca.sistemagestion.dtos;
+
+import java.util.List;
+
+public record InformeDeAnclajesDTO(
+        long eventos,
+        double milisegundosAnclados,
+        List<AnclajeDTO> recientes
+) {}
@@ -0,0 +1,9 @@
+package com.biblioteca.sistemagestion.dtos;
+
+import java.util.List;
+
+public record InformeDeImportacionDTO(
+        long filasProcesadas,
+        long librosImportados,
+        List<ErrorDeImportacionDTO> errores
+) {}
@@ -0,0 +1,10 @@
+package com.biblioteca.sistemagestion.dtos;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record PrestamoEnLoteRequestDTO(
+        Long usuarioId,
+        List<Long> librosIds,
+        LocalDate fechaDevolucionSugerida
+) {}
@@ -0,0 +1,15 @@
+package com.biblioteca.sistemagestion.dtos;
+
+public record ResultadoDeDevolucionDTO(
+        Long id,
+        Estado estado
+) {
+
+    public enum Estado {
+        DEVUELTO,
+        NO_ENCONTRADO,
+        SIN_LIBRO,
+        REPETIDO,
+        YA_DEVUELTO
+    }
+}
@@ -0,0 +1,16 @@
+package com.biblioteca.sistemagestion.dtos;
+
+public record ResultadoDePrestamoDTO(
+        Long libroId,
+        Long prestamoId,
+        String error
+) {
+
+    public static ResultadoDePrestamoDTO exitoso(Long libroId, Long prestamoId) {
+        return new ResultadoDePrestamoDTO(libroId, prestamoId, null);
+    }
+
+    public static ResultadoDePrestamoDTO fallido(Long libroId, String error) {
+        return new ResultadoDePrestamoDTO(libroId, null, error);
+    }
+}
@@ -0,0 +1,7 @@
+package com.biblioteca.sistemagestion.excepciones;
+
+public class ConflictoDeVersionException extends RuntimeException {
+    public ConflictoDeVersionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.biblioteca.sistemagestion.importacion;
+
+import com.biblioteca.sistemagestion.modelo.Libro;
+
+public record FilaDeImportacion(long numero, Libro libro, String error) {
+
+    static FilaDeImportacion valida(long numero, Libro libro) {
+        return new FilaDeImportacion(numero, libro, null);
+    }
+
+    static FilaDeImportacion invalida(long numero, Libro libro, String error) {
+        return new FilaDeImportacion(numero, libro, error);
+    }
+}
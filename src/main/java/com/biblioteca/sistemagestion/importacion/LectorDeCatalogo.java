@@ -0,0 +1,236 @@
+package com.biblioteca.sistemagestion.importacion;
+
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+public final class LectorDeCatalogo {
+
+    private static final List<String> COLUMNAS = List.of("isbn", "titulo", "autor", "estado");
+    private static final int[] POSICIONES_POR_DEFECTO = {0, 1, 2, 3};
+
+    private LectorDeCatalogo() {
+    }
+
+    public static Iterator<FilaDeImportacion> desdeCsv(Reader lector) {
+        LectorCsv csv = new LectorCsv(lector instanceof BufferedReader ? lector : new BufferedReader(lector));
+        return new Filas() {
+            private int[] columnas;
+            private long numero;
+
+            @Override
+            FilaDeImportacion leerSiguiente() {
+                List<String> campos;
+                do {
+                    campos = csv.leerRegistro();
+                    numero++;
+                    if (campos != null && columnas == null) {
+                        columnas = POSICIONES_POR_DEFECTO;
+                        if (esEncabezado(campos)) {
+                            columnas = columnasDeEncabezado(campos);
+                            campos = List.of("");
+                        }
+                    }
+                } while (campos != null && campos.size() == 1 && campos.get(0).isBlank());
+                if (campos == null) {
+                    return null;
+                }
+                return convertir(numero, campo(campos, columnas[0]), campo(campos, columnas[1]),
+                        campo(campos, columnas[2]), campo(campos, columnas[3]));
+            }
+        };
+    }
+
+    public static Iterator<FilaDeImportacion> desdeNdjson(Reader lector, ObjectMapper objectMapper) {
+        BufferedReader lineas = lector instanceof BufferedReader buffered ? buffered : new BufferedReader(lector);
+        ObjectReader lectorJson = objectMapper.readerFor(RegistroJson.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return new Filas() {
+            private long numero;
+
+            @Override
+            FilaDeImportacion leerSiguiente() {
+                String linea;
+                do {
+                    linea = leerLinea(lineas);
+                    numero++;
+                } while (linea != null && linea.isBlank());
+                if (linea == null) {
+                    return null;
+                }
+                try {
+                    RegistroJson registro = lectorJson.readValue(linea);
+                    return convertir(numero, registro.isbn(), registro.titulo(), registro.autor(), registro.estado());
+                } catch (JsonProcessingException e) {
+                    return FilaDeImportacion.invalida(numero, null, "JSON inválido: " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    private static FilaDeImportacion convertir(long numero, String isbn, String titulo, String autor, String estado) {
+        Libro libro = new Libro(null, recortar(isbn), recortar(titulo), recortar(autor), null);
+        String estadoRecortado = recortar(estado);
+        if (estadoRecortado != null && !estadoRecortado.isEmpty()) {
+            try {
+                libro.setEstado(EstadoLibro.valueOf(estadoRecortado.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return FilaDeImportacion.invalida(numero, libro, "Estado de libro desconocido: " + estado);
+            }
+        }
+        return FilaDeImportacion.valida(numero, libro);
+    }
+
+    private static boolean esEncabezado(List<String> campos) {
+        boolean conIsbn = false;
+        for (String campo : campos) {
+            String nombre = campo.strip().toLowerCase(Locale.ROOT);
+            if (!COLUMNAS.contains(nombre)) {
+                return false;
+            }
+            conIsbn |= nombre.equals(COLUMNAS.get(0));
+        }
+        return conIsbn;
+    }
+
+    private static int[] columnasDeEncabezado(List<String> encabezado) {
+        int[] columnas = {-1, -1, -1, -1};
+        for (int i = 0; i < encabezado.size(); i++) {
+            int columna = COLUMNAS.indexOf(encabezado.get(i).strip().toLowerCase(Locale.ROOT));
+            if (columna >= 0) {
+                columnas[columna] = i;
+            }
+        }
+        return columnas;
+    }
+
+    private static String campo(List<String> campos, int indice) {
+        return indice >= 0 && indice < campos.size() ? campos.get(indice) : null;
+    }
+
+    private static String recortar(String valor) {
+        return valor == null ? null : valor.strip();
+    }
+
+    private static String leerLinea(BufferedReader lector) {
+        try {
+            return lector.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    record RegistroJson(String isbn, String titulo, String autor, String estado) {
+    }
+
+    private abstract static class Filas implements Iterator<FilaDeImportacion> {
+
+        private FilaDeImportacion siguiente;
+        private boolean terminado;
+
+        abstract FilaDeImportacion leerSiguiente();
+
+        @Override
+        public boolean hasNext() {
+            if (siguiente == null && !terminado) {
+                siguiente = leerSiguiente();
+                terminado = siguiente == null;
+            }
+            return siguiente != null;
+        }
+
+        @Override
+        public FilaDeImportacion next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            FilaDeImportacion fila = siguiente;
+            siguiente = null;
+            return fila;
+        }
+    }
+
+    private static final class LectorCsv {
+
+        private final Reader lector;
+        private final StringBuilder campo = new StringBuilder();
+        private int pendiente = -2;
+
+        LectorCsv(Reader lector) {
+            this.lector = lector;
+        }
+
+        List<String> leerRegistro() {
+            int c = leer();
+            if (c == -1) {
+                return null;
+            }
+            List<String> campos = new ArrayList<>(4);
+            boolean entreComillas = false;
+            campo.setLength(0);
+            while (true) {
+                if (entreComillas) {
+                    if (c == -1) {
+                        break;
+                    }
+                    if (c == '"') {
+                        int siguiente = leer();
+                        if (siguiente == '"') {
+                            campo.append('"');
+                        } else {
+                            entreComillas = false;
+                            c = siguiente;
+                            continue;
+                        }
+                    } else {
+                        campo.append((char) c);
+                    }
+                } else if (c == '"' && campo.isEmpty()) {
+                    entreComillas = true;
+                } else if (c == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    int siguiente = leer();
+                    if (siguiente != '\n') {
+                        pendiente = siguiente;
+                    }
+                    break;
+                } else {
+                    campo.append((char) c);
+                }
+                c = leer();
+            }
+            campos.add(campo.toString());
+            return campos;
+        }
+
+        private int leer() {
+            if (pendiente != -2) {
+                int c = pendiente;
+                pendiente = -2;
+                return c;
+            }
+            try {
+                return lector.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
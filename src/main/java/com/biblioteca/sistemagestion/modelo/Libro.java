@@ -4,16 +4,34 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Libro {
 
+    private static final VarHandle ESTADO;
+
+    static {
+        try {
+            ESTADO = MethodHandles.lookup().findVarHandle(Libro.class, "estado", EstadoLibro.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private Long id;
     private String isbn;
     private String titulo;
     private String autor;
-    private EstadoLibro estado;
+    private volatile EstadoLibro estado;
+    private Long version;
+
+    public Libro(Long id, String isbn, String titulo, String autor, EstadoLibro estado) {
+        this(id, isbn, titulo, autor, estado, null);
+    }
 
     public Libro(String isbn, String titulo, String autor) {
         this.isbn = isbn;
@@ -21,4 +39,8 @@ public class Libro {
         this.autor = autor;
         this.estado = EstadoLibro.DISPONIBLE;
     }
+
+    public boolean compareAndSetEstado(EstadoLibro esperado, EstadoLibro nuevo) {
+        return ESTADO.compareAndSet(this, esperado, nuevo);
+    }
 }
\ No newline at end of file
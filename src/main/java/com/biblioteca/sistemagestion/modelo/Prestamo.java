@@ -16,6 +16,11 @@ public class Prestamo {
     private Usuario usuario;
     private LocalDate fechaPrestamo;
     private LocalDate fechaDevolucion;
+    private Long version;
+
+    public Prestamo(Long id, Libro libro, Usuario usuario, LocalDate fechaPrestamo, LocalDate fechaDevolucion) {
+        this(id, libro, usuario, fechaPrestamo, fechaDevolucion, null);
+    }
 
     public Prestamo(Libro libro, Usuario usuario, LocalDate fechaDevolucion) {
 
@@ -14,6 +14,11 @@ public class Usuario {
     private String nombre;
     private String email;
     private EstadoUsuario estado;
+    private Long version;
+
+    public Usuario(Long id, String nombre, String email, EstadoUsuario estado) {
+        this(id, nombre, email, estado, null);
+    }
 
     public Usuario(String nombre, String email) {
         Objects.requireNonNull(nombre, "El nombre no puede ser nulo.");
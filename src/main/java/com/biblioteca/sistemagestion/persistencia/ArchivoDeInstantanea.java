@@ -0,0 +1,181 @@
+package com.biblioteca.sistemagestion.persistencia;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+final class ArchivoDeInstantanea implements AutoCloseable {
+
+    @FunctionalInterface
+    interface LectorDeEntidades {
+        void leer(byte tipo, ByteBuffer cuerpo);
+    }
+
+    private static final int MAGICO = 0x42494253;
+    private static final int VERSION = 1;
+    private static final int CABECERA = Integer.BYTES * 2 + Long.BYTES;
+    private static final byte FIN = 0;
+    private static final int TAMANIO_BUFFER = 1 << 20;
+    private static final long TAMANIO_VENTANA = 256L << 20;
+    private static final String PREFIJO = "instantanea-";
+    private static final String EXTENSION = ".bin";
+
+    private final Path temporal;
+    private final Path destino;
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+    private final CRC32C crc = new CRC32C();
+
+    private ArchivoDeInstantanea(Path directorio, long lsn) throws IOException {
+        Files.createDirectories(directorio);
+        this.destino = directorio.resolve(String.format("%s%020d%s", PREFIJO, lsn, EXTENSION));
+        this.temporal = directorio.resolve(destino.getFileName() + ".tmp");
+        this.canal = FileChannel.open(temporal,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        buffer.putInt(MAGICO).putInt(VERSION).putLong(lsn);
+    }
+
+    static ArchivoDeInstantanea crear(Path directorio, long lsn) throws IOException {
+        return new ArchivoDeInstantanea(directorio, lsn);
+    }
+
+    <T> void agregar(byte tipo, T entidad, BiConsumer<ByteBuffer, T> codificador) throws IOException {
+        int inicio = buffer.position();
+        try {
+            buffer.put(tipo);
+            codificador.accept(buffer, entidad);
+        } catch (BufferOverflowException e) {
+            buffer.position(inicio);
+            volcar();
+            buffer.put(tipo);
+            codificador.accept(buffer, entidad);
+        }
+    }
+
+    Path confirmar() throws IOException {
+        buffer.put(FIN);
+        volcar();
+        buffer.putInt((int) crc.getValue()).flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        canal.force(true);
+        canal.close();
+        Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return destino;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (canal.isOpen()) {
+            canal.close();
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private void volcar() throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    static long lsn(Path instantanea) {
+        String nombre = instantanea.getFileName().toString();
+        return Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length()));
+    }
+
+    static Optional<Path> ultima(Path directorio) {
+        List<Path> instantaneas = listar(directorio);
+        return instantaneas.isEmpty() ? Optional.empty() : Optional.of(instantaneas.get(instantaneas.size() - 1));
+    }
+
+    static void descartarAnteriores(Path instantanea) throws IOException {
+        for (Path anterior : listar(instantanea.getParent())) {
+            if (lsn(anterior) < lsn(instantanea)) {
+                Files.deleteIfExists(anterior);
+            }
+        }
+    }
+
+    static long cargar(Path instantanea, LectorDeEntidades lector) {
+        try (FileChannel canal = FileChannel.open(instantanea, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            verificar(canal, tamanio, instantanea);
+
+            long registros = 0;
+            long base = CABECERA;
+            MappedByteBuffer ventana = mapear(canal, base, tamanio - Integer.BYTES);
+            while (true) {
+                if (ventana.remaining() < TAMANIO_BUFFER && base + ventana.limit() < tamanio - Integer.BYTES) {
+                    base += ventana.position();
+                    ventana = mapear(canal, base, tamanio - Integer.BYTES);
+                }
+                byte tipo = ventana.get();
+                if (tipo == FIN) {
+                    return registros;
+                }
+                lector.leer(tipo, ventana);
+                registros++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cargar la instantánea " + instantanea, e);
+        }
+    }
+
+    private static void verificar(FileChannel canal, long tamanio, Path instantanea) throws IOException {
+        if (tamanio < CABECERA + Byte.BYTES + Integer.BYTES) {
+            throw new IllegalStateException("La instantánea " + instantanea + " está incompleta.");
+        }
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+        canal.read(cabecera, 0);
+        if (cabecera.getInt(0) != MAGICO || cabecera.getInt(Integer.BYTES) != VERSION
+                || cabecera.getLong(Integer.BYTES * 2) != lsn(instantanea)) {
+            throw new IllegalStateException("La instantánea " + instantanea + " no tiene un formato válido.");
+        }
+        CRC32C crc = new CRC32C();
+        for (long posicion = 0; posicion < tamanio - Integer.BYTES; posicion += TAMANIO_VENTANA) {
+            crc.update(mapear(canal, posicion, tamanio - Integer.BYTES));
+        }
+        ByteBuffer esperado = ByteBuffer.allocate(Integer.BYTES);
+        canal.read(esperado, tamanio - Integer.BYTES);
+        if (esperado.getInt(0) != (int) crc.getValue()) {
+            throw new IllegalStateException("La instantánea " + instantanea + " está corrupta.");
+        }
+    }
+
+    private static MappedByteBuffer mapear(FileChannel canal, long posicion, long fin) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_ONLY, posicion, Math.min(TAMANIO_VENTANA, fin - posicion));
+    }
+
+    private static List<Path> listar(Path directorio) {
+        if (!Files.isDirectory(directorio)) {
+            return List.of();
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            List<Path> instantaneas = new ArrayList<>(archivos
+                    .filter(ruta -> ruta.getFileName().toString().startsWith(PREFIJO)
+                            && ruta.getFileName().toString().endsWith(EXTENSION))
+                    .toList());
+            instantaneas.sort(null);
+            return instantaneas;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo listar las instantáneas en " + directorio, e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.biblioteca.sistemagestion.persistencia;
+
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.EstadoUsuario;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.modelo.Prestamo;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+final class CodificadorDeEntidades {
+
+    private static final long AUSENTE = Long.MIN_VALUE;
+    private static final EstadoLibro[] ESTADOS_LIBRO = EstadoLibro.values();
+    private static final EstadoUsuario[] ESTADOS_USUARIO = EstadoUsuario.values();
+
+    private CodificadorDeEntidades() {
+    }
+
+    static void escribirLibro(ByteBuffer destino, Libro libro) {
+        destino.putLong(libro.getId());
+        escribirTexto(destino, libro.getIsbn());
+        escribirTexto(destino, libro.getTitulo());
+        escribirTexto(destino, libro.getAutor());
+        destino.put(libro.getEstado() == null ? -1 : (byte) libro.getEstado().ordinal());
+    }
+
+    static void escribirLibroConVersion(ByteBuffer destino, Libro libro) {
+        escribirVersion(destino, libro.getVersion());
+        escribirLibro(destino, libro);
+    }
+
+    static Libro leerLibroConVersion(ByteBuffer origen) {
+        Long version = leerVersion(origen);
+        Libro libro = leerLibro(origen);
+        libro.setVersion(version);
+        return libro;
+    }
+
+    static Libro leerLibro(ByteBuffer origen) {
+        Libro libro = new Libro();
+        libro.setId(origen.getLong());
+        libro.setIsbn(leerTexto(origen));
+        libro.setTitulo(leerTexto(origen));
+        libro.setAutor(leerTexto(origen));
+        byte estado = origen.get();
+        libro.setEstado(estado < 0 ? null : ESTADOS_LIBRO[estado]);
+        return libro;
+    }
+
+    static void escribirUsuario(ByteBuffer destino, Usuario usuario) {
+        destino.putLong(usuario.getId());
+        escribirTexto(destino, usuario.getNombre());
+        escribirTexto(destino, usuario.getEmail());
+        destino.put(usuario.getEstado() == null ? -1 : (byte) usuario.getEstado().ordinal());
+    }
+
+    static void escribirUsuarioConVersion(ByteBuffer destino, Usuario usuario) {
+        escribirVersion(destino, usuario.getVersion());
+        escribirUsuario(destino, usuario);
+    }
+
+    static Usuario leerUsuarioConVersion(ByteBuffer origen) {
+        Long version = leerVersion(origen);
+        Usuario usuario = leerUsuario(origen);
+        usuario.setVersion(version);
+        return usuario;
+    }
+
+    static Usuario leerUsuario(ByteBuffer origen) {
+        Usuario usuario = new Usuario();
+        usuario.setId(origen.getLong());
+        usuario.setNombre(leerTexto(origen));
+        usuario.setEmail(leerTexto(origen));
+        byte estado = origen.get();
+        usuario.setEstado(estado < 0 ? null : ESTADOS_USUARIO[estado]);
+        return usuario;
+    }
+
+    static void escribirPrestamo(ByteBuffer destino, Prestamo prestamo) {
+        destino.putLong(prestamo.getId());
+        destino.putLong(prestamo.getLibro() == null || prestamo.getLibro().getId() == null
+                ? AUSENTE : prestamo.getLibro().getId());
+        destino.putLong(prestamo.getUsuario() == null || prestamo.getUsuario().getId() == null
+                ? AUSENTE : prestamo.getUsuario().getId());
+        escribirFecha(destino, prestamo.getFechaPrestamo());
+        escribirFecha(destino, prestamo.getFechaDevolucion());
+    }
+
+    static void escribirPrestamoConVersion(ByteBuffer destino, Prestamo prestamo) {
+        escribirVersion(destino, prestamo.getVersion());
+        escribirPrestamo(destino, prestamo);
+    }
+
+    static Prestamo leerPrestamoConVersion(ByteBuffer origen) {
+        Long version = leerVersion(origen);
+        Prestamo prestamo = leerPrestamo(origen);
+        prestamo.setVersion(version);
+        return prestamo;
+    }
+
+    static Prestamo leerPrestamo(ByteBuffer origen) {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(origen.getLong());
+        long libroId = origen.getLong();
+        if (libroId != AUSENTE) {
+            Libro libro = new Libro();
+            libro.setId(libroId);
+            prestamo.setLibro(libro);
+        }
+        long usuarioId = origen.getLong();
+        if (usuarioId != AUSENTE) {
+            Usuario usuario = new Usuario();
+            usuario.setId(usuarioId);
+            prestamo.setUsuario(usuario);
+        }
+        prestamo.setFechaPrestamo(leerFecha(origen));
+        prestamo.setFechaDevolucion(leerFecha(origen));
+        return prestamo;
+    }
+
+    private static void escribirVersion(ByteBuffer destino, Long version) {
+        destino.putLong(version == null ? AUSENTE : version);
+    }
+
+    private static Long leerVersion(ByteBuffer origen) {
+        long version = origen.getLong();
+        return version == AUSENTE ? null : version;
+    }
+
+    private static void escribirTexto(ByteBuffer destino, String texto) {
+        if (texto == null) {
+            destino.putInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        destino.putInt(bytes.length);
+        destino.put(bytes);
+    }
+
+    private static String leerTexto(ByteBuffer origen) {
+        int longitud = origen.getInt();
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        origen.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void escribirFecha(ByteBuffer destino, LocalDate fecha) {
+        destino.putLong(fecha == null ? AUSENTE : fecha.toEpochDay());
+    }
+
+    private static LocalDate leerFecha(ByteBuffer origen) {
+        long dia = origen.getLong();
+        return dia == AUSENTE ? null : LocalDate.ofEpochDay(dia);
+    }
+}
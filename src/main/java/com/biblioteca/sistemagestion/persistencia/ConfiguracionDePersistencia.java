@@ -0,0 +1,49 @@
+package com.biblioteca.sistemagestion.persistencia;
+
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.PrestamoRepository;
+import com.biblioteca.sistemagestion.repositorios.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(name = "biblioteca.persistencia.habilitada", havingValue = "true")
+public class ConfiguracionDePersistencia {
+
+    private final Path directorio;
+
+    public ConfiguracionDePersistencia(@Value("${biblioteca.persistencia.directorio:datos}") Path directorio) {
+        this.directorio = directorio;
+    }
+
+    @Bean(destroyMethod = "close")
+    public DiarioDeMutaciones diarioDeMutaciones(
+            @Value("${biblioteca.persistencia.sincronizacion:GRUPO}") PoliticaDeSincronizacion politica,
+            @Value("${biblioteca.persistencia.intervalo-ms:10}") long intervaloMs) throws IOException {
+        return new DiarioDeMutaciones(directorio.resolve("diario"), politica, intervaloMs);
+    }
+
+    @Bean
+    public DiarioDeRepositorios diarioDeRepositorios(DiarioDeMutaciones diario,
+                                                     LibroRepository libroRepository,
+                                                     UsuarioRepository usuarioRepository,
+                                                     PrestamoRepository prestamoRepository) {
+        DiarioDeRepositorios diarioDeRepositorios =
+                new DiarioDeRepositorios(diario, libroRepository, usuarioRepository, prestamoRepository);
+        diarioDeRepositorios.reproducir(ArchivoDeInstantanea.ultima(directorio.resolve("instantaneas")).orElse(null));
+        diarioDeRepositorios.conectar();
+        return diarioDeRepositorios;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ProgramadorDeInstantaneas programadorDeInstantaneas(
+            DiarioDeRepositorios diarioDeRepositorios,
+            @Value("${biblioteca.persistencia.instantanea-intervalo-s:300}") long intervaloSegundos) {
+        return new ProgramadorDeInstantaneas(diarioDeRepositorios, directorio.resolve("instantaneas"), intervaloSegundos);
+    }
+}
@@ -0,0 +1,455 @@
+package com.biblioteca.sistemagestion.persistencia;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+public class DiarioDeMutaciones implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface EscritorDeCuerpo {
+        void escribir(ByteBuffer destino);
+    }
+
+    @FunctionalInterface
+    public interface LectorDeRegistros {
+        void leer(byte tipo, long lsn, ByteBuffer cuerpo);
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(DiarioDeMutaciones.class);
+
+    private static final int CABECERA = Integer.BYTES * 2;
+    private static final int CABECERA_CUERPO = Byte.BYTES + Long.BYTES;
+    private static final int TAMANIO_BUFFER = 1 << 20;
+    private static final String PREFIJO_SEGMENTO = "diario-";
+    private static final String EXTENSION_SEGMENTO = ".log";
+
+    private final Path directorio;
+    private final PoliticaDeSincronizacion politica;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition durable = lock.newCondition();
+    private final ReentrantLock sincronizacion = new ReentrantLock();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+    private final CRC32C crc = new CRC32C();
+    private final ScheduledExecutorService sincronizador;
+    private Path archivo;
+    private FileChannel canal;
+    private long ultimoLsn;
+    private volatile long lsnDurable;
+    private IOException errorDeSincronizacion;
+    private boolean cerrado;
+
+    public DiarioDeMutaciones(Path directorio, PoliticaDeSincronizacion politica, long intervaloMs) throws IOException {
+        this.directorio = Objects.requireNonNull(directorio, "El directorio del diario no puede ser nulo.");
+        this.politica = Objects.requireNonNull(politica, "La política de sincronización no puede ser nula.");
+        Files.createDirectories(directorio);
+        List<Path> segmentos = segmentos();
+        if (segmentos.isEmpty()) {
+            abrirSegmento(1);
+        } else {
+            Path ultimo = segmentos.get(segmentos.size() - 1);
+            ultimoLsn = primerLsn(ultimo) - 1;
+            archivo = ultimo;
+            canal = FileChannel.open(ultimo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            canal.position(canal.size());
+        }
+        lsnDurable = ultimoLsn;
+
+        if (politica == PoliticaDeSincronizacion.GRUPO) {
+            if (intervaloMs <= 0) {
+                throw new IllegalArgumentException("El intervalo de sincronización debe ser positivo.");
+            }
+            sincronizador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "diario-sincronizacion");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            sincronizador.scheduleWithFixedDelay(this::sincronizarGrupo, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        } else {
+            sincronizador = null;
+        }
+    }
+
+    public long agregar(byte tipo, EscritorDeCuerpo cuerpo) {
+        lock.lock();
+        try {
+            if (cerrado) {
+                throw new IllegalStateException("El diario de mutaciones está cerrado.");
+            }
+            long lsn = ultimoLsn + 1;
+            try {
+                escribirRegistro(tipo, lsn, cuerpo);
+            } catch (BufferOverflowException e) {
+                volcar();
+                try {
+                    escribirRegistro(tipo, lsn, cuerpo);
+                } catch (BufferOverflowException excedido) {
+                    throw new IllegalArgumentException("El registro excede el tamaño máximo del diario.", excedido);
+                }
+            }
+            ultimoLsn = lsn;
+            if (politica == PoliticaDeSincronizacion.SISTEMA_OPERATIVO) {
+                volcar();
+            }
+            return lsn;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el diario " + archivo, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Commit en grupo: el fsync nunca se hace con el lock del diario ni dentro de la sección crítica del
+    // repositorio. Con POR_ESCRITURA el primer hilo que espera fuerza todo lo agregado hasta ese momento y
+    // los que llegan mientras tanto quedan cubiertos por ese mismo fsync o por el siguiente; con GRUPO se
+    // espera a la sincronización periódica, así que cada escritura tarda como mucho un intervalo más.
+    public void esperarDurabilidad(long lsn) {
+        if (politica == PoliticaDeSincronizacion.SISTEMA_OPERATIVO || lsnDurable >= lsn) {
+            return;
+        }
+        if (politica == PoliticaDeSincronizacion.POR_ESCRITURA) {
+            sincronizacion.lock();
+            try {
+                if (lsnDurable < lsn) {
+                    sincronizar();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo sincronizar el diario " + archivo, e);
+            } finally {
+                sincronizacion.unlock();
+            }
+            return;
+        }
+        lock.lock();
+        try {
+            while (lsnDurable < lsn) {
+                if (errorDeSincronizacion != null) {
+                    throw new UncheckedIOException("No se pudo sincronizar el diario " + archivo, errorDeSincronizacion);
+                }
+                if (cerrado) {
+                    throw new IllegalStateException("El diario de mutaciones está cerrado.");
+                }
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long reproducir(LectorDeRegistros lector) {
+        return reproducir(0, lector);
+    }
+
+    public long reproducir(long desdeLsn, LectorDeRegistros lector) {
+        Objects.requireNonNull(lector, "El lector de registros no puede ser nulo.");
+        lock.lock();
+        try {
+            List<Path> segmentos = segmentos();
+            ByteBuffer lectura = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+            long registros = 0;
+            for (int i = 0; i < segmentos.size(); i++) {
+                boolean cubierto = i + 1 < segmentos.size() && primerLsn(segmentos.get(i + 1)) <= desdeLsn + 1;
+                if (!cubierto) {
+                    boolean ultimo = i == segmentos.size() - 1;
+                    registros += reproducirSegmento(segmentos.get(i), ultimo, desdeLsn, lector, lectura.clear());
+                }
+            }
+            canal.position(canal.size());
+            lsnDurable = Math.max(lsnDurable, ultimoLsn);
+            return registros;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el diario en " + directorio, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // El cambio de segmento se hace con el lock del diario, pero el fsync del segmento anterior se hace
+    // fuera de él para no detener a los escritores. Se toma el lock de sincronización para que ningún
+    // fsync del segmento nuevo marque como durables los registros del anterior antes de forzarlo.
+    public long rotar() {
+        sincronizacion.lock();
+        try {
+            FileChannel anterior;
+            long hasta;
+            lock.lock();
+            try {
+                if (cerrado) {
+                    throw new IllegalStateException("El diario de mutaciones está cerrado.");
+                }
+                volcar();
+                anterior = canal;
+                hasta = ultimoLsn;
+                Path archivoAnterior = archivo;
+                try {
+                    abrirSegmento(hasta + 1);
+                } catch (IOException e) {
+                    archivo = archivoAnterior;
+                    throw e;
+                }
+            } finally {
+                lock.unlock();
+            }
+            try (anterior) {
+                anterior.force(true);
+            }
+            lock.lock();
+            try {
+                marcarDurable(hasta);
+            } finally {
+                lock.unlock();
+            }
+            return hasta;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo rotar el diario en " + directorio, e);
+        } finally {
+            sincronizacion.unlock();
+        }
+    }
+
+    public void descartarHasta(long lsn) {
+        lock.lock();
+        try {
+            List<Path> segmentos = segmentos();
+            for (int i = 0; i + 1 < segmentos.size(); i++) {
+                if (primerLsn(segmentos.get(i + 1)) - 1 <= lsn) {
+                    Files.deleteIfExists(segmentos.get(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron descartar segmentos del diario en " + directorio, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long reproducirSegmento(Path segmento, boolean ultimo, long desdeLsn, LectorDeRegistros lector,
+                                    ByteBuffer lectura) throws IOException {
+        boolean actual = segmento.equals(archivo);
+        FileChannel canalSegmento = actual ? canal
+                : FileChannel.open(segmento, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long posicionLectura = 0;
+            long posicionValida = 0;
+            long registros = 0;
+            boolean corrupto = false;
+            int leidos;
+            do {
+                leidos = canalSegmento.read(lectura, posicionLectura);
+                if (leidos > 0) {
+                    posicionLectura += leidos;
+                }
+                lectura.flip();
+                while (lectura.remaining() >= CABECERA) {
+                    int inicio = lectura.position();
+                    int longitud = lectura.getInt(inicio);
+                    if (longitud < CABECERA_CUERPO || longitud > TAMANIO_BUFFER - CABECERA) {
+                        corrupto = true;
+                        break;
+                    }
+                    if (lectura.remaining() < CABECERA + longitud) {
+                        break;
+                    }
+                    ByteBuffer cuerpo = lectura.slice(inicio + CABECERA, longitud);
+                    crc.reset();
+                    crc.update(cuerpo.duplicate());
+                    if ((int) crc.getValue() != lectura.getInt(inicio + Integer.BYTES)) {
+                        corrupto = true;
+                        break;
+                    }
+                    byte tipo = cuerpo.get();
+                    long lsn = cuerpo.getLong();
+                    if (lsn > desdeLsn) {
+                        lector.leer(tipo, lsn, cuerpo);
+                        registros++;
+                    }
+                    ultimoLsn = Math.max(ultimoLsn, lsn);
+                    lectura.position(inicio + CABECERA + longitud);
+                    posicionValida += CABECERA + longitud;
+                }
+                lectura.compact();
+            } while (leidos >= 0 && !corrupto);
+
+            if (posicionValida < canalSegmento.size()) {
+                // Sólo el segmento activo puede tener una cola a medio escribir: los anteriores se forzaron
+                // completos al rotar, así que un error en ellos significa que se perdieron registros confirmados.
+                if (!ultimo) {
+                    throw new IllegalStateException("El segmento " + segmento + " del diario está dañado en la posición "
+                            + posicionValida + " y no es el último; se detiene el arranque para no perder registros posteriores.");
+                }
+                log.warn("Se descartan {} bytes incompletos o corruptos al final del diario {}",
+                        canalSegmento.size() - posicionValida, segmento);
+                canalSegmento.truncate(posicionValida);
+            }
+            return registros;
+        } finally {
+            if (!actual) {
+                canalSegmento.close();
+            }
+        }
+    }
+
+    public long ultimoLsn() {
+        lock.lock();
+        try {
+            return ultimoLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (sincronizador != null) {
+            sincronizador.shutdown();
+            try {
+                sincronizador.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lock.lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            volcar();
+            canal.force(true);
+            canal.close();
+            marcarDurable(ultimoLsn);
+        } finally {
+            durable.signalAll();
+            lock.unlock();
+        }
+    }
+
+    private void abrirSegmento(long primerLsn) throws IOException {
+        archivo = directorio.resolve(String.format("%s%020d%s", PREFIJO_SEGMENTO, primerLsn, EXTENSION_SEGMENTO));
+        canal = FileChannel.open(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        canal.position(canal.size());
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            List<Path> segmentos = new ArrayList<>(archivos
+                    .filter(ruta -> ruta.getFileName().toString().startsWith(PREFIJO_SEGMENTO)
+                            && ruta.getFileName().toString().endsWith(EXTENSION_SEGMENTO))
+                    .toList());
+            segmentos.sort(null);
+            return segmentos;
+        }
+    }
+
+    private static long primerLsn(Path segmento) {
+        String nombre = segmento.getFileName().toString();
+        return Long.parseLong(nombre.substring(PREFIJO_SEGMENTO.length(), nombre.length() - EXTENSION_SEGMENTO.length()));
+    }
+
+    // Si el cuerpo falla a medio escribir, el registro parcial no debe quedar en el buffer: se volcaría al
+    // archivo como una entrada corrupta delante de los registros válidos siguientes.
+    private void escribirRegistro(byte tipo, long lsn, EscritorDeCuerpo cuerpo) {
+        int inicio = buffer.position();
+        try {
+            buffer.position(inicio + CABECERA);
+            buffer.put(tipo);
+            buffer.putLong(lsn);
+            cuerpo.escribir(buffer);
+            int fin = buffer.position();
+            crc.reset();
+            crc.update(buffer.slice(inicio + CABECERA, fin - inicio - CABECERA));
+            buffer.putInt(inicio, fin - inicio - CABECERA);
+            buffer.putInt(inicio + Integer.BYTES, (int) crc.getValue());
+        } catch (Throwable e) {
+            buffer.position(inicio);
+            throw e;
+        }
+    }
+
+    private void volcar() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void sincronizar() throws IOException {
+        FileChannel aForzar;
+        long hasta;
+        lock.lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            volcar();
+            hasta = ultimoLsn;
+            if (hasta <= lsnDurable) {
+                return;
+            }
+            aForzar = canal;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            aForzar.force(false);
+        } catch (ClosedChannelException e) {
+            // El diario se cerró mientras tanto y el segmento ya quedó forzado al cerrarse.
+        }
+        lock.lock();
+        try {
+            marcarDurable(hasta);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void marcarDurable(long lsn) {
+        if (lsn > lsnDurable) {
+            lsnDurable = lsn;
+        }
+        errorDeSincronizacion = null;
+        durable.signalAll();
+    }
+
+    private void sincronizarGrupo() {
+        sincronizacion.lock();
+        try {
+            sincronizar();
+        } catch (IOException e) {
+            log.error("No se pudo sincronizar el diario {}", archivo, e);
+            lock.lock();
+            try {
+                errorDeSincronizacion = e;
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            sincronizacion.unlock();
+        }
+    }
+}
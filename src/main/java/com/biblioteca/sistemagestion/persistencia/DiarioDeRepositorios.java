@@ -0,0 +1,203 @@
+package com.biblioteca.sistemagestion.persistencia;
+
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.modelo.Prestamo;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.OyenteDeMutaciones;
+import com.biblioteca.sistemagestion.repositorios.PrestamoRepository;
+import com.biblioteca.sistemagestion.repositorios.UsuarioRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class DiarioDeRepositorios {
+
+    static final byte LIBRO_GUARDADO = 1;
+    static final byte LIBRO_ELIMINADO = 2;
+    static final byte USUARIO_GUARDADO = 3;
+    static final byte USUARIO_ELIMINADO = 4;
+    static final byte PRESTAMO_GUARDADO = 5;
+    static final byte PRESTAMO_ELIMINADO = 6;
+    static final byte LIBRO_GUARDADO_CON_VERSION = 7;
+    static final byte USUARIO_GUARDADO_CON_VERSION = 8;
+    static final byte PRESTAMO_GUARDADO_CON_VERSION = 9;
+
+    private final DiarioDeMutaciones diario;
+    private final LibroRepository libroRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final PrestamoRepository prestamoRepository;
+    private final ThreadLocal<long[]> lsnPendiente = ThreadLocal.withInitial(() -> new long[1]);
+
+    public DiarioDeRepositorios(DiarioDeMutaciones diario,
+                                LibroRepository libroRepository,
+                                UsuarioRepository usuarioRepository,
+                                PrestamoRepository prestamoRepository) {
+        this.diario = diario;
+        this.libroRepository = libroRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.prestamoRepository = prestamoRepository;
+    }
+
+    public long reproducir() {
+        return reproducir(null);
+    }
+
+    public long reproducir(Path instantanea) {
+        long desdeLsn = instantanea == null ? 0 : ArchivoDeInstantanea.lsn(instantanea);
+        EstadoFinal cola = new EstadoFinal();
+        long registros = diario.reproducir(desdeLsn, cola::registrar);
+
+        if (instantanea != null) {
+            ArchivoDeInstantanea.cargar(instantanea, (tipo, cuerpo) -> {
+                switch (tipo) {
+                    case LIBRO_GUARDADO -> guardarSiNoCambio(cola.libros,
+                            CodificadorDeEntidades.leerLibro(cuerpo), Libro::getId, libroRepository::save);
+                    case USUARIO_GUARDADO -> guardarSiNoCambio(cola.usuarios,
+                            CodificadorDeEntidades.leerUsuario(cuerpo), Usuario::getId, usuarioRepository::save);
+                    case PRESTAMO_GUARDADO -> guardarSiNoCambio(cola.prestamos,
+                            CodificadorDeEntidades.leerPrestamo(cuerpo), Prestamo::getId, prestamoRepository::save);
+                    case LIBRO_GUARDADO_CON_VERSION -> guardarSiNoCambio(cola.libros,
+                            CodificadorDeEntidades.leerLibroConVersion(cuerpo), Libro::getId, libroRepository::save);
+                    case USUARIO_GUARDADO_CON_VERSION -> guardarSiNoCambio(cola.usuarios,
+                            CodificadorDeEntidades.leerUsuarioConVersion(cuerpo), Usuario::getId, usuarioRepository::save);
+                    case PRESTAMO_GUARDADO_CON_VERSION -> guardarSiNoCambio(cola.prestamos,
+                            CodificadorDeEntidades.leerPrestamoConVersion(cuerpo), Prestamo::getId, prestamoRepository::save);
+                    default -> throw new IllegalStateException("Tipo de registro desconocido en la instantánea: " + tipo);
+                }
+            });
+        }
+        cola.libros.values().stream().flatMap(Optional::stream).forEach(libroRepository::save);
+        cola.usuarios.values().stream().flatMap(Optional::stream).forEach(usuarioRepository::save);
+        cola.prestamos.values().stream().flatMap(Optional::stream).forEach(prestamoRepository::save);
+        reenlazarPrestamos();
+        return registros;
+    }
+
+    public Path tomarInstantanea(Path directorio) {
+        long lsn = diario.rotar();
+        try (ArchivoDeInstantanea archivo = ArchivoDeInstantanea.crear(directorio, lsn)) {
+            for (Libro libro : libroRepository.findAll()) {
+                archivo.agregar(LIBRO_GUARDADO_CON_VERSION, libro, CodificadorDeEntidades::escribirLibroConVersion);
+            }
+            for (Usuario usuario : usuarioRepository.findAll()) {
+                archivo.agregar(USUARIO_GUARDADO_CON_VERSION, usuario, CodificadorDeEntidades::escribirUsuarioConVersion);
+            }
+            for (Prestamo prestamo : prestamoRepository.findAll()) {
+                archivo.agregar(PRESTAMO_GUARDADO_CON_VERSION, prestamo, CodificadorDeEntidades::escribirPrestamoConVersion);
+            }
+            Path instantanea = archivo.confirmar();
+            diario.descartarHasta(lsn);
+            ArchivoDeInstantanea.descartarAnteriores(instantanea);
+            return instantanea;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir la instantánea en " + directorio, e);
+        }
+    }
+
+    public void conectar() {
+        libroRepository.agregarOyente(oyente(LIBRO_GUARDADO_CON_VERSION, LIBRO_ELIMINADO,
+                CodificadorDeEntidades::escribirLibroConVersion));
+        usuarioRepository.agregarOyente(oyente(USUARIO_GUARDADO_CON_VERSION, USUARIO_ELIMINADO,
+                CodificadorDeEntidades::escribirUsuarioConVersion));
+        prestamoRepository.agregarOyente(oyente(PRESTAMO_GUARDADO_CON_VERSION, PRESTAMO_ELIMINADO,
+                CodificadorDeEntidades::escribirPrestamoConVersion));
+    }
+
+    private <T> OyenteDeMutaciones<T> oyente(byte guardado, byte eliminado, BiConsumer<ByteBuffer, T> codificador) {
+        return new OyenteDeMutaciones<>() {
+            @Override
+            public void guardado(T entidad) {
+                lsnPendiente.get()[0] = diario.agregar(guardado, destino -> codificador.accept(destino, entidad));
+            }
+
+            @Override
+            public void eliminado(long id) {
+                lsnPendiente.get()[0] = diario.agregar(eliminado, destino -> destino.putLong(id));
+            }
+
+            @Override
+            public void mutacionCompletada() {
+                long[] pendiente = lsnPendiente.get();
+                long lsn = pendiente[0];
+                if (lsn > 0) {
+                    pendiente[0] = 0;
+                    diario.esperarDurabilidad(lsn);
+                }
+            }
+
+            @Override
+            public boolean esDiario() {
+                return true;
+            }
+        };
+    }
+
+    private static <T> void guardarSiNoCambio(Map<Long, Optional<T>> cola, T entidad,
+                                              Function<T, Long> id, Consumer<T> guardar) {
+        if (!cola.containsKey(id.apply(entidad))) {
+            guardar.accept(entidad);
+        }
+    }
+
+    private static final class EstadoFinal {
+
+        final Map<Long, Optional<Libro>> libros = new HashMap<>();
+        final Map<Long, Optional<Usuario>> usuarios = new HashMap<>();
+        final Map<Long, Optional<Prestamo>> prestamos = new HashMap<>();
+
+        void registrar(byte tipo, long lsn, ByteBuffer cuerpo) {
+            switch (tipo) {
+                case LIBRO_GUARDADO -> {
+                    Libro libro = CodificadorDeEntidades.leerLibro(cuerpo);
+                    libros.put(libro.getId(), Optional.of(libro));
+                }
+                case LIBRO_GUARDADO_CON_VERSION -> {
+                    Libro libro = CodificadorDeEntidades.leerLibroConVersion(cuerpo);
+                    libros.put(libro.getId(), Optional.of(libro));
+                }
+                case LIBRO_ELIMINADO -> libros.put(cuerpo.getLong(), Optional.empty());
+                case USUARIO_GUARDADO -> {
+                    Usuario usuario = CodificadorDeEntidades.leerUsuario(cuerpo);
+                    usuarios.put(usuario.getId(), Optional.of(usuario));
+                }
+                case USUARIO_GUARDADO_CON_VERSION -> {
+                    Usuario usuario = CodificadorDeEntidades.leerUsuarioConVersion(cuerpo);
+                    usuarios.put(usuario.getId(), Optional.of(usuario));
+                }
+                case USUARIO_ELIMINADO -> usuarios.put(cuerpo.getLong(), Optional.empty());
+                case PRESTAMO_GUARDADO -> {
+                    Prestamo prestamo = CodificadorDeEntidades.leerPrestamo(cuerpo);
+                    prestamos.put(prestamo.getId(), Optional.of(prestamo));
+                }
+                case PRESTAMO_GUARDADO_CON_VERSION -> {
+                    Prestamo prestamo = CodificadorDeEntidades.leerPrestamoConVersion(cuerpo);
+                    prestamos.put(prestamo.getId(), Optional.of(prestamo));
+                }
+                case PRESTAMO_ELIMINADO -> prestamos.put(cuerpo.getLong(), Optional.empty());
+                default -> throw new IllegalStateException("Tipo de registro desconocido en el diario: " + tipo);
+            }
+        }
+    }
+
+    private void reenlazarPrestamos() {
+        for (Prestamo prestamo : prestamoRepository.findAll()) {
+            Libro libro = prestamo.getLibro();
+            if (libro != null) {
+                libroRepository.findById(libro.getId()).ifPresent(prestamo::setLibro);
+            }
+            Usuario usuario = prestamo.getUsuario();
+            if (usuario != null) {
+                usuarioRepository.findById(usuario.getId()).ifPresent(prestamo::setUsuario);
+            }
+        }
+    }
+}
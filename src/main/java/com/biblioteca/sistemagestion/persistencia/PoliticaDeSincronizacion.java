@@ -0,0 +1,7 @@
+package com.biblioteca.sistemagestion.persistencia;
+
+public enum PoliticaDeSincronizacion {
+    POR_ESCRITURA,
+    GRUPO,
+    SISTEMA_OPERATIVO
+}
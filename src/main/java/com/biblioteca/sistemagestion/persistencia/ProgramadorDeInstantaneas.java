@@ -0,0 +1,50 @@
+package com.biblioteca.sistemagestion.persistencia;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ProgramadorDeInstantaneas implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgramadorDeInstantaneas.class);
+
+    private final DiarioDeRepositorios diarioDeRepositorios;
+    private final Path directorio;
+    private final ScheduledExecutorService ejecutor;
+
+    public ProgramadorDeInstantaneas(DiarioDeRepositorios diarioDeRepositorios, Path directorio, long intervaloSegundos) {
+        if (intervaloSegundos <= 0) {
+            throw new IllegalArgumentException("El intervalo entre instantáneas debe ser positivo.");
+        }
+        this.diarioDeRepositorios = diarioDeRepositorios;
+        this.directorio = directorio;
+        this.ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "instantaneas");
+            hilo.setDaemon(true);
+            hilo.setPriority(Thread.MIN_PRIORITY);
+            return hilo;
+        });
+        ejecutor.scheduleWithFixedDelay(this::tomarInstantanea, intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    }
+
+    private void tomarInstantanea() {
+        try {
+            long inicio = System.nanoTime();
+            Path instantanea = diarioDeRepositorios.tomarInstantanea(directorio);
+            log.info("Instantánea {} escrita en {} ms", instantanea.getFileName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        } catch (RuntimeException e) {
+            log.error("No se pudo tomar la instantánea de los repositorios", e);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        ejecutor.shutdown();
+        ejecutor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
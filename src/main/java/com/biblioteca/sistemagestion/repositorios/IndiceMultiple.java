@@ -0,0 +1,48 @@
+package com.biblioteca.sistemagestion.repositorios;
+
+import java.util.Arrays;
+
+final class IndiceMultiple {
+
+    private static final long[] VACIO = new long[0];
+
+    private final MapaLongConcurrente<long[]> idsPorClave = new MapaLongConcurrente<>();
+
+    void agregar(long clave, long id) {
+        idsPorClave.compute(clave, (k, ids) -> {
+            if (ids == null) {
+                return new long[]{id};
+            }
+            for (long existente : ids) {
+                if (existente == id) {
+                    return ids;
+                }
+            }
+            long[] ampliado = Arrays.copyOf(ids, ids.length + 1);
+            ampliado[ids.length] = id;
+            return ampliado;
+        });
+    }
+
+    void quitar(long clave, long id) {
+        idsPorClave.computeIfPresent(clave, (k, ids) -> {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    if (ids.length == 1) {
+                        return null;
+                    }
+                    long[] reducido = new long[ids.length - 1];
+                    System.arraycopy(ids, 0, reducido, 0, i);
+                    System.arraycopy(ids, i + 1, reducido, i, ids.length - i - 1);
+                    return reducido;
+                }
+            }
+            return ids;
+        });
+    }
+
+    long[] ids(long clave) {
+        long[] ids = idsPorClave.get(clave);
+        return ids == null ? VACIO : ids;
+    }
+}
@@ -0,0 +1,136 @@
+package com.biblioteca.sistemagestion.repositorios;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+final class IndiceOrdenado {
+
+    private static final int CAPACIDAD_BLOQUE = 512;
+
+    private final StampedLock lock = new StampedLock();
+    private long[][] bloques = {new long[CAPACIDAD_BLOQUE]};
+    private int[] tamanios = {0};
+    private int cantidadBloques = 1;
+
+    void agregar(long id) {
+        long sello = lock.writeLock();
+        try {
+            int b = bloquePara(id);
+            int i = Arrays.binarySearch(bloques[b], 0, tamanios[b], id);
+            if (i >= 0) {
+                return;
+            }
+            int posicion = -i - 1;
+            if (tamanios[b] == CAPACIDAD_BLOQUE) {
+                dividir(b, posicion == CAPACIDAD_BLOQUE ? CAPACIDAD_BLOQUE : CAPACIDAD_BLOQUE / 2);
+                if (posicion >= tamanios[b]) {
+                    posicion -= tamanios[b];
+                    b++;
+                }
+            }
+            long[] bloque = bloques[b];
+            System.arraycopy(bloque, posicion, bloque, posicion + 1, tamanios[b] - posicion);
+            bloque[posicion] = id;
+            tamanios[b]++;
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    void quitar(long id) {
+        long sello = lock.writeLock();
+        try {
+            int b = bloquePara(id);
+            int i = Arrays.binarySearch(bloques[b], 0, tamanios[b], id);
+            if (i < 0) {
+                return;
+            }
+            long[] bloque = bloques[b];
+            System.arraycopy(bloque, i + 1, bloque, i, tamanios[b] - i - 1);
+            tamanios[b]--;
+            if (tamanios[b] == 0 && cantidadBloques > 1) {
+                eliminarBloque(b);
+            }
+        } finally {
+            lock.unlockWrite(sello);
+        }
+    }
+
+    long[] siguientes(Long despuesDe, int limite, Orden orden) {
+        long sello = lock.readLock();
+        try {
+            long[] resultado = new long[limite];
+            int encontrados = 0;
+            if (orden == Orden.ASCENDENTE) {
+                int b = despuesDe == null ? 0 : bloquePara(despuesDe);
+                int i = despuesDe == null ? 0 : primeraPosicionMayor(b, despuesDe);
+                for (; b < cantidadBloques && encontrados < limite; b++, i = 0) {
+                    int copiar = Math.min(tamanios[b] - i, limite - encontrados);
+                    System.arraycopy(bloques[b], i, resultado, encontrados, copiar);
+                    encontrados += copiar;
+                }
+            } else {
+                int b = despuesDe == null ? cantidadBloques - 1 : bloquePara(despuesDe);
+                int i = despuesDe == null ? tamanios[b] - 1 : primeraPosicionMayorOIgual(b, despuesDe) - 1;
+                while (b >= 0 && encontrados < limite) {
+                    for (; i >= 0 && encontrados < limite; i--) {
+                        resultado[encontrados++] = bloques[b][i];
+                    }
+                    if (--b >= 0) {
+                        i = tamanios[b] - 1;
+                    }
+                }
+            }
+            return encontrados == limite ? resultado : Arrays.copyOf(resultado, encontrados);
+        } finally {
+            lock.unlockRead(sello);
+        }
+    }
+
+    private int bloquePara(long id) {
+        int inferior = 0;
+        int superior = cantidadBloques - 1;
+        while (inferior < superior) {
+            int medio = (inferior + superior + 1) >>> 1;
+            if (tamanios[medio] > 0 && bloques[medio][0] <= id) {
+                inferior = medio;
+            } else {
+                superior = medio - 1;
+            }
+        }
+        return inferior;
+    }
+
+    private int primeraPosicionMayor(int b, long id) {
+        int i = Arrays.binarySearch(bloques[b], 0, tamanios[b], id);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    private int primeraPosicionMayorOIgual(int b, long id) {
+        int i = Arrays.binarySearch(bloques[b], 0, tamanios[b], id);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private void dividir(int b, int mitad) {
+        if (cantidadBloques == bloques.length) {
+            bloques = Arrays.copyOf(bloques, cantidadBloques * 2);
+            tamanios = Arrays.copyOf(tamanios, cantidadBloques * 2);
+        }
+        System.arraycopy(bloques, b + 1, bloques, b + 2, cantidadBloques - b - 1);
+        System.arraycopy(tamanios, b + 1, tamanios, b + 2, cantidadBloques - b - 1);
+        long[] derecho = new long[CAPACIDAD_BLOQUE];
+        System.arraycopy(bloques[b], mitad, derecho, 0, tamanios[b] - mitad);
+        bloques[b + 1] = derecho;
+        tamanios[b + 1] = tamanios[b] - mitad;
+        tamanios[b] = mitad;
+        cantidadBloques++;
+    }
+
+    private void eliminarBloque(int b) {
+        System.arraycopy(bloques, b + 1, bloques, b, cantidadBloques - b - 1);
+        System.arraycopy(tamanios, b + 1, tamanios, b, cantidadBloques - b - 1);
+        cantidadBloques--;
+        bloques[cantidadBloques] = null;
+        tamanios[cantidadBloques] = 0;
+    }
+}
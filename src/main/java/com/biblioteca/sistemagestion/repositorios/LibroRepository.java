@@ -1,21 +1,46 @@
 package com.biblioteca.sistemagestion.repositorios;
 
+import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
 import com.biblioteca.sistemagestion.modelo.Libro;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.ObjIntConsumer;
 
 public interface LibroRepository {
 
     Libro save(Libro libro);
 
+    default List<Libro> saveAll(Collection<Libro> libros) {
+        Objects.requireNonNull(libros, "La colección de libros no puede ser nula.");
+        return saveAll(new ArrayList<>(libros), (rechazo, posicion) -> {
+            throw rechazo;
+        });
+    }
+
+    // Guarda las filas que puede y entrega cada ISBN repetido, con su posición en el lote, a alRechazar en lugar
+    // de cortar el lote. Entre dos filas del lote con el mismo ISBN se queda la primera. Devuelve las guardadas.
+    List<Libro> saveAll(List<Libro> libros, ObjIntConsumer<RecursoDuplicadoException> alRechazar);
+
+    boolean compareAndSetEstado(Long id, EstadoLibro esperado, EstadoLibro nuevo);
+
     Optional<Libro> findById(Long id);
 
+    Optional<Long> versionDe(Long id);
+
     Optional<Libro> findByIsbn(String isbn);
 
     List<Libro> findAll();
 
+    List<Libro> findPage(Long despuesDeId, int limite, Orden orden);
+
     void deleteById(Long id);
 
     boolean existsById(Long id);
 
-}
\ No newline at end of file
+    void agregarOyente(OyenteDeMutaciones<Libro> oyente);
+
+}
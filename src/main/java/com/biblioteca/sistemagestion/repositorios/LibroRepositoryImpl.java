@@ -1,33 +1,118 @@
 package com.biblioteca.sistemagestion.repositorios;
 
+import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
 import com.biblioteca.sistemagestion.modelo.Libro;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjIntConsumer;
 
 @Repository
+@ConditionalOnProperty(name = "biblioteca.repositorio.libros", havingValue = "memoria", matchIfMissing = true)
 public class LibroRepositoryImpl implements LibroRepository {
 
-    private final Map<Long, Libro> libros = new HashMap<>();
+    private final MapaLongConcurrente<Libro> libros = new MapaLongConcurrente<>();
+
+    private final Map<String, Long> idsPorIsbn = new ConcurrentHashMap<>();
+    private final MapaLongConcurrente<String> isbnIndexadoPorId = new MapaLongConcurrente<>();
+
+    private final IndiceOrdenado idsOrdenados = new IndiceOrdenado();
 
     private final AtomicLong sequenceGenerator = new AtomicLong(1);
+    private final Oyentes<Libro> oyentes = new Oyentes<>();
 
     @Override
     public Libro save(Libro libro) {
-        Objects.requireNonNull(libro, "El libro no puede ser nulo.");
+        try {
+            return guardar(libro);
+        } finally {
+            oyentes.notificarCompletada();
+        }
+    }
 
-        if (libro.getId() == null) {
-            libro.setId(sequenceGenerator.getAndIncrement());
+    @Override
+    public List<Libro> saveAll(List<Libro> libros, ObjIntConsumer<RecursoDuplicadoException> alRechazar) {
+        Objects.requireNonNull(libros, "La lista de libros no puede ser nula.");
+        Objects.requireNonNull(alRechazar, "El manejador de rechazos no puede ser nulo.");
+        boolean[] rechazados = rechazarIsbnsRepetidos(libros, alRechazar);
+        int[] posiciones = new int[libros.size()];
+        long[] ids = new long[libros.size()];
+        int aGuardar = 0;
+        for (int posicion = 0; posicion < libros.size(); posicion++) {
+            if (!rechazados[posicion]) {
+                Libro libro = libros.get(posicion);
+                asignarId(libro);
+                posiciones[aGuardar] = posicion;
+                ids[aGuardar++] = libro.getId();
+            }
         }
 
-        libros.put(libro.getId(), libro);
-        return libro;
+        Libro[] guardados = new Libro[libros.size()];
+        List<Libro> grupo = new ArrayList<>();
+        try {
+            this.libros.computeEnLote(Arrays.copyOf(ids, aGuardar), (indice, id, anterior) -> {
+                int posicion = posiciones[indice];
+                try {
+                    guardados[posicion] = aplicarGuardado(id, libros.get(posicion), anterior, true);
+                } catch (RecursoDuplicadoException e) {
+                    alRechazar.accept(e, posicion);
+                    return anterior;
+                }
+                grupo.add(guardados[posicion]);
+                return guardados[posicion];
+            }, () -> {
+                oyentes.notificarGuardados(List.copyOf(grupo));
+                grupo.clear();
+            });
+        } finally {
+            oyentes.notificarCompletada();
+        }
+        List<Libro> resultado = new ArrayList<>(aGuardar);
+        for (Libro libro : guardados) {
+            if (libro != null) {
+                resultado.add(libro);
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public boolean compareAndSetEstado(Long id, EstadoLibro esperado, EstadoLibro nuevo) {
+        Objects.requireNonNull(id, "El ID no puede ser nulo.");
+        Objects.requireNonNull(nuevo, "El estado nuevo no puede ser nulo.");
+        boolean[] cambiado = new boolean[1];
+        try {
+            libros.computeIfPresent(id, (clave, actual) -> {
+                if (!actual.compareAndSetEstado(esperado, nuevo)) {
+                    return actual;
+                }
+                Long versionAnterior = actual.getVersion();
+                actual.setVersion(Versiones.incrementar(versionAnterior));
+                try {
+                    oyentes.notificarEstadoCambiado(actual);
+                } catch (RuntimeException e) {
+                    actual.setVersion(versionAnterior);
+                    actual.setEstado(esperado);
+                    throw e;
+                }
+                cambiado[0] = true;
+                return actual;
+            });
+        } finally {
+            oyentes.notificarCompletada();
+        }
+        return cambiado[0];
     }
 
     @Override
@@ -36,23 +121,52 @@ public class LibroRepositoryImpl implements LibroRepository {
         return Optional.ofNullable(libros.get(id));
     }
 
+    @Override
+    public Optional<Long> versionDe(Long id) {
+        Objects.requireNonNull(id, "El ID no puede ser nulo.");
+        Libro libro = libros.get(id);
+        return libro == null ? Optional.empty() : Optional.ofNullable(libro.getVersion());
+    }
+
     @Override
     public Optional<Libro> findByIsbn(String isbn) {
         Objects.requireNonNull(isbn, "El ISBN no puede ser nulo.");
-        return libros.values().stream()
-                .filter(libro -> isbn.equals(libro.getIsbn()))
-                .findFirst();
+        Long id = idsPorIsbn.get(normalizarIsbn(isbn));
+        return id == null ? Optional.empty() : Optional.ofNullable(libros.get(id));
     }
 
     @Override
     public List<Libro> findAll() {
-        return new ArrayList<>(libros.values());
+        return libros.instantanea();
+    }
+
+    @Override
+    public List<Libro> findPage(Long despuesDeId, int limite, Orden orden) {
+        Objects.requireNonNull(orden, "El orden no puede ser nulo.");
+        long[] ids = idsOrdenados.siguientes(despuesDeId, limite, orden);
+        List<Libro> pagina = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Libro libro = libros.get(id);
+            if (libro != null) {
+                pagina.add(libro);
+            }
+        }
+        return pagina;
     }
 
     @Override
     public void deleteById(Long id) {
         Objects.requireNonNull(id, "El ID no puede ser nulo para eliminar.");
-        libros.remove(id);
+        try {
+            libros.computeIfPresent(id, (clave, libro) -> {
+                oyentes.notificarEliminado(clave);
+                liberarIsbn(clave);
+                idsOrdenados.quitar(clave);
+                return null;
+            });
+        } finally {
+            oyentes.notificarCompletada();
+        }
     }
 
     @Override
@@ -60,4 +174,116 @@ public class LibroRepositoryImpl implements LibroRepository {
         Objects.requireNonNull(id, "El ID no puede ser nulo para verificar existencia.");
         return libros.containsKey(id);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void agregarOyente(OyenteDeMutaciones<Libro> oyente) {
+        oyentes.agregar(oyente);
+    }
+
+    private Libro guardar(Libro libro) {
+        Objects.requireNonNull(libro, "El libro no puede ser nulo.");
+        asignarId(libro);
+        libros.compute(libro.getId(), (id, anterior) -> aplicarGuardado(id, libro, anterior, false));
+        return libro;
+    }
+
+    private void asignarId(Libro libro) {
+        if (libro.getId() == null) {
+            libro.setId(sequenceGenerator.getAndIncrement());
+        } else {
+            sequenceGenerator.accumulateAndGet(libro.getId() + 1, Math::max);
+        }
+    }
+
+    private Libro aplicarGuardado(long id, Libro libro, Libro anterior, boolean enLote) {
+        Long versionEsperada = libro.getVersion();
+        long version = Versiones.siguiente("El libro", id, versionEsperada,
+                anterior == null ? null : anterior.getVersion());
+        String isbnAnterior = isbnIndexadoPorId.get(id);
+        String isbnNuevo = libro.getIsbn() == null ? null : normalizarIsbn(libro.getIsbn());
+        boolean reservado = reservarIsbn(id, isbnNuevo, isbnAnterior, libro.getIsbn());
+        libro.setVersion(version);
+        try {
+            if (enLote) {
+                oyentes.notificarGuardadoEnLote(libro);
+            } else {
+                oyentes.notificarGuardado(libro);
+            }
+        } catch (RuntimeException e) {
+            libro.setVersion(versionEsperada);
+            if (reservado) {
+                idsPorIsbn.remove(isbnNuevo, id);
+            }
+            throw e;
+        }
+        confirmarIsbn(id, isbnNuevo, isbnAnterior);
+        if (anterior == null) {
+            idsOrdenados.agregar(id);
+        }
+        return libro;
+    }
+
+    private boolean reservarIsbn(long id, String isbnNuevo, String isbnAnterior, String isbnOriginal) {
+        if (isbnNuevo == null || isbnNuevo.equals(isbnAnterior)) {
+            return false;
+        }
+        Long propietario = idsPorIsbn.putIfAbsent(isbnNuevo, id);
+        if (propietario != null && propietario != id) {
+            throw new RecursoDuplicadoException("Ya existe un libro con el ISBN: " + isbnOriginal);
+        }
+        return propietario == null;
+    }
+
+    private void confirmarIsbn(long id, String isbnNuevo, String isbnAnterior) {
+        if (Objects.equals(isbnNuevo, isbnAnterior)) {
+            return;
+        }
+        if (isbnNuevo != null) {
+            isbnIndexadoPorId.put(id, isbnNuevo);
+        } else {
+            isbnIndexadoPorId.remove(id);
+        }
+        if (isbnAnterior != null) {
+            idsPorIsbn.computeIfPresent(isbnAnterior, (clave, propietario) -> propietario == id ? null : propietario);
+        }
+    }
+
+    private void liberarIsbn(long id) {
+        String isbn = isbnIndexadoPorId.remove(id);
+        if (isbn != null) {
+            idsPorIsbn.computeIfPresent(isbn, (clave, propietario) -> propietario == id ? null : propietario);
+        }
+    }
+
+    // Un ISBN repetido dentro del lote se rechaza antes de escribir nada, así gana siempre la primera fila
+    // aunque el lote se aplique agrupado por segmento. Las filas de un mismo libro pueden repetir su ISBN.
+    static boolean[] rechazarIsbnsRepetidos(List<Libro> libros, ObjIntConsumer<RecursoDuplicadoException> alRechazar) {
+        boolean[] rechazados = new boolean[libros.size()];
+        Map<String, Long> idsPorIsbnDelLote = new HashMap<>();
+        for (int posicion = 0; posicion < libros.size(); posicion++) {
+            Libro libro = Objects.requireNonNull(libros.get(posicion), "El libro no puede ser nulo.");
+            if (libro.getIsbn() == null) {
+                continue;
+            }
+            String isbn = normalizarIsbn(libro.getIsbn());
+            if (!idsPorIsbnDelLote.containsKey(isbn)) {
+                idsPorIsbnDelLote.put(isbn, libro.getId());
+            } else if (libro.getId() == null || !libro.getId().equals(idsPorIsbnDelLote.get(isbn))) {
+                rechazados[posicion] = true;
+                alRechazar.accept(new RecursoDuplicadoException("Ya existe un libro con el ISBN: " + libro.getIsbn()), posicion);
+            }
+        }
+        return rechazados;
+    }
+
+    static String normalizarIsbn(String isbn) {
+        StringBuilder normalizado = new StringBuilder(isbn.length());
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c != '-' && !Character.isWhitespace(c)) {
+                normalizado.append(c);
+            }
+        }
+        return normalizado.toString().toUpperCase(Locale.ROOT);
+    }
+}
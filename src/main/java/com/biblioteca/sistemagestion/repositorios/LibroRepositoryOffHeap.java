@@ -0,0 +1,499 @@
+package com.biblioteca.sistemagestion.repositorios;
+
+import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ObjIntConsumer;
+
+@Repository
+@ConditionalOnProperty(name = "biblioteca.repositorio.libros", havingValue = "off-heap")
+public class LibroRepositoryOffHeap implements LibroRepository {
+
+    private static final int TAMANIO_FILA = 48;
+    private static final int COLUMNA_ID = 0;
+    private static final int COLUMNA_ISBN = 8;
+    private static final int COLUMNA_TITULO = 16;
+    private static final int COLUMNA_AUTOR = 24;
+    private static final int COLUMNA_ESTADO = 32;
+    private static final int COLUMNA_OCUPADA = 36;
+    private static final int COLUMNA_VERSION = 40;
+    private static final int FILAS_POR_BLOQUE = 16_384;
+    private static final int FILAS_POR_TRAMO = 64;
+
+    private static final int[] COLUMNAS_DE_TEXTO = {COLUMNA_ISBN, COLUMNA_TITULO, COLUMNA_AUTOR};
+
+    private static final long SIN_TEXTO = -1L;
+    private static final EstadoLibro[] ESTADOS = EstadoLibro.values();
+
+    private final StampedLock lock = new StampedLock();
+    private final List<ByteBuffer> bloquesDeFilas = new ArrayList<>();
+    private final MapaLongConcurrente<Integer> filaPorId = new MapaLongConcurrente<>();
+    private final IndiceMultiple idsPorHashDeIsbn = new IndiceMultiple();
+    private final IndiceOrdenado idsOrdenados = new IndiceOrdenado();
+    private final AtomicLong sequenceGenerator = new AtomicLong(1);
+    private final Oyentes<Libro> oyentes = new Oyentes<>();
+
+    private ArenaDeTextos arena = new ArenaDeTextos();
+    private int[] filasLibres = new int[64];
+    private int cantidadFilasLibres;
+    private int siguienteFila;
+
+    @Override
+    public Libro save(Libro libro) {
+        Objects.requireNonNull(libro, "El libro no puede ser nulo.");
+        asignarId(libro);
+        long sello = lock.writeLock();
+        try {
+            guardar(libro, false);
+        } finally {
+            lock.unlockWrite(sello);
+            oyentes.notificarCompletada();
+        }
+        return libro;
+    }
+
+    // El lock es único para todo el repositorio: el lote se guarda en tramos para que las lecturas y escrituras
+    // concurrentes no esperen a que se indexe el lote entero.
+    @Override
+    public List<Libro> saveAll(List<Libro> libros, ObjIntConsumer<RecursoDuplicadoException> alRechazar) {
+        Objects.requireNonNull(libros, "La lista de libros no puede ser nula.");
+        Objects.requireNonNull(alRechazar, "El manejador de rechazos no puede ser nulo.");
+        boolean[] rechazados = LibroRepositoryImpl.rechazarIsbnsRepetidos(libros, alRechazar);
+        for (int posicion = 0; posicion < libros.size(); posicion++) {
+            if (!rechazados[posicion]) {
+                asignarId(libros.get(posicion));
+            }
+        }
+        List<Libro> guardados = new ArrayList<>(libros.size());
+        try {
+            for (int inicio = 0; inicio < libros.size(); inicio += FILAS_POR_TRAMO) {
+                int fin = Math.min(inicio + FILAS_POR_TRAMO, libros.size());
+                List<Libro> tramo = new ArrayList<>(fin - inicio);
+                long sello = lock.writeLock();
+                try {
+                    for (int posicion = inicio; posicion < fin; posicion++) {
+                        if (rechazados[posicion]) {
+                            continue;
+                        }
+                        try {
+                            guardar(libros.get(posicion), true);
+                            tramo.add(libros.get(posicion));
+                        } catch (RecursoDuplicadoException e) {
+                            alRechazar.accept(e, posicion);
+                        }
+                    }
+                } finally {
+                    try {
+                        oyentes.notificarGuardados(tramo);
+                    } finally {
+                        lock.unlockWrite(sello);
+                    }
+                }
+                guardados.addAll(tramo);
+            }
+        } finally {
+            oyentes.notificarCompletada();
+        }
+        return guardados;
+    }
+
+    @Override
+    public boolean compareAndSetEstado(Long id, EstadoLibro esperado, EstadoLibro nuevo) {
+        Objects.requireNonNull(id, "El ID no puede ser nulo.");
+        Objects.requireNonNull(nuevo, "El estado nuevo no puede ser nulo.");
+        long sello = lock.writeLock();
+        try {
+            Integer fila = filaPorId.get(id);
+            if (fila == null) {
+                return false;
+            }
+            ByteBuffer bloque = bloqueDeFila(fila);
+            int posicion = desplazamientoDeFila(fila) + COLUMNA_ESTADO;
+            if (bloque.getInt(posicion) != codigoDeEstado(esperado)) {
+                return false;
+            }
+            bloque.putInt(posicion, codigoDeEstado(nuevo));
+            int columnaVersion = desplazamientoDeFila(fila) + COLUMNA_VERSION;
+            long versionAnterior = bloque.getLong(columnaVersion);
+            bloque.putLong(columnaVersion, versionAnterior + 1);
+            try {
+                oyentes.notificarEstadoCambiado(materializar(fila));
+            } catch (RuntimeException e) {
+                bloque.putInt(posicion, codigoDeEstado(esperado));
+                bloque.putLong(columnaVersion, versionAnterior);
+                throw e;
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(sello);
+            oyentes.notificarCompletada();
+        }
+    }
+
+    @Override
+    public Optional<Libro> findById(Long id) {
+        Objects.requireNonNull(id, "El ID no puede ser nulo.");
+        long sello = lock.readLock();
+        try {
+            Integer fila = filaPorId.get(id);
+            return fila == null ? Optional.empty() : Optional.of(materializar(fila));
+        } finally {
+            lock.unlockRead(sello);
+        }
+    }
+
+    @Override
+    public Optional<Long> versionDe(Long id) {
+        Objects.requireNonNull(id, "El ID no puede ser nulo.");
+        long sello = lock.readLock();
+        try {
+            Integer fila = filaPorId.get(id);
+            return fila == null ? Optional.empty()
+                    : Optional.of(bloqueDeFila(fila).getLong(desplazamientoDeFila(fila) + COLUMNA_VERSION));
+        } finally {
+            lock.unlockRead(sello);
+        }
+    }
+
+    @Override
+    public Optional<Libro> findByIsbn(String isbn) {
+        Objects.requireNonNull(isbn, "El ISBN no puede ser nulo.");
+        String isbnBuscado = LibroRepositoryImpl.normalizarIsbn(isbn);
+        long sello = lock.readLock();
+        try {
+            Long id = buscarIdPorIsbn(isbnBuscado);
+            return id == null ? Optional.empty() : Optional.of(materializar(filaPorId.get(id)));
+        } finally {
+            lock.unlockRead(sello);
+        }
+    }
+
+    @Override
+    public List<Libro> findAll() {
+        long sello = lock.readLock();
+        try {
+            List<Libro> libros = new ArrayList<>(siguienteFila - cantidadFilasLibres);
+            for (int fila = 0; fila < siguienteFila; fila++) {
+                if (bloqueDeFila(fila).getInt(desplazamientoDeFila(fila) + COLUMNA_OCUPADA) == 1) {
+                    libros.add(materializar(fila));
+                }
+            }
+            return Collections.unmodifiableList(libros);
+        } finally {
+            lock.unlockRead(sello);
+        }
+    }
+
+    @Override
+    public List<Libro> findPage(Long despuesDeId, int limite, Orden orden) {
+        Objects.requireNonNull(orden, "El orden no puede ser nulo.");
+        long sello = lock.readLock();
+        try {
+            long[] ids = idsOrdenados.siguientes(despuesDeId, limite, orden);
+            List<Libro> pagina = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                pagina.add(materializar(filaPorId.get(id)));
+            }
+            return pagina;
+        } finally {
+            lock.unlockRead(sello);
+        }
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        Objects.requireNonNull(id, "El ID no puede ser nulo para eliminar.");
+        long sello = lock.writeLock();
+        try {
+            Integer fila = filaPorId.get(id);
+            if (fila == null) {
+                return;
+            }
+            oyentes.notificarEliminado(id);
+            filaPorId.remove(id);
+            idsOrdenados.quitar(id);
+            String isbn = isbnNormalizadoDeFila(fila);
+            if (isbn != null) {
+                idsPorHashDeIsbn.quitar(hashDeIsbn(isbn), id);
+            }
+            ByteBuffer bloque = bloqueDeFila(fila);
+            int base = desplazamientoDeFila(fila);
+            for (int columna : COLUMNAS_DE_TEXTO) {
+                arena.liberar(bloque.getLong(base + columna));
+            }
+            bloque.putInt(base + COLUMNA_OCUPADA, 0);
+            liberarFila(fila);
+            compactarTextosSiConviene();
+        } finally {
+            lock.unlockWrite(sello);
+            oyentes.notificarCompletada();
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        Objects.requireNonNull(id, "El ID no puede ser nulo para verificar existencia.");
+        return filaPorId.containsKey(id);
+    }
+
+    @Override
+    public void agregarOyente(OyenteDeMutaciones<Libro> oyente) {
+        oyentes.agregar(oyente);
+    }
+
+    private void asignarId(Libro libro) {
+        if (libro.getId() == null) {
+            libro.setId(sequenceGenerator.getAndIncrement());
+        } else {
+            sequenceGenerator.accumulateAndGet(libro.getId() + 1, Math::max);
+        }
+    }
+
+    private void guardar(Libro libro, boolean enLote) {
+        long id = libro.getId();
+        Integer filaExistente = filaPorId.get(id);
+        String isbnNuevo = libro.getIsbn() == null ? null : LibroRepositoryImpl.normalizarIsbn(libro.getIsbn());
+        String isbnAnterior = filaExistente == null ? null : isbnNormalizadoDeFila(filaExistente);
+
+        if (isbnNuevo != null && !isbnNuevo.equals(isbnAnterior) && buscarIdPorIsbn(isbnNuevo) != null) {
+            throw new RecursoDuplicadoException("Ya existe un libro con el ISBN: " + libro.getIsbn());
+        }
+        Long versionAnterior = filaExistente == null ? null
+                : bloqueDeFila(filaExistente).getLong(desplazamientoDeFila(filaExistente) + COLUMNA_VERSION);
+        Long versionEsperada = libro.getVersion();
+        libro.setVersion(Versiones.siguiente("El libro", id, versionEsperada, versionAnterior));
+        try {
+            if (enLote) {
+                oyentes.notificarGuardadoEnLote(libro);
+            } else {
+                oyentes.notificarGuardado(libro);
+            }
+        } catch (RuntimeException e) {
+            libro.setVersion(versionEsperada);
+            throw e;
+        }
+
+        int fila = filaExistente != null ? filaExistente : reservarFila();
+        ByteBuffer bloque = bloqueDeFila(fila);
+        int base = desplazamientoDeFila(fila);
+        bloque.putLong(base + COLUMNA_ID, id);
+        guardarTexto(bloque, base + COLUMNA_ISBN, filaExistente != null, libro.getIsbn());
+        guardarTexto(bloque, base + COLUMNA_TITULO, filaExistente != null, libro.getTitulo());
+        guardarTexto(bloque, base + COLUMNA_AUTOR, filaExistente != null, libro.getAutor());
+        bloque.putInt(base + COLUMNA_ESTADO, codigoDeEstado(libro.getEstado()));
+        bloque.putInt(base + COLUMNA_OCUPADA, 1);
+        bloque.putLong(base + COLUMNA_VERSION, libro.getVersion());
+
+        if (filaExistente == null) {
+            filaPorId.put(id, fila);
+            idsOrdenados.agregar(id);
+        }
+        if (!Objects.equals(isbnNuevo, isbnAnterior)) {
+            if (isbnAnterior != null) {
+                idsPorHashDeIsbn.quitar(hashDeIsbn(isbnAnterior), id);
+            }
+            if (isbnNuevo != null) {
+                idsPorHashDeIsbn.agregar(hashDeIsbn(isbnNuevo), id);
+            }
+        }
+        compactarTextosSiConviene();
+    }
+
+    private void guardarTexto(ByteBuffer bloque, int posicion, boolean filaOcupada, String texto) {
+        long anterior = filaOcupada ? bloque.getLong(posicion) : SIN_TEXTO;
+        bloque.putLong(posicion, arena.reemplazar(anterior, texto));
+    }
+
+    // Los textos reemplazados o borrados quedan como huecos en la arena; cuando ocupan más que los vivos
+    // se copian los vivos a una arena nueva, así el costo se reparte entre las escrituras que los generaron.
+    private void compactarTextosSiConviene() {
+        if (!arena.convieneCompactar()) {
+            return;
+        }
+        ArenaDeTextos compactada = new ArenaDeTextos();
+        for (int fila = 0; fila < siguienteFila; fila++) {
+            ByteBuffer bloque = bloqueDeFila(fila);
+            int base = desplazamientoDeFila(fila);
+            if (bloque.getInt(base + COLUMNA_OCUPADA) == 1) {
+                for (int columna : COLUMNAS_DE_TEXTO) {
+                    bloque.putLong(base + columna, compactada.copiar(arena, bloque.getLong(base + columna)));
+                }
+            }
+        }
+        arena = compactada;
+    }
+
+    long bytesDeTextos() {
+        long sello = lock.readLock();
+        try {
+            return arena.bytesEscritos();
+        } finally {
+            lock.unlockRead(sello);
+        }
+    }
+
+    private Libro materializar(int fila) {
+        ByteBuffer bloque = bloqueDeFila(fila);
+        int base = desplazamientoDeFila(fila);
+        int estado = bloque.getInt(base + COLUMNA_ESTADO);
+        return new Libro(
+                bloque.getLong(base + COLUMNA_ID),
+                arena.leer(bloque.getLong(base + COLUMNA_ISBN)),
+                arena.leer(bloque.getLong(base + COLUMNA_TITULO)),
+                arena.leer(bloque.getLong(base + COLUMNA_AUTOR)),
+                estado == 0 ? null : ESTADOS[estado - 1],
+                bloque.getLong(base + COLUMNA_VERSION));
+    }
+
+    private Long buscarIdPorIsbn(String isbnNormalizado) {
+        for (long candidato : idsPorHashDeIsbn.ids(hashDeIsbn(isbnNormalizado))) {
+            Integer fila = filaPorId.get(candidato);
+            if (fila != null && isbnNormalizado.equals(isbnNormalizadoDeFila(fila))) {
+                return candidato;
+            }
+        }
+        return null;
+    }
+
+    private String isbnNormalizadoDeFila(int fila) {
+        String isbn = arena.leer(bloqueDeFila(fila).getLong(desplazamientoDeFila(fila) + COLUMNA_ISBN));
+        return isbn == null ? null : LibroRepositoryImpl.normalizarIsbn(isbn);
+    }
+
+    private int reservarFila() {
+        if (cantidadFilasLibres > 0) {
+            return filasLibres[--cantidadFilasLibres];
+        }
+        int fila = siguienteFila++;
+        if (fila / FILAS_POR_BLOQUE == bloquesDeFilas.size()) {
+            bloquesDeFilas.add(ByteBuffer.allocateDirect(FILAS_POR_BLOQUE * TAMANIO_FILA));
+        }
+        return fila;
+    }
+
+    private void liberarFila(int fila) {
+        if (cantidadFilasLibres == filasLibres.length) {
+            filasLibres = Arrays.copyOf(filasLibres, filasLibres.length * 2);
+        }
+        filasLibres[cantidadFilasLibres++] = fila;
+    }
+
+    private ByteBuffer bloqueDeFila(int fila) {
+        return bloquesDeFilas.get(fila / FILAS_POR_BLOQUE);
+    }
+
+    private static int desplazamientoDeFila(int fila) {
+        return (fila % FILAS_POR_BLOQUE) * TAMANIO_FILA;
+    }
+
+    private static int codigoDeEstado(EstadoLibro estado) {
+        return estado == null ? 0 : estado.ordinal() + 1;
+    }
+
+    private static long hashDeIsbn(String isbnNormalizado) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < isbnNormalizado.length(); i++) {
+            hash ^= isbnNormalizado.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static final class ArenaDeTextos {
+
+        private static final int TAMANIO_BLOQUE = 1 << 20;
+
+        private final List<ByteBuffer> bloques = new ArrayList<>();
+        private ByteBuffer actual;
+        private long bytesEscritos;
+        private long bytesLiberados;
+
+        long reemplazar(long anterior, String texto) {
+            if (texto == null) {
+                liberar(anterior);
+                return SIN_TEXTO;
+            }
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            if (anterior != SIN_TEXTO && contiene(anterior, bytes)) {
+                return anterior;
+            }
+            liberar(anterior);
+            return agregar(bytes);
+        }
+
+        void liberar(long referencia) {
+            if (referencia != SIN_TEXTO) {
+                bytesLiberados += Integer.BYTES + bloqueDe(referencia).getInt((int) referencia);
+            }
+        }
+
+        long copiar(ArenaDeTextos origen, long referencia) {
+            if (referencia == SIN_TEXTO) {
+                return SIN_TEXTO;
+            }
+            ByteBuffer bloque = origen.bloqueDe(referencia);
+            int posicion = (int) referencia;
+            byte[] bytes = new byte[bloque.getInt(posicion)];
+            bloque.get(posicion + Integer.BYTES, bytes);
+            return agregar(bytes);
+        }
+
+        boolean convieneCompactar() {
+            return bytesLiberados > TAMANIO_BLOQUE && bytesLiberados * 2 > bytesEscritos;
+        }
+
+        long bytesEscritos() {
+            return bytesEscritos;
+        }
+
+        String leer(long referencia) {
+            if (referencia == SIN_TEXTO) {
+                return null;
+            }
+            ByteBuffer bloque = bloqueDe(referencia);
+            int posicion = (int) referencia;
+            byte[] bytes = new byte[bloque.getInt(posicion)];
+            bloque.get(posicion + Integer.BYTES, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private long agregar(byte[] bytes) {
+            int necesarios = Integer.BYTES + bytes.length;
+            if (actual == null || actual.remaining() < necesarios) {
+                actual = ByteBuffer.allocateDirect(Math.max(TAMANIO_BLOQUE, necesarios));
+                bloques.add(actual);
+            }
+            long referencia = ((long) (bloques.size() - 1) << 32) | actual.position();
+            actual.putInt(bytes.length);
+            actual.put(bytes);
+            bytesEscritos += necesarios;
+            return referencia;
+        }
+
+        private boolean contiene(long referencia, byte[] bytes) {
+            ByteBuffer bloque = bloqueDe(referencia);
+            int posicion = (int) referencia;
+            if (bloque.getInt(posicion) != bytes.length) {
+                return false;
+            }
+            return bloque.slice(posicion + Integer.BYTES, bytes.length).equals(ByteBuffer.wrap(bytes));
+        }
+
+        private ByteBuffer bloqueDe(long referencia) {
+            return bloques.get((int) (referencia >>> 32));
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package com.biblioteca.sistemagestion.repositorios;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+final class MapaLongConcurrente<V> {
+
+    @FunctionalInterface
+    interface Recalculo<V> {
+        V aplicar(long clave, V actual);
+    }
+
+    @FunctionalInterface
+    interface RecalculoEnLote<V> {
+        V aplicar(int posicion, long clave, V actual);
+    }
+
+    private static final int BITS_SEGMENTOS = 6;
+    private static final int CAPACIDAD_INICIAL = 16;
+    private static final int INTENTOS_SIN_BLOQUEO = 8;
+
+    private final Segmento<V>[] segmentos;
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock reconstruccion = new ReentrantLock();
+    private volatile Instantanea<V> instantanea;
+
+    @SuppressWarnings("unchecked")
+    MapaLongConcurrente() {
+        segmentos = new Segmento[1 << BITS_SEGMENTOS];
+        for (int i = 0; i < segmentos.length; i++) {
+            segmentos[i] = new Segmento<>();
+        }
+    }
+
+    V get(long clave) {
+        long hash = mezclar(clave);
+        Segmento<V> segmento = segmentoPara(hash);
+        long sello = segmento.lock.tryOptimisticRead();
+        V valor = segmento.buscar(clave, hash);
+        if (!segmento.lock.validate(sello)) {
+            sello = segmento.lock.readLock();
+            try {
+                valor = segmento.buscar(clave, hash);
+            } finally {
+                segmento.lock.unlockRead(sello);
+            }
+        }
+        return valor;
+    }
+
+    boolean containsKey(long clave) {
+        return get(clave) != null;
+    }
+
+    V put(long clave, V valor) {
+        long hash = mezclar(clave);
+        Segmento<V> segmento = segmentoPara(hash);
+        long sello = segmento.lock.writeLock();
+        try {
+            V anterior = segmento.buscar(clave, hash);
+            segmento.vista = null;
+            segmento.poner(clave, hash, valor);
+            version.incrementAndGet();
+            return anterior;
+        } finally {
+            segmento.lock.unlockWrite(sello);
+        }
+    }
+
+    V remove(long clave) {
+        long hash = mezclar(clave);
+        Segmento<V> segmento = segmentoPara(hash);
+        long sello = segmento.lock.writeLock();
+        try {
+            if (segmento.buscar(clave, hash) == null) {
+                return null;
+            }
+            segmento.vista = null;
+            V anterior = segmento.quitar(clave, hash);
+            version.incrementAndGet();
+            return anterior;
+        } finally {
+            segmento.lock.unlockWrite(sello);
+        }
+    }
+
+    V compute(long clave, Recalculo<V> recalculo) {
+        long hash = mezclar(clave);
+        Segmento<V> segmento = segmentoPara(hash);
+        long sello = segmento.lock.writeLock();
+        try {
+            return recalcular(segmento, clave, hash, recalculo);
+        } finally {
+            segmento.lock.unlockWrite(sello);
+        }
+    }
+
+    // Recorre el lote agrupado por segmento y bloquea sólo uno a la vez: cada grupo se aplica en el orden del
+    // lote y alTerminarGrupo corre antes de soltar su segmento, así ninguna otra escritura sobre esas claves se
+    // intercala entre el cambio y lo que se haga con él, y el resto del mapa sigue disponible durante el lote.
+    // Si un recálculo falla, los grupos anteriores y las claves ya aplicadas del grupo actual se conservan.
+    void computeEnLote(long[] claves, RecalculoEnLote<V> recalculo, Runnable alTerminarGrupo) {
+        int[] inicioDeGrupo = new int[segmentos.length + 1];
+        long[] hashes = new long[claves.length];
+        for (int i = 0; i < claves.length; i++) {
+            hashes[i] = mezclar(claves[i]);
+            inicioDeGrupo[indiceDeSegmento(hashes[i]) + 1]++;
+        }
+        for (int i = 0; i < segmentos.length; i++) {
+            inicioDeGrupo[i + 1] += inicioDeGrupo[i];
+        }
+        int[] orden = new int[claves.length];
+        int[] siguiente = Arrays.copyOf(inicioDeGrupo, segmentos.length);
+        for (int i = 0; i < claves.length; i++) {
+            orden[siguiente[indiceDeSegmento(hashes[i])]++] = i;
+        }
+
+        for (int s = 0; s < segmentos.length; s++) {
+            if (inicioDeGrupo[s] == inicioDeGrupo[s + 1]) {
+                continue;
+            }
+            Segmento<V> segmento = segmentos[s];
+            long sello = segmento.lock.writeLock();
+            try {
+                try {
+                    for (int i = inicioDeGrupo[s]; i < inicioDeGrupo[s + 1]; i++) {
+                        int posicion = orden[i];
+                        recalcular(segmento, claves[posicion], hashes[posicion],
+                                (clave, valor) -> recalculo.aplicar(posicion, clave, valor));
+                    }
+                } finally {
+                    alTerminarGrupo.run();
+                }
+            } finally {
+                segmento.lock.unlockWrite(sello);
+            }
+        }
+    }
+
+    private V recalcular(Segmento<V> segmento, long clave, long hash, Recalculo<V> recalculo) {
+        V actual = segmento.buscar(clave, hash);
+        V nuevo = recalculo.aplicar(clave, actual);
+        if (nuevo == null) {
+            if (actual != null) {
+                segmento.vista = null;
+                segmento.quitar(clave, hash);
+                version.incrementAndGet();
+            }
+        } else {
+            segmento.vista = null;
+            segmento.poner(clave, hash, nuevo);
+            version.incrementAndGet();
+        }
+        return nuevo;
+    }
+
+    V computeIfPresent(long clave, Recalculo<V> recalculo) {
+        return compute(clave, (k, actual) -> actual == null ? null : recalculo.aplicar(k, actual));
+    }
+
+    int size() {
+        int total = 0;
+        for (Segmento<V> segmento : segmentos) {
+            long sello = segmento.lock.readLock();
+            try {
+                total += segmento.tamanio;
+            } finally {
+                segmento.lock.unlockRead(sello);
+            }
+        }
+        return total;
+    }
+
+    void forEachValue(Consumer<? super V> accion) {
+        for (Segmento<V> segmento : segmentos) {
+            List<V> copia;
+            long sello = segmento.lock.readLock();
+            try {
+                copia = segmento.valores();
+            } finally {
+                segmento.lock.unlockRead(sello);
+            }
+            copia.forEach(accion);
+        }
+    }
+
+    List<V> values() {
+        List<V> resultado = new ArrayList<>();
+        forEachValue(resultado::add);
+        return resultado;
+    }
+
+    // La lista es inmutable y se comparte hasta la siguiente escritura, pero sus elementos son las mismas
+    // instancias que guarda el mapa: un compareAndSetEstado posterior cambia el estado y la versión de un
+    // libro que ya figura en una instantánea publicada. Quien necesite valores congelados debe copiarlos.
+    List<V> instantanea() {
+        long pedida = version.get();
+        Instantanea<V> actual = instantanea;
+        if (actual != null && actual.version() >= pedida) {
+            return actual.valores();
+        }
+        reconstruccion.lock();
+        try {
+            actual = instantanea;
+            if (actual != null && actual.version() >= pedida) {
+                return actual.valores();
+            }
+            Instantanea<V> nueva = construirInstantanea();
+            instantanea = nueva;
+            return nueva.valores();
+        } finally {
+            reconstruccion.unlock();
+        }
+    }
+
+    private Instantanea<V> construirInstantanea() {
+        Object[][] vistas = new Object[segmentos.length][];
+        for (int intento = 0; intento < INTENTOS_SIN_BLOQUEO; intento++) {
+            long antes = version.get();
+            for (int i = 0; i < segmentos.length; i++) {
+                vistas[i] = segmentos[i].vista();
+            }
+            if (version.get() == antes) {
+                return new Instantanea<>(antes, new VistaCompuesta<>(vistas));
+            }
+        }
+        // Con escrituras continuas no se llega a un corte limpio; se bloquean los segmentos sólo para
+        // reunir las vistas, que ya están copiadas salvo las de los segmentos recién modificados.
+        long[] sellos = new long[segmentos.length];
+        for (int i = 0; i < segmentos.length; i++) {
+            sellos[i] = segmentos[i].lock.readLock();
+        }
+        try {
+            for (int i = 0; i < segmentos.length; i++) {
+                vistas[i] = segmentos[i].vistaBloqueada();
+            }
+            return new Instantanea<>(version.get(), new VistaCompuesta<>(vistas));
+        } finally {
+            for (int i = 0; i < segmentos.length; i++) {
+                segmentos[i].lock.unlockRead(sellos[i]);
+            }
+        }
+    }
+
+    private Segmento<V> segmentoPara(long hash) {
+        return segmentos[indiceDeSegmento(hash)];
+    }
+
+    private static int indiceDeSegmento(long hash) {
+        return (int) (hash >>> (Long.SIZE - BITS_SEGMENTOS));
+    }
+
+    private static long mezclar(long clave) {
+        long hash = clave * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private record Instantanea<V>(long version, List<V> valores) {
+    }
+
+    private static final class VistaCompuesta<V> extends AbstractList<V> implements RandomAccess {
+
+        private final Object[][] partes;
+        private final int[] inicios;
+        private final int tamanio;
+
+        VistaCompuesta(Object[][] partes) {
+            this.partes = partes;
+            this.inicios = new int[partes.length];
+            int total = 0;
+            for (int i = 0; i < partes.length; i++) {
+                inicios[i] = total;
+                total += partes[i].length;
+            }
+            this.tamanio = total;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(int indice) {
+            if (indice < 0 || indice >= tamanio) {
+                throw new IndexOutOfBoundsException(indice);
+            }
+            int parte = Arrays.binarySearch(inicios, indice);
+            if (parte < 0) {
+                parte = -parte - 2;
+            } else {
+                while (partes[parte].length == 0) {
+                    parte++;
+                }
+            }
+            return (V) partes[parte][indice - inicios[parte]];
+        }
+
+        @Override
+        public int size() {
+            return tamanio;
+        }
+    }
+
+    private static final class Tabla {
+        final long[] claves;
+        final Object[] valores;
+
+        Tabla(int capacidad) {
+            this.claves = new long[capacidad];
+            this.valores = new Object[capacidad];
+        }
+    }
+
+    private static final class Segmento<V> {
+
+        final StampedLock lock = new StampedLock();
+        Tabla tabla = new Tabla(CAPACIDAD_INICIAL);
+        int tamanio;
+        volatile Object[] vista;
+
+        Object[] vista() {
+            Object[] actual = vista;
+            if (actual != null) {
+                return actual;
+            }
+            long sello = lock.readLock();
+            try {
+                return vistaBloqueada();
+            } finally {
+                lock.unlockRead(sello);
+            }
+        }
+
+        Object[] vistaBloqueada() {
+            Object[] actual = vista;
+            if (actual == null) {
+                actual = new Object[tamanio];
+                int posicion = 0;
+                for (Object valor : tabla.valores) {
+                    if (valor != null) {
+                        actual[posicion++] = valor;
+                    }
+                }
+                vista = actual;
+            }
+            return actual;
+        }
+
+        @SuppressWarnings("unchecked")
+        V buscar(long clave, long hash) {
+            Tabla t = tabla;
+            int mascara = t.valores.length - 1;
+            int i = (int) hash & mascara;
+            for (int intentos = 0; intentos <= mascara; intentos++) {
+                Object valor = t.valores[i];
+                if (valor == null) {
+                    return null;
+                }
+                if (t.claves[i] == clave) {
+                    return (V) valor;
+                }
+                i = (i + 1) & mascara;
+            }
+            return null;
+        }
+
+        void poner(long clave, long hash, V valor) {
+            Tabla t = tabla;
+            int mascara = t.valores.length - 1;
+            int i = (int) hash & mascara;
+            while (t.valores[i] != null) {
+                if (t.claves[i] == clave) {
+                    t.valores[i] = valor;
+                    return;
+                }
+                i = (i + 1) & mascara;
+            }
+            t.claves[i] = clave;
+            t.valores[i] = valor;
+            tamanio++;
+            if (tamanio * 4 > t.valores.length * 3) {
+                redimensionar(t.valores.length << 1);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V quitar(long clave, long hash) {
+            Tabla t = tabla;
+            int mascara = t.valores.length - 1;
+            int i = (int) hash & mascara;
+            while (t.valores[i] != null) {
+                if (t.claves[i] == clave) {
+                    V anterior = (V) t.valores[i];
+                    desplazarHaciaAtras(t, i);
+                    tamanio--;
+                    return anterior;
+                }
+                i = (i + 1) & mascara;
+            }
+            return null;
+        }
+
+        private void desplazarHaciaAtras(Tabla t, int hueco) {
+            int mascara = t.valores.length - 1;
+            int j = hueco;
+            while (true) {
+                j = (j + 1) & mascara;
+                if (t.valores[j] == null) {
+                    break;
+                }
+                int ideal = (int) mezclar(t.claves[j]) & mascara;
+                boolean puedeMoverse = hueco <= j
+                        ? ideal <= hueco || ideal > j
+                        : ideal <= hueco && ideal > j;
+                if (puedeMoverse) {
+                    t.claves[hueco] = t.claves[j];
+                    t.valores[hueco] = t.valores[j];
+                    hueco = j;
+                }
+            }
+            t.valores[hueco] = null;
+            t.claves[hueco] = 0L;
+        }
+
+        private void redimensionar(int capacidad) {
+            Tabla anterior = tabla;
+            Tabla nueva = new Tabla(capacidad);
+            int mascara = capacidad - 1;
+            for (int i = 0; i < anterior.valores.length; i++) {
+                Object valor = anterior.valores[i];
+                if (valor != null) {
+                    long clave = anterior.claves[i];
+                    int j = (int) mezclar(clave) & mascara;
+                    while (nueva.valores[j] != null) {
+                        j = (j + 1) & mascara;
+                    }
+                    nueva.claves[j] = clave;
+                    nueva.valores[j] = valor;
+                }
+            }
+            tabla = nueva;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<V> valores() {
+            List<V> copia = new ArrayList<>(tamanio);
+            for (Object valor : tabla.valores) {
+                if (valor != null) {
+                    copia.add((V) valor);
+                }
+            }
+            return copia;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.biblioteca.sistemagestion.repositorios;
+
+public enum Orden {
+    ASCENDENTE,
+    DESCENDENTE
+}
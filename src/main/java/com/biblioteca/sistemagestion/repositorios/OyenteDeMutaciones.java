@@ -0,0 +1,31 @@
+package com.biblioteca.sistemagestion.repositorios;
+
+import java.util.List;
+
+public interface OyenteDeMutaciones<T> {
+
+    void guardado(T entidad);
+
+    default void guardados(List<T> entidades) {
+        for (T entidad : entidades) {
+            guardado(entidad);
+        }
+    }
+
+    default void estadoCambiado(T entidad) {
+        guardado(entidad);
+    }
+
+    void eliminado(long id);
+
+    default void mutacionCompletada() {
+    }
+
+    default boolean esDiario() {
+        return false;
+    }
+
+    default boolean admiteLotes() {
+        return false;
+    }
+}
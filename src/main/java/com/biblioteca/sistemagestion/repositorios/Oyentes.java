@@ -0,0 +1,75 @@
+package com.biblioteca.sistemagestion.repositorios;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+final class Oyentes<T> {
+
+    private final List<OyenteDeMutaciones<T>> oyentes = new CopyOnWriteArrayList<>();
+
+    synchronized void agregar(OyenteDeMutaciones<T> oyente) {
+        Objects.requireNonNull(oyente, "El oyente no puede ser nulo.");
+        // El diario va último: si otro oyente falla, la mutación se revierte en memoria antes de llegar al
+        // diario y no queda ningún registro que la reviva al reproducirlo tras un reinicio.
+        if (oyente.esDiario()) {
+            oyentes.add(oyente);
+        } else {
+            oyentes.add(primerDiario(), oyente);
+        }
+    }
+
+    private int primerDiario() {
+        for (int i = 0; i < oyentes.size(); i++) {
+            if (oyentes.get(i).esDiario()) {
+                return i;
+            }
+        }
+        return oyentes.size();
+    }
+
+    void notificarGuardado(T entidad) {
+        for (OyenteDeMutaciones<T> oyente : oyentes) {
+            oyente.guardado(entidad);
+        }
+    }
+
+    // En un saveAll los oyentes que admiten lotes reciben las entidades de cada grupo juntas, todavía con el
+    // bloqueo de ese grupo tomado; el resto sigue viéndolas una a una dentro de cada escritura.
+    void notificarGuardadoEnLote(T entidad) {
+        for (OyenteDeMutaciones<T> oyente : oyentes) {
+            if (!oyente.admiteLotes()) {
+                oyente.guardado(entidad);
+            }
+        }
+    }
+
+    void notificarGuardados(List<T> entidades) {
+        if (entidades.isEmpty()) {
+            return;
+        }
+        for (OyenteDeMutaciones<T> oyente : oyentes) {
+            if (oyente.admiteLotes()) {
+                oyente.guardados(entidades);
+            }
+        }
+    }
+
+    void notificarEstadoCambiado(T entidad) {
+        for (OyenteDeMutaciones<T> oyente : oyentes) {
+            oyente.estadoCambiado(entidad);
+        }
+    }
+
+    void notificarEliminado(long id) {
+        for (OyenteDeMutaciones<T> oyente : oyentes) {
+            oyente.eliminado(id);
+        }
+    }
+
+    void notificarCompletada() {
+        for (OyenteDeMutaciones<T> oyente : oyentes) {
+            oyente.mutacionCompletada();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.biblioteca.sistemagestion.repositorios;
 
 import com.biblioteca.sistemagestion.modelo.Prestamo;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +13,8 @@ public interface PrestamoRepository {
 
     List<Prestamo> findAll();
 
+    List<Prestamo> findPage(Long despuesDeId, int limite, Orden orden);
+
     List<Prestamo> findByUsuarioId(Long usuarioId);
 
     List<Prestamo> findByLibroId(Long libroId);
@@ -19,6 +22,10 @@ public interface PrestamoRepository {
     Optional<Prestamo> findActiveByLibroId(Long libroId);
 
 
-    void deleteById(Long id);
+    boolean deleteById(Long id);
+
+    List<Long> deleteAllById(Collection<Long> ids);
+
+    void agregarOyente(OyenteDeMutaciones<Prestamo> oyente);
 
-}
\ No newline at end of file
+}
@@ -1,32 +1,34 @@
 package com.biblioteca.sistemagestion.repositorios;
 
 import com.biblioteca.sistemagestion.modelo.Prestamo;
-import com.biblioteca.sistemagestion.modelo.Libro;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
 
 @Repository
 public class PrestamoRepositoryImpl implements PrestamoRepository {
 
-    private final Map<Long, Prestamo> prestamos = new HashMap<>();
+    private final MapaLongConcurrente<Prestamo> prestamos = new MapaLongConcurrente<>();
+    private final IndiceMultiple prestamosPorUsuario = new IndiceMultiple();
+    private final IndiceMultiple prestamosPorLibro = new IndiceMultiple();
+    private final MapaLongConcurrente<Long> prestamoActivoPorLibro = new MapaLongConcurrente<>();
+    private final MapaLongConcurrente<ClavesIndexadas> clavesIndexadasPorId = new MapaLongConcurrente<>();
+    private final IndiceOrdenado idsOrdenados = new IndiceOrdenado();
     private final AtomicLong sequenceGenerator = new AtomicLong(1);
+    private final Oyentes<Prestamo> oyentes = new Oyentes<>();
 
     @Override
     public Prestamo save(Prestamo prestamo) {
-        Objects.requireNonNull(prestamo, "El préstamo no puede ser nulo.");
-        if (prestamo.getId() == null) {
-            prestamo.setId(sequenceGenerator.getAndIncrement());
+        try {
+            return guardar(prestamo);
+        } finally {
+            oyentes.notificarCompletada();
         }
-        prestamos.put(prestamo.getId(), prestamo);
-        return prestamo;
     }
 
     @Override
@@ -37,37 +39,163 @@ public class PrestamoRepositoryImpl implements PrestamoRepository {
 
     @Override
     public List<Prestamo> findAll() {
-        return new ArrayList<>(prestamos.values());
+        return prestamos.instantanea();
+    }
+
+    @Override
+    public List<Prestamo> findPage(Long despuesDeId, int limite, Orden orden) {
+        Objects.requireNonNull(orden, "El orden no puede ser nulo.");
+        return buscarPorIds(idsOrdenados.siguientes(despuesDeId, limite, orden));
     }
 
     @Override
     public List<Prestamo> findByUsuarioId(Long usuarioId) {
         Objects.requireNonNull(usuarioId, "El ID de usuario no puede ser nulo.");
-        return prestamos.values().stream()
-                .filter(prestamo -> prestamo.getUsuario() != null && usuarioId.equals(prestamo.getUsuario().getId()))
-                .collect(Collectors.toList());
+        return buscarPorIds(prestamosPorUsuario.ids(usuarioId));
     }
 
     @Override
     public List<Prestamo> findByLibroId(Long libroId) {
         Objects.requireNonNull(libroId, "El ID del libro no puede ser nulo.");
-        return prestamos.values().stream()
-                .filter(prestamo -> prestamo.getLibro() != null && libroId.equals(prestamo.getLibro().getId()))
-                .collect(Collectors.toList());
+        return buscarPorIds(prestamosPorLibro.ids(libroId));
     }
 
     @Override
     public Optional<Prestamo> findActiveByLibroId(Long libroId) {
         Objects.requireNonNull(libroId, "El ID del libro no puede ser nulo.");
-        return prestamos.values().stream()
-                .filter(prestamo -> prestamo.getLibro() != null && libroId.equals(prestamo.getLibro().getId()))
-                .findFirst(); // Devuelve el primero (o único) préstamo para ese libro ID
+        Long id = prestamoActivoPorLibro.get(libroId);
+        return id == null ? Optional.empty() : Optional.ofNullable(prestamos.get(id));
     }
 
 
     @Override
-    public void deleteById(Long id) {
+    public boolean deleteById(Long id) {
+        try {
+            return eliminar(id);
+        } finally {
+            oyentes.notificarCompletada();
+        }
+    }
+
+    @Override
+    public List<Long> deleteAllById(Collection<Long> ids) {
+        Objects.requireNonNull(ids, "La colección de IDs no puede ser nula.");
+        List<Long> eliminados = new ArrayList<>(ids.size());
+        try {
+            for (Long id : ids) {
+                if (eliminar(id)) {
+                    eliminados.add(id);
+                }
+            }
+        } finally {
+            oyentes.notificarCompletada();
+        }
+        return eliminados;
+    }
+
+    @Override
+    public void agregarOyente(OyenteDeMutaciones<Prestamo> oyente) {
+        oyentes.agregar(oyente);
+    }
+
+    private Prestamo guardar(Prestamo prestamo) {
+        Objects.requireNonNull(prestamo, "El préstamo no puede ser nulo.");
+        if (prestamo.getId() == null) {
+            prestamo.setId(sequenceGenerator.getAndIncrement());
+        } else {
+            sequenceGenerator.accumulateAndGet(prestamo.getId() + 1, Math::max);
+        }
+        prestamos.compute(prestamo.getId(), (id, anterior) -> {
+            Long versionEsperada = prestamo.getVersion();
+            long version = Versiones.siguiente("El préstamo", id, versionEsperada,
+                    anterior == null ? null : anterior.getVersion());
+            prestamo.setVersion(version);
+            try {
+                oyentes.notificarGuardado(prestamo);
+            } catch (RuntimeException e) {
+                prestamo.setVersion(versionEsperada);
+                throw e;
+            }
+            indexar(id, prestamo);
+            if (anterior == null) {
+                idsOrdenados.agregar(id);
+            }
+            return prestamo;
+        });
+        return prestamo;
+    }
+
+    private boolean eliminar(Long id) {
         Objects.requireNonNull(id, "El ID del préstamo no puede ser nulo para eliminar.");
-        prestamos.remove(id);
+        boolean[] eliminado = new boolean[1];
+        prestamos.computeIfPresent(id, (clave, prestamo) -> {
+            oyentes.notificarEliminado(clave);
+            desindexar(clave);
+            idsOrdenados.quitar(clave);
+            eliminado[0] = true;
+            return null;
+        });
+        return eliminado[0];
+    }
+
+    private void indexar(long id, Prestamo prestamo) {
+        ClavesIndexadas nuevas = new ClavesIndexadas(
+                prestamo.getUsuario() == null ? null : prestamo.getUsuario().getId(),
+                prestamo.getLibro() == null ? null : prestamo.getLibro().getId());
+        ClavesIndexadas anteriores = clavesIndexadasPorId.put(id, nuevas);
+        if (anteriores != null) {
+            if (!Objects.equals(anteriores.usuarioId(), nuevas.usuarioId()) && anteriores.usuarioId() != null) {
+                prestamosPorUsuario.quitar(anteriores.usuarioId(), id);
+            }
+            if (!Objects.equals(anteriores.libroId(), nuevas.libroId()) && anteriores.libroId() != null) {
+                prestamosPorLibro.quitar(anteriores.libroId(), id);
+                liberarPrestamoActivo(anteriores.libroId(), id);
+            }
+        }
+        if (nuevas.usuarioId() != null) {
+            prestamosPorUsuario.agregar(nuevas.usuarioId(), id);
+        }
+        if (nuevas.libroId() != null) {
+            prestamosPorLibro.agregar(nuevas.libroId(), id);
+            prestamoActivoPorLibro.put(nuevas.libroId(), prestamo.getId());
+        }
+    }
+
+    private void desindexar(long id) {
+        ClavesIndexadas claves = clavesIndexadasPorId.remove(id);
+        if (claves == null) {
+            return;
+        }
+        if (claves.usuarioId() != null) {
+            prestamosPorUsuario.quitar(claves.usuarioId(), id);
+        }
+        if (claves.libroId() != null) {
+            prestamosPorLibro.quitar(claves.libroId(), id);
+            liberarPrestamoActivo(claves.libroId(), id);
+        }
+    }
+
+    private void liberarPrestamoActivo(Long libroId, long idPrestamo) {
+        prestamoActivoPorLibro.computeIfPresent(libroId, (clave, activo) -> {
+            if (activo != idPrestamo) {
+                return activo;
+            }
+            long[] restantes = prestamosPorLibro.ids(libroId);
+            return restantes.length == 0 ? null : restantes[restantes.length - 1];
+        });
+    }
+
+    private List<Prestamo> buscarPorIds(long[] ids) {
+        List<Prestamo> resultado = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Prestamo prestamo = prestamos.get(id);
+            if (prestamo != null) {
+                resultado.add(prestamo);
+            }
+        }
+        return resultado;
+    }
+
+    private record ClavesIndexadas(Long usuarioId, Long libroId) {
     }
-}
\ No newline at end of file
+}
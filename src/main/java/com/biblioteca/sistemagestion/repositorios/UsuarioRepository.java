@@ -14,8 +14,12 @@ public interface UsuarioRepository {
 
     List<Usuario> findAll();
 
+    List<Usuario> findPage(Long despuesDeId, int limite, Orden orden);
+
     void deleteById(Long id);
 
     boolean existsById(Long id);
 
-}
\ No newline at end of file
+    void agregarOyente(OyenteDeMutaciones<Usuario> oyente);
+
+}
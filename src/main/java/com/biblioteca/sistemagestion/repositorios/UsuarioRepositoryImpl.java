@@ -1,30 +1,35 @@
 package com.biblioteca.sistemagestion.repositorios;
 
+import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
 import com.biblioteca.sistemagestion.modelo.Usuario;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Repository
 public class UsuarioRepositoryImpl implements UsuarioRepository {
 
-    private final Map<Long, Usuario> usuarios = new HashMap<>();
+    private final MapaLongConcurrente<Usuario> usuarios = new MapaLongConcurrente<>();
+    private final Map<String, Long> idsPorEmail = new ConcurrentHashMap<>();
+    private final MapaLongConcurrente<String> emailIndexadoPorId = new MapaLongConcurrente<>();
+    private final IndiceOrdenado idsOrdenados = new IndiceOrdenado();
     private final AtomicLong sequenceGenerator = new AtomicLong(1);
+    private final Oyentes<Usuario> oyentes = new Oyentes<>();
 
     @Override
     public Usuario save(Usuario usuario) {
-        Objects.requireNonNull(usuario, "El usuario no puede ser nulo.");
-        if (usuario.getId() == null) {
-            usuario.setId(sequenceGenerator.getAndIncrement());
+        try {
+            return guardar(usuario);
+        } finally {
+            oyentes.notificarCompletada();
         }
-        usuarios.put(usuario.getId(), usuario);
-        return usuario;
     }
 
     @Override
@@ -36,20 +41,42 @@ public class UsuarioRepositoryImpl implements UsuarioRepository {
     @Override
     public Optional<Usuario> findByEmail(String email) {
         Objects.requireNonNull(email, "El email no puede ser nulo.");
-        return usuarios.values().stream()
-                .filter(usuario -> usuario.getEmail() != null && email.equalsIgnoreCase(usuario.getEmail()))
-                .findFirst();
+        Long id = idsPorEmail.get(normalizarEmail(email));
+        return id == null ? Optional.empty() : Optional.ofNullable(usuarios.get(id));
     }
 
     @Override
     public List<Usuario> findAll() {
-        return new ArrayList<>(usuarios.values());
+        return usuarios.instantanea();
+    }
+
+    @Override
+    public List<Usuario> findPage(Long despuesDeId, int limite, Orden orden) {
+        Objects.requireNonNull(orden, "El orden no puede ser nulo.");
+        long[] ids = idsOrdenados.siguientes(despuesDeId, limite, orden);
+        List<Usuario> pagina = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Usuario usuario = usuarios.get(id);
+            if (usuario != null) {
+                pagina.add(usuario);
+            }
+        }
+        return pagina;
     }
 
     @Override
     public void deleteById(Long id) {
         Objects.requireNonNull(id, "El ID no puede ser nulo para eliminar.");
-        usuarios.remove(id);
+        try {
+            usuarios.computeIfPresent(id, (clave, usuario) -> {
+                oyentes.notificarEliminado(clave);
+                liberarEmail(clave);
+                idsOrdenados.quitar(clave);
+                return null;
+            });
+        } finally {
+            oyentes.notificarCompletada();
+        }
     }
 
     @Override
@@ -57,4 +84,78 @@ public class UsuarioRepositoryImpl implements UsuarioRepository {
         Objects.requireNonNull(id, "El ID no puede ser nulo para verificar existencia.");
         return usuarios.containsKey(id);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void agregarOyente(OyenteDeMutaciones<Usuario> oyente) {
+        oyentes.agregar(oyente);
+    }
+
+    private Usuario guardar(Usuario usuario) {
+        Objects.requireNonNull(usuario, "El usuario no puede ser nulo.");
+        if (usuario.getId() == null) {
+            usuario.setId(sequenceGenerator.getAndIncrement());
+        } else {
+            sequenceGenerator.accumulateAndGet(usuario.getId() + 1, Math::max);
+        }
+        usuarios.compute(usuario.getId(), (id, anterior) -> {
+            Long versionEsperada = usuario.getVersion();
+            long version = Versiones.siguiente("El usuario", id, versionEsperada,
+                    anterior == null ? null : anterior.getVersion());
+            String emailAnterior = emailIndexadoPorId.get(id);
+            String emailNuevo = usuario.getEmail() == null ? null : normalizarEmail(usuario.getEmail());
+            boolean reservado = reservarEmail(id, emailNuevo, emailAnterior, usuario.getEmail());
+            usuario.setVersion(version);
+            try {
+                oyentes.notificarGuardado(usuario);
+            } catch (RuntimeException e) {
+                usuario.setVersion(versionEsperada);
+                if (reservado) {
+                    idsPorEmail.remove(emailNuevo, id);
+                }
+                throw e;
+            }
+            confirmarEmail(id, emailNuevo, emailAnterior);
+            if (anterior == null) {
+                idsOrdenados.agregar(id);
+            }
+            return usuario;
+        });
+        return usuario;
+    }
+
+    private boolean reservarEmail(long id, String emailNuevo, String emailAnterior, String emailOriginal) {
+        if (emailNuevo == null || emailNuevo.equals(emailAnterior)) {
+            return false;
+        }
+        Long propietario = idsPorEmail.putIfAbsent(emailNuevo, id);
+        if (propietario != null && propietario != id) {
+            throw new RecursoDuplicadoException("El email '" + emailOriginal + "' ya está registrado.");
+        }
+        return propietario == null;
+    }
+
+    private void confirmarEmail(long id, String emailNuevo, String emailAnterior) {
+        if (Objects.equals(emailNuevo, emailAnterior)) {
+            return;
+        }
+        if (emailNuevo != null) {
+            emailIndexadoPorId.put(id, emailNuevo);
+        } else {
+            emailIndexadoPorId.remove(id);
+        }
+        if (emailAnterior != null) {
+            idsPorEmail.computeIfPresent(emailAnterior, (clave, propietario) -> propietario == id ? null : propietario);
+        }
+    }
+
+    private void liberarEmail(long id) {
+        String email = emailIndexadoPorId.remove(id);
+        if (email != null) {
+            idsPorEmail.computeIfPresent(email, (clave, propietario) -> propietario == id ? null : propietario);
+        }
+    }
+
+    static String normalizarEmail(String email) {
+        return email.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,24 @@
+package com.biblioteca.sistemagestion.repositorios;
+
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
+
+final class Versiones {
+
+    private Versiones() {
+    }
+
+    static long siguiente(String recurso, long id, Long esperada, Long actual) {
+        if (actual == null) {
+            return esperada == null ? 1L : esperada;
+        }
+        if (esperada != null && esperada.longValue() != actual.longValue()) {
+            throw new ConflictoDeVersionException(recurso + " con ID " + id + " fue modificado por otra operación "
+                    + "(versión esperada " + esperada + ", versión actual " + actual + ").");
+        }
+        return actual + 1;
+    }
+
+    static long incrementar(Long actual) {
+        return actual == null ? 1L : actual + 1;
+    }
+}
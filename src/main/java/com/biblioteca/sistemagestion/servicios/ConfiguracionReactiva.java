@@ -0,0 +1,19 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ConfiguracionReactiva {
+
+    // Los servicios son síncronos (candados por clave, diario en disco): nunca se ejecutan en los hilos de Netty
+    @Bean(destroyMethod = "dispose")
+    public Scheduler planificadorDeServicios() {
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "servicios-reactivos");
+    }
+}
@@ -0,0 +1,56 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+final class EjecucionReactiva {
+
+    @FunctionalInterface
+    interface ConsultaDePagina<T> {
+        PaginaDTO<T> buscar(String cursor);
+    }
+
+    private final Scheduler planificador;
+
+    EjecucionReactiva(Scheduler planificador) {
+        this.planificador = Objects.requireNonNull(planificador, "El planificador no puede ser nulo.");
+    }
+
+    <T> Mono<T> mono(Callable<T> llamada) {
+        return Mono.fromCallable(llamada).subscribeOn(planificador);
+    }
+
+    <T> Mono<T> opcional(Callable<Optional<T>> llamada) {
+        return mono(llamada).flatMap(Mono::justOrEmpty);
+    }
+
+    Mono<Void> accion(Runnable accion) {
+        return Mono.<Void>fromRunnable(accion).subscribeOn(planificador);
+    }
+
+    <T> Flux<T> lista(Callable<List<T>> llamada) {
+        return mono(llamada).flatMapIterable(Function.identity());
+    }
+
+    // Cada página se consulta cuando el suscriptor agotó la anterior y pidió más elementos
+    <T> Flux<T> paginas(ConsultaDePagina<T> consulta) {
+        return Flux.<List<T>, Optional<String>>generate(Optional::empty, (cursor, sumidero) -> {
+                    PaginaDTO<T> pagina = consulta.buscar(cursor.orElse(null));
+                    sumidero.next(pagina.elementos());
+                    if (pagina.siguienteCursor() == null) {
+                        sumidero.complete();
+                    }
+                    return Optional.ofNullable(pagina.siguienteCursor());
+                })
+                .concatMapIterable(Function.identity(), 1)
+                .subscribeOn(planificador);
+    }
+}
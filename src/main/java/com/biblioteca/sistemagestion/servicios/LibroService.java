@@ -1,23 +1,50 @@
 package com.biblioteca.sistemagestion.servicios;
 
+import com.biblioteca.sistemagestion.busqueda.AutorEncontrado;
+import com.biblioteca.sistemagestion.busqueda.Sugerencia;
+import com.biblioteca.sistemagestion.dtos.InformeDeImportacionDTO;
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.importacion.FilaDeImportacion;
 import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
 import com.biblioteca.sistemagestion.excepciones.LibroNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface LibroService {
 
     Libro crearLibro(Libro libro) throws RecursoDuplicadoException, IllegalArgumentException;
 
+    InformeDeImportacionDTO importarLibros(Iterator<FilaDeImportacion> filas);
+
     Optional<Libro> obtenerLibroPorId(Long id);
 
     Optional<Libro> obtenerLibroPorIsbn(String isbn);
 
+    Optional<VersionDeRecurso> obtenerVersionDeLibro(Long id);
+
+    VersionDeRecurso obtenerVersionDelCatalogo();
+
     List<Libro> obtenerTodosLosLibros();
 
+    PaginaDTO<Libro> obtenerPaginaDeLibros(String cursor, Integer limite, String orden);
+
+    void recorrerLibros(Consumer<? super Libro> accion);
+
     Libro actualizarLibro(Long id, Libro libroDetails) throws LibroNoEncontradoException;
 
+    Libro actualizarLibro(Long id, Libro libroDetails, Long versionEsperada)
+            throws LibroNoEncontradoException, ConflictoDeVersionException;
+
     void eliminarLibro(Long id) throws LibroNoEncontradoException;
+
+    List<Libro> buscarLibros(String consulta, Integer limite);
+
+    List<Sugerencia> sugerir(String prefijo, Integer limite);
+
+    List<AutorEncontrado> buscarAutores(String nombre, Integer limite);
 }
\ No newline at end of file
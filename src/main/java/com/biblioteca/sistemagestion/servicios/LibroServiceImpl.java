@@ -1,28 +1,131 @@
 package com.biblioteca.sistemagestion.servicios;
 
+import com.biblioteca.sistemagestion.busqueda.AutocompletadoDeCatalogo;
+import com.biblioteca.sistemagestion.busqueda.AutorEncontrado;
+import com.biblioteca.sistemagestion.busqueda.BuscadorDeAutores;
+import com.biblioteca.sistemagestion.busqueda.Coincidencia;
+import com.biblioteca.sistemagestion.busqueda.IndiceDeBusqueda;
+import com.biblioteca.sistemagestion.busqueda.Sugerencia;
+import com.biblioteca.sistemagestion.cache.CacheDeLecturas;
+import com.biblioteca.sistemagestion.dtos.ErrorDeImportacionDTO;
+import com.biblioteca.sistemagestion.dtos.InformeDeImportacionDTO;
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.importacion.FilaDeImportacion;
 import com.biblioteca.sistemagestion.modelo.Libro;
 import com.biblioteca.sistemagestion.modelo.EstadoLibro;
 import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.transacciones.GestorDeTransacciones;
+import com.biblioteca.sistemagestion.transacciones.Recurso;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
 import com.biblioteca.sistemagestion.excepciones.LibroNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
 
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class LibroServiceImpl implements LibroService {
 
+    static final int RESULTADOS_POR_DEFECTO = 20;
+    static final int RESULTADOS_MAXIMOS = 100;
+    static final int TAMANIO_LOTE_IMPORTACION = 1000;
+
     private final LibroRepository libroRepository;
+    private final IndiceDeBusqueda indiceDeBusqueda;
+    private final AutocompletadoDeCatalogo autocompletado;
+    private final BuscadorDeAutores buscadorDeAutores;
+    private final VersionesDelCatalogo versionesDelCatalogo;
+    private final CacheDeLecturas<Libro> cacheDeLibros;
+    private final GestorDeTransacciones gestorDeTransacciones;
 
-    public LibroServiceImpl(LibroRepository libroRepository) {
+    public LibroServiceImpl(LibroRepository libroRepository, IndiceDeBusqueda indiceDeBusqueda,
+                            AutocompletadoDeCatalogo autocompletado, BuscadorDeAutores buscadorDeAutores,
+                            VersionesDelCatalogo versionesDelCatalogo, CacheDeLecturas<Libro> cacheDeLibros,
+                            GestorDeTransacciones gestorDeTransacciones) {
         this.libroRepository = Objects.requireNonNull(libroRepository, "LibroRepository no puede ser nulo.");
+        this.indiceDeBusqueda = Objects.requireNonNull(indiceDeBusqueda, "IndiceDeBusqueda no puede ser nulo.");
+        this.autocompletado = Objects.requireNonNull(autocompletado, "AutocompletadoDeCatalogo no puede ser nulo.");
+        this.buscadorDeAutores = Objects.requireNonNull(buscadorDeAutores, "BuscadorDeAutores no puede ser nulo.");
+        this.versionesDelCatalogo = Objects.requireNonNull(versionesDelCatalogo, "VersionesDelCatalogo no puede ser nulo.");
+        this.cacheDeLibros = Objects.requireNonNull(cacheDeLibros, "CacheDeLecturas no puede ser nulo.");
+        this.gestorDeTransacciones = Objects.requireNonNull(gestorDeTransacciones, "GestorDeTransacciones no puede ser nulo.");
     }
 
     @Override
     public Libro crearLibro(Libro libro) throws RecursoDuplicadoException, IllegalArgumentException {
+        validarLibroNuevo(libro);
+        if (libroRepository.findByIsbn(libro.getIsbn()).isPresent()) {
+            throw new RecursoDuplicadoException("Ya existe un libro con el ISBN: " + libro.getIsbn());
+        }
+        if (libro.getEstado() == null) {
+            libro.setEstado(EstadoLibro.DISPONIBLE);
+        }
+        return libroRepository.save(libro);
+    }
+
+    @Override
+    public InformeDeImportacionDTO importarLibros(Iterator<FilaDeImportacion> filas) {
+        Objects.requireNonNull(filas, "Las filas a importar no pueden ser nulas.");
+        List<ErrorDeImportacionDTO> errores = new ArrayList<>();
+        List<FilaDeImportacion> lote = new ArrayList<>(TAMANIO_LOTE_IMPORTACION);
+        long procesadas = 0;
+        long importados = 0;
+        while (filas.hasNext()) {
+            lote.add(filas.next());
+            if (lote.size() == TAMANIO_LOTE_IMPORTACION || !filas.hasNext()) {
+                procesadas += lote.size();
+                importados += importarLote(lote, errores);
+                lote.clear();
+            }
+        }
+        return new InformeDeImportacionDTO(procesadas, importados, errores);
+    }
+
+    private int importarLote(List<FilaDeImportacion> lote, List<ErrorDeImportacionDTO> errores) {
+        List<FilaDeImportacion> validas = new ArrayList<>(lote.size());
+        for (FilaDeImportacion fila : lote) {
+            if (fila.error() != null) {
+                errores.add(new ErrorDeImportacionDTO(fila.numero(), isbnDe(fila), fila.error()));
+                continue;
+            }
+            try {
+                validarLibroNuevo(fila.libro());
+                if (fila.libro().getEstado() == null) {
+                    fila.libro().setEstado(EstadoLibro.DISPONIBLE);
+                }
+                validas.add(fila);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                errores.add(new ErrorDeImportacionDTO(fila.numero(), isbnDe(fila), e.getMessage()));
+            }
+        }
+
+        return guardarLote(validas, errores);
+    }
+
+    private int guardarLote(List<FilaDeImportacion> validas, List<ErrorDeImportacionDTO> errores) {
+        RecursoDuplicadoException[] rechazos = new RecursoDuplicadoException[validas.size()];
+        List<Libro> guardados = libroRepository.saveAll(validas.stream().map(FilaDeImportacion::libro).toList(),
+                (rechazo, posicion) -> rechazos[posicion] = rechazo);
+        for (int posicion = 0; posicion < rechazos.length; posicion++) {
+            if (rechazos[posicion] != null) {
+                FilaDeImportacion fila = validas.get(posicion);
+                errores.add(new ErrorDeImportacionDTO(fila.numero(), isbnDe(fila), rechazos[posicion].getMessage()));
+            }
+        }
+        return guardados.size();
+    }
+
+    private static String isbnDe(FilaDeImportacion fila) {
+        return fila.libro() == null ? null : fila.libro().getIsbn();
+    }
+
+    private static void validarLibroNuevo(Libro libro) {
         Objects.requireNonNull(libro, "Los detalles del libro no pueden ser nulos.");
         if (libro.getId() != null) {
             throw new IllegalArgumentException("El ID debe ser nulo para un nuevo libro, es autogenerado.");
@@ -39,19 +142,12 @@ public class LibroServiceImpl implements LibroService {
         if (libro.getAutor().trim().isEmpty()) {
             throw new IllegalArgumentException("El autor no puede estar vacío.");
         }
-        if (libroRepository.findByIsbn(libro.getIsbn()).isPresent()) {
-            throw new RecursoDuplicadoException("Ya existe un libro con el ISBN: " + libro.getIsbn());
-        }
-        if (libro.getEstado() == null) {
-            libro.setEstado(EstadoLibro.DISPONIBLE);
-        }
-        return libroRepository.save(libro);
     }
 
     @Override
     public Optional<Libro> obtenerLibroPorId(Long id) {
         Objects.requireNonNull(id, "El ID del libro no puede ser nulo.");
-        return libroRepository.findById(id);
+        return cacheDeLibros.obtener(id, libroRepository::findById);
     }
 
     @Override
@@ -60,32 +156,105 @@ public class LibroServiceImpl implements LibroService {
         return libroRepository.findByIsbn(isbn);
     }
 
+    @Override
+    public Optional<VersionDeRecurso> obtenerVersionDeLibro(Long id) {
+        Objects.requireNonNull(id, "El ID del libro no puede ser nulo.");
+        return versionesDelCatalogo.versionDeLibro(id);
+    }
+
+    @Override
+    public VersionDeRecurso obtenerVersionDelCatalogo() {
+        return versionesDelCatalogo.versionDelCatalogo();
+    }
+
     @Override
     public List<Libro> obtenerTodosLosLibros() {
         return libroRepository.findAll();
     }
 
+    @Override
+    public PaginaDTO<Libro> obtenerPaginaDeLibros(String cursor, Integer limite, String orden) {
+        return Paginacion.paginar(cursor, limite, orden, libroRepository::findPage, Libro::getId);
+    }
+
+    @Override
+    public void recorrerLibros(Consumer<? super Libro> accion) {
+        Objects.requireNonNull(accion, "La acción no puede ser nula.");
+        Paginacion.recorrer(libroRepository::findPage, Libro::getId, accion);
+    }
+
     @Override
     public Libro actualizarLibro(Long id, Libro libroDetails) throws LibroNoEncontradoException {
+        return actualizarLibro(id, libroDetails, null);
+    }
+
+    @Override
+    public Libro actualizarLibro(Long id, Libro libroDetails, Long versionEsperada)
+            throws LibroNoEncontradoException, ConflictoDeVersionException {
         Objects.requireNonNull(id, "El ID del libro a actualizar no puede ser nulo.");
         Objects.requireNonNull(libroDetails, "Los detalles del libro para actualizar no pueden ser nulos.");
 
-        Libro libroExistente = libroRepository.findById(id)
-                .orElseThrow(() -> new LibroNoEncontradoException(id));
+        return gestorDeTransacciones.ejecutar(List.of(Recurso.libro(id)), unidad -> {
+            Libro libroExistente = libroRepository.findById(id)
+                    .orElseThrow(() -> new LibroNoEncontradoException(id));
 
-        libroExistente.setTitulo(libroDetails.getTitulo());
-        libroExistente.setAutor(libroDetails.getAutor());
-        libroExistente.setEstado(libroDetails.getEstado());
-
-        return libroRepository.save(libroExistente);
+            Libro libroActualizado = new Libro(id, libroExistente.getIsbn(), libroDetails.getTitulo(),
+                    libroDetails.getAutor(), libroDetails.getEstado(),
+                    versionEsperada != null ? versionEsperada : libroExistente.getVersion());
+            return libroRepository.save(libroActualizado);
+        });
     }
 
     @Override
     public void eliminarLibro(Long id) throws LibroNoEncontradoException {
         Objects.requireNonNull(id, "El ID del libro a eliminar no puede ser nulo.");
-        if (!libroRepository.existsById(id)) {
-            throw new LibroNoEncontradoException(id);
+        gestorDeTransacciones.ejecutar(List.of(Recurso.libro(id)), unidad -> {
+            if (!libroRepository.existsById(id)) {
+                throw new LibroNoEncontradoException(id);
+            }
+            libroRepository.deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Libro> buscarLibros(String consulta, Integer limite) {
+        Objects.requireNonNull(consulta, "La consulta no puede ser nula.");
+        if (consulta.trim().isEmpty()) {
+            throw new IllegalArgumentException("La consulta no puede estar vacía.");
+        }
+        int cantidad = limite == null ? RESULTADOS_POR_DEFECTO : limite;
+        if (cantidad < 1 || cantidad > RESULTADOS_MAXIMOS) {
+            throw new IllegalArgumentException("El límite de resultados debe estar entre 1 y " + RESULTADOS_MAXIMOS + ".");
+        }
+        List<Libro> libros = new ArrayList<>(cantidad);
+        for (Coincidencia coincidencia : indiceDeBusqueda.buscar(consulta, cantidad)) {
+            libroRepository.findById(coincidencia.id()).ifPresent(libros::add);
+        }
+        return libros;
+    }
+
+    @Override
+    public List<Sugerencia> sugerir(String prefijo, Integer limite) {
+        Objects.requireNonNull(prefijo, "El prefijo no puede ser nulo.");
+        int cantidad = limite == null ? AutocompletadoDeCatalogo.SUGERENCIAS_MAXIMAS : limite;
+        if (cantidad < 1 || cantidad > AutocompletadoDeCatalogo.SUGERENCIAS_MAXIMAS) {
+            throw new IllegalArgumentException("El límite de sugerencias debe estar entre 1 y "
+                    + AutocompletadoDeCatalogo.SUGERENCIAS_MAXIMAS + ".");
+        }
+        return autocompletado.sugerir(prefijo, cantidad);
+    }
+
+    @Override
+    public List<AutorEncontrado> buscarAutores(String nombre, Integer limite) {
+        Objects.requireNonNull(nombre, "El nombre del autor no puede ser nulo.");
+        if (nombre.trim().isEmpty()) {
+            throw new IllegalArgumentException("El nombre del autor no puede estar vacío.");
+        }
+        int cantidad = limite == null ? RESULTADOS_POR_DEFECTO : limite;
+        if (cantidad < 1 || cantidad > RESULTADOS_MAXIMOS) {
+            throw new IllegalArgumentException("El límite de resultados debe estar entre 1 y " + RESULTADOS_MAXIMOS + ".");
         }
-        libroRepository.deleteById(id);
+        return buscadorDeAutores.buscar(nombre, cantidad);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.busqueda.AutorEncontrado;
+import com.biblioteca.sistemagestion.busqueda.Sugerencia;
+import com.biblioteca.sistemagestion.dtos.InformeDeImportacionDTO;
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.importacion.FilaDeImportacion;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface LibroServiceReactivo {
+
+    Mono<Libro> crearLibro(Libro libro);
+
+    Mono<InformeDeImportacionDTO> importarLibros(Flux<FilaDeImportacion> filas);
+
+    Mono<Libro> obtenerLibroPorId(Long id);
+
+    Mono<Libro> obtenerLibroPorIsbn(String isbn);
+
+    Mono<VersionDeRecurso> obtenerVersionDeLibro(Long id);
+
+    Mono<VersionDeRecurso> obtenerVersionDelCatalogo();
+
+    Flux<Libro> obtenerTodosLosLibros();
+
+    Mono<PaginaDTO<Libro>> obtenerPaginaDeLibros(String cursor, Integer limite, String orden);
+
+    Mono<Libro> actualizarLibro(Long id, Libro libroDetails, Long versionEsperada);
+
+    Mono<Void> eliminarLibro(Long id);
+
+    Flux<Libro> buscarLibros(String consulta, Integer limite);
+
+    Flux<Sugerencia> sugerir(String prefijo, Integer limite);
+
+    Flux<AutorEncontrado> buscarAutores(String nombre, Integer limite);
+}
@@ -0,0 +1,96 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.busqueda.AutorEncontrado;
+import com.biblioteca.sistemagestion.busqueda.Sugerencia;
+import com.biblioteca.sistemagestion.dtos.InformeDeImportacionDTO;
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.importacion.FilaDeImportacion;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Objects;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class LibroServiceReactivoImpl implements LibroServiceReactivo {
+
+    static final int FILAS_POR_LOTE_DE_IMPORTACION = 256;
+
+    private final LibroService libroService;
+    private final EjecucionReactiva ejecucion;
+
+    public LibroServiceReactivoImpl(LibroService libroService, Scheduler planificadorDeServicios) {
+        this.libroService = Objects.requireNonNull(libroService, "LibroService no puede ser nulo.");
+        this.ejecucion = new EjecucionReactiva(planificadorDeServicios);
+    }
+
+    @Override
+    public Mono<Libro> crearLibro(Libro libro) {
+        return ejecucion.mono(() -> libroService.crearLibro(libro));
+    }
+
+    @Override
+    public Mono<InformeDeImportacionDTO> importarLibros(Flux<FilaDeImportacion> filas) {
+        Objects.requireNonNull(filas, "Las filas a importar no pueden ser nulas.");
+        return ejecucion.mono(() -> libroService.importarLibros(filas.toIterable(FILAS_POR_LOTE_DE_IMPORTACION).iterator()));
+    }
+
+    @Override
+    public Mono<Libro> obtenerLibroPorId(Long id) {
+        return ejecucion.opcional(() -> libroService.obtenerLibroPorId(id));
+    }
+
+    @Override
+    public Mono<Libro> obtenerLibroPorIsbn(String isbn) {
+        return ejecucion.opcional(() -> libroService.obtenerLibroPorIsbn(isbn));
+    }
+
+    @Override
+    public Mono<VersionDeRecurso> obtenerVersionDeLibro(Long id) {
+        return ejecucion.opcional(() -> libroService.obtenerVersionDeLibro(id));
+    }
+
+    @Override
+    public Mono<VersionDeRecurso> obtenerVersionDelCatalogo() {
+        return ejecucion.mono(libroService::obtenerVersionDelCatalogo);
+    }
+
+    @Override
+    public Flux<Libro> obtenerTodosLosLibros() {
+        return ejecucion.paginas(cursor -> libroService.obtenerPaginaDeLibros(cursor, Paginacion.LOTE_DE_RECORRIDO, null));
+    }
+
+    @Override
+    public Mono<PaginaDTO<Libro>> obtenerPaginaDeLibros(String cursor, Integer limite, String orden) {
+        return ejecucion.mono(() -> libroService.obtenerPaginaDeLibros(cursor, limite, orden));
+    }
+
+    @Override
+    public Mono<Libro> actualizarLibro(Long id, Libro libroDetails, Long versionEsperada) {
+        return ejecucion.mono(() -> libroService.actualizarLibro(id, libroDetails, versionEsperada));
+    }
+
+    @Override
+    public Mono<Void> eliminarLibro(Long id) {
+        return ejecucion.accion(() -> libroService.eliminarLibro(id));
+    }
+
+    @Override
+    public Flux<Libro> buscarLibros(String consulta, Integer limite) {
+        return ejecucion.lista(() -> libroService.buscarLibros(consulta, limite));
+    }
+
+    @Override
+    public Flux<Sugerencia> sugerir(String prefijo, Integer limite) {
+        return ejecucion.lista(() -> libroService.sugerir(prefijo, limite));
+    }
+
+    @Override
+    public Flux<AutorEncontrado> buscarAutores(String nombre, Integer limite) {
+        return ejecucion.lista(() -> libroService.buscarAutores(nombre, limite));
+    }
+}
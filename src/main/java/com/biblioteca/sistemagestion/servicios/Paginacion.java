@@ -0,0 +1,106 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.repositorios.Orden;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+final class Paginacion {
+
+    static final int LIMITE_POR_DEFECTO = 100;
+    static final int LIMITE_MAXIMO = 1000;
+    static final int LOTE_DE_RECORRIDO = 1000;
+
+    private static final String VERSION_CURSOR = "1";
+
+    @FunctionalInterface
+    interface ConsultaDePagina<T> {
+        List<T> buscar(Long despuesDeId, int limite, Orden orden);
+    }
+
+    private Paginacion() {
+    }
+
+    static <T> PaginaDTO<T> paginar(String cursor, Integer limite, String orden,
+                                    ConsultaDePagina<T> consulta, Function<T, Long> id) {
+        int tamanio = limite == null ? LIMITE_POR_DEFECTO : limite;
+        if (tamanio < 1 || tamanio > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite de página debe estar entre 1 y " + LIMITE_MAXIMO + ".");
+        }
+        Orden ordenPedido = orden == null ? null : convertirOrden(orden);
+        Orden ordenEfectivo = ordenPedido == null ? Orden.ASCENDENTE : ordenPedido;
+        Long despuesDeId = null;
+        if (cursor != null) {
+            String[] partes = decodificarCursor(cursor);
+            Orden ordenDelCursor = Orden.valueOf(partes[1]);
+            if (ordenPedido != null && ordenPedido != ordenDelCursor) {
+                throw new IllegalArgumentException("El cursor de paginación no corresponde al orden solicitado.");
+            }
+            ordenEfectivo = ordenDelCursor;
+            despuesDeId = Long.parseLong(partes[2]);
+        }
+
+        List<T> elementos = new ArrayList<>(tamanio + 1);
+        while (elementos.size() <= tamanio) {
+            List<T> lote = consulta.buscar(despuesDeId, tamanio + 1 - elementos.size(), ordenEfectivo);
+            if (lote.isEmpty()) {
+                break;
+            }
+            elementos.addAll(lote);
+            despuesDeId = id.apply(lote.get(lote.size() - 1));
+        }
+
+        if (elementos.size() <= tamanio) {
+            return new PaginaDTO<>(elementos, null);
+        }
+        List<T> pagina = elementos.subList(0, tamanio);
+        return new PaginaDTO<>(new ArrayList<>(pagina), codificarCursor(ordenEfectivo, id.apply(pagina.get(tamanio - 1))));
+    }
+
+    static <T> void recorrer(ConsultaDePagina<T> consulta, Function<T, Long> id, Consumer<? super T> accion) {
+        Long despuesDeId = null;
+        List<T> lote;
+        do {
+            lote = consulta.buscar(despuesDeId, LOTE_DE_RECORRIDO, Orden.ASCENDENTE);
+            for (T elemento : lote) {
+                accion.accept(elemento);
+            }
+            if (!lote.isEmpty()) {
+                despuesDeId = id.apply(lote.get(lote.size() - 1));
+            }
+        } while (!lote.isEmpty());
+    }
+
+    private static Orden convertirOrden(String orden) {
+        return switch (orden.toLowerCase(Locale.ROOT)) {
+            case "asc" -> Orden.ASCENDENTE;
+            case "desc" -> Orden.DESCENDENTE;
+            default -> throw new IllegalArgumentException("El orden debe ser 'asc' o 'desc'.");
+        };
+    }
+
+    private static String codificarCursor(Orden orden, long ultimoId) {
+        String contenido = VERSION_CURSOR + ":" + orden.name() + ":" + ultimoId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodificarCursor(String cursor) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (partes.length != 3 || !VERSION_CURSOR.equals(partes[0])) {
+                throw new IllegalArgumentException("El cursor de paginación no es válido.");
+            }
+            Orden.valueOf(partes[1]);
+            Long.parseLong(partes[2]);
+            return partes;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido.", e);
+        }
+    }
+}
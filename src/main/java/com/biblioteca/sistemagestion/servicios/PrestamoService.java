@@ -1,5 +1,8 @@
 package com.biblioteca.sistemagestion.servicios;
 
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDeDevolucionDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDePrestamoDTO;
 import com.biblioteca.sistemagestion.modelo.Prestamo;
 import com.biblioteca.sistemagestion.excepciones.LibroNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
@@ -9,20 +12,34 @@ import com.biblioteca.sistemagestion.excepciones.PrestamoNoEncontradoException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PrestamoService {
 
     Prestamo realizarPrestamo(Long libroId, Long usuarioId, LocalDate fechaDevolucion)
             throws LibroNoEncontradoException, UsuarioNoEncontradoException, RecursoNoDisponibleException;
 
+    List<ResultadoDePrestamoDTO> realizarPrestamos(Long usuarioId, List<Long> librosIds, LocalDate fechaDevolucion)
+            throws UsuarioNoEncontradoException;
+
     Prestamo registrarDevolucion(Long prestamoId) throws PrestamoNoEncontradoException;
 
+    List<ResultadoDeDevolucionDTO> registrarDevoluciones(List<Long> prestamosIds);
+
+    List<ResultadoDeDevolucionDTO> registrarDevolucionesPorLibro(List<Long> librosIds);
+
     Optional<Prestamo> obtenerPrestamoPorId(Long prestamoId);
 
     List<Prestamo> obtenerTodosLosPrestamos();
 
+    PaginaDTO<Prestamo> obtenerPaginaDePrestamos(String cursor, Integer limite, String orden);
+
+    void recorrerPrestamos(Consumer<? super Prestamo> accion);
+
     List<Prestamo> obtenerPrestamosPorUsuario(Long usuarioId);
 
     List<Prestamo> obtenerPrestamosPorLibro(Long libroId);
 
+    Optional<Prestamo> obtenerPrestamoActivoPorLibro(Long libroId);
+
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.biblioteca.sistemagestion.servicios;
 
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDeDevolucionDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDePrestamoDTO;
 import com.biblioteca.sistemagestion.modelo.Libro;
 import com.biblioteca.sistemagestion.modelo.Prestamo;
 import com.biblioteca.sistemagestion.modelo.Usuario;
@@ -11,27 +14,42 @@ import com.biblioteca.sistemagestion.excepciones.LibroNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoNoDisponibleException;
 import com.biblioteca.sistemagestion.excepciones.PrestamoNoEncontradoException;
+import com.biblioteca.sistemagestion.transacciones.GestorDeTransacciones;
+import com.biblioteca.sistemagestion.transacciones.Recurso;
+import com.biblioteca.sistemagestion.transacciones.UnidadDeTrabajo;
 
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class PrestamoServiceImpl implements PrestamoService {
 
+    static final int LIBROS_MAXIMOS_POR_LOTE = 100;
+    static final int DEVOLUCIONES_MAXIMAS_POR_LOTE = 10_000;
+    static final int DEVOLUCIONES_POR_TRANSACCION = 64;
+
     private final PrestamoRepository prestamoRepository;
     private final LibroRepository libroRepository;
     private final UsuarioRepository usuarioRepository;
+    private final GestorDeTransacciones gestorDeTransacciones;
 
     public PrestamoServiceImpl(PrestamoRepository prestamoRepository,
                                LibroRepository libroRepository,
-                               UsuarioRepository usuarioRepository) {
+                               UsuarioRepository usuarioRepository,
+                               GestorDeTransacciones gestorDeTransacciones) {
         this.prestamoRepository = Objects.requireNonNull(prestamoRepository, "PrestamoRepository no puede ser nulo.");
         this.libroRepository = Objects.requireNonNull(libroRepository, "LibroRepository no puede ser nulo.");
         this.usuarioRepository = Objects.requireNonNull(usuarioRepository, "UsuarioRepository no puede ser nulo.");
+        this.gestorDeTransacciones = Objects.requireNonNull(gestorDeTransacciones, "GestorDeTransacciones no puede ser nulo.");
     }
 
     @Override
@@ -40,29 +58,94 @@ public class PrestamoServiceImpl implements PrestamoService {
 
         Objects.requireNonNull(libroId, "ID de libro no puede ser nulo.");
         Objects.requireNonNull(usuarioId, "ID de usuario no puede ser nulo.");
-        Objects.requireNonNull(fechaDevolucionSugerida, "Fecha de devolución sugerida no puede ser nula.");
+        validarFechaDevolucion(fechaDevolucionSugerida);
 
-        if (fechaDevolucionSugerida.isBefore(LocalDate.now().plusDays(1)) && !fechaDevolucionSugerida.isEqual(LocalDate.now())) {
-            throw new IllegalArgumentException("La fecha de devolución debe ser hoy o una fecha futura.");
+        List<Recurso> recursos = List.of(Recurso.libro(libroId), Recurso.usuario(usuarioId));
+        return gestorDeTransacciones.ejecutar(recursos, unidad -> {
+            Libro libro = libroRepository.findById(libroId)
+                    .orElseThrow(() -> new LibroNoEncontradoException(libroId));
+
+            Usuario usuario = usuarioRepository.findById(usuarioId)
+                    .orElseThrow(() -> new UsuarioNoEncontradoException(usuarioId));
+
+            String motivo = motivoDeNoDisponibilidad(libro);
+            if (motivo != null) {
+                throw new RecursoNoDisponibleException(motivo);
+            }
+
+            if (!reservarLibro(libro, unidad)) {
+                throw new RecursoNoDisponibleException(motivoDeReservaPerdida(libro));
+            }
+            return guardarPrestamo(new Prestamo(libro, usuario, fechaDevolucionSugerida), unidad);
+        });
+    }
+
+    @Override
+    public List<ResultadoDePrestamoDTO> realizarPrestamos(Long usuarioId, List<Long> librosIds, LocalDate fechaDevolucionSugerida)
+            throws UsuarioNoEncontradoException {
+
+        Objects.requireNonNull(usuarioId, "ID de usuario no puede ser nulo.");
+        Objects.requireNonNull(librosIds, "La lista de libros no puede ser nula.");
+        validarFechaDevolucion(fechaDevolucionSugerida);
+        if (librosIds.isEmpty()) {
+            throw new IllegalArgumentException("La lista de libros no puede estar vacía.");
+        }
+        if (librosIds.size() > LIBROS_MAXIMOS_POR_LOTE) {
+            throw new IllegalArgumentException("No se pueden prestar más de " + LIBROS_MAXIMOS_POR_LOTE + " libros por lote.");
         }
 
-        Libro libro = libroRepository.findById(libroId)
-                .orElseThrow(() -> new LibroNoEncontradoException(libroId));
+        List<Recurso> recursos = new ArrayList<>(librosIds.size() + 1);
+        recursos.add(Recurso.usuario(usuarioId));
+        for (Long libroId : librosIds) {
+            if (libroId != null) {
+                recursos.add(Recurso.libro(libroId));
+            }
+        }
+        return gestorDeTransacciones.ejecutar(recursos,
+                unidad -> prestarLote(usuarioId, librosIds, fechaDevolucionSugerida, unidad));
+    }
 
+    private List<ResultadoDePrestamoDTO> prestarLote(Long usuarioId, List<Long> librosIds,
+                                                     LocalDate fechaDevolucionSugerida, UnidadDeTrabajo unidad) {
         Usuario usuario = usuarioRepository.findById(usuarioId)
                 .orElseThrow(() -> new UsuarioNoEncontradoException(usuarioId));
 
-        if (libro.getEstado() != EstadoLibro.DISPONIBLE) {
-            throw new RecursoNoDisponibleException("El libro '" + libro.getTitulo() + "' (ID: " + libroId
-                    + ") no está disponible para préstamo. Estado actual: " + libro.getEstado());
+        List<ResultadoDePrestamoDTO> resultados = new ArrayList<>(librosIds.size());
+        List<Libro> librosAPrestar = new ArrayList<>(librosIds.size());
+        List<Integer> posiciones = new ArrayList<>(librosIds.size());
+        Set<Long> vistos = new HashSet<>();
+        for (Long libroId : librosIds) {
+            if (libroId == null) {
+                resultados.add(ResultadoDePrestamoDTO.fallido(null, "ID de libro no puede ser nulo."));
+            } else if (!vistos.add(libroId)) {
+                resultados.add(ResultadoDePrestamoDTO.fallido(libroId, "El libro con ID " + libroId + " está repetido en el lote."));
+            } else {
+                Optional<Libro> libro = libroRepository.findById(libroId);
+                String motivo = libro.isEmpty()
+                        ? "Libro no encontrado con ID: " + libroId
+                        : motivoDeNoDisponibilidad(libro.get());
+                if (motivo != null) {
+                    resultados.add(ResultadoDePrestamoDTO.fallido(libroId, motivo));
+                } else {
+                    posiciones.add(resultados.size());
+                    resultados.add(null);
+                    librosAPrestar.add(libro.get());
+                }
+            }
         }
 
-        libro.setEstado(EstadoLibro.PRESTADO);
-        libroRepository.save(libro);
-
-        Prestamo nuevoPrestamo = new Prestamo(libro, usuario, fechaDevolucionSugerida);
-
-        return prestamoRepository.save(nuevoPrestamo);
+        for (int i = 0; i < librosAPrestar.size(); i++) {
+            Libro libro = librosAPrestar.get(i);
+            ResultadoDePrestamoDTO resultado;
+            if (reservarLibro(libro, unidad)) {
+                Prestamo prestamo = guardarPrestamo(new Prestamo(libro, usuario, fechaDevolucionSugerida), unidad);
+                resultado = ResultadoDePrestamoDTO.exitoso(libro.getId(), prestamo.getId());
+            } else {
+                resultado = ResultadoDePrestamoDTO.fallido(libro.getId(), motivoDeReservaPerdida(libro));
+            }
+            resultados.set(posiciones.get(i), resultado);
+        }
+        return resultados;
     }
 
     @Override
@@ -78,12 +161,88 @@ public class PrestamoServiceImpl implements PrestamoService {
             throw new IllegalStateException("El préstamo con ID " + prestamoId + " no tiene un libro asociado.");
         }
 
-        libroPrestado.setEstado(EstadoLibro.DISPONIBLE);
-        libroRepository.save(libroPrestado);
+        List<Recurso> recursos = List.of(Recurso.prestamo(prestamoId), Recurso.libro(libroPrestado.getId()));
+        return gestorDeTransacciones.ejecutar(recursos, unidad -> {
+            if (!prestamoRepository.deleteById(prestamoId)) {
+                throw new PrestamoNoEncontradoException("El préstamo con ID " + prestamoId + " ya fue devuelto.");
+            }
+            unidad.alDeshacer(() -> prestamoRepository.save(prestamo));
+            liberarLibro(libroPrestado, unidad);
+            return prestamo;
+        });
+    }
+
+    @Override
+    public List<ResultadoDeDevolucionDTO> registrarDevoluciones(List<Long> prestamosIds) {
+        return registrarDevolucionesEnLote(prestamosIds, prestamoRepository::findById);
+    }
+
+    @Override
+    public List<ResultadoDeDevolucionDTO> registrarDevolucionesPorLibro(List<Long> librosIds) {
+        return registrarDevolucionesEnLote(librosIds, prestamoRepository::findActiveByLibroId);
+    }
+
+    private List<ResultadoDeDevolucionDTO> registrarDevolucionesEnLote(List<Long> ids,
+                                                                     Function<Long, Optional<Prestamo>> buscarPrestamo) {
+        Objects.requireNonNull(ids, "La lista de IDs no puede ser nula.");
+        if (ids.size() > DEVOLUCIONES_MAXIMAS_POR_LOTE) {
+            throw new IllegalArgumentException("No se pueden registrar más de " + DEVOLUCIONES_MAXIMAS_POR_LOTE
+                    + " devoluciones por lote.");
+        }
+
+        List<ResultadoDeDevolucionDTO> resultados = new ArrayList<>(ids.size());
+        List<Prestamo> aCerrar = new ArrayList<>(ids.size());
+        List<Integer> posiciones = new ArrayList<>(ids.size());
+        Set<Long> vistos = new HashSet<>();
+        for (Long id : ids) {
+            ResultadoDeDevolucionDTO.Estado estado;
+            Optional<Prestamo> prestamo = id == null ? Optional.empty() : buscarPrestamo.apply(id);
+            if (prestamo.isEmpty()) {
+                estado = ResultadoDeDevolucionDTO.Estado.NO_ENCONTRADO;
+            } else if (!vistos.add(prestamo.get().getId())) {
+                estado = ResultadoDeDevolucionDTO.Estado.REPETIDO;
+            } else if (prestamo.get().getLibro() == null) {
+                estado = ResultadoDeDevolucionDTO.Estado.SIN_LIBRO;
+            } else {
+                aCerrar.add(prestamo.get());
+                posiciones.add(resultados.size());
+                estado = null;
+            }
+            resultados.add(new ResultadoDeDevolucionDTO(id, estado));
+        }
 
-        prestamoRepository.deleteById(prestamoId);
+        for (int desde = 0; desde < aCerrar.size(); desde += DEVOLUCIONES_POR_TRANSACCION) {
+            List<Prestamo> tramo = aCerrar.subList(desde, Math.min(desde + DEVOLUCIONES_POR_TRANSACCION, aCerrar.size()));
+            Set<Long> cerrados = cerrarPrestamos(tramo);
+            for (int i = 0; i < tramo.size(); i++) {
+                int posicion = posiciones.get(desde + i);
+                ResultadoDeDevolucionDTO.Estado estado = cerrados.contains(tramo.get(i).getId())
+                        ? ResultadoDeDevolucionDTO.Estado.DEVUELTO
+                        : ResultadoDeDevolucionDTO.Estado.YA_DEVUELTO;
+                resultados.set(posicion, new ResultadoDeDevolucionDTO(resultados.get(posicion).id(), estado));
+            }
+        }
+        return resultados;
+    }
 
-        return prestamo;
+    private Set<Long> cerrarPrestamos(List<Prestamo> prestamos) {
+        List<Recurso> recursos = new ArrayList<>(prestamos.size() * 2);
+        List<Long> ids = new ArrayList<>(prestamos.size());
+        for (Prestamo prestamo : prestamos) {
+            recursos.add(Recurso.prestamo(prestamo.getId()));
+            recursos.add(Recurso.libro(prestamo.getLibro().getId()));
+            ids.add(prestamo.getId());
+        }
+        return gestorDeTransacciones.ejecutar(recursos, unidad -> {
+            Set<Long> cerrados = new HashSet<>(prestamoRepository.deleteAllById(ids));
+            for (Prestamo prestamo : prestamos) {
+                if (cerrados.contains(prestamo.getId())) {
+                    unidad.alDeshacer(() -> prestamoRepository.save(prestamo));
+                    liberarLibro(prestamo.getLibro(), unidad);
+                }
+            }
+            return cerrados;
+        });
     }
 
     @Override
@@ -97,6 +256,17 @@ public class PrestamoServiceImpl implements PrestamoService {
         return prestamoRepository.findAll();
     }
 
+    @Override
+    public PaginaDTO<Prestamo> obtenerPaginaDePrestamos(String cursor, Integer limite, String orden) {
+        return Paginacion.paginar(cursor, limite, orden, prestamoRepository::findPage, Prestamo::getId);
+    }
+
+    @Override
+    public void recorrerPrestamos(Consumer<? super Prestamo> accion) {
+        Objects.requireNonNull(accion, "La acción no puede ser nula.");
+        Paginacion.recorrer(prestamoRepository::findPage, Prestamo::getId, accion);
+    }
+
     @Override
     public List<Prestamo> obtenerPrestamosPorUsuario(Long usuarioId) {
         Objects.requireNonNull(usuarioId, "ID de usuario no puede ser nulo.");
@@ -108,4 +278,59 @@ public class PrestamoServiceImpl implements PrestamoService {
         Objects.requireNonNull(libroId, "ID de libro no puede ser nulo.");
         return prestamoRepository.findByLibroId(libroId);
     }
+
+    @Override
+    public Optional<Prestamo> obtenerPrestamoActivoPorLibro(Long libroId) {
+        Objects.requireNonNull(libroId, "ID de libro no puede ser nulo.");
+        return prestamoRepository.findActiveByLibroId(libroId);
+    }
+
+    private static void validarFechaDevolucion(LocalDate fechaDevolucionSugerida) {
+        Objects.requireNonNull(fechaDevolucionSugerida, "Fecha de devolución sugerida no puede ser nula.");
+        if (fechaDevolucionSugerida.isBefore(LocalDate.now().plusDays(1)) && !fechaDevolucionSugerida.isEqual(LocalDate.now())) {
+            throw new IllegalArgumentException("La fecha de devolución debe ser hoy o una fecha futura.");
+        }
+    }
+
+    // El préstamo no es una ruta sin bloqueos: corre con los locks del libro y del usuario tomados, que son
+    // los que lo ordenan frente a devoluciones, actualizaciones y bajas del libro o del usuario. Con ellos el
+    // CAS ya no decide entre préstamos concurrentes; se conserva como comprobación del estado esperado y
+    // porque cambia estado y versión en un único compute del repositorio.
+    private boolean reservarLibro(Libro libro, UnidadDeTrabajo unidad) {
+        if (!libroRepository.compareAndSetEstado(libro.getId(), EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO)) {
+            return false;
+        }
+        unidad.alDeshacer(() -> libroRepository.compareAndSetEstado(libro.getId(), EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE));
+        libro.compareAndSetEstado(EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO);
+        return true;
+    }
+
+    private void liberarLibro(Libro libro, UnidadDeTrabajo unidad) {
+        if (libroRepository.compareAndSetEstado(libro.getId(), EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE)) {
+            unidad.alDeshacer(() -> libroRepository.compareAndSetEstado(libro.getId(), EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO));
+        }
+    }
+
+    private Prestamo guardarPrestamo(Prestamo prestamo, UnidadDeTrabajo unidad) {
+        Prestamo guardado = prestamoRepository.save(prestamo);
+        unidad.alDeshacer(() -> prestamoRepository.deleteById(guardado.getId()));
+        return guardado;
+    }
+
+    private static String motivoDeReservaPerdida(Libro libro) {
+        return "El libro '" + libro.getTitulo() + "' (ID: " + libro.getId()
+                + ") acaba de ser prestado en otra operación.";
+    }
+
+    private String motivoDeNoDisponibilidad(Libro libro) {
+        if (libro.getEstado() != EstadoLibro.DISPONIBLE) {
+            return "El libro '" + libro.getTitulo() + "' (ID: " + libro.getId()
+                    + ") no está disponible para préstamo. Estado actual: " + libro.getEstado();
+        }
+        if (prestamoRepository.findActiveByLibroId(libro.getId()).isPresent()) {
+            return "El libro '" + libro.getTitulo() + "' (ID: " + libro.getId()
+                    + ") ya tiene un préstamo activo.";
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDeDevolucionDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDePrestamoDTO;
+import com.biblioteca.sistemagestion.modelo.Prestamo;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PrestamoServiceReactivo {
+
+    Mono<Prestamo> realizarPrestamo(Long libroId, Long usuarioId, LocalDate fechaDevolucion);
+
+    Flux<ResultadoDePrestamoDTO> realizarPrestamos(Long usuarioId, List<Long> librosIds, LocalDate fechaDevolucion);
+
+    Mono<Prestamo> registrarDevolucion(Long prestamoId);
+
+    Flux<ResultadoDeDevolucionDTO> registrarDevoluciones(List<Long> prestamosIds);
+
+    Flux<ResultadoDeDevolucionDTO> registrarDevolucionesPorLibro(List<Long> librosIds);
+
+    Mono<Prestamo> obtenerPrestamoPorId(Long prestamoId);
+
+    Flux<Prestamo> obtenerTodosLosPrestamos();
+
+    Mono<PaginaDTO<Prestamo>> obtenerPaginaDePrestamos(String cursor, Integer limite, String orden);
+
+    Flux<Prestamo> obtenerPrestamosPorUsuario(Long usuarioId);
+
+    Flux<Prestamo> obtenerPrestamosPorLibro(Long libroId);
+
+    Mono<Prestamo> obtenerPrestamoActivoPorLibro(Long libroId);
+}
@@ -0,0 +1,83 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDeDevolucionDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDePrestamoDTO;
+import com.biblioteca.sistemagestion.modelo.Prestamo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PrestamoServiceReactivoImpl implements PrestamoServiceReactivo {
+
+    private final PrestamoService prestamoService;
+    private final EjecucionReactiva ejecucion;
+
+    public PrestamoServiceReactivoImpl(PrestamoService prestamoService, Scheduler planificadorDeServicios) {
+        this.prestamoService = Objects.requireNonNull(prestamoService, "PrestamoService no puede ser nulo.");
+        this.ejecucion = new EjecucionReactiva(planificadorDeServicios);
+    }
+
+    @Override
+    public Mono<Prestamo> realizarPrestamo(Long libroId, Long usuarioId, LocalDate fechaDevolucion) {
+        return ejecucion.mono(() -> prestamoService.realizarPrestamo(libroId, usuarioId, fechaDevolucion));
+    }
+
+    @Override
+    public Flux<ResultadoDePrestamoDTO> realizarPrestamos(Long usuarioId, List<Long> librosIds, LocalDate fechaDevolucion) {
+        return ejecucion.lista(() -> prestamoService.realizarPrestamos(usuarioId, librosIds, fechaDevolucion));
+    }
+
+    @Override
+    public Mono<Prestamo> registrarDevolucion(Long prestamoId) {
+        return ejecucion.mono(() -> prestamoService.registrarDevolucion(prestamoId));
+    }
+
+    @Override
+    public Flux<ResultadoDeDevolucionDTO> registrarDevoluciones(List<Long> prestamosIds) {
+        return ejecucion.lista(() -> prestamoService.registrarDevoluciones(prestamosIds));
+    }
+
+    @Override
+    public Flux<ResultadoDeDevolucionDTO> registrarDevolucionesPorLibro(List<Long> librosIds) {
+        return ejecucion.lista(() -> prestamoService.registrarDevolucionesPorLibro(librosIds));
+    }
+
+    @Override
+    public Mono<Prestamo> obtenerPrestamoPorId(Long prestamoId) {
+        return ejecucion.opcional(() -> prestamoService.obtenerPrestamoPorId(prestamoId));
+    }
+
+    @Override
+    public Flux<Prestamo> obtenerTodosLosPrestamos() {
+        return ejecucion.paginas(cursor -> prestamoService.obtenerPaginaDePrestamos(cursor, Paginacion.LOTE_DE_RECORRIDO, null));
+    }
+
+    @Override
+    public Mono<PaginaDTO<Prestamo>> obtenerPaginaDePrestamos(String cursor, Integer limite, String orden) {
+        return ejecucion.mono(() -> prestamoService.obtenerPaginaDePrestamos(cursor, limite, orden));
+    }
+
+    @Override
+    public Flux<Prestamo> obtenerPrestamosPorUsuario(Long usuarioId) {
+        return ejecucion.lista(() -> prestamoService.obtenerPrestamosPorUsuario(usuarioId));
+    }
+
+    @Override
+    public Flux<Prestamo> obtenerPrestamosPorLibro(Long libroId) {
+        return ejecucion.lista(() -> prestamoService.obtenerPrestamosPorLibro(libroId));
+    }
+
+    @Override
+    public Mono<Prestamo> obtenerPrestamoActivoPorLibro(Long libroId) {
+        return ejecucion.opcional(() -> prestamoService.obtenerPrestamoActivoPorLibro(libroId));
+    }
+}
@@ -1,6 +1,8 @@
 package com.biblioteca.sistemagestion.servicios;
 
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
 import com.biblioteca.sistemagestion.modelo.Usuario;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
 import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
 
@@ -17,7 +19,12 @@ public interface UsuarioService {
 
     List<Usuario> obtenerTodosLosUsuarios();
 
+    PaginaDTO<Usuario> obtenerPaginaDeUsuarios(String cursor, Integer limite, String orden);
+
     Usuario actualizarUsuario(Long id, Usuario usuarioDetails) throws UsuarioNoEncontradoException, RecursoDuplicadoException;
 
+    Usuario actualizarUsuario(Long id, Usuario usuarioDetails, Long versionEsperada)
+            throws UsuarioNoEncontradoException, RecursoDuplicadoException, ConflictoDeVersionException;
+
     void eliminarUsuario(Long id) throws UsuarioNoEncontradoException;
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.biblioteca.sistemagestion.servicios;
 
+import com.biblioteca.sistemagestion.cache.CacheDeLecturas;
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
 import com.biblioteca.sistemagestion.modelo.Usuario;
 import com.biblioteca.sistemagestion.modelo.EstadoUsuario;
 import com.biblioteca.sistemagestion.repositorios.UsuarioRepository;
+import com.biblioteca.sistemagestion.transacciones.GestorDeTransacciones;
+import com.biblioteca.sistemagestion.transacciones.Recurso;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
 import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
 
@@ -16,9 +21,14 @@ import java.util.Optional;
 public class UsuarioServiceImpl implements UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
+    private final CacheDeLecturas<Usuario> cacheDeUsuarios;
+    private final GestorDeTransacciones gestorDeTransacciones;
 
-    public UsuarioServiceImpl(UsuarioRepository usuarioRepository) {
+    public UsuarioServiceImpl(UsuarioRepository usuarioRepository, CacheDeLecturas<Usuario> cacheDeUsuarios,
+                              GestorDeTransacciones gestorDeTransacciones) {
         this.usuarioRepository = Objects.requireNonNull(usuarioRepository, "UsuarioRepository no puede ser nulo.");
+        this.cacheDeUsuarios = Objects.requireNonNull(cacheDeUsuarios, "CacheDeLecturas no puede ser nulo.");
+        this.gestorDeTransacciones = Objects.requireNonNull(gestorDeTransacciones, "GestorDeTransacciones no puede ser nulo.");
     }
 
     @Override
@@ -47,7 +57,7 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Override
     public Optional<Usuario> obtenerUsuarioPorId(Long id) {
         Objects.requireNonNull(id, "El ID del usuario no puede ser nulo.");
-        return usuarioRepository.findById(id);
+        return cacheDeUsuarios.obtener(id, usuarioRepository::findById);
     }
 
     @Override
@@ -61,38 +71,56 @@ public class UsuarioServiceImpl implements UsuarioService {
         return usuarioRepository.findAll();
     }
 
+    @Override
+    public PaginaDTO<Usuario> obtenerPaginaDeUsuarios(String cursor, Integer limite, String orden) {
+        return Paginacion.paginar(cursor, limite, orden, usuarioRepository::findPage, Usuario::getId);
+    }
+
     @Override
     public Usuario actualizarUsuario(Long id, Usuario usuarioDetails) throws UsuarioNoEncontradoException {
+        return actualizarUsuario(id, usuarioDetails, null);
+    }
+
+    @Override
+    public Usuario actualizarUsuario(Long id, Usuario usuarioDetails, Long versionEsperada)
+            throws UsuarioNoEncontradoException, ConflictoDeVersionException {
         Objects.requireNonNull(id, "El ID del usuario a actualizar no puede ser nulo.");
         Objects.requireNonNull(usuarioDetails, "Los detalles del usuario para actualizar no pueden ser nulos.");
 
-        Usuario usuarioExistente = usuarioRepository.findById(id)
-                .orElseThrow(() -> new UsuarioNoEncontradoException(id));
-
-        if (usuarioDetails.getEmail() != null && !usuarioDetails.getEmail().equalsIgnoreCase(usuarioExistente.getEmail())) {
-            Optional<Usuario> usuarioConNuevoEmail = usuarioRepository.findByEmail(usuarioDetails.getEmail());
-            if (usuarioConNuevoEmail.isPresent() && !usuarioConNuevoEmail.get().getId().equals(id)) {
-                throw new RecursoDuplicadoException("El nuevo email '" + usuarioDetails.getEmail() + "' ya está en uso por otro usuario.");
+        return gestorDeTransacciones.ejecutar(List.of(Recurso.usuario(id)), unidad -> {
+            Usuario usuarioExistente = usuarioRepository.findById(id)
+                    .orElseThrow(() -> new UsuarioNoEncontradoException(id));
+            Usuario usuarioActualizado = new Usuario(id, usuarioExistente.getNombre(), usuarioExistente.getEmail(),
+                    usuarioExistente.getEstado(), versionEsperada != null ? versionEsperada : usuarioExistente.getVersion());
+
+            if (usuarioDetails.getEmail() != null && !usuarioDetails.getEmail().equalsIgnoreCase(usuarioExistente.getEmail())) {
+                Optional<Usuario> usuarioConNuevoEmail = usuarioRepository.findByEmail(usuarioDetails.getEmail());
+                if (usuarioConNuevoEmail.isPresent() && !usuarioConNuevoEmail.get().getId().equals(id)) {
+                    throw new RecursoDuplicadoException("El nuevo email '" + usuarioDetails.getEmail() + "' ya está en uso por otro usuario.");
+                }
+                usuarioActualizado.setEmail(usuarioDetails.getEmail());
             }
-            usuarioExistente.setEmail(usuarioDetails.getEmail());
-        }
 
-        if (usuarioDetails.getNombre() != null) {
-            usuarioExistente.setNombre(usuarioDetails.getNombre());
-        }
-        if (usuarioDetails.getEstado() != null) {
-            usuarioExistente.setEstado(usuarioDetails.getEstado());
-        }
+            if (usuarioDetails.getNombre() != null) {
+                usuarioActualizado.setNombre(usuarioDetails.getNombre());
+            }
+            if (usuarioDetails.getEstado() != null) {
+                usuarioActualizado.setEstado(usuarioDetails.getEstado());
+            }
 
-        return usuarioRepository.save(usuarioExistente);
+            return usuarioRepository.save(usuarioActualizado);
+        });
     }
 
     @Override
     public void eliminarUsuario(Long id) throws UsuarioNoEncontradoException {
         Objects.requireNonNull(id, "El ID del usuario a eliminar no puede ser nulo.");
-        if (!usuarioRepository.existsById(id)) {
-            throw new UsuarioNoEncontradoException(id);
-        }
-        usuarioRepository.deleteById(id);
+        gestorDeTransacciones.ejecutar(List.of(Recurso.usuario(id)), unidad -> {
+            if (!usuarioRepository.existsById(id)) {
+                throw new UsuarioNoEncontradoException(id);
+            }
+            usuarioRepository.deleteById(id);
+            return null;
+        });
     }
 }
\ No newline at end of file
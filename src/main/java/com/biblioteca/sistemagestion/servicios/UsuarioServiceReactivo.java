@@ -0,0 +1,23 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface UsuarioServiceReactivo {
+
+    Mono<Usuario> crearUsuario(Usuario usuario);
+
+    Mono<Usuario> obtenerUsuarioPorId(Long id);
+
+    Mono<Usuario> obtenerUsuarioPorEmail(String email);
+
+    Flux<Usuario> obtenerTodosLosUsuarios();
+
+    Mono<PaginaDTO<Usuario>> obtenerPaginaDeUsuarios(String cursor, Integer limite, String orden);
+
+    Mono<Usuario> actualizarUsuario(Long id, Usuario usuarioDetails, Long versionEsperada);
+
+    Mono<Void> eliminarUsuario(Long id);
+}
@@ -0,0 +1,59 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Objects;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class UsuarioServiceReactivoImpl implements UsuarioServiceReactivo {
+
+    private final UsuarioService usuarioService;
+    private final EjecucionReactiva ejecucion;
+
+    public UsuarioServiceReactivoImpl(UsuarioService usuarioService, Scheduler planificadorDeServicios) {
+        this.usuarioService = Objects.requireNonNull(usuarioService, "UsuarioService no puede ser nulo.");
+        this.ejecucion = new EjecucionReactiva(planificadorDeServicios);
+    }
+
+    @Override
+    public Mono<Usuario> crearUsuario(Usuario usuario) {
+        return ejecucion.mono(() -> usuarioService.crearUsuario(usuario));
+    }
+
+    @Override
+    public Mono<Usuario> obtenerUsuarioPorId(Long id) {
+        return ejecucion.opcional(() -> usuarioService.obtenerUsuarioPorId(id));
+    }
+
+    @Override
+    public Mono<Usuario> obtenerUsuarioPorEmail(String email) {
+        return ejecucion.opcional(() -> usuarioService.obtenerUsuarioPorEmail(email));
+    }
+
+    @Override
+    public Flux<Usuario> obtenerTodosLosUsuarios() {
+        return ejecucion.paginas(cursor -> usuarioService.obtenerPaginaDeUsuarios(cursor, Paginacion.LOTE_DE_RECORRIDO, null));
+    }
+
+    @Override
+    public Mono<PaginaDTO<Usuario>> obtenerPaginaDeUsuarios(String cursor, Integer limite, String orden) {
+        return ejecucion.mono(() -> usuarioService.obtenerPaginaDeUsuarios(cursor, limite, orden));
+    }
+
+    @Override
+    public Mono<Usuario> actualizarUsuario(Long id, Usuario usuarioDetails, Long versionEsperada) {
+        return ejecucion.mono(() -> usuarioService.actualizarUsuario(id, usuarioDetails, versionEsperada));
+    }
+
+    @Override
+    public Mono<Void> eliminarUsuario(Long id) {
+        return ejecucion.accion(() -> usuarioService.eliminarUsuario(id));
+    }
+}
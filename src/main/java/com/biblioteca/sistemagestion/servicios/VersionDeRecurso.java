@@ -0,0 +1,6 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import java.time.Instant;
+
+public record VersionDeRecurso(String etiqueta, Instant ultimaModificacion) {
+}
@@ -0,0 +1,72 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.OyenteDeMutaciones;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class VersionesDelCatalogo implements OyenteDeMutaciones<Libro> {
+
+    public static final String ARRANQUE = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final LibroRepository libroRepository;
+    private final AtomicLong cambiosDelCatalogo = new AtomicLong();
+    private final ThreadLocal<boolean[]> cambioPendiente = ThreadLocal.withInitial(() -> new boolean[1]);
+    private volatile long ultimaModificacionDelCatalogo = System.currentTimeMillis();
+
+    public VersionesDelCatalogo(LibroRepository libroRepository) {
+        this.libroRepository = Objects.requireNonNull(libroRepository, "LibroRepository no puede ser nulo.");
+        libroRepository.agregarOyente(this);
+    }
+
+    @Override
+    public void guardado(Libro libro) {
+        cambioPendiente.get()[0] = true;
+    }
+
+    @Override
+    public void eliminado(long id) {
+        cambioPendiente.get()[0] = true;
+    }
+
+    // Los oyentes corren antes de que el repositorio publique el cambio; si la etiqueta avanzara ahí, una
+    // lectura concurrente podría llevarse la etiqueta nueva con el contenido anterior y quedarse con un 304.
+    @Override
+    public void mutacionCompletada() {
+        boolean[] pendiente = cambioPendiente.get();
+        if (pendiente[0]) {
+            pendiente[0] = false;
+            registrarCambio();
+        }
+    }
+
+    // La etiqueta sale de la versión que ya guarda el repositorio, sin armar el libro; como fecha se usa la del
+    // último cambio del catálogo, que nunca es anterior a la del libro y evita llevar una marca por cada uno.
+    public Optional<VersionDeRecurso> versionDeLibro(long id) {
+        return libroRepository.versionDe(id)
+                .map(version -> new VersionDeRecurso(etiquetaDeLibro(version),
+                        Instant.ofEpochMilli(ultimaModificacionDelCatalogo)));
+    }
+
+    // Con el repositorio en memoria los ids y las versiones vuelven a empezar tras reiniciar; el arranque
+    // distingue una etiqueta anterior de la misma versión de otro libro.
+    public static String etiquetaDeLibro(long version) {
+        return ARRANQUE + "-" + version;
+    }
+
+    public VersionDeRecurso versionDelCatalogo() {
+        long cambios = cambiosDelCatalogo.get();
+        return new VersionDeRecurso(ARRANQUE + "-" + cambios, Instant.ofEpochMilli(ultimaModificacionDelCatalogo));
+    }
+
+    private void registrarCambio() {
+        ultimaModificacionDelCatalogo = System.currentTimeMillis();
+        cambiosDelCatalogo.incrementAndGet();
+    }
+}
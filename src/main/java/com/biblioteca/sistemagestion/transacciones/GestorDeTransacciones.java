@@ -0,0 +1,73 @@
+package com.biblioteca.sistemagestion.transacciones;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+@Component
+public class GestorDeTransacciones {
+
+    static final int FRANJAS_POR_DEFECTO = 1024;
+
+    private final ReentrantLock[] franjas;
+
+    public GestorDeTransacciones() {
+        this(FRANJAS_POR_DEFECTO);
+    }
+
+    GestorDeTransacciones(int cantidadDeFranjas) {
+        if (cantidadDeFranjas < 1 || Integer.bitCount(cantidadDeFranjas) != 1) {
+            throw new IllegalArgumentException("La cantidad de franjas debe ser una potencia de dos positiva.");
+        }
+        franjas = new ReentrantLock[cantidadDeFranjas];
+        for (int i = 0; i < franjas.length; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T ejecutar(Collection<Recurso> recursos, Function<UnidadDeTrabajo, T> trabajo) {
+        Objects.requireNonNull(recursos, "Los recursos no pueden ser nulos.");
+        Objects.requireNonNull(trabajo, "El trabajo no puede ser nulo.");
+
+        // Se bloquea siempre en orden creciente de franja para que dos transacciones
+        // con recursos en común no puedan esperarse mutuamente.
+        int[] indices = franjasOrdenadas(recursos);
+        int adquiridas = 0;
+        try {
+            for (int indice : indices) {
+                franjas[indice].lock();
+                adquiridas++;
+            }
+            UnidadDeTrabajo unidad = new UnidadDeTrabajo();
+            try {
+                return trabajo.apply(unidad);
+            } catch (RuntimeException | Error e) {
+                unidad.deshacer(e);
+                throw e;
+            }
+        } finally {
+            for (int i = adquiridas - 1; i >= 0; i--) {
+                franjas[indices[i]].unlock();
+            }
+        }
+    }
+
+    private int[] franjasOrdenadas(Collection<Recurso> recursos) {
+        int[] indices = new int[recursos.size()];
+        int i = 0;
+        for (Recurso recurso : recursos) {
+            Objects.requireNonNull(recurso, "El recurso no puede ser nulo.");
+            indices[i++] = franja(recurso);
+        }
+        return Arrays.stream(indices).sorted().distinct().toArray();
+    }
+
+    private int franja(Recurso recurso) {
+        long hash = (recurso.id() * 31 + recurso.tipo().ordinal()) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (franjas.length - 1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.biblioteca.sistemagestion.transacciones;
+
+public record Recurso(Tipo tipo, long id) {
+
+    public enum Tipo {
+        LIBRO,
+        USUARIO,
+        PRESTAMO
+    }
+
+    public static Recurso libro(long id) {
+        return new Recurso(Tipo.LIBRO, id);
+    }
+
+    public static Recurso usuario(long id) {
+        return new Recurso(Tipo.USUARIO, id);
+    }
+
+    public static Recurso prestamo(long id) {
+        return new Recurso(Tipo.PRESTAMO, id);
+    }
+}
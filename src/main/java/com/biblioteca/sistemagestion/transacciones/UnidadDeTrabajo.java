@@ -0,0 +1,27 @@
+package com.biblioteca.sistemagestion.transacciones;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+public final class UnidadDeTrabajo {
+
+    private final Deque<Runnable> compensaciones = new ArrayDeque<>();
+
+    UnidadDeTrabajo() {
+    }
+
+    public void alDeshacer(Runnable compensacion) {
+        compensaciones.push(Objects.requireNonNull(compensacion, "La compensación no puede ser nula."));
+    }
+
+    void deshacer(Throwable causa) {
+        while (!compensaciones.isEmpty()) {
+            try {
+                compensaciones.pop().run();
+            } catch (RuntimeException e) {
+                causa.addSuppressed(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.biblioteca.sistemagestion.web;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ConfiguracionDeServidorReactivo {
+
+    // Tomcat también está en el classpath por la API servlet; sin esta fábrica WebFlux se montaría sobre él
+    @Bean
+    public NettyReactiveWebServerFactory servidorNetty() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -1,5 +1,6 @@
 package com.biblioteca.sistemagestion.web.excepciones;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -10,12 +11,14 @@ import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.PrestamoNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoNoDisponibleException;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RestExceptionHandler {
 
     private Map<String, Object> crearCuerpoDeError(HttpStatus status, String mensaje, WebRequest request) {
@@ -63,6 +66,13 @@ public class RestExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConflictoDeVersionException.class)
+    public ResponseEntity<Object> handleConflictoDeVersion(
+            ConflictoDeVersionException ex, WebRequest request) {
+        Map<String, Object> body = crearCuerpoDeError(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), request);
+        return new ResponseEntity<>(body, HttpStatus.PRECONDITION_FAILED);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Object> handleIllegalArgument(
             IllegalArgumentException ex, WebRequest request) {
@@ -0,0 +1,83 @@
+package com.biblioteca.sistemagestion.web.excepciones;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import com.biblioteca.sistemagestion.excepciones.LibroNoEncontradoException;
+import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
+import com.biblioteca.sistemagestion.excepciones.PrestamoNoEncontradoException;
+import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
+import com.biblioteca.sistemagestion.excepciones.RecursoNoDisponibleException;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class RestExceptionHandlerReactivo {
+
+    private Map<String, Object> crearCuerpoDeError(HttpStatus status, String mensaje, ServerWebExchange exchange) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", mensaje);
+        body.put("path", exchange.getRequest().getPath().value());
+        return body;
+    }
+
+    @ExceptionHandler(LibroNoEncontradoException.class)
+    public ResponseEntity<Object> handleLibroNoEncontrado(
+            LibroNoEncontradoException ex, ServerWebExchange exchange) {
+        Map<String, Object> body = crearCuerpoDeError(HttpStatus.NOT_FOUND, ex.getMessage(), exchange);
+        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(UsuarioNoEncontradoException.class)
+    public ResponseEntity<Object> handleUsuarioNoEncontrado(
+            UsuarioNoEncontradoException ex, ServerWebExchange exchange) {
+        Map<String, Object> body = crearCuerpoDeError(HttpStatus.NOT_FOUND, ex.getMessage(), exchange);
+        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(PrestamoNoEncontradoException.class)
+    public ResponseEntity<Object> handlePrestamoNoEncontrado(
+            PrestamoNoEncontradoException ex, ServerWebExchange exchange) {
+        Map<String, Object> body = crearCuerpoDeError(HttpStatus.NOT_FOUND, ex.getMessage(), exchange);
+        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(RecursoDuplicadoException.class)
+    public ResponseEntity<Object> handleRecursoDuplicado(
+            RecursoDuplicadoException ex, ServerWebExchange exchange) {
+        Map<String, Object> body = crearCuerpoDeError(HttpStatus.CONFLICT, ex.getMessage(), exchange);
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(RecursoNoDisponibleException.class)
+    public ResponseEntity<Object> handleRecursoNoDisponible(
+            RecursoNoDisponibleException ex, ServerWebExchange exchange) {
+        Map<String, Object> body = crearCuerpoDeError(HttpStatus.BAD_REQUEST, ex.getMessage(), exchange);
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ConflictoDeVersionException.class)
+    public ResponseEntity<Object> handleConflictoDeVersion(
+            ConflictoDeVersionException ex, ServerWebExchange exchange) {
+        Map<String, Object> body = crearCuerpoDeError(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), exchange);
+        return new ResponseEntity<>(body, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Object> handleIllegalArgument(
+            IllegalArgumentException ex, ServerWebExchange exchange) {
+        Map<String, Object> body = crearCuerpoDeError(HttpStatus.BAD_REQUEST, ex.getMessage(), exchange);
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.biblioteca.sistemagestion;
+
+import com.biblioteca.sistemagestion.controladores.LibroController;
+import com.biblioteca.sistemagestion.dtos.PrestamoRequestDTO;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactivo")
+class BibliotecaReactivaApplicationTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveWebServerApplicationContext contexto;
+
+    @Test
+    @DisplayName("El perfil reactivo arranca sobre Netty sin los controladores servlet")
+    void perfilReactivo_arrancaSobreNetty() {
+        assertTrue(contexto.getWebServer().getClass().getSimpleName().startsWith("Netty"));
+        assertTrue(contexto.getBeansOfType(LibroController.class).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Un préstamo creado por la API reactiva aparece en el listado transmitido como NDJSON")
+    void prestamo_apareceEnListadoNdjson() {
+        Libro libro = webTestClient.post().uri("/api/libros")
+                .bodyValue(new Libro("978-REACTIVO", "Flujos", "Autora"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Libro.class).returnResult().getResponseBody();
+        Usuario usuario = webTestClient.post().uri("/api/usuarios")
+                .bodyValue(new Usuario("Lectora", "lectora@reactivo.com"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Usuario.class).returnResult().getResponseBody();
+
+        webTestClient.post().uri("/api/prestamos")
+                .bodyValue(new PrestamoRequestDTO(libro.getId(), usuario.getId(), LocalDate.now().plusDays(7)))
+                .exchange()
+                .expectStatus().isCreated();
+
+        Flux<Libro> libros = webTestClient.get().uri("/api/libros")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Libro.class).getResponseBody();
+        StepVerifier.create(libros.filter(l -> l.getId().equals(libro.getId())))
+                .assertNext(l -> assertEquals("PRESTADO", l.getEstado().name()))
+                .verifyComplete();
+    }
+}
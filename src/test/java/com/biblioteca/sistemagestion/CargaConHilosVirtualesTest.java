@@ -0,0 +1,168 @@
+package com.biblioteca.sistemagestion;
+
+import com.biblioteca.sistemagestion.diagnostico.MonitorDeAnclajes;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.PrestamoRepository;
+import com.biblioteca.sistemagestion.repositorios.UsuarioRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EnabledIfSystemProperty(named = "biblioteca.rendimiento", matches = "true")
+class CargaConHilosVirtualesTest {
+
+    private static final long LATENCIA_MS = 20;
+    private static final int PETICIONES = 2_000;
+    private static final int CONCURRENCIA = 500;
+    private static final int USUARIOS = CONCURRENCIA;
+
+    @Test
+    @DisplayName("Comparación de POST /api/prestamos y GET /api/libros/{id} con hilos de plataforma y virtuales")
+    void compararHilosDePlataformaYVirtuales() throws Exception {
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        for (boolean virtuales : new boolean[]{false, true}) {
+            RepositoriosConLatencia repositorios = new RepositoriosConLatencia();
+            try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(BibliotecaSpringApplication.class)
+                    .initializers(c -> c.getBeanFactory().addBeanPostProcessor(repositorios))
+                    .properties("server.port=0",
+                            "spring.threads.virtual.enabled=" + virtuales,
+                            "biblioteca.cache.libros.capacidad=0",
+                            "biblioteca.diagnostico.anclajes.habilitado=true")
+                    .run()) {
+                String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+                long[] libros = sembrarLibros(repositorios.original(LibroRepository.class));
+                long[] usuarios = sembrarUsuarios(repositorios.original(UsuarioRepository.class));
+
+                Medicion lecturas = medir(cliente, i -> HttpRequest.newBuilder(URI.create(base + "/api/libros/" + libros[i]))
+                        .GET().build());
+                String devolucion = LocalDate.now().plusDays(14).toString();
+                Medicion prestamos = medir(cliente, i -> HttpRequest.newBuilder(URI.create(base + "/api/prestamos"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"libroId\":" + libros[i] + ",\"usuarioId\":" + usuarios[i % USUARIOS]
+                                        + ",\"fechaDevolucionSugerida\":\"" + devolucion + "\"}"))
+                        .build());
+
+                String hilos = virtuales ? "virtuales " : "plataforma";
+                System.out.printf("Hilos %s | GET /api/libros/{id}: %s | POST /api/prestamos: %s | anclajes: %d%n",
+                        hilos, lecturas, prestamos, contexto.getBean(MonitorDeAnclajes.class).informe().eventos());
+                assertEquals(PETICIONES, lecturas.exitos());
+                assertEquals(PETICIONES, prestamos.exitos());
+            }
+        }
+    }
+
+    private static long[] sembrarLibros(LibroRepository repositorio) {
+        List<Libro> libros = new ArrayList<>(PETICIONES);
+        for (int i = 0; i < PETICIONES; i++) {
+            libros.add(new Libro(String.format("978-%010d", i), "Carga " + i, "Autor " + (i % 50)));
+        }
+        return repositorio.saveAll(libros).stream().mapToLong(Libro::getId).toArray();
+    }
+
+    private static long[] sembrarUsuarios(UsuarioRepository repositorio) {
+        long[] ids = new long[USUARIOS];
+        for (int i = 0; i < USUARIOS; i++) {
+            ids[i] = repositorio.save(new Usuario("Usuario " + i, "carga" + i + "@test.com")).getId();
+        }
+        return ids;
+    }
+
+    private static Medicion medir(HttpClient cliente, IntFunction<HttpRequest> peticion) throws Exception {
+        AtomicInteger siguiente = new AtomicInteger();
+        long[] latencias = new long[PETICIONES];
+        AtomicInteger exitos = new AtomicInteger();
+        long inicio = System.nanoTime();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int c = 0; c < CONCURRENCIA; c++) {
+                tareas.add(clientes.submit(() -> {
+                    for (int i = siguiente.getAndIncrement(); i < PETICIONES; i = siguiente.getAndIncrement()) {
+                        long antes = System.nanoTime();
+                        HttpResponse<Void> respuesta = cliente.send(peticion.apply(i), HttpResponse.BodyHandlers.discarding());
+                        latencias[i] = System.nanoTime() - antes;
+                        if (respuesta.statusCode() / 100 == 2) {
+                            exitos.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        }
+        long total = System.nanoTime() - inicio;
+        Arrays.sort(latencias);
+        return new Medicion(exitos.get(), PETICIONES * 1e9 / total,
+                latencias[PETICIONES / 2] / 1e6, latencias[(int) (PETICIONES * 0.99)] / 1e6);
+    }
+
+    private record Medicion(int exitos, double peticionesPorSegundo, double p50Ms, double p99Ms) {
+        @Override
+        public String toString() {
+            return String.format("%,.0f pet/s, p50 %.1f ms, p99 %.1f ms", peticionesPorSegundo, p50Ms, p99Ms);
+        }
+    }
+
+    private static final class RepositoriosConLatencia implements BeanPostProcessor {
+
+        private static final List<Class<?>> REPOSITORIOS =
+                List.of(LibroRepository.class, UsuarioRepository.class, PrestamoRepository.class);
+
+        private final Map<Class<?>, Object> originales = new HashMap<>();
+
+        <T> T original(Class<T> tipo) {
+            return tipo.cast(originales.get(tipo));
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String nombre) {
+            for (Class<?> tipo : REPOSITORIOS) {
+                if (tipo.isInstance(bean)) {
+                    originales.put(tipo, bean);
+                    return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, argumentos) -> {
+                        if (!metodo.getName().equals("agregarOyente")) {
+                            Thread.sleep(LATENCIA_MS);
+                        }
+                        try {
+                            return metodo.invoke(bean, argumentos);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+                }
+            }
+            return bean;
+        }
+    }
+}
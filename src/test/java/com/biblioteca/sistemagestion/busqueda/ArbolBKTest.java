@@ -0,0 +1,90 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArbolBKTest {
+
+    @Test
+    @DisplayName("distancia calcula Levenshtein y corta al superar el máximo")
+    void distancia_calculaLevenshtein() {
+        assertEquals(0, ArbolBK.distancia("borges", "borges", 2));
+        assertEquals(1, ArbolBK.distancia("borjes", "borges", 2));
+        assertEquals(2, ArbolBK.distancia("marqes", "marquez", 2));
+        assertEquals(3, ArbolBK.distancia("kitten", "sitting", Integer.MAX_VALUE));
+        assertEquals(3, ArbolBK.distancia("cortazar", "neruda", 2));
+    }
+
+    @Test
+    @DisplayName("buscar devuelve exactamente las palabras activas dentro de la distancia pedida")
+    void buscar_coincideConRecorridoCompleto() {
+        ArbolBK arbol = new ArbolBK();
+        List<String> activas = new ArrayList<>();
+        Random random = new Random(13);
+        for (int i = 0; i < 3_000; i++) {
+            StringBuilder palabra = new StringBuilder();
+            int largo = 3 + random.nextInt(6);
+            for (int j = 0; j < largo; j++) {
+                palabra.append((char) ('a' + random.nextInt(6)));
+            }
+            arbol.agregar(palabra.toString());
+            if (!activas.contains(palabra.toString())) {
+                activas.add(palabra.toString());
+            }
+        }
+        for (int i = 0; i < activas.size(); i += 3) {
+            arbol.desactivar(activas.get(i));
+        }
+        List<String> vigentes = new ArrayList<>();
+        for (int i = 0; i < activas.size(); i++) {
+            if (i % 3 != 0) {
+                vigentes.add(activas.get(i));
+            }
+        }
+
+        for (String consulta : List.of("abcde", "fafafa", "bbb", "acedfab")) {
+            List<String> esperadas = vigentes.stream()
+                    .filter(p -> ArbolBK.distancia(p, consulta, Integer.MAX_VALUE) <= 2)
+                    .sorted().toList();
+            List<String> encontradas = arbol.buscar(consulta, 2).stream()
+                    .sorted(Comparator.comparing(ArbolBK.Resultado::palabra))
+                    .map(ArbolBK.Resultado::palabra).toList();
+            assertEquals(esperadas, encontradas, "Consulta: " + consulta);
+        }
+    }
+
+    @Test
+    @DisplayName("Al desactivar la mayoría de las palabras el árbol se reconstruye sólo con las activas")
+    void desactivar_mayoria_reconstruyeConLasActivas() {
+        ArbolBK arbol = new ArbolBK();
+        int total = 4 * ArbolBK.MINIMO_PARA_RECONSTRUIR;
+        for (int i = 0; i < total; i++) {
+            arbol.agregar("autor" + i);
+        }
+        for (int i = 0; i < total; i++) {
+            if (i % 10 != 0) {
+                arbol.desactivar("autor" + i);
+            }
+        }
+
+        assertTrue(arbol.cantidadDeNodos() < total / 2, "Nodos restantes: " + arbol.cantidadDeNodos());
+        List<String> esperadas = new ArrayList<>();
+        for (int i = 0; i < total; i += 10) {
+            if (ArbolBK.distancia("autor" + i, "autor10", Integer.MAX_VALUE) <= 1) {
+                esperadas.add("autor" + i);
+            }
+        }
+        List<String> encontradas = arbol.buscar("autor10", 1).stream().map(ArbolBK.Resultado::palabra).toList();
+        assertEquals(esperadas.stream().sorted().toList(), encontradas.stream().sorted().toList());
+
+        arbol.agregar("autor11");
+        assertTrue(arbol.buscar("autor11", 0).stream().anyMatch(r -> r.palabra().equals("autor11")));
+    }
+}
@@ -0,0 +1,93 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArbolDePrefijosTest {
+
+    private ArbolDePrefijos arbol;
+
+    @BeforeEach
+    void setUp() {
+        arbol = new ArbolDePrefijos();
+    }
+
+    private List<String> claves(String prefijo, int limite) {
+        return arbol.sugerir(prefijo, limite).stream().map(ArbolDePrefijos.Entrada::clave).toList();
+    }
+
+    @Test
+    @DisplayName("sugerir devuelve las claves con el prefijo ordenadas por popularidad")
+    void sugerir_ordenaPorPopularidad() {
+        arbol.sumar("borges", "Borges", 1);
+        arbol.sumar("bolano", "Bolaño", 3);
+        arbol.sumar("bioy casares", "Bioy Casares", 2);
+        arbol.sumar("cortazar", "Cortázar", 5);
+
+        assertEquals(List.of("bolano", "bioy casares", "borges"), claves("b", 10));
+        assertEquals(List.of("bolano", "borges"), claves("bo", 10));
+        assertEquals(List.of("bolano"), claves("b", 1));
+        assertEquals(List.of("borges"), claves("borg", 10));
+        assertTrue(claves("bx", 10).isEmpty());
+        assertTrue(claves("borgesa", 10).isEmpty());
+        assertEquals("Bolaño", arbol.sugerir("bol", 1).get(0).texto());
+    }
+
+    @Test
+    @DisplayName("restar popularidad reordena y al llegar a cero elimina la clave")
+    void sumar_negativo_reordenaYElimina() {
+        arbol.sumar("rayuela", "Rayuela", 2);
+        arbol.sumar("rayos", "Rayos", 1);
+        arbol.sumar("rayuela", null, -2);
+
+        assertEquals(List.of("rayos"), claves("ray", 10));
+        assertEquals(1, arbol.cantidadClaves());
+
+        arbol.sumar("rayos", null, -1);
+        arbol.sumar("inexistente", null, -1);
+        assertTrue(claves("r", 10).isEmpty());
+        assertEquals(0, arbol.cantidadClaves());
+    }
+
+    @Test
+    @DisplayName("operaciones aleatorias coinciden con un recorrido completo de referencia")
+    void operacionesAleatorias_coincidenConReferencia() {
+        Map<String, Integer> referencia = new HashMap<>();
+        Random random = new Random(5);
+        String alfabeto = "abc ";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder clave = new StringBuilder("a");
+            int largo = random.nextInt(6);
+            for (int j = 0; j < largo; j++) {
+                clave.append(alfabeto.charAt(random.nextInt(alfabeto.length())));
+            }
+            int delta = random.nextInt(3) == 0 ? -1 : 1;
+            int actual = referencia.getOrDefault(clave.toString(), 0);
+            if (actual + delta > 0) {
+                referencia.put(clave.toString(), actual + delta);
+            } else {
+                referencia.remove(clave.toString());
+            }
+            arbol.sumar(clave.toString(), clave.toString(), delta);
+        }
+
+        assertEquals(referencia.size(), arbol.cantidadClaves());
+        for (String prefijo : List.of("", "a", "ab", "a b", "abc", "acc", "aa a")) {
+            List<ArbolDePrefijos.Entrada> esperadas = referencia.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(prefijo))
+                    .map(e -> new ArbolDePrefijos.Entrada(e.getKey(), e.getKey(), e.getValue()))
+                    .sorted(ArbolDePrefijos.POR_POPULARIDAD)
+                    .limit(ArbolDePrefijos.SUGERENCIAS_POR_NODO)
+                    .toList();
+            assertEquals(esperadas, arbol.sugerir(prefijo, ArbolDePrefijos.SUGERENCIAS_POR_NODO), "Prefijo: '" + prefijo + "'");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.LibroRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutocompletadoDeCatalogoTest {
+
+    private LibroRepository libroRepository;
+    private AutocompletadoDeCatalogo autocompletado;
+    private int siguienteIsbn;
+
+    @BeforeEach
+    void setUp() {
+        libroRepository = new LibroRepositoryImpl();
+        autocompletado = new AutocompletadoDeCatalogo(libroRepository);
+    }
+
+    private Libro guardar(String titulo, String autor) {
+        return libroRepository.save(new Libro(null, "978-" + siguienteIsbn++, titulo, autor, EstadoLibro.DISPONIBLE));
+    }
+
+    @Test
+    @DisplayName("Sugiere títulos y autores por prefijo sin importar tildes ni mayúsculas")
+    void sugerir_ignoraTildesYMayusculas() {
+        guardar("El túnel", "Ernesto Sábato");
+        guardar("Sobre héroes y tumbas", "Ernesto Sábato");
+        guardar("Sabático", "Otro Autor");
+
+        List<Sugerencia> sugerencias = autocompletado.sugerir("SABA", 10);
+
+        assertEquals(List.of(
+                new Sugerencia("Ernesto Sábato", TipoDeSugerencia.AUTOR, 2),
+                new Sugerencia("Sabático", TipoDeSugerencia.TITULO, 1)), sugerencias);
+        assertEquals(List.of(new Sugerencia("Ernesto Sábato", TipoDeSugerencia.AUTOR, 2)),
+                autocompletado.sugerir("ernesto s", 10));
+        assertEquals(List.of(new Sugerencia("El túnel", TipoDeSugerencia.TITULO, 1)),
+                autocompletado.sugerir("el tu", 10));
+    }
+
+    @Test
+    @DisplayName("Actualizar y eliminar libros mantiene las sugerencias al día")
+    void guardarYEliminar_actualizanSugerencias() {
+        Libro libro = guardar("Rayuela", "Julio Cortázar");
+        guardar("Bestiario", "Julio Cortázar");
+
+        libro.setTitulo("Final del juego");
+        libroRepository.save(libro);
+        assertTrue(autocompletado.sugerir("ray", 10).isEmpty());
+        assertEquals("Final del juego", autocompletado.sugerir("final", 10).get(0).texto());
+        assertEquals(2, autocompletado.sugerir("julio", 10).get(0).popularidad());
+
+        libroRepository.deleteById(libro.getId());
+        assertTrue(autocompletado.sugerir("final", 10).isEmpty());
+        assertEquals(1, autocompletado.sugerir("julio", 10).get(0).popularidad());
+    }
+
+    @Test
+    @DisplayName("saveAll actualiza las sugerencias con el lote completo")
+    void saveAll_actualizaSugerencias() {
+        Libro libro = guardar("Rayuela", "Julio Cortázar");
+        libro.setTitulo("Final del juego");
+        Libro nuevo = new Libro(null, "978-1", "Bestiario", "Julio Cortázar", EstadoLibro.DISPONIBLE);
+
+        libroRepository.saveAll(List.of(libro, nuevo));
+
+        assertTrue(autocompletado.sugerir("ray", 10).isEmpty());
+        assertEquals("Final del juego", autocompletado.sugerir("final", 10).get(0).texto());
+        assertEquals(2, autocompletado.sugerir("julio", 10).get(0).popularidad());
+    }
+
+    @Test
+    @DisplayName("Un autor que coincide por varias palabras aparece una sola vez")
+    void sugerir_autorConVariasPalabrasCoincidentes_apareceUnaVez() {
+        guardar("Antología", "Juan José Juárez");
+
+        assertEquals(List.of(new Sugerencia("Juan José Juárez", TipoDeSugerencia.AUTOR, 1)),
+                autocompletado.sugerir("ju", 10));
+    }
+
+    @Test
+    @DisplayName("Prefijos vacíos o límites no positivos no devuelven sugerencias")
+    void sugerir_prefijoVacio_devuelveVacio() {
+        guardar("Ficciones", "Jorge Luis Borges");
+
+        assertTrue(autocompletado.sugerir("   ", 10).isEmpty());
+        assertTrue(autocompletado.sugerir("fic", 0).isEmpty());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "biblioteca.rendimiento", matches = "true")
+    @DisplayName("Latencia de sugerencias sobre un catálogo grande")
+    void rendimiento_sugerenciasEnCatalogoGrande() {
+        int libros = Integer.getInteger("biblioteca.rendimiento.libros", 1_000_000);
+        Random random = new Random(9);
+        String letras = "abcdefghijklmnopqrstuvwxyz";
+        for (int i = 0; i < libros; i++) {
+            StringBuilder titulo = new StringBuilder();
+            for (int j = 0; j < 12; j++) {
+                titulo.append(letras.charAt(random.nextInt(letras.length())));
+            }
+            guardar(titulo.toString(), "Autor " + (i % 20_000));
+        }
+
+        long[] tiempos = new long[100_000];
+        for (int i = 0; i < tiempos.length; i++) {
+            String prefijo = i % 2 == 0 ? String.valueOf(letras.charAt(i % 26)) + letras.charAt(i % 7) : "autor " + (i % 200);
+            long inicio = System.nanoTime();
+            autocompletado.sugerir(prefijo, 10);
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+        System.out.printf("Sugerencias sobre %,d libros: p50 %.1f µs, p99 %.1f µs%n",
+                libros, tiempos[tiempos.length / 2] / 1e3, tiempos[tiempos.length * 99 / 100] / 1e3);
+    }
+}
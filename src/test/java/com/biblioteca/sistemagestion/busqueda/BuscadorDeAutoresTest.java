@@ -0,0 +1,94 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.LibroRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuscadorDeAutoresTest {
+
+    private LibroRepository libroRepository;
+    private BuscadorDeAutores buscador;
+    private int siguienteIsbn;
+
+    @BeforeEach
+    void setUp() {
+        libroRepository = new LibroRepositoryImpl();
+        buscador = new BuscadorDeAutores(libroRepository);
+    }
+
+    private Libro guardar(String titulo, String autor) {
+        return libroRepository.save(new Libro(null, "978-" + siguienteIsbn++, titulo, autor, EstadoLibro.DISPONIBLE));
+    }
+
+    @Test
+    @DisplayName("Encuentra autores mal escritos dentro de distancia 2")
+    void buscar_toleraErroresDeTipeo() {
+        guardar("Ficciones", "Jorge Luis Borges");
+        guardar("El Aleph", "Jorge Luis Borges");
+        guardar("Cien años de soledad", "Gabriel García Márquez");
+        guardar("Rayuela", "Julio Cortázar");
+
+        assertEquals(List.of(new AutorEncontrado("Jorge Luis Borges", 1, 2)), buscador.buscar("Borjes", 10));
+        assertEquals(List.of(new AutorEncontrado("Gabriel García Márquez", 1, 1)), buscador.buscar("García Marques", 10));
+        assertTrue(buscador.buscar("Neruda", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Las coincidencias exactas aparecen antes que las aproximadas")
+    void buscar_ordenaPorDistancia() {
+        guardar("Pedro Páramo", "Juan Rulfo");
+        guardar("Otro libro", "Juan Rulfa");
+
+        List<AutorEncontrado> encontrados = buscador.buscar("rulfo", 10);
+
+        assertEquals(List.of("Juan Rulfo", "Juan Rulfa"), encontrados.stream().map(AutorEncontrado::autor).toList());
+        assertEquals(List.of(0, 1), encontrados.stream().map(AutorEncontrado::distancia).toList());
+    }
+
+    @Test
+    @DisplayName("saveAll agrega y actualiza los autores del lote completo")
+    void saveAll_actualizaAutores() {
+        Libro libro = guardar("Ficciones", "Jorge Luis Borges");
+        libro.setAutor("Adolfo Bioy Casares");
+        Libro nuevo = new Libro(null, "978-1", "El Aleph", "Jorge Luis Borges", EstadoLibro.DISPONIBLE);
+
+        libroRepository.saveAll(List.of(libro, nuevo));
+
+        assertEquals(List.of(new AutorEncontrado("Jorge Luis Borges", 0, 1)), buscador.buscar("borges", 10));
+        assertEquals(List.of(new AutorEncontrado("Adolfo Bioy Casares", 0, 1)), buscador.buscar("bioy", 10));
+    }
+
+    @Test
+    @DisplayName("Actualizar o eliminar el último libro de un autor lo quita de la búsqueda")
+    void guardarYEliminar_actualizanAutores() {
+        Libro libro = guardar("Ficciones", "Jorge Luis Borges");
+        libro.setAutor("Adolfo Bioy Casares");
+        libroRepository.save(libro);
+
+        assertTrue(buscador.buscar("borges", 10).isEmpty());
+        assertEquals("Adolfo Bioy Casares", buscador.buscar("casare", 10).get(0).autor());
+
+        libroRepository.deleteById(libro.getId());
+        assertTrue(buscador.buscar("casares", 10).isEmpty());
+
+        guardar("Ficciones", "Jorge Luis Borges");
+        assertEquals(1, buscador.buscar("borges", 10).size());
+    }
+
+    @Test
+    @DisplayName("Las palabras cortas exigen coincidencia exacta")
+    void buscar_palabrasCortas_exigenCoincidenciaExacta() {
+        guardar("Poemas", "Ana Ruiz");
+
+        assertTrue(buscador.buscar("ama", 10).isEmpty());
+        assertEquals(1, buscador.buscar("ana", 10).size());
+    }
+}
@@ -0,0 +1,150 @@
+package com.biblioteca.sistemagestion.busqueda;
+
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.LibroRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceDeBusquedaTest {
+
+    private LibroRepository libroRepository;
+    private IndiceDeBusqueda indice;
+
+    @BeforeEach
+    void setUp() {
+        libroRepository = new LibroRepositoryImpl();
+        indice = new IndiceDeBusqueda(libroRepository);
+    }
+
+    private Libro guardar(String titulo, String autor) {
+        return libroRepository.save(new Libro(null, "ISBN-" + titulo.hashCode() + "-" + autor.hashCode(), titulo, autor, EstadoLibro.DISPONIBLE));
+    }
+
+    private List<Long> ids(String consulta) {
+        return indice.buscar(consulta, 10).stream().map(Coincidencia::id).toList();
+    }
+
+    @Test
+    @DisplayName("La búsqueda ignora tildes, mayúsculas y puntuación")
+    void buscar_ignoraTildesYMayusculas() {
+        Libro cien = guardar("Cien años de soledad", "Gabriel García Márquez");
+        guardar("Ficciones", "Jorge Luis Borges");
+
+        assertEquals(List.of(cien.getId()), ids("GARCIA marquez"));
+        assertEquals(List.of(cien.getId()), ids("anos, soledad!"));
+        assertTrue(ids("de la").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Los libros que coinciden en título y con más términos aparecen primero")
+    void buscar_ordenaPorRelevancia() {
+        Libro soloAutor = guardar("Odas elementales", "Pablo Amor");
+        Libro titulo = guardar("El amor en los tiempos del cólera", "Gabriel García Márquez");
+        Libro ambos = guardar("Veinte poemas de amor", "Pablo Neruda");
+
+        assertEquals(List.of(ambos.getId(), titulo.getId(), soloAutor.getId()), ids("amor poemas"));
+        assertEquals(soloAutor.getId(), ids("amor").get(2));
+    }
+
+    @Test
+    @DisplayName("Actualizar y eliminar un libro mantienen el índice al día")
+    void guardarYEliminar_actualizanElIndice() {
+        Libro libro = guardar("Rayuela", "Julio Cortázar");
+        libro.setTitulo("Bestiario");
+        libroRepository.save(libro);
+
+        assertTrue(ids("rayuela").isEmpty());
+        assertEquals(List.of(libro.getId()), ids("bestiario cortazar"));
+
+        libroRepository.deleteById(libro.getId());
+        assertTrue(ids("bestiario").isEmpty());
+        assertTrue(ids("cortazar").isEmpty());
+    }
+
+    @Test
+    @DisplayName("saveAll indexa el lote completo, incluidas las actualizaciones")
+    void saveAll_indexaElLote() {
+        Libro libro = guardar("Rayuela", "Julio Cortázar");
+        libro.setTitulo("Bestiario");
+        Libro nuevo = new Libro(null, "978-1", "Ficciones", "Jorge Luis Borges", EstadoLibro.DISPONIBLE);
+
+        libroRepository.saveAll(List.of(libro, nuevo));
+
+        assertTrue(ids("rayuela").isEmpty());
+        assertEquals(List.of(libro.getId()), ids("bestiario"));
+        assertEquals(List.of(nuevo.getId()), ids("borges ficciones"));
+    }
+
+    @Test
+    @DisplayName("El índice se construye con los libros que ya estaban en el repositorio")
+    void constructor_indexaLibrosExistentes() {
+        Libro existente = guardar("Pedro Páramo", "Juan Rulfo");
+
+        IndiceDeBusqueda nuevo = new IndiceDeBusqueda(libroRepository);
+
+        assertEquals(existente.getId(), nuevo.buscar("paramo", 5).get(0).id());
+    }
+
+    @Test
+    @DisplayName("El límite acota la cantidad de resultados")
+    void buscar_respetaLimite() {
+        for (int i = 0; i < 30; i++) {
+            guardar("Historia " + i, "Autor " + i);
+        }
+
+        assertEquals(5, indice.buscar("historia", 5).size());
+        assertTrue(indice.buscar("historia", 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("La poda de términos poco selectivos no cambia los mejores resultados")
+    void buscar_conPoda_coincideConRecorridoCompleto() {
+        String[] palabras = {"historia", "amor", "guerra", "noche", "ciudad", "mar", "tiempo", "sombra"};
+        Random random = new Random(11);
+        for (int i = 0; i < 5_000; i++) {
+            String titulo = palabras[random.nextInt(palabras.length)] + " " + palabras[random.nextInt(palabras.length)]
+                    + " " + (random.nextInt(50) == 0 ? "aleph" : "tomo");
+            libroRepository.save(new Libro(null, "978-" + i, titulo, "Autor " + (i % 300), EstadoLibro.DISPONIBLE));
+        }
+
+        for (String consulta : List.of("aleph autor historia", "amor 17 tomo", "sombra noche autor 42")) {
+            List<Long> completas = indice.buscar(consulta, 100_000).stream().map(Coincidencia::id).toList();
+            List<Long> mejores = indice.buscar(consulta, 10).stream().map(Coincidencia::id).toList();
+            assertEquals(completas.subList(0, 10), mejores, "Resultados distintos para: " + consulta);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "biblioteca.rendimiento", matches = "true")
+    @DisplayName("Latencia de búsqueda sobre un catálogo grande")
+    void rendimiento_busquedaEnCatalogoGrande() {
+        int libros = Integer.getInteger("biblioteca.rendimiento.libros", 1_000_000);
+        String[] palabras = {"historia", "amor", "guerra", "noche", "ciudad", "mar", "tiempo", "sombra",
+                "jardín", "río", "memoria", "silencio", "fuego", "viento", "camino", "luz"};
+        Random random = new Random(3);
+        for (int i = 0; i < libros; i++) {
+            String titulo = palabras[random.nextInt(palabras.length)] + " " + palabras[random.nextInt(palabras.length)] + " " + i;
+            libroRepository.save(new Libro(null, "978-" + i, titulo, "Autor " + (i % 5000), EstadoLibro.DISPONIBLE));
+        }
+
+        long[] tiempos = new long[200];
+        for (int i = 0; i < tiempos.length; i++) {
+            long inicio = System.nanoTime();
+            indice.buscar(palabras[i % palabras.length] + " autor " + (i % 5000), 20);
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+        System.out.printf("Búsqueda sobre %,d libros: p50 %.2f ms, p99 %.2f ms%n",
+                libros, tiempos[tiempos.length / 2] / 1e6, tiempos[tiempos.length * 99 / 100] / 1e6);
+    }
+}
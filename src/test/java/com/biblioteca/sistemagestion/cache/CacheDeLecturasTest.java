@@ -0,0 +1,136 @@
+package com.biblioteca.sistemagestion.cache;
+
+import com.biblioteca.sistemagestion.dtos.EstadisticasDeCacheDTO;
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.LibroRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheDeLecturasTest {
+
+    private LibroRepository repositorio;
+    private CacheDeLecturas<Libro> cache;
+    private AtomicInteger lecturas;
+
+    @BeforeEach
+    void setUp() {
+        repositorio = new LibroRepositoryImpl();
+        cache = new CacheDeLecturas<>(100, Libro::getId);
+        repositorio.agregarOyente(cache);
+        lecturas = new AtomicInteger();
+    }
+
+    private Optional<Libro> leer(long id) {
+        lecturas.incrementAndGet();
+        return repositorio.findById(id);
+    }
+
+    @Test
+    @DisplayName("Las lecturas repetidas se sirven desde la caché y se contabilizan")
+    void obtener_lecturasRepetidas_sonAciertos() {
+        Libro libro = repositorio.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(libro, cache.obtener(libro.getId(), this::leer).orElseThrow());
+        }
+
+        assertEquals(1, lecturas.get());
+        EstadisticasDeCacheDTO estadisticas = cache.estadisticas();
+        assertEquals(4, estadisticas.aciertos());
+        assertEquals(1, estadisticas.fallos());
+    }
+
+    @Test
+    @DisplayName("Guardar, cambiar el estado o eliminar un libro invalida su entrada")
+    void mutaciones_invalidanLaEntrada() {
+        Libro libro = repositorio.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+        cache.obtener(libro.getId(), this::leer);
+
+        repositorio.compareAndSetEstado(libro.getId(), EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO);
+        assertEquals(EstadoLibro.PRESTADO, cache.obtener(libro.getId(), this::leer).orElseThrow().getEstado());
+
+        repositorio.deleteById(libro.getId());
+        assertTrue(cache.obtener(libro.getId(), this::leer).isEmpty());
+        assertTrue(cache.obtener(libro.getId(), this::leer).isEmpty());
+
+        assertEquals(4, lecturas.get(), "Las ausencias no se guardan en la caché.");
+        assertEquals(2, cache.estadisticas().invalidaciones());
+    }
+
+    @Test
+    @DisplayName("Una carga invalidada mientras está en curso no deja un valor obsoleto en la caché")
+    void obtener_invalidadoDuranteLaCarga_noGuardaElValorObsoleto() throws Exception {
+        Libro libro = repositorio.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+        CountDownLatch cargando = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Optional<Libro>> lenta = executor.submit(() -> cache.obtener(libro.getId(), id -> {
+            Optional<Libro> leido = Optional.of(new Libro(id, "978-111", "Rayuela", "Julio Cortázar", EstadoLibro.DISPONIBLE, 1L));
+            cargando.countDown();
+            try {
+                continuar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return leido;
+        }));
+
+        assertTrue(cargando.await(10, TimeUnit.SECONDS));
+        Libro editado = repositorio.findById(libro.getId()).orElseThrow();
+        editado.setTitulo("Rayuela (edición crítica)");
+        repositorio.save(editado);
+        continuar.countDown();
+
+        assertEquals("Rayuela", lenta.get(10, TimeUnit.SECONDS).orElseThrow().getTitulo());
+        assertEquals("Rayuela (edición crítica)", cache.obtener(libro.getId(), this::leer).orElseThrow().getTitulo());
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Lecturas y escrituras concurrentes sobre los mismos libros terminan sin bloquearse")
+    void lecturasYEscriturasConcurrentes_noSeBloquean() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            ids.add(repositorio.save(new Libro("978-" + i, "Título " + i, "Autor")).getId());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int hilo = 0; hilo < 8; hilo++) {
+            boolean escritor = hilo % 2 == 0;
+            tareas.add(executor.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    long id = ids.get(i % ids.size());
+                    if (escritor) {
+                        Libro libro = repositorio.findById(id).orElseThrow();
+                        repositorio.save(new Libro(id, libro.getIsbn(), "Título " + i, libro.getAutor(), libro.getEstado()));
+                    } else {
+                        assertTrue(cache.obtener(id, this::leer).isPresent());
+                    }
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (long id : ids) {
+            assertEquals(repositorio.findById(id).orElseThrow().getTitulo(), cache.obtener(id, this::leer).orElseThrow().getTitulo());
+        }
+    }
+}
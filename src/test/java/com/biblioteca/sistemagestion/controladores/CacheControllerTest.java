@@ -0,0 +1,44 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.biblioteca.sistemagestion.cache.CacheDeLecturas;
+import com.biblioteca.sistemagestion.dtos.EstadisticasDeCacheDTO;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheController.class)
+class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CacheDeLecturas<Libro> cacheDeLibrosMock;
+
+    @MockBean
+    private CacheDeLecturas<Usuario> cacheDeUsuariosMock;
+
+    @Test
+    @DisplayName("GET /api/cache/estadisticas devuelve aciertos, fallos y desalojos de cada caché")
+    void obtenerEstadisticas_DevuelveEstadisticasPorCache() throws Exception {
+        when(cacheDeLibrosMock.estadisticas()).thenReturn(new EstadisticasDeCacheDTO(90, 10, 0.9, 3, 2, 50));
+        when(cacheDeUsuariosMock.estadisticas()).thenReturn(new EstadisticasDeCacheDTO(0, 0, 1.0, 0, 0, 0));
+
+        mockMvc.perform(get("/api/cache/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.libros.aciertos", is(90)))
+                .andExpect(jsonPath("$.libros.fallos", is(10)))
+                .andExpect(jsonPath("$.libros.desalojos", is(3)))
+                .andExpect(jsonPath("$.usuarios.tamanioEstimado", is(0)));
+    }
+}
@@ -0,0 +1,43 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.biblioteca.sistemagestion.diagnostico.MonitorDeAnclajes;
+import com.biblioteca.sistemagestion.dtos.AnclajeDTO;
+import com.biblioteca.sistemagestion.dtos.InformeDeAnclajesDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DiagnosticoController.class)
+class DiagnosticoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MonitorDeAnclajes monitorDeAnclajesMock;
+
+    @Test
+    @DisplayName("GET /api/diagnostico/anclajes devuelve el total y los anclajes recientes")
+    void obtenerAnclajes_DevuelveInforme() throws Exception {
+        AnclajeDTO anclaje = new AnclajeDTO(Instant.parse("2025-01-01T10:00:00Z"), "tomcat-handler-3", 25.5,
+                "com.biblioteca.sistemagestion.Ejemplo.metodo:10");
+        when(monitorDeAnclajesMock.informe()).thenReturn(new InformeDeAnclajesDTO(1, 25.5, List.of(anclaje)));
+
+        mockMvc.perform(get("/api/diagnostico/anclajes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventos", is(1)))
+                .andExpect(jsonPath("$.recientes[0].hilo", is("tomcat-handler-3")))
+                .andExpect(jsonPath("$.recientes[0].marco", is("com.biblioteca.sistemagestion.Ejemplo.metodo:10")));
+    }
+}
@@ -0,0 +1,180 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.biblioteca.sistemagestion.dtos.InformeDeImportacionDTO;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
+import com.biblioteca.sistemagestion.importacion.FilaDeImportacion;
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.servicios.LibroServiceReactivo;
+import com.biblioteca.sistemagestion.servicios.VersionDeRecurso;
+import com.biblioteca.sistemagestion.servicios.VersionesDelCatalogo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(LibroControllerReactivo.class)
+class LibroControllerReactivoTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private LibroServiceReactivo libroServiceMock;
+
+    private Libro libro1;
+    private Libro libro2;
+    private final VersionDeRecurso versionDelCatalogo = new VersionDeRecurso("arranque-7", Instant.parse("2025-03-01T10:15:30Z"));
+
+    @BeforeEach
+    void setUp() {
+        libro1 = new Libro(1L, "ISBN001", "Libro de Aventuras", "Autor A", EstadoLibro.DISPONIBLE, 2L);
+        libro2 = new Libro(2L, "ISBN002", "Libro de Ciencia", "Autor B", EstadoLibro.PRESTADO, 1L);
+
+        when(libroServiceMock.obtenerVersionDelCatalogo()).thenReturn(Mono.just(versionDelCatalogo));
+    }
+
+    @Test
+    @DisplayName("GET /api/libros con Accept application/x-ndjson transmite un libro por línea")
+    void obtenerTodos_ConNdjson_TransmiteUnLibroPorLinea() {
+        when(libroServiceMock.obtenerTodosLosLibros()).thenReturn(Flux.just(libro1, libro2));
+
+        String cuerpo = webTestClient.get().uri("/api/libros")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"arranque-7\"")
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        List<String> lineas = cuerpo.lines().toList();
+        assertEquals(2, lineas.size());
+        assertTrue(lineas.get(0).contains("\"isbn\":\"ISBN001\""));
+        assertTrue(lineas.get(1).contains("\"isbn\":\"ISBN002\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/libros devuelve un arreglo JSON por defecto")
+    void obtenerTodos_SinAccept_DevuelveArregloJson() {
+        when(libroServiceMock.obtenerTodosLosLibros()).thenReturn(Flux.just(libro1, libro2));
+
+        webTestClient.get().uri("/api/libros")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].titulo").isEqualTo("Libro de Ciencia");
+    }
+
+    @Test
+    @DisplayName("GET /api/libros con If-None-Match vigente devuelve 304 sin recorrer el catálogo")
+    void obtenerTodos_ConEtiquetaVigente_Devuelve304() {
+        webTestClient.get().uri("/api/libros")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"arranque-7\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        verify(libroServiceMock, never()).obtenerTodosLosLibros();
+    }
+
+    @Test
+    @DisplayName("GET /api/libros/{id} devuelve el libro con su ETag o 404 si no existe")
+    void obtenerLibroPorId_DevuelveLibroConEtiquetaO404() {
+        when(libroServiceMock.obtenerVersionDeLibro(1L))
+                .thenReturn(Mono.just(new VersionDeRecurso(VersionesDelCatalogo.etiquetaDeLibro(2), Instant.parse("2025-03-01T10:15:30Z"))));
+        when(libroServiceMock.obtenerLibroPorId(1L)).thenReturn(Mono.just(libro1));
+        when(libroServiceMock.obtenerVersionDeLibro(99L)).thenReturn(Mono.empty());
+        when(libroServiceMock.obtenerLibroPorId(99L)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/libros/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + VersionesDelCatalogo.etiquetaDeLibro(2) + "\"")
+                .expectBody().jsonPath("$.isbn").isEqualTo("ISBN001");
+
+        webTestClient.get().uri("/api/libros/99")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("POST /api/libros devuelve 201 con la ubicación del libro creado")
+    void crearLibro_Devuelve201ConUbicacion() {
+        when(libroServiceMock.crearLibro(any(Libro.class))).thenReturn(Mono.just(libro1));
+
+        webTestClient.post().uri("/api/libros")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Libro("ISBN001", "Libro de Aventuras", "Autor A"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().value(HttpHeaders.LOCATION, ubicacion -> assertTrue(ubicacion.endsWith("/api/libros/1")))
+                .expectBody().jsonPath("$.id").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("PUT /api/libros/{id} con versión desactualizada devuelve 412 con el cuerpo de error")
+    void actualizarLibro_ConVersionDesactualizada_Devuelve412() {
+        when(libroServiceMock.actualizarLibro(eq(1L), any(Libro.class), eq(1L)))
+                .thenReturn(Mono.error(new ConflictoDeVersionException("El libro 1 está en la versión 2.")));
+
+        webTestClient.put().uri("/api/libros/1")
+                .header(HttpHeaders.IF_MATCH, "\"" + VersionesDelCatalogo.etiquetaDeLibro(1) + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(libro1)
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("El libro 1 está en la versión 2.")
+                .jsonPath("$.path").isEqualTo("/api/libros/1");
+    }
+
+    @Test
+    @DisplayName("PUT /api/libros/{id} con If-Match débil devuelve 400")
+    void actualizarLibro_ConEtiquetaDebil_Devuelve400() {
+        webTestClient.put().uri("/api/libros/1")
+                .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(libro1)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(libroServiceMock, never()).actualizarLibro(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/libros/importacion con CSV entrega las filas leídas del cuerpo al servicio")
+    void importarCsv_EntregaFilasAlServicio() {
+        when(libroServiceMock.importarLibros(any())).thenAnswer(invocacion -> {
+            Flux<FilaDeImportacion> filas = invocacion.getArgument(0);
+            return filas.map(fila -> fila.libro().getIsbn())
+                    .collectList()
+                    .map(isbns -> new InformeDeImportacionDTO(isbns.size(), isbns.size(), List.of()))
+                    .subscribeOn(Schedulers.boundedElastic());
+        });
+
+        webTestClient.post().uri("/api/libros/importacion")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue("isbn,titulo,autor\n978-1,Uno,Autor\n978-2,Dos,Autor\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.filasProcesadas").value(is(2));
+    }
+}
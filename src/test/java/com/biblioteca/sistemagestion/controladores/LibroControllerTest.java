@@ -1,8 +1,18 @@
 package com.biblioteca.sistemagestion.controladores;
 
+import com.biblioteca.sistemagestion.busqueda.AutorEncontrado;
+import com.biblioteca.sistemagestion.busqueda.Sugerencia;
+import com.biblioteca.sistemagestion.busqueda.TipoDeSugerencia;
+import com.biblioteca.sistemagestion.dtos.ErrorDeImportacionDTO;
+import com.biblioteca.sistemagestion.dtos.InformeDeImportacionDTO;
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.importacion.FilaDeImportacion;
 import com.biblioteca.sistemagestion.modelo.Libro;
 import com.biblioteca.sistemagestion.modelo.EstadoLibro;
 import com.biblioteca.sistemagestion.servicios.LibroService;
+import com.biblioteca.sistemagestion.servicios.VersionDeRecurso;
+import com.biblioteca.sistemagestion.servicios.VersionesDelCatalogo;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
 import com.biblioteca.sistemagestion.excepciones.LibroNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
 
@@ -17,7 +27,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,6 +54,7 @@ class LibroControllerTest {
 
     private Libro libro1;
     private Libro libro2;
+    private final VersionDeRecurso versionDelCatalogo = new VersionDeRecurso("arranque-7", Instant.parse("2025-03-01T10:15:30Z"));
 
     @BeforeEach
     void setUp() {
@@ -52,6 +65,89 @@ class LibroControllerTest {
         libro2 = new Libro("ISBN002", "Libro de Ciencia", "Autor B");
         libro2.setId(2L);
         libro2.setEstado(EstadoLibro.PRESTADO);
+
+        when(libroServiceMock.obtenerVersionDelCatalogo()).thenReturn(versionDelCatalogo);
+    }
+
+    @Test
+    @DisplayName("GET /api/libros/sugerencias devuelve sugerencias con su tipo y status 200")
+    void sugerir_DevuelveSugerencias_Y_Status200() throws Exception {
+        when(libroServiceMock.sugerir("bor", null))
+                .thenReturn(List.of(new Sugerencia("Jorge Luis Borges", TipoDeSugerencia.AUTOR, 3)));
+
+        mockMvc.perform(get("/api/libros/sugerencias").param("prefijo", "bor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].texto", is("Jorge Luis Borges")))
+                .andExpect(jsonPath("$[0].tipo", is("AUTOR")))
+                .andExpect(jsonPath("$[0].popularidad", is(3)));
+    }
+
+    @Test
+    @DisplayName("GET /api/libros/autores devuelve autores aproximados con su distancia y status 200")
+    void buscarAutores_DevuelveAutoresAproximados_Y_Status200() throws Exception {
+        when(libroServiceMock.buscarAutores("Borjes", null))
+                .thenReturn(List.of(new AutorEncontrado("Jorge Luis Borges", 1, 4)));
+
+        mockMvc.perform(get("/api/libros/autores").param("nombre", "Borjes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].autor", is("Jorge Luis Borges")))
+                .andExpect(jsonPath("$[0].distancia", is(1)))
+                .andExpect(jsonPath("$[0].libros", is(4)));
+    }
+
+    @Test
+    @DisplayName("POST /api/libros/importacion con CSV entrega las filas al servicio y devuelve el informe")
+    void importarCsv_EntregaFilasYDevuelveInforme() throws Exception {
+        List<String> isbnsRecibidos = new ArrayList<>();
+        when(libroServiceMock.importarLibros(any())).thenAnswer(invocacion -> {
+            Iterator<FilaDeImportacion> filas = invocacion.getArgument(0);
+            filas.forEachRemaining(fila -> isbnsRecibidos.add(fila.libro().getIsbn()));
+            return new InformeDeImportacionDTO(2, 1, List.of(new ErrorDeImportacionDTO(3, "978-2", "duplicado")));
+        });
+
+        mockMvc.perform(post("/api/libros/importacion")
+                        .contentType("text/csv")
+                        .content("isbn,titulo,autor\n978-1,Uno,Autor\n978-2,Dos,Autor\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.filasProcesadas", is(2)))
+                .andExpect(jsonPath("$.librosImportados", is(1)))
+                .andExpect(jsonPath("$.errores[0].fila", is(3)))
+                .andExpect(jsonPath("$.errores[0].mensaje", is("duplicado")));
+
+        assertEquals(List.of("978-1", "978-2"), isbnsRecibidos);
+    }
+
+    @Test
+    @DisplayName("POST /api/libros/importacion con NDJSON entrega las filas al servicio")
+    void importarNdjson_EntregaFilas() throws Exception {
+        List<String> titulosRecibidos = new ArrayList<>();
+        when(libroServiceMock.importarLibros(any())).thenAnswer(invocacion -> {
+            Iterator<FilaDeImportacion> filas = invocacion.getArgument(0);
+            filas.forEachRemaining(fila -> titulosRecibidos.add(fila.libro().getTitulo()));
+            return new InformeDeImportacionDTO(1, 1, List.of());
+        });
+
+        mockMvc.perform(post("/api/libros/importacion")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"isbn\":\"978-1\",\"titulo\":\"Uno\",\"autor\":\"Autor\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.librosImportados", is(1)));
+
+        assertEquals(List.of("Uno"), titulosRecibidos);
+    }
+
+    @Test
+    @DisplayName("GET /api/libros/busqueda devuelve los libros encontrados y status 200")
+    void buscar_DevuelveLibrosEncontrados_Y_Status200() throws Exception {
+        when(libroServiceMock.buscarLibros("garcia", 5)).thenReturn(List.of(libro1));
+
+        mockMvc.perform(get("/api/libros/busqueda").param("q", "garcia").param("limite", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].isbn", is(libro1.getIsbn())));
+
+        verify(libroServiceMock).buscarLibros("garcia", 5);
     }
 
     @Test
@@ -83,6 +179,22 @@ class LibroControllerTest {
         verify(libroServiceMock).obtenerTodosLosLibros();
     }
 
+    @Test
+    @DisplayName("GET /api/libros con límite devuelve una página con cursor siguiente")
+    void obtenerPagina_ConLimite_DevuelvePaginaConCursor() throws Exception {
+        when(libroServiceMock.obtenerPaginaDeLibros(null, 1, null))
+                .thenReturn(new PaginaDTO<>(List.of(libro1), "MTpBU0NFTkRFTlRFOjE"));
+
+        mockMvc.perform(get("/api/libros").param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.elementos", hasSize(1)))
+                .andExpect(jsonPath("$.elementos[0].isbn", is(libro1.getIsbn())))
+                .andExpect(jsonPath("$.siguienteCursor", is("MTpBU0NFTkRFTlRFOjE")));
+
+        verify(libroServiceMock).obtenerPaginaDeLibros(null, 1, null);
+        verify(libroServiceMock, never()).obtenerTodosLosLibros();
+    }
+
     @Test
     @DisplayName("GET /api/libros/{id} devuelve libro y status 200 cuando libro existe")
     void obtenerLibroPorId_CuandoLibroExiste_DevuelveLibroYStatus200() throws Exception {
@@ -108,6 +220,62 @@ class LibroControllerTest {
         verify(libroServiceMock).obtenerLibroPorId(999L);
     }
 
+    @Test
+    @DisplayName("GET /api/libros/{id} con un If-None-Match vigente devuelve 304 sin leer el libro")
+    void obtenerLibroPorId_conIfNoneMatchVigente_DevuelveStatus304() throws Exception {
+        when(libroServiceMock.obtenerVersionDeLibro(1L))
+                .thenReturn(Optional.of(new VersionDeRecurso(VersionesDelCatalogo.etiquetaDeLibro(3),
+                        Instant.parse("2025-03-01T10:15:30Z"))));
+        String etiqueta = "\"" + VersionesDelCatalogo.etiquetaDeLibro(3) + "\"";
+
+        mockMvc.perform(get("/api/libros/1").header("If-None-Match", etiqueta))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etiqueta))
+                .andExpect(content().string(""));
+
+        verify(libroServiceMock, never()).obtenerLibroPorId(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/libros/{id} con un If-None-Match obsoleto devuelve el libro con ETag y Last-Modified")
+    void obtenerLibroPorId_conIfNoneMatchObsoleto_DevuelveLibroConValidadores() throws Exception {
+        libro1.setVersion(4L);
+        when(libroServiceMock.obtenerVersionDeLibro(1L))
+                .thenReturn(Optional.of(new VersionDeRecurso(VersionesDelCatalogo.etiquetaDeLibro(4),
+                        Instant.parse("2025-03-01T10:15:30Z"))));
+        when(libroServiceMock.obtenerLibroPorId(1L)).thenReturn(Optional.of(libro1));
+
+        mockMvc.perform(get("/api/libros/1").header("If-None-Match", "\"" + VersionesDelCatalogo.etiquetaDeLibro(3) + "\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + VersionesDelCatalogo.etiquetaDeLibro(4) + "\""))
+                .andExpect(header().string("Last-Modified", "Sat, 01 Mar 2025 10:15:30 GMT"))
+                .andExpect(jsonPath("$.titulo", is(libro1.getTitulo())));
+    }
+
+    @Test
+    @DisplayName("GET /api/libros con la etiqueta vigente del catálogo devuelve 304 sin recorrer los libros")
+    void obtenerTodos_conIfNoneMatchVigente_DevuelveStatus304() throws Exception {
+        mockMvc.perform(get("/api/libros").header("If-None-Match", "\"arranque-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/libros").param("limite", "2").header("If-Modified-Since", "Sat, 01 Mar 2025 10:15:30 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(libroServiceMock, never()).obtenerTodosLosLibros();
+        verify(libroServiceMock, never()).obtenerPaginaDeLibros(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/libros devuelve el ETag del catálogo para las siguientes consultas")
+    void obtenerTodos_sinValidadores_DevuelveETagDelCatalogo() throws Exception {
+        when(libroServiceMock.obtenerTodosLosLibros()).thenReturn(List.of(libro1));
+
+        mockMvc.perform(get("/api/libros"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"arranque-7\""))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
     @Test
     @DisplayName("POST /api/libros crea libro y devuelve status 201")
     void crearLibro_ConDatosValidos_DevuelveLibroCreadoYStatus201() throws Exception {
@@ -158,7 +326,7 @@ class LibroControllerTest {
         libroActualizado.setId(idExistente);
         libroActualizado.setEstado(EstadoLibro.EN_REPARACION);
 
-        when(libroServiceMock.actualizarLibro(eq(idExistente), Mockito.any(Libro.class))).thenReturn(libroActualizado);
+        when(libroServiceMock.actualizarLibro(eq(idExistente), Mockito.any(Libro.class), Mockito.isNull())).thenReturn(libroActualizado);
 
         mockMvc.perform(put("/api/libros/" + idExistente)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -168,7 +336,7 @@ class LibroControllerTest {
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.titulo", is("Título Actualizado")));
 
-        verify(libroServiceMock).actualizarLibro(eq(idExistente), Mockito.any(Libro.class));
+        verify(libroServiceMock).actualizarLibro(eq(idExistente), Mockito.any(Libro.class), Mockito.isNull());
     }
 
     @Test
@@ -177,7 +345,7 @@ class LibroControllerTest {
         Long idNoExistente = 999L;
         Libro datosActualizacion = new Libro("ISBN-DUMMY", "Dummy", "Dummy");
 
-        when(libroServiceMock.actualizarLibro(eq(idNoExistente), Mockito.any(Libro.class)))
+        when(libroServiceMock.actualizarLibro(eq(idNoExistente), Mockito.any(Libro.class), Mockito.isNull()))
                 .thenThrow(new LibroNoEncontradoException(idNoExistente));
 
         mockMvc.perform(put("/api/libros/" + idNoExistente)
@@ -185,7 +353,64 @@ class LibroControllerTest {
                         .content(objectMapper.writeValueAsString(datosActualizacion)))
                 .andExpect(status().isNotFound());
 
-        verify(libroServiceMock).actualizarLibro(eq(idNoExistente), Mockito.any(Libro.class));
+        verify(libroServiceMock).actualizarLibro(eq(idNoExistente), Mockito.any(Libro.class), Mockito.isNull());
+    }
+
+    @Test
+    @DisplayName("PUT /api/libros/{id} con If-Match pasa la versión esperada y devuelve el nuevo ETag")
+    void actualizarLibro_conIfMatch_devuelveETagDeLaNuevaVersion() throws Exception {
+        Libro libroActualizado = new Libro(1L, libro1.getIsbn(), "Título Actualizado", libro1.getAutor(), EstadoLibro.DISPONIBLE, 4L);
+        when(libroServiceMock.actualizarLibro(eq(1L), Mockito.any(Libro.class), eq(3L))).thenReturn(libroActualizado);
+
+        mockMvc.perform(put("/api/libros/1")
+                        .header("If-Match", "\"" + VersionesDelCatalogo.etiquetaDeLibro(3) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(libroActualizado)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + VersionesDelCatalogo.etiquetaDeLibro(4) + "\""))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @Test
+    @DisplayName("PUT /api/libros/{id} con un If-Match obsoleto devuelve status 412")
+    void actualizarLibro_conIfMatchObsoleto_devuelveStatus412() throws Exception {
+        when(libroServiceMock.actualizarLibro(eq(1L), Mockito.any(Libro.class), eq(2L)))
+                .thenThrow(new ConflictoDeVersionException("El libro con ID 1 fue modificado por otra operación."));
+
+        mockMvc.perform(put("/api/libros/1")
+                        .header("If-Match", "\"" + VersionesDelCatalogo.etiquetaDeLibro(2) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(libro1)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("PUT /api/libros/{id} con un If-Match de otro arranque devuelve 412 sin llegar al servicio")
+    void actualizarLibro_conIfMatchDeOtroArranque_devuelveStatus412() throws Exception {
+        mockMvc.perform(put("/api/libros/1")
+                        .header("If-Match", "\"otroarranque-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(libro1)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/libros/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(libro1)))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(libroServiceMock);
+    }
+
+    @Test
+    @DisplayName("PUT /api/libros/{id} con un If-Match mal formado devuelve status 400")
+    void actualizarLibro_conIfMatchInvalido_devuelveStatus400() throws Exception {
+        mockMvc.perform(put("/api/libros/1")
+                        .header("If-Match", "W/\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(libro1)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(libroServiceMock);
     }
 
     @Test
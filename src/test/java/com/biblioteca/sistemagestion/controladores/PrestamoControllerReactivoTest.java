@@ -0,0 +1,88 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.biblioteca.sistemagestion.dtos.DevolucionEnLoteRequestDTO;
+import com.biblioteca.sistemagestion.dtos.PrestamoRequestDTO;
+import com.biblioteca.sistemagestion.excepciones.RecursoNoDisponibleException;
+import com.biblioteca.sistemagestion.modelo.Prestamo;
+import com.biblioteca.sistemagestion.servicios.PrestamoServiceReactivo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(PrestamoControllerReactivo.class)
+class PrestamoControllerReactivoTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private PrestamoServiceReactivo prestamoServiceMock;
+
+    private final LocalDate devolucion = LocalDate.of(2025, 6, 1);
+
+    @Test
+    @DisplayName("POST /api/prestamos con datos válidos devuelve Prestamo y status 201")
+    void realizarPrestamo_Devuelve201() {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(100L);
+        when(prestamoServiceMock.realizarPrestamo(10L, 1L, devolucion)).thenReturn(Mono.just(prestamo));
+
+        webTestClient.post().uri("/api/prestamos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PrestamoRequestDTO(10L, 1L, devolucion))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().value(HttpHeaders.LOCATION, ubicacion -> assertTrue(ubicacion.endsWith("/api/prestamos/100")))
+                .expectBody().jsonPath("$.id").isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("POST /api/prestamos con libro no disponible devuelve status 400")
+    void realizarPrestamo_LibroNoDisponible_Devuelve400() {
+        when(prestamoServiceMock.realizarPrestamo(10L, 1L, devolucion))
+                .thenReturn(Mono.error(new RecursoNoDisponibleException("El libro no está disponible.")));
+
+        webTestClient.post().uri("/api/prestamos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PrestamoRequestDTO(10L, 1L, devolucion))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("El libro no está disponible.");
+    }
+
+    @Test
+    @DisplayName("POST /api/prestamos/devoluciones con ambas listas devuelve 400 sin invocar al servicio")
+    void registrarDevoluciones_ConAmbasListas_Devuelve400() {
+        webTestClient.post().uri("/api/prestamos/devoluciones")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new DevolucionEnLoteRequestDTO(List.of(1L), List.of(2L)))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(prestamoServiceMock, never()).registrarDevoluciones(any());
+        verify(prestamoServiceMock, never()).registrarDevolucionesPorLibro(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/prestamos/libro/{libroId}/activo devuelve 404 si el libro no está prestado")
+    void obtenerPrestamoActivoPorLibro_SinPrestamo_Devuelve404() {
+        when(prestamoServiceMock.obtenerPrestamoActivoPorLibro(10L)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/prestamos/libro/10/activo")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
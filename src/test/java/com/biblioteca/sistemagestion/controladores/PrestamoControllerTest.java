@@ -1,6 +1,10 @@
 package com.biblioteca.sistemagestion.controladores;
 
+import com.biblioteca.sistemagestion.dtos.DevolucionEnLoteRequestDTO;
+import com.biblioteca.sistemagestion.dtos.PrestamoEnLoteRequestDTO;
 import com.biblioteca.sistemagestion.dtos.PrestamoRequestDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDeDevolucionDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDePrestamoDTO;
 import com.biblioteca.sistemagestion.modelo.Libro;
 import com.biblioteca.sistemagestion.modelo.Usuario;
 import com.biblioteca.sistemagestion.modelo.Prestamo;
@@ -23,12 +27,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -37,6 +43,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @WebMvcTest(PrestamoController.class)
 class PrestamoControllerTest {
@@ -78,6 +85,33 @@ class PrestamoControllerTest {
         prestamo1 = new Prestamo(prestamoId, libro1, usuario1, LocalDate.now().minusDays(1), fechaDevolucion);
     }
 
+    @Test
+    @DisplayName("GET /api/prestamos con Accept application/x-ndjson transmite un préstamo por línea")
+    void exportarPrestamos_ConAcceptNdjson_TransmiteUnPrestamoPorLinea() throws Exception {
+        Prestamo prestamo2 = new Prestamo(libro1, usuario1, fechaDevolucion);
+        prestamo2.setId(prestamoId + 1);
+        doAnswer(invocacion -> {
+            Consumer<Prestamo> accion = invocacion.getArgument(0);
+            accion.accept(prestamo1);
+            accion.accept(prestamo2);
+            return null;
+        }).when(prestamoServiceMock).recorrerPrestamos(any());
+
+        MvcResult resultado = mockMvc.perform(get("/api/prestamos").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals(prestamoId, objectMapper.readValue(lineas[0], Prestamo.class).getId());
+        assertEquals(prestamoId + 1, objectMapper.readValue(lineas[1], Prestamo.class).getId());
+        verify(prestamoServiceMock, never()).obtenerTodosLosPrestamos();
+    }
+
     @Test
     @DisplayName("POST /api/prestamos con datos válidos devuelve Prestamo y status 201")
     void realizarPrestamo_ConDatosValidos_DevuelvePrestamoYStatus201() throws Exception {
@@ -137,6 +171,41 @@ class PrestamoControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("POST /api/prestamos/lote devuelve el resultado de cada libro en el orden recibido")
+    void realizarPrestamos_DevuelveResultadoPorLibro() throws Exception {
+        when(prestamoServiceMock.realizarPrestamos(eq(usuarioId), eq(List.of(1L, 2L)), eq(fechaDevolucion)))
+                .thenReturn(List.of(
+                        ResultadoDePrestamoDTO.exitoso(1L, prestamoId),
+                        ResultadoDePrestamoDTO.fallido(2L, "Libro no encontrado con ID: 2")));
+
+        PrestamoEnLoteRequestDTO request = new PrestamoEnLoteRequestDTO(usuarioId, List.of(1L, 2L), fechaDevolucion);
+
+        mockMvc.perform(post("/api/prestamos/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].libroId", is(1)))
+                .andExpect(jsonPath("$[0].prestamoId", is(prestamoId.intValue())))
+                .andExpect(jsonPath("$[1].libroId", is(2)))
+                .andExpect(jsonPath("$[1].error", is("Libro no encontrado con ID: 2")));
+    }
+
+    @Test
+    @DisplayName("POST /api/prestamos/lote con usuario no encontrado devuelve status 404")
+    void realizarPrestamos_CuandoUsuarioNoEncontrado_DevuelveStatus404() throws Exception {
+        when(prestamoServiceMock.realizarPrestamos(eq(999L), any(), eq(fechaDevolucion)))
+                .thenThrow(new UsuarioNoEncontradoException(999L));
+
+        PrestamoEnLoteRequestDTO request = new PrestamoEnLoteRequestDTO(999L, List.of(libroId), fechaDevolucion);
+
+        mockMvc.perform(post("/api/prestamos/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("POST /api/prestamos/{id}/devolver para préstamo existente devuelve status 200")
     void registrarDevolucion_CuandoPrestamoExiste_DevuelvePrestamoYStatus200() throws Exception {
@@ -162,6 +231,52 @@ class PrestamoControllerTest {
         verify(prestamoServiceMock).registrarDevolucion(999L);
     }
 
+    @Test
+    @DisplayName("POST /api/prestamos/devoluciones con prestamosIds devuelve un estado por préstamo")
+    void registrarDevoluciones_PorPrestamo_DevuelveEstados() throws Exception {
+        when(prestamoServiceMock.registrarDevoluciones(List.of(prestamoId, 999L))).thenReturn(List.of(
+                new ResultadoDeDevolucionDTO(prestamoId, ResultadoDeDevolucionDTO.Estado.DEVUELTO),
+                new ResultadoDeDevolucionDTO(999L, ResultadoDeDevolucionDTO.Estado.NO_ENCONTRADO)));
+
+        mockMvc.perform(post("/api/prestamos/devoluciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DevolucionEnLoteRequestDTO(List.of(prestamoId, 999L), null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(prestamoId.intValue())))
+                .andExpect(jsonPath("$[0].estado", is("DEVUELTO")))
+                .andExpect(jsonPath("$[1].estado", is("NO_ENCONTRADO")));
+
+        verify(prestamoServiceMock, never()).registrarDevolucionesPorLibro(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/prestamos/devoluciones con librosIds usa los libros escaneados")
+    void registrarDevoluciones_PorLibro_DelegaEnServicio() throws Exception {
+        when(prestamoServiceMock.registrarDevolucionesPorLibro(List.of(libroId))).thenReturn(List.of(
+                new ResultadoDeDevolucionDTO(libroId, ResultadoDeDevolucionDTO.Estado.DEVUELTO)));
+
+        mockMvc.perform(post("/api/prestamos/devoluciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"librosIds\":[" + libroId + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].estado", is("DEVUELTO")));
+    }
+
+    @Test
+    @DisplayName("POST /api/prestamos/devoluciones con ambas listas o ninguna devuelve status 400")
+    void registrarDevoluciones_ConAmbasListasONinguna_DevuelveStatus400() throws Exception {
+        mockMvc.perform(post("/api/prestamos/devoluciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"prestamosIds\":[1],\"librosIds\":[1]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/prestamos/devoluciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(prestamoServiceMock);
+    }
+
     @Test
     @DisplayName("GET /api/prestamos devuelve lista de préstamos y status 200")
     void obtenerTodosLosPrestamos_DevuelveLista() throws Exception {
@@ -230,4 +345,26 @@ class PrestamoControllerTest {
 
         verify(prestamoServiceMock).obtenerPrestamosPorLibro(libroId);
     }
+
+    @Test
+    @DisplayName("GET /api/prestamos/libro/{id}/activo devuelve el préstamo activo del libro")
+    void obtenerPrestamoActivoPorLibro_CuandoExiste_DevuelvePrestamoYStatus200() throws Exception {
+        when(prestamoServiceMock.obtenerPrestamoActivoPorLibro(libroId)).thenReturn(Optional.of(prestamo1));
+
+        mockMvc.perform(get("/api/prestamos/libro/" + libroId + "/activo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(prestamoId.intValue())))
+                .andExpect(jsonPath("$.libro.id", is(libroId.intValue())));
+
+        verify(prestamoServiceMock).obtenerPrestamoActivoPorLibro(libroId);
+    }
+
+    @Test
+    @DisplayName("GET /api/prestamos/libro/{id}/activo devuelve 404 si el libro no está prestado")
+    void obtenerPrestamoActivoPorLibro_CuandoNoExiste_DevuelveStatus404() throws Exception {
+        when(prestamoServiceMock.obtenerPrestamoActivoPorLibro(libroId)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/prestamos/libro/" + libroId + "/activo"))
+                .andExpect(status().isNotFound());
+    }
 }
\ No newline at end of file
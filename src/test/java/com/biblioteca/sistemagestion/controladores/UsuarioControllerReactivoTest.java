@@ -0,0 +1,88 @@
+package com.biblioteca.sistemagestion.controladores;
+
+import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
+import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
+import com.biblioteca.sistemagestion.modelo.EstadoUsuario;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import com.biblioteca.sistemagestion.servicios.UsuarioServiceReactivo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(UsuarioControllerReactivo.class)
+class UsuarioControllerReactivoTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private UsuarioServiceReactivo usuarioServiceMock;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario(1L, "Usuario Test", "test@example.com", EstadoUsuario.ACTIVO, 3L);
+    }
+
+    @Test
+    @DisplayName("GET /api/usuarios transmite los usuarios como arreglo JSON")
+    void obtenerTodosLosUsuarios_DevuelveArregloJson() {
+        when(usuarioServiceMock.obtenerTodosLosUsuarios()).thenReturn(Flux.just(usuario));
+
+        webTestClient.get().uri("/api/usuarios")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].email").isEqualTo("test@example.com");
+    }
+
+    @Test
+    @DisplayName("GET /api/usuarios/{id} devuelve el usuario con su ETag")
+    void obtenerUsuarioPorId_DevuelveUsuarioConEtiqueta() {
+        when(usuarioServiceMock.obtenerUsuarioPorId(1L)).thenReturn(Mono.just(usuario));
+
+        webTestClient.get().uri("/api/usuarios/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody().jsonPath("$.nombre").isEqualTo("Usuario Test");
+    }
+
+    @Test
+    @DisplayName("POST /api/usuarios con email duplicado devuelve 409")
+    void crearUsuario_ConEmailDuplicado_Devuelve409() {
+        when(usuarioServiceMock.crearUsuario(any(Usuario.class)))
+                .thenReturn(Mono.error(new RecursoDuplicadoException("El email 'test@example.com' ya está registrado.")));
+
+        webTestClient.post().uri("/api/usuarios")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Usuario("Usuario Test", "test@example.com"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.error").isEqualTo("Conflict");
+    }
+
+    @Test
+    @DisplayName("DELETE /api/usuarios/{id} devuelve 204 o 404 si el usuario no existe")
+    void eliminarUsuario_Devuelve204O404() {
+        when(usuarioServiceMock.eliminarUsuario(1L)).thenReturn(Mono.empty());
+        when(usuarioServiceMock.eliminarUsuario(99L))
+                .thenReturn(Mono.error(new UsuarioNoEncontradoException("Usuario no encontrado con ID: 99")));
+
+        webTestClient.delete().uri("/api/usuarios/1").exchange().expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/usuarios/99").exchange().expectStatus().isNotFound();
+    }
+}
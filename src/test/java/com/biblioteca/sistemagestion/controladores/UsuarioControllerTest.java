@@ -5,6 +5,7 @@ import com.biblioteca.sistemagestion.modelo.EstadoUsuario;
 import com.biblioteca.sistemagestion.servicios.UsuarioService;
 import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -156,7 +157,7 @@ class UsuarioControllerTest {
         usuarioActualizado.setId(idExistente);
         usuarioActualizado.setEstado(EstadoUsuario.SUSPENDIDO);
 
-        when(usuarioServiceMock.actualizarUsuario(eq(idExistente), Mockito.any(Usuario.class))).thenReturn(usuarioActualizado);
+        when(usuarioServiceMock.actualizarUsuario(eq(idExistente), Mockito.any(Usuario.class), Mockito.isNull())).thenReturn(usuarioActualizado);
 
         mockMvc.perform(put("/api/usuarios/" + idExistente)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -166,7 +167,7 @@ class UsuarioControllerTest {
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.nombre", is("Nombre Actualizado")));
 
-        verify(usuarioServiceMock).actualizarUsuario(eq(idExistente), Mockito.any(Usuario.class));
+        verify(usuarioServiceMock).actualizarUsuario(eq(idExistente), Mockito.any(Usuario.class), Mockito.isNull());
     }
 
     @Test
@@ -175,7 +176,7 @@ class UsuarioControllerTest {
         Long idNoExistente = 999L;
         Usuario datosActualizacion = new Usuario("Dummy", "dummy@example.com");
 
-        when(usuarioServiceMock.actualizarUsuario(eq(idNoExistente), Mockito.any(Usuario.class)))
+        when(usuarioServiceMock.actualizarUsuario(eq(idNoExistente), Mockito.any(Usuario.class), Mockito.isNull()))
                 .thenThrow(new UsuarioNoEncontradoException(idNoExistente));
 
         mockMvc.perform(put("/api/usuarios/" + idNoExistente)
@@ -183,7 +184,7 @@ class UsuarioControllerTest {
                         .content(objectMapper.writeValueAsString(datosActualizacion)))
                 .andExpect(status().isNotFound());
 
-        verify(usuarioServiceMock).actualizarUsuario(eq(idNoExistente), Mockito.any(Usuario.class));
+        verify(usuarioServiceMock).actualizarUsuario(eq(idNoExistente), Mockito.any(Usuario.class), Mockito.isNull());
     }
 
     @Test
@@ -193,7 +194,7 @@ class UsuarioControllerTest {
 
         Usuario datosActualizacion = new Usuario(usuario1.getNombre(), usuario2.getEmail());
 
-        when(usuarioServiceMock.actualizarUsuario(eq(idUsuarioAActualizar), Mockito.any(Usuario.class)))
+        when(usuarioServiceMock.actualizarUsuario(eq(idUsuarioAActualizar), Mockito.any(Usuario.class), Mockito.isNull()))
                 .thenThrow(new RecursoDuplicadoException("El nuevo email '" + usuario2.getEmail() + "' ya está en uso por otro usuario."));
 
         mockMvc.perform(put("/api/usuarios/" + idUsuarioAActualizar)
@@ -201,10 +202,23 @@ class UsuarioControllerTest {
                         .content(objectMapper.writeValueAsString(datosActualizacion)))
                 .andExpect(status().isConflict());
 
-        verify(usuarioServiceMock).actualizarUsuario(eq(idUsuarioAActualizar), Mockito.any(Usuario.class));
+        verify(usuarioServiceMock).actualizarUsuario(eq(idUsuarioAActualizar), Mockito.any(Usuario.class), Mockito.isNull());
     }
 
 
+    @Test
+    @DisplayName("PUT /api/usuarios/{id} con un If-Match obsoleto devuelve status 412")
+    void actualizarUsuario_conIfMatchObsoleto_DevuelveStatus412() throws Exception {
+        when(usuarioServiceMock.actualizarUsuario(eq(usuario1.getId()), Mockito.any(Usuario.class), eq(5L)))
+                .thenThrow(new ConflictoDeVersionException("El usuario con ID 1 fue modificado por otra operación."));
+
+        mockMvc.perform(put("/api/usuarios/" + usuario1.getId())
+                        .header("If-Match", "\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(usuario1)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("DELETE /api/usuarios/{id} elimina usuario y devuelve status 204")
     void eliminarUsuario_CuandoUsuarioExiste_DevuelveStatus204() throws Exception {
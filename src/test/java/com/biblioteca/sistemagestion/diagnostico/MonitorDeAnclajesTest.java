@@ -0,0 +1,71 @@
+package com.biblioteca.sistemagestion.diagnostico;
+
+import com.biblioteca.sistemagestion.dtos.InformeDeAnclajesDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonitorDeAnclajesTest {
+
+    @Test
+    @DisplayName("Un hilo virtual bloqueado dentro de synchronized se informa con el marco de la aplicación")
+    void hiloVirtualAnclado_seInforma() throws Exception {
+        try (MonitorDeAnclajes monitor = new MonitorDeAnclajes(10)) {
+            Object candado = new Object();
+            Thread hilo = Thread.ofVirtual().start(() -> {
+                synchronized (candado) {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            hilo.join();
+
+            InformeDeAnclajesDTO informe = esperarEventos(monitor);
+            assertTrue(informe.eventos() >= 1);
+            assertTrue(informe.milisegundosAnclados() >= 10);
+            assertTrue(informe.recientes().get(0).marco().startsWith(MonitorDeAnclajesTest.class.getName()),
+                    "Marco inesperado: " + informe.recientes().get(0).marco());
+        }
+    }
+
+    @Test
+    @DisplayName("Dormir fuera de synchronized no ancla el hilo virtual")
+    void hiloVirtualSinMonitores_noSeInforma() throws Exception {
+        try (MonitorDeAnclajes monitor = new MonitorDeAnclajes(10)) {
+            Thread hilo = Thread.ofVirtual().start(() -> {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            hilo.join();
+            Thread.sleep(1_500);
+
+            assertEquals(0, monitor.informe().eventos());
+            assertTrue(monitor.informe().recientes().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("El umbral negativo se rechaza")
+    void umbralNegativo_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> new MonitorDeAnclajes(-1));
+    }
+
+    private static InformeDeAnclajesDTO esperarEventos(MonitorDeAnclajes monitor) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        InformeDeAnclajesDTO informe = monitor.informe();
+        while (informe.eventos() == 0 && System.nanoTime() < limite) {
+            Thread.sleep(50);
+            informe = monitor.informe();
+        }
+        return informe;
+    }
+}
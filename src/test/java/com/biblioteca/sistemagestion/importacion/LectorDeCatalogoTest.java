@@ -0,0 +1,114 @@
+package com.biblioteca.sistemagestion.importacion;
+
+import com.biblioteca.sistemagestion.busqueda.AutocompletadoDeCatalogo;
+import com.biblioteca.sistemagestion.busqueda.BuscadorDeAutores;
+import com.biblioteca.sistemagestion.busqueda.IndiceDeBusqueda;
+import com.biblioteca.sistemagestion.dtos.InformeDeImportacionDTO;
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.LibroRepositoryImpl;
+import com.biblioteca.sistemagestion.cache.CacheDeLecturas;
+import com.biblioteca.sistemagestion.servicios.LibroServiceImpl;
+import com.biblioteca.sistemagestion.servicios.VersionesDelCatalogo;
+import com.biblioteca.sistemagestion.transacciones.GestorDeTransacciones;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectorDeCatalogoTest {
+
+    private static List<FilaDeImportacion> leer(Iterator<FilaDeImportacion> filas) {
+        List<FilaDeImportacion> leidas = new ArrayList<>();
+        filas.forEachRemaining(leidas::add);
+        return leidas;
+    }
+
+    @Test
+    @DisplayName("CSV con encabezado respeta el orden de columnas, comillas y saltos CRLF")
+    void desdeCsv_conEncabezado_leeCamposEntrecomillados() {
+        String csv = "autor,isbn,titulo,estado\r\n"
+                + "\"Borges, Jorge Luis\",978-1,Ficciones,prestado\r\n"
+                + "\r\n"
+                + "Cortázar,978-2,\"El \"\"perseguidor\"\"\",\n"
+                + "Anónimo,978-3,Sin estado,ROTO\n";
+
+        List<FilaDeImportacion> filas = leer(LectorDeCatalogo.desdeCsv(new StringReader(csv)));
+
+        assertEquals(3, filas.size());
+        Libro ficciones = filas.get(0).libro();
+        assertEquals("978-1", ficciones.getIsbn());
+        assertEquals("Borges, Jorge Luis", ficciones.getAutor());
+        assertEquals(EstadoLibro.PRESTADO, ficciones.getEstado());
+        assertEquals(2, filas.get(0).numero());
+
+        assertEquals("El \"perseguidor\"", filas.get(1).libro().getTitulo());
+        assertNull(filas.get(1).libro().getEstado());
+        assertNull(filas.get(1).error());
+        assertEquals(4, filas.get(1).numero());
+
+        assertEquals(5, filas.get(2).numero());
+        assertTrue(filas.get(2).error().contains("ROTO"));
+    }
+
+    @Test
+    @DisplayName("CSV sin encabezado usa el orden isbn, titulo, autor, estado")
+    void desdeCsv_sinEncabezado_usaOrdenPorDefecto() {
+        List<FilaDeImportacion> filas = leer(LectorDeCatalogo.desdeCsv(new StringReader("978-9,Rayuela,Julio Cortázar")));
+
+        assertEquals(1, filas.size());
+        assertEquals(1, filas.get(0).numero());
+        assertEquals("Rayuela", filas.get(0).libro().getTitulo());
+        assertEquals("Julio Cortázar", filas.get(0).libro().getAutor());
+    }
+
+    @Test
+    @DisplayName("NDJSON informa las líneas inválidas y sigue leyendo las siguientes")
+    void desdeNdjson_lineaInvalida_seInformaYContinua() {
+        String ndjson = "{\"isbn\":\"978-1\",\"titulo\":\"Ficciones\",\"autor\":\"Borges\",\"extra\":1}\n"
+                + "{\"isbn\": \n"
+                + "\n"
+                + "{\"isbn\":\"978-2\",\"titulo\":\"Rayuela\",\"autor\":\"Cortázar\",\"estado\":\"disponible\"}\n";
+
+        List<FilaDeImportacion> filas = leer(LectorDeCatalogo.desdeNdjson(new StringReader(ndjson), new ObjectMapper()));
+
+        assertEquals(3, filas.size());
+        assertEquals("Ficciones", filas.get(0).libro().getTitulo());
+        assertNotNull(filas.get(1).error());
+        assertEquals(2, filas.get(1).numero());
+        assertEquals(4, filas.get(2).numero());
+        assertEquals(EstadoLibro.DISPONIBLE, filas.get(2).libro().getEstado());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "biblioteca.rendimiento", matches = "true")
+    @DisplayName("Filas por segundo de una importación CSV completa con los índices de búsqueda activos")
+    void rendimiento_importacionCsv() {
+        int filas = Integer.getInteger("biblioteca.rendimiento.filas", 500_000);
+        StringBuilder csv = new StringBuilder("isbn,titulo,autor\n");
+        for (int i = 0; i < filas; i++) {
+            csv.append("978-").append(i).append(",Historia del tomo ").append(i).append(",Autor ").append(i % 5_000).append('\n');
+        }
+
+        for (int ronda = 0; ronda < 3; ronda++) {
+            LibroRepository repositorio = new LibroRepositoryImpl();
+            LibroServiceImpl servicio = new LibroServiceImpl(repositorio, new IndiceDeBusqueda(repositorio),
+                    new AutocompletadoDeCatalogo(repositorio), new BuscadorDeAutores(repositorio),
+                    new VersionesDelCatalogo(repositorio), new CacheDeLecturas<>(0, Libro::getId),
+                    new GestorDeTransacciones());
+            long inicio = System.nanoTime();
+            InformeDeImportacionDTO informe = servicio.importarLibros(LectorDeCatalogo.desdeCsv(new StringReader(csv.toString())));
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            assertEquals(filas, informe.librosImportados());
+            System.out.printf("Importación de %,d filas: %.2f s (%,.0f filas/s)%n", filas, segundos, filas / segundos);
+        }
+    }
+}
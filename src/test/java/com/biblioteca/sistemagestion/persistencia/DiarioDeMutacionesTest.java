@@ -0,0 +1,279 @@
+package com.biblioteca.sistemagestion.persistencia;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiarioDeMutacionesTest {
+
+    private static final String PRIMER_SEGMENTO = "diario-00000000000000000001.log";
+
+    @TempDir
+    Path directorio;
+
+    @ParameterizedTest
+    @EnumSource(PoliticaDeSincronizacion.class)
+    @DisplayName("Los registros agregados se reproducen en orden tras reabrir el diario")
+    void agregarYReproducir_conservaOrdenYLsn(PoliticaDeSincronizacion politica) throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, politica, 5)) {
+            for (long i = 1; i <= 1000; i++) {
+                long valor = i;
+                assertEquals(i, diario.agregar((byte) (i % 3), destino -> destino.putLong(valor * 10)));
+            }
+        }
+
+        List<long[]> leidos = new ArrayList<>();
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, politica, 5)) {
+            assertEquals(1000, diario.reproducir((tipo, lsn, cuerpo) -> leidos.add(new long[]{tipo, lsn, cuerpo.getLong()})));
+            assertEquals(1000, diario.ultimoLsn());
+        }
+
+        for (int i = 0; i < leidos.size(); i++) {
+            long esperado = i + 1;
+            assertArrayEquals(new long[]{esperado % 3, esperado, esperado * 10}, leidos.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Un registro final incompleto se descarta y el diario sigue aceptando escrituras")
+    void reproducir_conColaIncompleta_truncaYContinua() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.POR_ESCRITURA, 0)) {
+            for (int i = 0; i < 3; i++) {
+                diario.agregar((byte) 1, destino -> destino.putLong(42L));
+            }
+        }
+        try (FileChannel canal = FileChannel.open(carpeta.resolve(PRIMER_SEGMENTO), StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 3);
+        }
+
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.POR_ESCRITURA, 0)) {
+            assertEquals(2, diario.reproducir((tipo, lsn, cuerpo) -> { }));
+            assertEquals(3, diario.agregar((byte) 1, destino -> destino.putLong(7L)));
+        }
+
+        List<Long> valores = new ArrayList<>();
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.POR_ESCRITURA, 0)) {
+            assertEquals(3, diario.reproducir((tipo, lsn, cuerpo) -> valores.add(cuerpo.getLong())));
+        }
+        assertEquals(List.of(42L, 42L, 7L), valores);
+    }
+
+    @Test
+    @DisplayName("Un registro con CRC inválido detiene la reproducción en el último registro válido")
+    void reproducir_conRegistroCorrupto_seDetiene() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.SISTEMA_OPERATIVO, 0)) {
+            diario.agregar((byte) 1, destino -> destino.putLong(1L));
+            diario.agregar((byte) 1, destino -> destino.putLong(2L));
+        }
+        byte[] contenido = Files.readAllBytes(carpeta.resolve(PRIMER_SEGMENTO));
+        contenido[contenido.length - 1] ^= 0x7F;
+        Files.write(carpeta.resolve(PRIMER_SEGMENTO), contenido);
+
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.SISTEMA_OPERATIVO, 0)) {
+            assertEquals(1, diario.reproducir((tipo, lsn, cuerpo) -> { }));
+        }
+        assertEquals(contenido.length / 2, Files.size(carpeta.resolve(PRIMER_SEGMENTO)));
+    }
+
+    @Test
+    @DisplayName("Con commit en grupo los registros llegan al archivo sin esperar al cierre")
+    void grupo_vuelcaPeriodicamente() throws Exception {
+        Path carpeta = directorio.resolve("diario");
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            diario.agregar((byte) 1, destino -> destino.putLong(1L));
+            long limite = System.currentTimeMillis() + 5_000;
+            while (Files.size(carpeta.resolve(PRIMER_SEGMENTO)) == 0 && System.currentTimeMillis() < limite) {
+                Thread.sleep(5);
+            }
+            assertTrue(Files.size(carpeta.resolve(PRIMER_SEGMENTO)) > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Con escritura sincronizada el fsync ocurre al esperar y cubre a todos los escritores concurrentes")
+    void porEscritura_esperarDurabilidad_agrupaEscritoresConcurrentes() throws Exception {
+        Path carpeta = directorio.resolve("diario");
+        int escritores = 200;
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.POR_ESCRITURA, 0)) {
+            long primero = diario.agregar((byte) 1, destino -> destino.putLong(0L));
+            assertEquals(0, Files.size(carpeta.resolve(PRIMER_SEGMENTO)));
+            diario.esperarDurabilidad(primero);
+            assertTrue(Files.size(carpeta.resolve(PRIMER_SEGMENTO)) > 0);
+
+            CountDownLatch inicio = new CountDownLatch(1);
+            List<Future<?>> tareas = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 1; i <= escritores; i++) {
+                    long valor = i;
+                    tareas.add(executor.submit(() -> {
+                        inicio.await();
+                        diario.esperarDurabilidad(diario.agregar((byte) 1, destino -> destino.putLong(valor)));
+                        return null;
+                    }));
+                }
+                inicio.countDown();
+                for (Future<?> tarea : tareas) {
+                    tarea.get(30, TimeUnit.SECONDS);
+                }
+            }
+            assertEquals((escritores + 1L) * 25, Files.size(carpeta.resolve(PRIMER_SEGMENTO)));
+        }
+    }
+
+    @Test
+    @DisplayName("Con commit en grupo esperarDurabilidad vuelve después de la sincronización periódica")
+    void grupo_esperarDurabilidad_esperaAlSincronizador() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 20)) {
+            long lsn = diario.agregar((byte) 1, destino -> destino.putLong(1L));
+            diario.esperarDurabilidad(lsn);
+            assertEquals(25, Files.size(carpeta.resolve(PRIMER_SEGMENTO)));
+        }
+    }
+
+    @Test
+    @DisplayName("Un registro mayor que el buffer se rechaza sin afectar a los siguientes")
+    void agregar_registroExcesivo_lanzaExcepcion() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            diario.agregar((byte) 1, destino -> destino.putLong(1L));
+            assertThrows(IllegalArgumentException.class,
+                    () -> diario.agregar((byte) 1, destino -> destino.put(new byte[2 << 20])));
+            assertEquals(2, diario.agregar((byte) 1, destino -> destino.putLong(2L)));
+        }
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            assertEquals(2, diario.reproducir((tipo, lsn, cuerpo) -> { }));
+        }
+    }
+
+    @Test
+    @DisplayName("Un cuerpo que falla a medio escribir no deja un registro parcial en el diario")
+    void agregar_cuerpoQueFalla_noDejaRegistroParcial() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            diario.agregar((byte) 1, destino -> destino.putLong(1L));
+            assertThrows(IllegalStateException.class, () -> diario.agregar((byte) 1, destino -> {
+                destino.putLong(99L);
+                throw new IllegalStateException("fallo del serializador");
+            }));
+            assertEquals(2, diario.agregar((byte) 1, destino -> destino.putLong(2L)));
+        }
+
+        List<Long> valores = new ArrayList<>();
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            assertEquals(2, diario.reproducir((tipo, lsn, cuerpo) -> valores.add(cuerpo.getLong())));
+        }
+        assertEquals(List.of(1L, 2L), valores);
+    }
+
+    @Test
+    @DisplayName("Rotar mientras otros hilos escriben conserva todos los registros en orden")
+    void rotar_conEscritoresConcurrentes_conservaRegistros() throws Exception {
+        Path carpeta = directorio.resolve("diario");
+        int hilos = 4;
+        int porHilo = 500;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.POR_ESCRITURA, 0)) {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(ejecutor.submit(() -> {
+                    for (int i = 0; i < porHilo; i++) {
+                        diario.esperarDurabilidad(diario.agregar((byte) 1, destino -> destino.putLong(1L)));
+                    }
+                }));
+            }
+            for (int i = 0; i < 5; i++) {
+                assertTrue(diario.rotar() <= diario.ultimoLsn());
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        List<Long> lsns = new ArrayList<>();
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.POR_ESCRITURA, 0)) {
+            assertEquals(hilos * porHilo, diario.reproducir((tipo, lsn, cuerpo) -> lsns.add(lsn)));
+        }
+        for (int i = 0; i < lsns.size(); i++) {
+            assertEquals(i + 1, lsns.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Rotar abre un segmento nuevo y descartar elimina los segmentos ya cubiertos")
+    void rotarYDescartar_conservanRegistrosPosteriores() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        long lsnRotado;
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            for (long i = 1; i <= 5; i++) {
+                long valor = i;
+                diario.agregar((byte) 1, destino -> destino.putLong(valor));
+            }
+            lsnRotado = diario.rotar();
+            for (long i = 6; i <= 8; i++) {
+                long valor = i;
+                diario.agregar((byte) 1, destino -> destino.putLong(valor));
+            }
+        }
+        assertEquals(5, lsnRotado);
+        assertTrue(Files.exists(carpeta.resolve("diario-00000000000000000006.log")));
+
+        List<Long> posteriores = new ArrayList<>();
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            assertEquals(3, diario.reproducir(lsnRotado, (tipo, lsn, cuerpo) -> posteriores.add(cuerpo.getLong())));
+            diario.descartarHasta(lsnRotado);
+            assertEquals(9, diario.agregar((byte) 1, destino -> destino.putLong(9L)));
+        }
+        assertEquals(List.of(6L, 7L, 8L), posteriores);
+        assertFalse(Files.exists(carpeta.resolve(PRIMER_SEGMENTO)));
+
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            assertEquals(4, diario.reproducir((tipo, lsn, cuerpo) -> { }));
+            assertEquals(9, diario.ultimoLsn());
+        }
+    }
+
+    @Test
+    @DisplayName("Un segmento anterior al activo con registros dañados detiene el arranque sin truncarlo")
+    void reproducir_conSegmentoAnteriorDaniado_fallaSinTruncar() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.SISTEMA_OPERATIVO, 0)) {
+            diario.agregar((byte) 1, destino -> destino.putLong(1L));
+            diario.agregar((byte) 1, destino -> destino.putLong(2L));
+            diario.rotar();
+            diario.agregar((byte) 1, destino -> destino.putLong(3L));
+        }
+        byte[] contenido = Files.readAllBytes(carpeta.resolve(PRIMER_SEGMENTO));
+        contenido[contenido.length - 1] ^= 0x7F;
+        Files.write(carpeta.resolve(PRIMER_SEGMENTO), contenido);
+
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.SISTEMA_OPERATIVO, 0)) {
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                    () -> diario.reproducir((tipo, lsn, cuerpo) -> { }));
+            assertTrue(error.getMessage().contains(PRIMER_SEGMENTO));
+        }
+        assertEquals(contenido.length, Files.size(carpeta.resolve(PRIMER_SEGMENTO)));
+    }
+}
@@ -0,0 +1,340 @@
+package com.biblioteca.sistemagestion.persistencia;
+
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.EstadoUsuario;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.modelo.Prestamo;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.LibroRepositoryImpl;
+import com.biblioteca.sistemagestion.repositorios.OyenteDeMutaciones;
+import com.biblioteca.sistemagestion.repositorios.PrestamoRepository;
+import com.biblioteca.sistemagestion.repositorios.PrestamoRepositoryImpl;
+import com.biblioteca.sistemagestion.repositorios.UsuarioRepository;
+import com.biblioteca.sistemagestion.repositorios.UsuarioRepositoryImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiarioDeRepositoriosTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Las mutaciones de los tres repositorios se recuperan al reproducir el diario")
+    void reproducir_recuperaEstadoDeLosRepositorios() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        Libro libro;
+        Usuario usuario;
+        Prestamo prestamo;
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            Repositorios repositorios = new Repositorios();
+            new DiarioDeRepositorios(diario, repositorios.libros, repositorios.usuarios, repositorios.prestamos).conectar();
+
+            libro = repositorios.libros.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+            Libro descartado = repositorios.libros.save(new Libro("978-222", "Descartado", "Anónimo"));
+            usuario = repositorios.usuarios.save(new Usuario("Ana", "ana@test.com"));
+            Usuario suspendido = repositorios.usuarios.save(new Usuario("Luis", "luis@test.com"));
+            prestamo = repositorios.prestamos.save(new Prestamo(libro, usuario, LocalDate.now().plusDays(14)));
+            Prestamo devuelto = repositorios.prestamos.save(new Prestamo(descartado, suspendido, null));
+
+            libro.setEstado(EstadoLibro.PRESTADO);
+            repositorios.libros.save(libro);
+            suspendido.setEstado(EstadoUsuario.SUSPENDIDO);
+            repositorios.usuarios.save(suspendido);
+            repositorios.prestamos.deleteById(devuelto.getId());
+            repositorios.libros.deleteById(descartado.getId());
+        }
+
+        Repositorios recuperados = new Repositorios();
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            assertEquals(10, new DiarioDeRepositorios(diario, recuperados.libros, recuperados.usuarios, recuperados.prestamos).reproducir());
+        }
+
+        assertEquals(List.of(libro), recuperados.libros.findAll());
+        assertEquals(2, recuperados.usuarios.findAll().size());
+        assertEquals(EstadoUsuario.SUSPENDIDO, recuperados.usuarios.findByEmail("luis@test.com").orElseThrow().getEstado());
+        Prestamo recuperado = recuperados.prestamos.findById(prestamo.getId()).orElseThrow();
+        assertEquals(prestamo, recuperado);
+        assertSame(recuperados.libros.findById(libro.getId()).orElseThrow(), recuperado.getLibro());
+        assertSame(recuperados.usuarios.findById(usuario.getId()).orElseThrow(), recuperado.getUsuario());
+        assertEquals(recuperado, recuperados.prestamos.findActiveByLibroId(libro.getId()).orElseThrow());
+
+        Libro nuevo = recuperados.libros.save(new Libro("978-333", "Nuevo", "Autor"));
+        assertTrue(nuevo.getId() > libro.getId());
+    }
+
+    @Test
+    @DisplayName("Con commit en grupo un guardado no vuelve hasta que su registro está sincronizado en disco")
+    void save_conCommitEnGrupo_esperaLaSincronizacion() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 50)) {
+            Repositorios repositorios = new Repositorios();
+            new DiarioDeRepositorios(diario, repositorios.libros, repositorios.usuarios, repositorios.prestamos).conectar();
+
+            repositorios.libros.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+
+            assertTrue(Files.size(carpeta.resolve("diario-00000000000000000001.log")) > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Una mutación revertida porque falló otro oyente no reaparece al reproducir el diario")
+    void reproducir_conOyenteQueFalla_noRecuperaLaMutacionRevertida() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        Libro libro;
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.POR_ESCRITURA, 0)) {
+            Repositorios repositorios = new Repositorios();
+            new DiarioDeRepositorios(diario, repositorios.libros, repositorios.usuarios, repositorios.prestamos).conectar();
+            repositorios.libros.agregarOyente(new OyenteDeMutaciones<>() {
+                @Override
+                public void guardado(Libro libro) {
+                    if ("Rechazado".equals(libro.getTitulo())) {
+                        throw new IllegalStateException("El índice no acepta el libro.");
+                    }
+                }
+
+                @Override
+                public void eliminado(long id) {
+                    throw new IllegalStateException("El índice no acepta la baja.");
+                }
+            });
+
+            libro = repositorios.libros.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+            assertThrows(IllegalStateException.class,
+                    () -> repositorios.libros.save(new Libro("978-222", "Rechazado", "Anónimo")));
+            assertThrows(IllegalStateException.class, () -> repositorios.libros.deleteById(libro.getId()));
+            assertEquals(List.of(libro), repositorios.libros.findAll());
+        }
+
+        Repositorios recuperados = new Repositorios();
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.POR_ESCRITURA, 0)) {
+            assertEquals(1, new DiarioDeRepositorios(diario, recuperados.libros, recuperados.usuarios, recuperados.prestamos).reproducir());
+        }
+        assertEquals(List.of(libro), recuperados.libros.findAll());
+        assertTrue(recuperados.libros.findByIsbn("978-222").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Reproducir el diario no vuelve a registrar las mutaciones reproducidas")
+    void reproducir_antesDeConectar_noDuplicaRegistros() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.POR_ESCRITURA, 0)) {
+            Repositorios repositorios = new Repositorios();
+            new DiarioDeRepositorios(diario, repositorios.libros, repositorios.usuarios, repositorios.prestamos).conectar();
+            repositorios.libros.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+        }
+
+        for (int arranque = 0; arranque < 3; arranque++) {
+            try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.POR_ESCRITURA, 0)) {
+                Repositorios repositorios = new Repositorios();
+                DiarioDeRepositorios diarioDeRepositorios =
+                        new DiarioDeRepositorios(diario, repositorios.libros, repositorios.usuarios, repositorios.prestamos);
+                assertEquals(1, diarioDeRepositorios.reproducir());
+                diarioDeRepositorios.conectar();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Al arrancar se carga la instantánea y solo se reproducen las mutaciones posteriores")
+    void reproducir_conInstantanea_aplicaSoloLaColaDelDiario() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        Path instantaneas = directorio.resolve("instantaneas");
+        Libro libro;
+        Prestamo prestamo;
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            Repositorios repositorios = new Repositorios();
+            DiarioDeRepositorios diarioDeRepositorios =
+                    new DiarioDeRepositorios(diario, repositorios.libros, repositorios.usuarios, repositorios.prestamos);
+            diarioDeRepositorios.conectar();
+
+            libro = repositorios.libros.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+            Libro otro = repositorios.libros.save(new Libro("978-222", "Ficciones", "Jorge Luis Borges"));
+            Usuario usuario = repositorios.usuarios.save(new Usuario("Ana", "ana@test.com"));
+            diarioDeRepositorios.tomarInstantanea(instantaneas);
+
+            libro.setEstado(EstadoLibro.PRESTADO);
+            repositorios.libros.save(libro);
+            prestamo = repositorios.prestamos.save(new Prestamo(libro, usuario, LocalDate.now().plusDays(7)));
+            repositorios.libros.deleteById(otro.getId());
+        }
+
+        Path instantanea = ArchivoDeInstantanea.ultima(instantaneas).orElseThrow();
+        assertEquals(3, ArchivoDeInstantanea.lsn(instantanea));
+
+        Repositorios recuperados = new Repositorios();
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            assertEquals(3, new DiarioDeRepositorios(diario, recuperados.libros, recuperados.usuarios, recuperados.prestamos)
+                    .reproducir(instantanea));
+            assertEquals(6, diario.ultimoLsn());
+        }
+        assertEquals(List.of(libro), recuperados.libros.findAll());
+        assertEquals(1, recuperados.usuarios.findAll().size());
+        assertEquals(prestamo, recuperados.prestamos.findById(prestamo.getId()).orElseThrow());
+        assertSame(recuperados.libros.findById(libro.getId()).orElseThrow(),
+                recuperados.prestamos.findById(prestamo.getId()).orElseThrow().getLibro());
+    }
+
+    @Test
+    @DisplayName("Una instantánea tomada mientras cambia un ISBN se reconcilia con la cola del diario")
+    void reproducir_conInstantaneaDifusa_resuelveConflictosDeIsbn() throws IOException {
+        Path carpeta = directorio.resolve("diario");
+        Path instantaneas = directorio.resolve("instantaneas");
+        Libro anterior;
+        Libro nuevo;
+        long lsnInstantanea;
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            Repositorios repositorios = new Repositorios();
+            new DiarioDeRepositorios(diario, repositorios.libros, repositorios.usuarios, repositorios.prestamos).conectar();
+            anterior = repositorios.libros.save(new Libro("978-111", "Edición anterior", "Autor"));
+            lsnInstantanea = diario.rotar();
+            repositorios.libros.deleteById(anterior.getId());
+            nuevo = repositorios.libros.save(new Libro("978-111", "Edición nueva", "Autor"));
+        }
+        try (ArchivoDeInstantanea archivo = ArchivoDeInstantanea.crear(instantaneas, lsnInstantanea)) {
+            archivo.agregar(DiarioDeRepositorios.LIBRO_GUARDADO, anterior, CodificadorDeEntidades::escribirLibro);
+            archivo.agregar(DiarioDeRepositorios.LIBRO_GUARDADO, nuevo, CodificadorDeEntidades::escribirLibro);
+            archivo.confirmar();
+        }
+
+        Repositorios recuperados = new Repositorios();
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.GRUPO, 5)) {
+            new DiarioDeRepositorios(diario, recuperados.libros, recuperados.usuarios, recuperados.prestamos)
+                    .reproducir(ArchivoDeInstantanea.ultima(instantaneas).orElseThrow());
+        }
+        assertEquals(List.of(nuevo), recuperados.libros.findAll());
+        assertEquals(nuevo, recuperados.libros.findByIsbn("978-111").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Una instantánea alterada se rechaza al cargarla")
+    void cargar_instantaneaCorrupta_lanzaExcepcion() throws IOException {
+        Repositorios repositorios = new Repositorios();
+        Path instantanea;
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(directorio.resolve("diario"), PoliticaDeSincronizacion.GRUPO, 5)) {
+            DiarioDeRepositorios diarioDeRepositorios =
+                    new DiarioDeRepositorios(diario, repositorios.libros, repositorios.usuarios, repositorios.prestamos);
+            diarioDeRepositorios.conectar();
+            repositorios.libros.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+            instantanea = diarioDeRepositorios.tomarInstantanea(directorio.resolve("instantaneas"));
+        }
+        byte[] contenido = Files.readAllBytes(instantanea);
+        contenido[20] ^= 0x01;
+        Files.write(instantanea, contenido);
+
+        assertThrows(IllegalStateException.class, () -> ArchivoDeInstantanea.cargar(instantanea, (tipo, cuerpo) -> { }));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "biblioteca.rendimiento", matches = "true")
+    @DisplayName("Tiempo de escritura y carga de una instantánea grande")
+    void rendimiento_instantaneaGrande() throws IOException {
+        int libros = Integer.getInteger("biblioteca.rendimiento.libros", 1_000_000);
+        int prestamos = Integer.getInteger("biblioteca.rendimiento.prestamos", 4_000_000);
+        Repositorios repositorios = new Repositorios();
+        Path carpeta = directorio.resolve("diario");
+        Path instantanea;
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.SISTEMA_OPERATIVO, 0)) {
+            DiarioDeRepositorios diarioDeRepositorios =
+                    new DiarioDeRepositorios(diario, repositorios.libros, repositorios.usuarios, repositorios.prestamos);
+            List<Usuario> socios = new ArrayList<>();
+            for (int i = 0; i < prestamos / 20; i++) {
+                socios.add(repositorios.usuarios.save(new Usuario("Socio " + i, "socio" + i + "@test.com")));
+            }
+            List<Libro> catalogo = new ArrayList<>(libros);
+            for (int i = 0; i < libros; i++) {
+                catalogo.add(repositorios.libros.save(new Libro("978-" + i, "Título " + i, "Autor " + (i % 1000))));
+            }
+            for (int i = 0; i < prestamos; i++) {
+                repositorios.prestamos.save(new Prestamo(catalogo.get(i % libros), socios.get(i % socios.size()), LocalDate.now()));
+            }
+            long inicio = System.nanoTime();
+            instantanea = diarioDeRepositorios.tomarInstantanea(directorio.resolve("instantaneas"));
+            System.out.printf("Instantánea de %,d libros y %,d préstamos (%,d bytes) escrita en %d ms%n",
+                    libros, prestamos, Files.size(instantanea), (System.nanoTime() - inicio) / 1_000_000);
+        }
+
+        Repositorios recuperados = new Repositorios();
+        try (DiarioDeMutaciones diario = new DiarioDeMutaciones(carpeta, PoliticaDeSincronizacion.SISTEMA_OPERATIVO, 0)) {
+            long inicio = System.nanoTime();
+            new DiarioDeRepositorios(diario, recuperados.libros, recuperados.usuarios, recuperados.prestamos)
+                    .reproducir(instantanea);
+            System.out.printf("Instantánea cargada en %d ms%n", (System.nanoTime() - inicio) / 1_000_000);
+        }
+        assertEquals(libros, recuperados.libros.findAll().size());
+        assertEquals(prestamos, recuperados.prestamos.findAll().size());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "biblioteca.rendimiento", matches = "true")
+    @DisplayName("Comparación de rendimiento de escritura: solo memoria frente a diario con commit en grupo")
+    void rendimiento_commitEnGrupo_comparadoConMemoria() throws Exception {
+        // Cada escritura espera el fsync de su grupo, así que el rendimiento sale de la cantidad de escritores concurrentes.
+        int hilos = 2_000;
+        int operacionesPorHilo = 500;
+        for (int ronda = 0; ronda < 3; ronda++) {
+            long memoria = medirEscrituras(new Repositorios(), hilos, operacionesPorHilo);
+
+            Repositorios conDiario = new Repositorios();
+            long grupo;
+            try (DiarioDeMutaciones diario = new DiarioDeMutaciones(
+                    directorio.resolve("rendimiento-" + ronda), PoliticaDeSincronizacion.GRUPO, 10)) {
+                new DiarioDeRepositorios(diario, conDiario.libros, conDiario.usuarios, conDiario.prestamos).conectar();
+                grupo = medirEscrituras(conDiario, hilos, operacionesPorHilo);
+            }
+
+            double total = (double) hilos * operacionesPorHilo;
+            System.out.printf("%d hilos: memoria %.0f ops/s, diario en grupo %.0f ops/s (%.1f%%)%n",
+                    hilos, total / memoria * 1e9, total / grupo * 1e9, 100.0 * memoria / grupo);
+        }
+    }
+
+    private static long medirEscrituras(Repositorios repositorios, int hilos, int operacionesPorHilo) throws Exception {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < operacionesPorHilo; i++) {
+                    Libro libro = new Libro(String.format("978-%04d-%07d", hilo, i), "Título " + i, "Autor " + hilo);
+                    libro.setId((long) hilo * operacionesPorHilo + i + 1);
+                    repositorios.libros.save(libro);
+                }
+                return null;
+            }));
+        }
+        long comienzo = System.nanoTime();
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(5, TimeUnit.MINUTES);
+        }
+        long duracion = System.nanoTime() - comienzo;
+        executor.shutdown();
+        return duracion;
+    }
+
+    private static final class Repositorios {
+        final LibroRepository libros = new LibroRepositoryImpl();
+        final UsuarioRepository usuarios = new UsuarioRepositoryImpl();
+        final PrestamoRepository prestamos = new PrestamoRepositoryImpl();
+    }
+}
@@ -0,0 +1,76 @@
+package com.biblioteca.sistemagestion.repositorios;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceOrdenadoTest {
+
+    @Test
+    @DisplayName("siguientes recorre los ids en orden ascendente y descendente a partir de un cursor")
+    void siguientes_respetaCursorYOrden() {
+        IndiceOrdenado indice = new IndiceOrdenado();
+        for (long id : new long[]{5, 1, 9, 3, 7}) {
+            indice.agregar(id);
+        }
+        indice.agregar(3);
+
+        assertArrayEquals(new long[]{1, 3}, indice.siguientes(null, 2, Orden.ASCENDENTE));
+        assertArrayEquals(new long[]{5, 7}, indice.siguientes(3L, 2, Orden.ASCENDENTE));
+        assertArrayEquals(new long[]{7, 9}, indice.siguientes(6L, 10, Orden.ASCENDENTE));
+        assertArrayEquals(new long[]{9, 7}, indice.siguientes(null, 2, Orden.DESCENDENTE));
+        assertArrayEquals(new long[]{5, 3, 1}, indice.siguientes(7L, 10, Orden.DESCENDENTE));
+        assertArrayEquals(new long[0], indice.siguientes(1L, 10, Orden.DESCENDENTE));
+
+        indice.quitar(5);
+        assertArrayEquals(new long[]{3, 1}, indice.siguientes(7L, 10, Orden.DESCENDENTE));
+    }
+
+    @Test
+    @DisplayName("inserciones y borrados aleatorios recorren lo mismo que un TreeSet de referencia")
+    void operacionesAleatorias_coincidenConTreeSet() {
+        IndiceOrdenado indice = new IndiceOrdenado();
+        NavigableSet<Long> referencia = new TreeSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long id = random.nextInt(20_000);
+            if (random.nextInt(4) == 0) {
+                indice.quitar(id);
+                referencia.remove(id);
+            } else {
+                indice.agregar(id);
+                referencia.add(id);
+            }
+        }
+        for (long id = 20_000; id < 25_000; id++) {
+            indice.agregar(id);
+            referencia.add(id);
+        }
+
+        assertEquals(new ArrayList<>(referencia), recorrer(indice, Orden.ASCENDENTE, 333));
+        assertEquals(new ArrayList<>(referencia.descendingSet()), recorrer(indice, Orden.DESCENDENTE, 333));
+    }
+
+    private static List<Long> recorrer(IndiceOrdenado indice, Orden orden, int limite) {
+        List<Long> recorridos = new ArrayList<>();
+        Long cursor = null;
+        long[] pagina;
+        do {
+            pagina = indice.siguientes(cursor, limite, orden);
+            for (long id : pagina) {
+                recorridos.add(id);
+            }
+            if (pagina.length > 0) {
+                cursor = pagina[pagina.length - 1];
+            }
+        } while (pagina.length == limite);
+        return recorridos;
+    }
+}
@@ -2,13 +2,24 @@ package com.biblioteca.sistemagestion.repositorios;
 
 import com.biblioteca.sistemagestion.modelo.Libro;
 import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
+import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,11 +32,15 @@ class LibroRepositoryImplTest {
 
     @BeforeEach
     void setUp() {
-        libroRepository = new LibroRepositoryImpl();
+        libroRepository = crearRepositorio();
         libro1 = new Libro("978-111", "Libro de Test 1", "Autor Test 1");
         libro2 = new Libro("978-222", "Libro de Test 2", "Autor Test 2");
     }
 
+    protected LibroRepository crearRepositorio() {
+        return new LibroRepositoryImpl();
+    }
+
     @Test
     @DisplayName("Guardar un libro nuevo asigna ID y lo almacena")
     void save_libroNuevo_asignaIdYAlmacena() {
@@ -40,6 +55,35 @@ class LibroRepositoryImplTest {
         assertEquals(libroGuardado, libroEncontradoOpt.get(), "El libro encontrado no es el mismo que se guardó.");
     }
 
+    @Test
+    @DisplayName("Cada guardado y cada cambio de estado incrementa la versión del libro")
+    void save_yCompareAndSetEstado_incrementanVersion() {
+        Libro guardado = libroRepository.save(libro1);
+        assertEquals(1L, guardado.getVersion());
+
+        Libro copia = libroRepository.findById(guardado.getId()).orElseThrow();
+        copia.setTitulo("Título revisado");
+        assertEquals(2L, libroRepository.save(copia).getVersion());
+
+        assertTrue(libroRepository.compareAndSetEstado(guardado.getId(), EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO));
+        assertEquals(3L, libroRepository.findById(guardado.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("Guardar con una versión obsoleta lanza ConflictoDeVersionException sin modificar el libro")
+    void save_conVersionObsoleta_lanzaConflictoDeVersion() {
+        Long id = libroRepository.save(libro1).getId();
+        Libro primeraEdicion = new Libro(id, libro1.getIsbn(), "Primera edición", libro1.getAutor(), EstadoLibro.DISPONIBLE, 1L);
+        Libro segundaEdicion = new Libro(id, libro1.getIsbn(), "Segunda edición", libro1.getAutor(), EstadoLibro.DISPONIBLE, 1L);
+
+        libroRepository.save(primeraEdicion);
+
+        assertThrows(ConflictoDeVersionException.class, () -> libroRepository.save(segundaEdicion));
+        Libro almacenado = libroRepository.findById(id).orElseThrow();
+        assertEquals("Primera edición", almacenado.getTitulo());
+        assertEquals(2L, almacenado.getVersion());
+    }
+
     @Test
     @DisplayName("Guardar un libro existente actualiza sus datos")
     void save_libroExistente_actualizaDatos() {
@@ -56,6 +100,91 @@ class LibroRepositoryImplTest {
         assertEquals(nuevoTitulo, libroEncontradoOpt.get().getTitulo(), "El título en el repositorio no se actualizó.");
     }
 
+    @Test
+    @DisplayName("saveAll guarda libros nuevos y actualiza existentes en una sola operación")
+    void saveAll_guardaNuevosYActualizaExistentes() {
+        libroRepository.save(libro1);
+        libro1.setEstado(EstadoLibro.PRESTADO);
+
+        List<Libro> guardados = libroRepository.saveAll(List.of(libro1, libro2));
+
+        assertEquals(List.of(libro1, libro2), guardados);
+        assertNotNull(libro2.getId());
+        assertEquals(EstadoLibro.PRESTADO, libroRepository.findById(libro1.getId()).orElseThrow().getEstado());
+        assertEquals(libro2, libroRepository.findByIsbn("978-222").orElseThrow());
+        assertEquals(2, libroRepository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("saveAll entrega el lote agrupado a los oyentes que admiten lotes y uno a uno al resto")
+    void saveAll_notificaElLoteALosOyentesQueAdmitenLotes() {
+        List<String> individuales = new ArrayList<>();
+        List<List<String>> lotes = new ArrayList<>();
+        libroRepository.agregarOyente(oyenteQueRegistra(individuales, "individual", false));
+        libroRepository.agregarOyente(new OyenteDeMutaciones<>() {
+            @Override
+            public void guardado(Libro libro) {
+                lotes.add(List.of(libro.getIsbn()));
+            }
+
+            @Override
+            public void guardados(List<Libro> libros) {
+                lotes.add(libros.stream().map(Libro::getIsbn).toList());
+            }
+
+            @Override
+            public void eliminado(long id) {
+            }
+
+            @Override
+            public boolean admiteLotes() {
+                return true;
+            }
+        });
+        List<Libro> lote = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lote.add(new Libro("978-" + i, "Libro " + i, "Autor"));
+        }
+
+        List<Libro> guardados = libroRepository.saveAll(lote);
+
+        assertEquals(lote, guardados);
+        assertEquals(200, individuales.size());
+        assertTrue(lotes.size() > 1, "El lote se reparte por segmento.");
+        assertTrue(lotes.size() < 200, "Cada grupo llega a los índices de una sola vez.");
+        assertEquals(lote.stream().map(Libro::getIsbn).sorted().toList(),
+                lotes.stream().flatMap(List::stream).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("saveAll con rechazos guarda el resto e informa cada ISBN repetido con su posición")
+    void saveAll_conRechazos_guardaElRestoEInformaCadaRepetido() {
+        libroRepository.save(new Libro("978-333", "Existente", "Autor"));
+        Libro repetidoEnElLote = new Libro("978-111", "Repetido en el lote", "Autor");
+        Libro yaGuardado = new Libro("978-333", "Ya guardado", "Autor");
+        Libro libro3 = new Libro("978-444", "Libro 3", "Autor");
+        Map<Integer, String> rechazos = new HashMap<>();
+
+        List<Libro> guardados = libroRepository.saveAll(List.of(libro1, repetidoEnElLote, yaGuardado, libro2, libro3),
+                (rechazo, posicion) -> rechazos.put(posicion, rechazo.getMessage()));
+
+        assertEquals(List.of(libro1, libro2, libro3), guardados);
+        assertEquals(Map.of(1, "Ya existe un libro con el ISBN: 978-111", 2, "Ya existe un libro con el ISBN: 978-333"), rechazos);
+        assertEquals("Libro de Test 1", libroRepository.findByIsbn("978-111").orElseThrow().getTitulo());
+        assertEquals("Existente", libroRepository.findByIsbn("978-333").orElseThrow().getTitulo());
+        assertNull(repetidoEnElLote.getId());
+        assertEquals(4, libroRepository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("saveAll sin manejador de rechazos falla con el primer ISBN repetido del lote sin guardar nada")
+    void saveAll_conIsbnRepetidoEnElLote_fallaSinGuardar() {
+        assertThrows(RecursoDuplicadoException.class,
+                () -> libroRepository.saveAll(List.of(libro1, new Libro("978-111", "Otro", "Autor"))));
+
+        assertTrue(libroRepository.findAll().isEmpty());
+    }
+
     @Test
     @DisplayName("findById devuelve libro existente")
     void findById_existente_devuelveLibro() {
@@ -68,6 +197,16 @@ class LibroRepositoryImplTest {
         assertEquals(libro1, libroOpt.get(), "El libro encontrado no es el esperado.");
     }
 
+    @Test
+    @DisplayName("versionDe devuelve la versión guardada o vacío si el libro no existe")
+    void versionDe_devuelveLaVersionGuardada() {
+        libroRepository.save(libro1);
+        libroRepository.compareAndSetEstado(libro1.getId(), EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO);
+
+        assertEquals(Optional.of(2L), libroRepository.versionDe(libro1.getId()));
+        assertTrue(libroRepository.versionDe(999L).isEmpty());
+    }
+
     @Test
     @DisplayName("findById devuelve Optional vacío para ID no existente")
     void findById_noExistente_devuelveOptionalVacio() {
@@ -92,6 +231,141 @@ class LibroRepositoryImplTest {
         assertTrue(libroOpt.isEmpty());
     }
 
+    @Test
+    @DisplayName("findByIsbn ignora guiones, espacios y mayúsculas del ISBN")
+    void findByIsbn_conIsbnSinNormalizar_devuelveLibro() {
+        Libro libroConX = libroRepository.save(new Libro("0-306-40615-x", "Libro con X", "Autor X"));
+
+        assertEquals(libroConX, libroRepository.findByIsbn("030640615X").orElseThrow());
+        assertEquals(libroConX, libroRepository.findByIsbn("0 306 40615 X").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("save con ISBN de otro libro lanza RecursoDuplicadoException")
+    void save_conIsbnDeOtroLibro_lanzaRecursoDuplicadoException() {
+        libroRepository.save(libro1);
+        Libro duplicado = new Libro(libro1.getIsbn(), "Otro título", "Otro autor");
+
+        assertThrows(RecursoDuplicadoException.class, () -> libroRepository.save(duplicado));
+        assertEquals(1, libroRepository.findAll().size());
+        assertEquals(libro1, libroRepository.findByIsbn(libro1.getIsbn()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("save con ISBN cambiado actualiza el índice de ISBN")
+    void save_conIsbnCambiado_actualizaIndice() {
+        libroRepository.save(libro1);
+        String isbnAnterior = libro1.getIsbn();
+        libro1.setIsbn("978-333");
+
+        libroRepository.save(libro1);
+
+        assertTrue(libroRepository.findByIsbn(isbnAnterior).isEmpty(), "El ISBN anterior no debería seguir indexado.");
+        assertEquals(libro1, libroRepository.findByIsbn("978-333").orElseThrow());
+        assertDoesNotThrow(() -> libroRepository.save(new Libro(isbnAnterior, "Reutiliza ISBN", "Autor")));
+    }
+
+    @Test
+    @DisplayName("deleteById libera el ISBN del libro eliminado")
+    void deleteById_liberaIsbn() {
+        libroRepository.save(libro1);
+        libroRepository.deleteById(libro1.getId());
+
+        assertTrue(libroRepository.findByIsbn(libro1.getIsbn()).isEmpty());
+        assertDoesNotThrow(() -> libroRepository.save(new Libro(libro1.getIsbn(), "Nueva edición", "Autor")));
+    }
+
+    @Test
+    @DisplayName("Si un oyente falla al guardar, el ISBN y el índice ordenado quedan como antes")
+    void save_conOyenteQueFalla_noDejaIndicesHuerfanos() {
+        AtomicInteger fallosPendientes = new AtomicInteger(1);
+        libroRepository.agregarOyente(new OyenteDeMutaciones<>() {
+            @Override
+            public void guardado(Libro libro) {
+                if (fallosPendientes.getAndDecrement() > 0) {
+                    throw new IllegalStateException("El registro excede el tamaño máximo del diario.");
+                }
+            }
+
+            @Override
+            public void eliminado(long id) {
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> libroRepository.save(libro1));
+
+        assertNull(libro1.getVersion(), "La versión del libro rechazado debe quedar como estaba.");
+        assertTrue(libroRepository.findByIsbn(libro1.getIsbn()).isEmpty());
+        assertTrue(libroRepository.findAll().isEmpty());
+        assertTrue(libroRepository.findPage(null, 10, Orden.ASCENDENTE).isEmpty());
+        Libro reintento = libroRepository.save(new Libro(libro1.getIsbn(), "Reintento", "Autor"));
+        assertEquals(reintento, libroRepository.findByIsbn(libro1.getIsbn()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("El diario se notifica después que los oyentes registrados posteriormente")
+    void agregarOyente_diario_seNotificaUltimo() {
+        List<String> orden = new ArrayList<>();
+        libroRepository.agregarOyente(oyenteQueRegistra(orden, "índice", false));
+        libroRepository.agregarOyente(oyenteQueRegistra(orden, "diario", true));
+        libroRepository.agregarOyente(oyenteQueRegistra(orden, "caché", false));
+
+        libroRepository.save(libro1);
+
+        assertEquals(List.of("índice", "caché", "diario"), orden);
+    }
+
+    private static OyenteDeMutaciones<Libro> oyenteQueRegistra(List<String> orden, String nombre, boolean diario) {
+        return new OyenteDeMutaciones<>() {
+            @Override
+            public void guardado(Libro libro) {
+                orden.add(nombre);
+            }
+
+            @Override
+            public void eliminado(long id) {
+            }
+
+            @Override
+            public boolean esDiario() {
+                return diario;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("save concurrente con el mismo ISBN solo permite un libro")
+    void save_concurrenteMismoIsbn_soloUnoTieneExito() throws Exception {
+        int hilos = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<Boolean>> intentos = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            intentos.add(executor.submit(() -> {
+                inicio.await();
+                try {
+                    libroRepository.save(new Libro("978-999", "Mismo ISBN", "Autor"));
+                    return true;
+                } catch (RecursoDuplicadoException e) {
+                    return false;
+                }
+            }));
+        }
+        inicio.countDown();
+
+        int exitos = 0;
+        for (Future<Boolean> intento : intentos) {
+            if (intento.get(10, TimeUnit.SECONDS)) {
+                exitos++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, exitos, "Solo un libro debería poder guardarse con el mismo ISBN.");
+        assertEquals(1, libroRepository.findAll().size());
+    }
+
     @Test
     @DisplayName("findAll devuelve todos los libros guardados")
     void findAll_conLibros_devuelveTodos() {
@@ -104,6 +378,40 @@ class LibroRepositoryImplTest {
         assertTrue(todos.contains(libro2));
     }
 
+    @Test
+    @DisplayName("findAll devuelve una vista inmutable que no cambia con escrituras posteriores")
+    void findAll_devuelveVistaInmutableYEstable() {
+        libroRepository.save(libro1);
+        List<Libro> antes = libroRepository.findAll();
+
+        libroRepository.save(libro2);
+        libroRepository.deleteById(libro1.getId());
+
+        assertEquals(1, antes.size());
+        assertEquals(libro1.getId(), antes.get(0).getId());
+        assertThrows(UnsupportedOperationException.class, () -> antes.add(libro2));
+        assertEquals(List.of(libro2), libroRepository.findAll());
+    }
+
+    @Test
+    @DisplayName("findPage devuelve páginas por ID a partir del cursor y omite los libros eliminados")
+    void findPage_recorrePorIdYOmiteEliminados() {
+        for (int i = 0; i < 10; i++) {
+            libroRepository.save(new Libro("978-" + i, "Título " + i, "Autor"));
+        }
+        libroRepository.deleteById(4L);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(libroRepository.findPage(null, 3, Orden.ASCENDENTE)));
+        assertEquals(List.of(5L, 6L), ids(libroRepository.findPage(3L, 2, Orden.ASCENDENTE)));
+        assertEquals(List.of(10L, 9L), ids(libroRepository.findPage(null, 2, Orden.DESCENDENTE)));
+        assertEquals(List.of(3L, 2L, 1L), ids(libroRepository.findPage(5L, 5, Orden.DESCENDENTE)));
+        assertTrue(libroRepository.findPage(10L, 5, Orden.ASCENDENTE).isEmpty());
+    }
+
+    private static List<Long> ids(List<Libro> libros) {
+        return libros.stream().map(Libro::getId).toList();
+    }
+
     @Test
     @DisplayName("findAll devuelve lista vacía si no hay libros")
     void findAll_sinLibros_devuelveListaVacia() {
@@ -124,6 +432,124 @@ class LibroRepositoryImplTest {
         assertTrue(libroRepository.findById(idAEliminar).isEmpty(), "findById debería devolver vacío para libro eliminado.");
     }
 
+    @Test
+    @DisplayName("compareAndSetEstado sólo cambia el estado esperado y lo notifica como cambio de estado")
+    void compareAndSetEstado_cambiaSoloDesdeElEstadoEsperado() {
+        List<Libro> guardados = new ArrayList<>();
+        List<EstadoLibro> cambios = new ArrayList<>();
+        libroRepository.agregarOyente(new OyenteDeMutaciones<>() {
+            @Override
+            public void guardado(Libro libro) {
+                guardados.add(libro);
+            }
+
+            @Override
+            public void estadoCambiado(Libro libro) {
+                cambios.add(libro.getEstado());
+            }
+
+            @Override
+            public void eliminado(long id) {
+            }
+        });
+        Libro guardado = libroRepository.save(libro1);
+
+        assertTrue(libroRepository.compareAndSetEstado(guardado.getId(), EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO));
+        assertFalse(libroRepository.compareAndSetEstado(guardado.getId(), EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO));
+        assertFalse(libroRepository.compareAndSetEstado(999L, EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO));
+
+        assertEquals(EstadoLibro.PRESTADO, libroRepository.findById(guardado.getId()).orElseThrow().getEstado());
+        assertEquals(1, guardados.size());
+        assertEquals(List.of(EstadoLibro.PRESTADO), cambios);
+    }
+
+    @Test
+    @DisplayName("compareAndSetEstado concurrente sobre el mismo libro tiene un único ganador")
+    void compareAndSetEstado_concurrente_unicoGanador() throws Exception {
+        Long id = libroRepository.save(libro1).getId();
+        int hilos = 4_000;
+        AtomicInteger ganadores = new AtomicInteger();
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(executor.submit(() -> {
+                    inicio.await();
+                    if (libroRepository.compareAndSetEstado(id, EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO)) {
+                        ganadores.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            inicio.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        assertEquals(1, ganadores.get());
+        assertEquals(EstadoLibro.PRESTADO, libroRepository.findById(id).orElseThrow().getEstado());
+    }
+
+    @Test
+    @DisplayName("Una actualización leída antes de un cambio de estado concurrente nunca lo pisa")
+    void compareAndSetEstado_yActualizacionConcurrente_noSePisan() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            for (int i = 0; i < 2_000; i++) {
+                Libro original = libroRepository.save(new Libro("978-" + i, "Título", "Autor"));
+                Libro copia = new Libro(original.getId(), original.getIsbn(), "Título corregido", original.getAutor(),
+                        EstadoLibro.DISPONIBLE, original.getVersion());
+                CountDownLatch inicio = new CountDownLatch(1);
+                Future<Boolean> prestamo = executor.submit(() -> {
+                    inicio.await();
+                    return libroRepository.compareAndSetEstado(original.getId(), EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO);
+                });
+                Future<Boolean> actualizacion = executor.submit(() -> {
+                    inicio.await();
+                    try {
+                        libroRepository.save(copia);
+                        return true;
+                    } catch (ConflictoDeVersionException e) {
+                        return false;
+                    }
+                });
+                inicio.countDown();
+
+                boolean prestado = prestamo.get(10, TimeUnit.SECONDS);
+                boolean actualizado = actualizacion.get(10, TimeUnit.SECONDS);
+                Libro almacenado = libroRepository.findById(original.getId()).orElseThrow();
+                assertTrue(prestado || actualizado);
+                assertEquals(prestado ? EstadoLibro.PRESTADO : EstadoLibro.DISPONIBLE, almacenado.getEstado(),
+                        "Un préstamo confirmado no puede quedar pisado por la actualización.");
+                assertEquals(prestado && actualizado ? 3L : 2L, almacenado.getVersion());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Si un oyente rechaza el cambio de estado, el libro conserva estado y versión")
+    void compareAndSetEstado_conOyenteQueFalla_revierteElCambio() {
+        Long id = libroRepository.save(libro1).getId();
+        libroRepository.agregarOyente(new OyenteDeMutaciones<>() {
+            @Override
+            public void guardado(Libro libro) {
+                throw new IllegalStateException("Diario no disponible.");
+            }
+
+            @Override
+            public void eliminado(long id) {
+            }
+        });
+
+        assertThrows(IllegalStateException.class,
+                () -> libroRepository.compareAndSetEstado(id, EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO));
+
+        Libro almacenado = libroRepository.findById(id).orElseThrow();
+        assertEquals(EstadoLibro.DISPONIBLE, almacenado.getEstado());
+        assertEquals(1L, almacenado.getVersion());
+    }
+
     @Test
     @DisplayName("deleteById con ID no existente no lanza error")
     void deleteById_noExistente_noLanzaError() {
@@ -137,4 +563,40 @@ class LibroRepositoryImplTest {
     void existsById_noExistente_devuelveFalse() {
         assertFalse(libroRepository.existsById(999L));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("save y deleteById concurrentes desde varios hilos no pierden escrituras")
+    void saveYDelete_concurrentes_noPierdenEscrituras() throws Exception {
+        int hilos = 16;
+        int operacionesPorHilo = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < operacionesPorHilo; i++) {
+                    Libro guardado = libroRepository.save(new Libro(String.format("978-%02d-%06d", hilo, i), "Título concurrente", "Autor concurrente"));
+                    assertTrue(libroRepository.findById(guardado.getId()).isPresent());
+                    if (i % 2 == 0) {
+                        libroRepository.deleteById(guardado.getId());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int esperados = hilos * operacionesPorHilo / 2;
+        List<Libro> todos = libroRepository.findAll();
+        assertEquals(esperados, todos.size(), "Se perdieron escrituras concurrentes.");
+        assertEquals(esperados, todos.stream().map(Libro::getId).distinct().count(), "Se asignaron IDs duplicados.");
+    }
+}
@@ -0,0 +1,72 @@
+package com.biblioteca.sistemagestion.repositorios;
+
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibroRepositoryOffHeapTest extends LibroRepositoryImplTest {
+
+    @Override
+    protected LibroRepository crearRepositorio() {
+        return new LibroRepositoryOffHeap();
+    }
+
+    @Test
+    @DisplayName("Los libros leídos son copias: modificarlos sin guardar no altera el almacén")
+    void findById_devuelveCopiaIndependiente() {
+        LibroRepository repositorio = crearRepositorio();
+        Libro guardado = repositorio.save(new Libro("978-333", "Título original", "Autor"));
+
+        Libro leido = repositorio.findById(guardado.getId()).orElseThrow();
+        leido.setTitulo("Modificado sin guardar");
+        leido.setEstado(EstadoLibro.EN_REPARACION);
+
+        Libro releido = repositorio.findById(guardado.getId()).orElseThrow();
+        assertEquals("Título original", releido.getTitulo());
+        assertEquals(EstadoLibro.DISPONIBLE, releido.getEstado());
+    }
+
+    @Test
+    @DisplayName("Textos nulos, multibyte y filas reutilizadas tras borrar se conservan correctamente")
+    void save_textosEspecialesYFilasReutilizadas_conservaDatos() {
+        LibroRepository repositorio = crearRepositorio();
+        Libro sinAutor = repositorio.save(new Libro(1L, null, "Cien años de soledad", null, null));
+        Libro multibyte = repositorio.save(new Libro(null, "978-444", "Ñandú — 日本語 ✓", "José Martí", EstadoLibro.PRESTADO));
+
+        repositorio.deleteById(sinAutor.getId());
+        Libro reutiliza = repositorio.save(new Libro("978-555", "Nuevo", "Autor nuevo"));
+
+        assertEquals(multibyte, repositorio.findById(multibyte.getId()).orElseThrow());
+        assertEquals(reutiliza, repositorio.findById(reutiliza.getId()).orElseThrow());
+        assertTrue(repositorio.findById(sinAutor.getId()).isEmpty());
+        assertEquals(2, repositorio.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Guardar sin cambios reutiliza los textos y las actualizaciones repetidas no hacen crecer la arena")
+    void save_actualizacionesRepetidas_mantienenAcotadaLaArena() {
+        LibroRepositoryOffHeap repositorio = new LibroRepositoryOffHeap();
+        Libro libro = repositorio.save(new Libro("978-666", "Título inicial", "Autor"));
+        Libro otro = repositorio.save(new Libro("978-777", "Otro título", "Otro autor"));
+        long inicial = repositorio.bytesDeTextos();
+
+        for (int i = 0; i < 1_000; i++) {
+            repositorio.save(libro);
+        }
+        assertEquals(inicial, repositorio.bytesDeTextos());
+
+        for (int i = 0; i < 200_000; i++) {
+            libro.setTitulo(String.format("Título revisado número %08d", i));
+            repositorio.save(libro);
+        }
+
+        assertTrue(repositorio.bytesDeTextos() < 3L << 20,
+                "La arena creció hasta " + repositorio.bytesDeTextos() + " bytes.");
+        assertEquals("Título revisado número 00199999", repositorio.findById(libro.getId()).orElseThrow().getTitulo());
+        assertEquals(libro, repositorio.findByIsbn("978-666").orElseThrow());
+        assertEquals(otro, repositorio.findById(otro.getId()).orElseThrow());
+    }
+}
@@ -0,0 +1,316 @@
+package com.biblioteca.sistemagestion.repositorios;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaLongConcurrenteTest {
+
+    private MapaLongConcurrente<String> mapa;
+
+    @BeforeEach
+    void setUp() {
+        mapa = new MapaLongConcurrente<>();
+    }
+
+    @Test
+    @DisplayName("put, get, remove y containsKey funcionan con claves primitivas")
+    void operacionesBasicas_funcionan() {
+        assertNull(mapa.put(1L, "uno"));
+        mapa.put(0L, "cero");
+        mapa.put(-5L, "menos cinco");
+
+        assertEquals("uno", mapa.get(1L));
+        assertEquals("cero", mapa.get(0L));
+        assertEquals("menos cinco", mapa.get(-5L));
+        assertTrue(mapa.containsKey(0L));
+        assertEquals(3, mapa.size());
+
+        assertEquals("uno", mapa.remove(1L));
+        assertNull(mapa.get(1L));
+        assertNull(mapa.remove(1L));
+        assertEquals(2, mapa.size());
+    }
+
+    @Test
+    @DisplayName("compute que devuelve null elimina la entrada y una excepción no la modifica")
+    void compute_conNullOExcepcion_respetaSemantica() {
+        mapa.put(7L, "siete");
+
+        assertThrows(IllegalStateException.class, () -> mapa.compute(7L, (clave, actual) -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals("siete", mapa.get(7L));
+
+        assertNull(mapa.compute(7L, (clave, actual) -> null));
+        assertFalse(mapa.containsKey(7L));
+        assertNull(mapa.computeIfPresent(7L, (clave, actual) -> "no debería insertarse"));
+        assertFalse(mapa.containsKey(7L));
+    }
+
+    @Test
+    @DisplayName("inserciones y borrados aleatorios coinciden con un HashMap de referencia")
+    void operacionesAleatorias_coincidenConHashMap() {
+        Map<Long, String> referencia = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long clave = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(referencia.remove(clave), mapa.remove(clave));
+            } else {
+                String valor = "v" + i;
+                referencia.put(clave, valor);
+                mapa.put(clave, valor);
+            }
+        }
+
+        assertEquals(referencia.size(), mapa.size());
+        for (long clave = 0; clave < 20_000; clave++) {
+            assertEquals(referencia.get(clave), mapa.get(clave), "Valor distinto para la clave " + clave);
+        }
+        assertEquals(referencia.size(), mapa.values().size());
+    }
+
+    @Test
+    @DisplayName("compute concurrente sobre las mismas claves no pierde actualizaciones")
+    void compute_concurrente_noPierdeActualizaciones() throws Exception {
+        MapaLongConcurrente<Integer> contadores = new MapaLongConcurrente<>();
+        int hilos = 8;
+        int incrementosPorHilo = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < incrementosPorHilo; i++) {
+                    contadores.compute(i % 100, (clave, actual) -> actual == null ? 1 : actual + 1);
+                    assertNotNull(contadores.get(i % 100));
+                }
+                return null;
+            }));
+        }
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int total = contadores.values().stream().mapToInt(Integer::intValue).sum();
+        assertEquals(hilos * incrementosPorHilo, total);
+    }
+
+    @Test
+    @DisplayName("computeEnLote bloquea sólo el segmento del grupo en curso hasta terminar alTerminarGrupo")
+    void computeEnLote_bloqueaSoloElGrupoEnCurso() throws Exception {
+        long[] claves = new long[200];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = i % 100;
+        }
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            List<Long> grupoActual = new ArrayList<>();
+            List<Long> gruposAnteriores = new ArrayList<>();
+            List<Future<?>> bloqueadas = new ArrayList<>();
+            mapa.computeEnLote(claves, (posicion, clave, actual) -> {
+                grupoActual.add(clave);
+                return actual == null ? "p" + posicion : actual + "," + posicion;
+            }, () -> {
+                if (!gruposAnteriores.isEmpty()) {
+                    long otroSegmento = gruposAnteriores.get(0);
+                    assertDoesNotThrow(() -> executor.submit(() -> mapa.put(otroSegmento, "libre")).get(5, TimeUnit.SECONDS));
+                }
+                long delGrupo = grupoActual.get(0);
+                Future<?> bloqueada = executor.submit(() -> mapa.compute(delGrupo, (clave, actual) -> actual + ",externo"));
+                assertThrows(TimeoutException.class, () -> bloqueada.get(50, TimeUnit.MILLISECONDS));
+                bloqueadas.add(bloqueada);
+                gruposAnteriores.addAll(grupoActual);
+                grupoActual.clear();
+            });
+            for (Future<?> bloqueada : bloqueadas) {
+                bloqueada.get(5, TimeUnit.SECONDS);
+            }
+
+            assertTrue(bloqueadas.size() > 1);
+            assertEquals(100, mapa.size());
+            assertEquals(200, gruposAnteriores.size());
+            for (long clave = 0; clave < 100; clave++) {
+                assertTrue(mapa.get(clave).equals("libre") || mapa.get(clave).startsWith("p" + clave + "," + (clave + 100)),
+                        "Las apariciones de una clave se aplican en el orden del lote: " + mapa.get(clave));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Si un recálculo del lote falla, lo ya aplicado se conserva y alTerminarGrupo se ejecuta")
+    void computeEnLote_conFallo_conservaLoAplicadoYEjecutaAlTerminarGrupo() {
+        List<Long> aplicadas = new ArrayList<>();
+        int[] gruposTerminados = new int[1];
+
+        assertThrows(IllegalStateException.class, () -> mapa.computeEnLote(new long[]{1L, 2L, 3L, 4L, 5L},
+                (posicion, clave, actual) -> {
+                    if (aplicadas.size() == 3) {
+                        throw new IllegalStateException("fallo");
+                    }
+                    aplicadas.add(clave);
+                    return "v" + clave;
+                }, () -> gruposTerminados[0]++));
+
+        assertTrue(gruposTerminados[0] > 0);
+        assertEquals(3, mapa.size());
+        for (long clave : aplicadas) {
+            assertEquals("v" + clave, mapa.get(clave));
+        }
+        for (long clave = 1; clave <= 5; clave++) {
+            assertEquals(aplicadas.contains(clave) ? "v" + clave : null, mapa.put(clave, "libre"));
+        }
+    }
+
+    @Test
+    @DisplayName("instantanea se comparte entre lecturas y se renueva tras cada escritura")
+    void instantanea_seComparteHastaLaSiguienteEscritura() {
+        mapa.put(1L, "uno");
+        List<String> primera = mapa.instantanea();
+        assertSame(primera, mapa.instantanea());
+
+        mapa.put(2L, "dos");
+        List<String> segunda = mapa.instantanea();
+        assertNotSame(primera, segunda);
+        assertEquals(List.of("uno"), primera);
+        assertEquals(2, segunda.size());
+
+        mapa.remove(3L);
+        assertSame(segunda, mapa.instantanea());
+        assertThrows(UnsupportedOperationException.class, () -> segunda.remove(0));
+    }
+
+    @Test
+    @DisplayName("Las lecturas concurrentes tras una escritura comparten una única reconstrucción de la instantánea")
+    void instantanea_lectoresConcurrentes_compartenLaReconstruccion() throws Exception {
+        for (long i = 0; i < 100_000; i++) {
+            mapa.put(i, "valor " + i);
+        }
+        mapa.instantanea();
+        mapa.put(-1L, "nuevo");
+
+        int lectores = 64;
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<List<String>>> lecturas = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(lectores)) {
+            for (int i = 0; i < lectores; i++) {
+                lecturas.add(executor.submit(() -> {
+                    inicio.await();
+                    return mapa.instantanea();
+                }));
+            }
+            inicio.countDown();
+            List<String> primera = lecturas.get(0).get(30, TimeUnit.SECONDS);
+            assertEquals(100_001, primera.size());
+            assertTrue(primera.contains("nuevo"));
+            for (Future<List<String>> lectura : lecturas) {
+                assertSame(primera, lectura.get(30, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("instantanea recorre en orden los valores de todos los segmentos, incluso con segmentos vacíos")
+    void instantanea_conSegmentosVacios_coincideConValues() {
+        for (long i = 0; i < 5; i++) {
+            mapa.put(i * 7, "valor " + i);
+        }
+
+        List<String> vista = mapa.instantanea();
+
+        assertEquals(mapa.values(), new ArrayList<>(vista));
+        for (int i = 0; i < vista.size(); i++) {
+            assertEquals(mapa.values().get(i), vista.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> vista.get(vista.size()));
+    }
+
+    @Test
+    @DisplayName("instantanea nunca muestra un estado intermedio entre segmentos")
+    void instantanea_concurrenteConEscrituras_esConsistente() throws Exception {
+        MapaLongConcurrente<Long> ventana = new MapaLongConcurrente<>();
+        ventana.put(0L, 0L);
+        int pasos = 200_000;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> escritor = executor.submit(() -> {
+            for (long i = 1; i <= pasos; i++) {
+                ventana.put(i, i);
+                ventana.remove(i - 1);
+            }
+        });
+
+        while (!escritor.isDone()) {
+            List<Long> vista = ventana.instantanea();
+            assertTrue(vista.size() == 1 || vista.size() == 2, "Tamaño inconsistente: " + vista.size());
+            if (vista.size() == 2) {
+                assertEquals(1, Math.abs(vista.get(0) - vista.get(1)));
+            }
+        }
+        escritor.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertEquals(List.of((long) pasos), ventana.instantanea());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "biblioteca.huella", matches = "true")
+    @DisplayName("Comparación de huella en heap frente a ConcurrentHashMap<Long, V> (1M y 10M entradas)")
+    void huellaEnHeap_comparadaConConcurrentHashMap() {
+        Object valor = new Object();
+        for (int entradas : new int[]{1_000_000, 10_000_000}) {
+            long base = heapUsado();
+            Map<Long, Object> concurrente = new ConcurrentHashMap<>();
+            for (long id = 1; id <= entradas; id++) {
+                concurrente.put(id, valor);
+            }
+            long huellaConcurrente = heapUsado() - base;
+            assertEquals(entradas, concurrente.size());
+            concurrente = null;
+
+            base = heapUsado();
+            MapaLongConcurrente<Object> primitivo = new MapaLongConcurrente<>();
+            for (long id = 1; id <= entradas; id++) {
+                primitivo.put(id, valor);
+            }
+            long huellaPrimitiva = heapUsado() - base;
+            assertEquals(entradas, primitivo.size());
+
+            System.out.printf("%,d entradas: ConcurrentHashMap<Long, V> %,d bytes (%.1f B/entrada), "
+                            + "MapaLongConcurrente %,d bytes (%.1f B/entrada)%n",
+                    entradas, huellaConcurrente, (double) huellaConcurrente / entradas,
+                    huellaPrimitiva, (double) huellaPrimitiva / entradas);
+            assertTrue(huellaPrimitiva < huellaConcurrente);
+        }
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
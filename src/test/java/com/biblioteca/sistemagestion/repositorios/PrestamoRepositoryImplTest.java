@@ -11,8 +11,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -48,6 +54,19 @@ class PrestamoRepositoryImplTest {
         prestamo1_u1_l1 = new Prestamo(libro1, usuario1, LocalDate.now().plusDays(14));
     }
 
+    @Test
+    @DisplayName("findPage omite préstamos eliminados y continúa después del cursor")
+    void findPage_omiteEliminadosYContinuaDespuesDelCursor() {
+        for (int i = 0; i < 4; i++) {
+            prestamoRepository.save(new Prestamo(libro1, usuario1, LocalDate.now().plusDays(7)));
+        }
+        prestamoRepository.deleteById(2L);
+
+        List<Prestamo> pagina = prestamoRepository.findPage(1L, 10, Orden.ASCENDENTE);
+
+        assertEquals(List.of(3L, 4L), pagina.stream().map(Prestamo::getId).toList());
+    }
+
     @Test
     @DisplayName("Guardar un préstamo nuevo asigna ID y lo almacena")
     void save_prestamoNuevo_asignaIdYAlmacena() {
@@ -95,4 +114,117 @@ class PrestamoRepositoryImplTest {
         assertTrue(prestamoOpt.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("findByUsuarioId y findByLibroId devuelven solo los préstamos indexados para esa clave")
+    void findByUsuarioIdYLibroId_devuelvenPrestamosDeLaClave() {
+        Prestamo prestamo2_u1_l2 = new Prestamo(libro2, usuario1, LocalDate.now().plusDays(7));
+        Prestamo prestamo3_u2_l1 = new Prestamo(libro1, usuario2, LocalDate.now().plusDays(7));
+        prestamoRepository.save(prestamo1_u1_l1);
+        prestamoRepository.save(prestamo2_u1_l2);
+        prestamoRepository.save(prestamo3_u2_l1);
+
+        List<Prestamo> deUsuario1 = prestamoRepository.findByUsuarioId(usuario1.getId());
+        List<Prestamo> deLibro1 = prestamoRepository.findByLibroId(libro1.getId());
+
+        assertEquals(2, deUsuario1.size());
+        assertTrue(deUsuario1.containsAll(List.of(prestamo1_u1_l1, prestamo2_u1_l2)));
+        assertEquals(2, deLibro1.size());
+        assertTrue(deLibro1.containsAll(List.of(prestamo1_u1_l1, prestamo3_u2_l1)));
+        assertTrue(prestamoRepository.findByUsuarioId(999L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("deleteById y los cambios de usuario o libro mantienen los índices actualizados")
+    void deleteByIdYCambios_mantienenIndices() {
+        prestamoRepository.save(prestamo1_u1_l1);
+        Prestamo prestamo2_u1_l2 = prestamoRepository.save(new Prestamo(libro2, usuario1, LocalDate.now().plusDays(7)));
+
+        prestamo1_u1_l1.setUsuario(usuario2);
+        prestamoRepository.save(prestamo1_u1_l1);
+        prestamoRepository.deleteById(prestamo2_u1_l2.getId());
+
+        assertTrue(prestamoRepository.findByUsuarioId(usuario1.getId()).isEmpty());
+        assertEquals(List.of(prestamo1_u1_l1), prestamoRepository.findByUsuarioId(usuario2.getId()));
+        assertTrue(prestamoRepository.findByLibroId(libro2.getId()).isEmpty());
+        assertEquals(List.of(prestamo1_u1_l1), prestamoRepository.findByLibroId(libro1.getId()));
+    }
+
+    @Test
+    @DisplayName("deleteAllById elimina los préstamos indicados, ignora los inexistentes y libera sus libros")
+    void deleteAllById_eliminaPrestamosYLiberaLibros() {
+        prestamoRepository.save(prestamo1_u1_l1);
+        Prestamo prestamo2_u1_l2 = prestamoRepository.save(new Prestamo(libro2, usuario1, LocalDate.now().plusDays(7)));
+        Prestamo prestamo3_u2_l2 = prestamoRepository.save(new Prestamo(libro2, usuario2, LocalDate.now().plusDays(7)));
+
+        prestamoRepository.deleteAllById(List.of(prestamo1_u1_l1.getId(), prestamo3_u2_l2.getId(), 999L));
+
+        assertEquals(List.of(prestamo2_u1_l2), prestamoRepository.findAll());
+        assertTrue(prestamoRepository.findActiveByLibroId(libro1.getId()).isEmpty());
+        assertEquals(prestamo2_u1_l2, prestamoRepository.findActiveByLibroId(libro2.getId()).orElseThrow());
+        assertTrue(prestamoRepository.findByUsuarioId(usuario2.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("findActiveByLibroId devuelve el préstamo abierto del libro y se vacía al devolverlo")
+    void findActiveByLibroId_seMantieneEnPrestamoYDevolucion() {
+        assertTrue(prestamoRepository.findActiveByLibroId(libro1.getId()).isEmpty());
+
+        prestamoRepository.save(prestamo1_u1_l1);
+        assertEquals(prestamo1_u1_l1, prestamoRepository.findActiveByLibroId(libro1.getId()).orElseThrow());
+        assertTrue(prestamoRepository.findActiveByLibroId(libro2.getId()).isEmpty());
+
+        prestamoRepository.deleteById(prestamo1_u1_l1.getId());
+        assertTrue(prestamoRepository.findActiveByLibroId(libro1.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("findActiveByLibroId sigue el cambio de libro de un préstamo")
+    void findActiveByLibroId_conCambioDeLibro_actualizaIndice() {
+        prestamoRepository.save(prestamo1_u1_l1);
+
+        prestamo1_u1_l1.setLibro(libro2);
+        prestamoRepository.save(prestamo1_u1_l1);
+
+        assertTrue(prestamoRepository.findActiveByLibroId(libro1.getId()).isEmpty());
+        assertEquals(prestamo1_u1_l1, prestamoRepository.findActiveByLibroId(libro2.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("save y deleteById concurrentes desde varios hilos no pierden escrituras")
+    void saveYDelete_concurrentes_noPierdenEscrituras() throws Exception {
+        int hilos = 16;
+        int operacionesPorHilo = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            Usuario usuarioDelHilo = new Usuario("Usuario Hilo " + h, "hilo" + h + "@example.com");
+            usuarioDelHilo.setId(100L + h);
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < operacionesPorHilo; i++) {
+                    Libro libro = new Libro("ISBN-C" + i, "Libro concurrente", "Autor");
+                    libro.setId(1_000L + i);
+                    Prestamo guardado = prestamoRepository.save(new Prestamo(libro, usuarioDelHilo, LocalDate.now().plusDays(14)));
+                    assertTrue(prestamoRepository.findById(guardado.getId()).isPresent());
+                    if (i % 2 == 0) {
+                        prestamoRepository.deleteById(guardado.getId());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int esperados = hilos * operacionesPorHilo / 2;
+        List<Prestamo> todos = prestamoRepository.findAll();
+        assertEquals(esperados, todos.size(), "Se perdieron escrituras concurrentes.");
+        assertEquals(esperados, todos.stream().map(Prestamo::getId).distinct().count(), "Se asignaron IDs duplicados.");
+    }
+}
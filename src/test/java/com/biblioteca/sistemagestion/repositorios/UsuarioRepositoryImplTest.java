@@ -2,13 +2,20 @@ package com.biblioteca.sistemagestion.repositorios;
 
 import com.biblioteca.sistemagestion.modelo.Usuario;
 import com.biblioteca.sistemagestion.modelo.EstadoUsuario;
+import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,6 +33,18 @@ class UsuarioRepositoryImplTest {
         usuario2 = new Usuario("Luis García", "luis.garcia@example.com");
     }
 
+    @Test
+    @DisplayName("findPage devuelve usuarios por ID descendente a partir del cursor")
+    void findPage_descendente_respetaCursor() {
+        for (int i = 0; i < 5; i++) {
+            usuarioRepository.save(new Usuario("Usuario " + i, "usuario" + i + "@example.com"));
+        }
+
+        List<Usuario> pagina = usuarioRepository.findPage(4L, 2, Orden.DESCENDENTE);
+
+        assertEquals(List.of(3L, 2L), pagina.stream().map(Usuario::getId).toList());
+    }
+
     @Test
     @DisplayName("Guardar un usuario nuevo asigna ID y lo almacena")
     void save_usuarioNuevo_asignaIdYAlmacena() {
@@ -91,4 +110,99 @@ class UsuarioRepositoryImplTest {
         assertTrue(usuarioOpt.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("save con email de otro usuario (ignorando mayúsculas) lanza RecursoDuplicadoException")
+    void save_conEmailDeOtroUsuario_lanzaRecursoDuplicadoException() {
+        usuarioRepository.save(usuario1);
+        Usuario duplicado = new Usuario("Otra Ana", "Ana.Perez@Example.com");
+
+        assertThrows(RecursoDuplicadoException.class, () -> usuarioRepository.save(duplicado));
+        assertEquals(1, usuarioRepository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("save con email cambiado libera el anterior e indexa el nuevo")
+    void save_conEmailCambiado_actualizaIndice() {
+        usuarioRepository.save(usuario1);
+        usuario1.setEmail("ana.nueva@example.com");
+
+        usuarioRepository.save(usuario1);
+
+        assertTrue(usuarioRepository.findByEmail("ana.perez@example.com").isEmpty());
+        assertEquals(usuario1, usuarioRepository.findByEmail("ANA.NUEVA@example.com").orElseThrow());
+        assertDoesNotThrow(() -> usuarioRepository.save(new Usuario("Otra Ana", "ana.perez@example.com")));
+    }
+
+    @Test
+    @DisplayName("deleteById libera el email del usuario eliminado")
+    void deleteById_liberaEmail() {
+        usuarioRepository.save(usuario1);
+        usuarioRepository.deleteById(usuario1.getId());
+
+        assertTrue(usuarioRepository.findByEmail(usuario1.getEmail()).isEmpty());
+        assertDoesNotThrow(() -> usuarioRepository.save(new Usuario("Ana Pérez", usuario1.getEmail())));
+    }
+
+    @Test
+    @DisplayName("Si un oyente falla, el usuario conserva su email indexado y el email nuevo queda libre")
+    void save_yDeleteById_conOyenteQueFalla_noAlteranIndices() {
+        usuarioRepository.save(usuario1);
+        usuarioRepository.agregarOyente(new OyenteDeMutaciones<>() {
+            @Override
+            public void guardado(Usuario usuario) {
+                throw new IllegalStateException("Diario no disponible.");
+            }
+
+            @Override
+            public void eliminado(long id) {
+                throw new IllegalStateException("Diario no disponible.");
+            }
+        });
+        Usuario cambio = new Usuario("Ana Pérez", "ana.nueva@example.com");
+        cambio.setId(usuario1.getId());
+        cambio.setVersion(usuario1.getVersion());
+
+        assertThrows(IllegalStateException.class, () -> usuarioRepository.save(cambio));
+        assertThrows(IllegalStateException.class, () -> usuarioRepository.deleteById(usuario1.getId()));
+
+        assertEquals(usuario1, usuarioRepository.findByEmail("ana.perez@example.com").orElseThrow());
+        assertTrue(usuarioRepository.findByEmail("ana.nueva@example.com").isEmpty());
+        assertEquals(List.of(usuario1), usuarioRepository.findPage(null, 10, Orden.ASCENDENTE));
+    }
+
+    @Test
+    @DisplayName("save y deleteById concurrentes desde varios hilos no pierden escrituras")
+    void saveYDelete_concurrentes_noPierdenEscrituras() throws Exception {
+        int hilos = 16;
+        int operacionesPorHilo = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < operacionesPorHilo; i++) {
+                    Usuario guardado = usuarioRepository.save(new Usuario("Usuario " + hilo + "-" + i, "u" + hilo + "-" + i + "@example.com"));
+                    assertTrue(usuarioRepository.findById(guardado.getId()).isPresent());
+                    if (i % 2 == 0) {
+                        usuarioRepository.deleteById(guardado.getId());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int esperados = hilos * operacionesPorHilo / 2;
+        List<Usuario> todos = usuarioRepository.findAll();
+        assertEquals(esperados, todos.size(), "Se perdieron escrituras concurrentes.");
+        assertEquals(esperados, todos.stream().map(Usuario::getId).distinct().count(), "Se asignaron IDs duplicados.");
+    }
+}
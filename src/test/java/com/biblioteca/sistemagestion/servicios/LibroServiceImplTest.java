@@ -1,9 +1,22 @@
 package com.biblioteca.sistemagestion.servicios;
 
+import com.biblioteca.sistemagestion.busqueda.AutocompletadoDeCatalogo;
+import com.biblioteca.sistemagestion.busqueda.AutorEncontrado;
+import com.biblioteca.sistemagestion.busqueda.BuscadorDeAutores;
+import com.biblioteca.sistemagestion.busqueda.Coincidencia;
+import com.biblioteca.sistemagestion.busqueda.IndiceDeBusqueda;
+import com.biblioteca.sistemagestion.busqueda.Sugerencia;
+import com.biblioteca.sistemagestion.busqueda.TipoDeSugerencia;
+import com.biblioteca.sistemagestion.cache.CacheDeLecturas;
+import com.biblioteca.sistemagestion.dtos.ErrorDeImportacionDTO;
+import com.biblioteca.sistemagestion.dtos.InformeDeImportacionDTO;
+import com.biblioteca.sistemagestion.importacion.LectorDeCatalogo;
 import com.biblioteca.sistemagestion.modelo.Libro;
 import com.biblioteca.sistemagestion.modelo.EstadoLibro;
 import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.transacciones.GestorDeTransacciones;
 import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
 import com.biblioteca.sistemagestion.excepciones.LibroNoEncontradoException;
 import java.util.Collections;
 
@@ -13,11 +26,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.StringReader;
 import java.util.Optional;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.function.ObjIntConsumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +44,24 @@ class LibroServiceImplTest {
     @Mock
     private LibroRepository libroRepositoryMock;
 
+    @Mock
+    private IndiceDeBusqueda indiceDeBusquedaMock;
+
+    @Mock
+    private AutocompletadoDeCatalogo autocompletadoMock;
+
+    @Mock
+    private BuscadorDeAutores buscadorDeAutoresMock;
+
+    @Mock
+    private VersionesDelCatalogo versionesDelCatalogoMock;
+
+    @Spy
+    private CacheDeLecturas<Libro> cacheDeLibros = new CacheDeLecturas<>(100, Libro::getId);
+
+    @Spy
+    private GestorDeTransacciones gestorDeTransacciones = new GestorDeTransacciones();
+
     @InjectMocks
     private LibroServiceImpl libroService;
 
@@ -65,6 +99,110 @@ class LibroServiceImplTest {
         verify(libroRepositoryMock).save(libroPrueba);
     }
 
+    @Test
+    @DisplayName("buscarLibros devuelve los libros en el orden del índice y omite los eliminados")
+    void buscarLibros_devuelveLibrosEnOrdenDeRelevancia() {
+        Libro otro = new Libro("345-678", "Otro Libro", "Autor de Prueba");
+        otro.setId(2L);
+        when(indiceDeBusquedaMock.buscar("autor prueba", LibroServiceImpl.RESULTADOS_POR_DEFECTO)).thenReturn(List.of(
+                new Coincidencia(2L, 3.0), new Coincidencia(3L, 2.0), new Coincidencia(1L, 1.0)));
+        when(libroRepositoryMock.findById(2L)).thenReturn(Optional.of(otro));
+        when(libroRepositoryMock.findById(3L)).thenReturn(Optional.empty());
+        when(libroRepositoryMock.findById(1L)).thenReturn(Optional.of(libroExistente));
+
+        List<Libro> resultado = libroService.buscarLibros("autor prueba", null);
+
+        assertEquals(List.of(otro, libroExistente), resultado);
+    }
+
+    @Test
+    @DisplayName("sugerir delega en el autocompletado con el límite por defecto y rechaza límites fuera de rango")
+    void sugerir_delegaEnAutocompletadoYValidaLimite() {
+        List<Sugerencia> sugerencias = List.of(new Sugerencia("Autor de Prueba", TipoDeSugerencia.AUTOR, 2));
+        when(autocompletadoMock.sugerir("aut", AutocompletadoDeCatalogo.SUGERENCIAS_MAXIMAS)).thenReturn(sugerencias);
+
+        assertEquals(sugerencias, libroService.sugerir("aut", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> libroService.sugerir("aut", AutocompletadoDeCatalogo.SUGERENCIAS_MAXIMAS + 1));
+        assertThrows(NullPointerException.class, () -> libroService.sugerir(null, 5));
+    }
+
+    @Test
+    @DisplayName("buscarAutores delega en el buscador de autores y rechaza nombres vacíos")
+    void buscarAutores_delegaYValida() {
+        List<AutorEncontrado> encontrados = List.of(new AutorEncontrado("Autor de Prueba", 1, 1));
+        when(buscadorDeAutoresMock.buscar("autor de pruebaa", 5)).thenReturn(encontrados);
+
+        assertEquals(encontrados, libroService.buscarAutores("autor de pruebaa", 5));
+        assertThrows(IllegalArgumentException.class, () -> libroService.buscarAutores(" ", 5));
+        assertThrows(IllegalArgumentException.class, () -> libroService.buscarAutores("borges", 0));
+    }
+
+    @Test
+    @DisplayName("buscarLibros rechaza consultas vacías y límites fuera de rango")
+    void buscarLibros_parametrosInvalidos_lanzaIllegalArgumentException() {
+        assertThrows(NullPointerException.class, () -> libroService.buscarLibros(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> libroService.buscarLibros("  ", 10));
+        assertThrows(IllegalArgumentException.class, () -> libroService.buscarLibros("borges", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> libroService.buscarLibros("borges", LibroServiceImpl.RESULTADOS_MAXIMOS + 1));
+        verifyNoInteractions(indiceDeBusquedaMock);
+    }
+
+    @Test
+    @DisplayName("importarLibros guarda las filas válidas e informa cada fila rechazada")
+    void importarLibros_guardaValidasEInformaRechazadas() {
+        String csv = "isbn,titulo,autor\n"
+                + "111,Uno,Autor\n"
+                + "222,,Autor\n"
+                + "333,Tres,Autor\n"
+                + "111,Uno repetido,Autor\n";
+        when(libroRepositoryMock.saveAll(anyList(), any())).thenAnswer(invocation -> {
+            List<Libro> lote = invocation.getArgument(0);
+            ObjIntConsumer<RecursoDuplicadoException> alRechazar = invocation.getArgument(1);
+            List<Libro> guardados = new ArrayList<>();
+            for (int i = 0; i < lote.size(); i++) {
+                Libro libro = lote.get(i);
+                if (libro.getTitulo().equals("Uno repetido")) {
+                    alRechazar.accept(new RecursoDuplicadoException("Ya existe un libro con el ISBN: " + libro.getIsbn()), i);
+                } else {
+                    guardados.add(libro);
+                }
+            }
+            return guardados;
+        });
+
+        InformeDeImportacionDTO informe = libroService.importarLibros(LectorDeCatalogo.desdeCsv(new StringReader(csv)));
+
+        assertEquals(4, informe.filasProcesadas());
+        assertEquals(2, informe.librosImportados());
+        assertEquals(List.of(
+                new ErrorDeImportacionDTO(3, "222", "El título no puede estar vacío."),
+                new ErrorDeImportacionDTO(5, "111", "Ya existe un libro con el ISBN: 111")), informe.errores());
+        verify(libroRepositoryMock).saveAll(argThat(lote -> lote.size() == 3
+                && lote.stream().allMatch(libro -> libro.getEstado() == EstadoLibro.DISPONIBLE)), any());
+        verify(libroRepositoryMock, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("importarLibros guarda cada lote con un solo saveAll cuando no hay duplicados")
+    void importarLibros_sinDuplicados_guardaCadaLoteDeUnaVez() {
+        StringBuilder csv = new StringBuilder("isbn,titulo,autor\n");
+        int filas = LibroServiceImpl.TAMANIO_LOTE_IMPORTACION + 10;
+        for (int i = 0; i < filas; i++) {
+            csv.append(i).append(",Titulo ").append(i).append(",Autor\n");
+        }
+        when(libroRepositoryMock.saveAll(anyList(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        InformeDeImportacionDTO informe = libroService.importarLibros(LectorDeCatalogo.desdeCsv(new StringReader(csv.toString())));
+
+        assertEquals(filas, informe.librosImportados());
+        assertTrue(informe.errores().isEmpty());
+        verify(libroRepositoryMock, times(2)).saveAll(anyList(), any());
+        verify(libroRepositoryMock, never()).save(any());
+        verify(libroRepositoryMock, never()).findByIsbn(any());
+    }
+
     @Test
     @DisplayName("crearLibro lanza RecursoDuplicadoException si el ISBN ya existe")
     void crearLibro_cuandoIsbnExiste_lanzaRecursoDuplicadoException() {
@@ -90,6 +228,20 @@ class LibroServiceImplTest {
         verify(libroRepositoryMock).findById(idExistente);
     }
 
+    @Test
+    @DisplayName("obtenerLibroPorId sirve las lecturas repetidas desde la caché hasta que el libro cambia")
+    void obtenerLibroPorId_lecturasRepetidas_consultanElRepositorioUnaVez() {
+        when(libroRepositoryMock.findById(1L)).thenReturn(Optional.of(libroExistente));
+
+        libroService.obtenerLibroPorId(1L);
+        libroService.obtenerLibroPorId(1L);
+        verify(libroRepositoryMock, times(1)).findById(1L);
+
+        cacheDeLibros.guardado(libroExistente);
+        libroService.obtenerLibroPorId(1L);
+        verify(libroRepositoryMock, times(2)).findById(1L);
+    }
+
     @Test
     @DisplayName("obtenerLibroPorId con ID no existente devuelve Optional vacío")
     void obtenerLibroPorId_cuandoLibroNoExiste_debeDevolverOptionalVacio() {
@@ -183,8 +335,24 @@ class LibroServiceImplTest {
         assertEquals(EstadoLibro.EN_REPARACION, libroResultado.getEstado(), "El estado no se actualizó correctamente.");
         assertEquals(libroExistente.getIsbn(), libroResultado.getIsbn(), "El ISBN no debería haber cambiado.");
 
+        assertEquals(libroExistente.getTitulo(), libroEnRepo.getTitulo(), "La instancia leída del repositorio no debería modificarse.");
+
         verify(libroRepositoryMock).findById(idExistente);
-        verify(libroRepositoryMock).save(libroEnRepo);
+        verify(libroRepositoryMock).save(libroResultado);
+    }
+
+    @Test
+    @DisplayName("actualizarLibro con versión esperada la envía al repositorio para que detecte conflictos")
+    void actualizarLibro_conVersionEsperada_guardaConEsaVersion() {
+        Long idExistente = libroExistente.getId();
+        libroExistente.setVersion(7L);
+        when(libroRepositoryMock.findById(idExistente)).thenReturn(Optional.of(libroExistente));
+        when(libroRepositoryMock.save(any(Libro.class))).thenThrow(new ConflictoDeVersionException("Conflicto"));
+
+        assertThrows(ConflictoDeVersionException.class,
+                () -> libroService.actualizarLibro(idExistente, new Libro("ISBN", "Nuevo", "Autor"), 6L));
+
+        verify(libroRepositoryMock).save(argThat(libro -> libro.getVersion() == 6L && libro != libroExistente));
     }
 
     @Test
@@ -0,0 +1,122 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.dtos.InformeDeImportacionDTO;
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.excepciones.ConflictoDeVersionException;
+import com.biblioteca.sistemagestion.importacion.FilaDeImportacion;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LibroServiceReactivoImplTest {
+
+    @Mock
+    private LibroService libroServiceMock;
+
+    private LibroServiceReactivoImpl libroServiceReactivo;
+
+    private Libro libro1;
+    private Libro libro2;
+    private Libro libro3;
+
+    @BeforeEach
+    void setUp() {
+        libroServiceReactivo = new LibroServiceReactivoImpl(libroServiceMock, Schedulers.immediate());
+        libro1 = new Libro(1L, "ISBN001", "Libro Uno", "Autor A", null);
+        libro2 = new Libro(2L, "ISBN002", "Libro Dos", "Autor B", null);
+        libro3 = new Libro(3L, "ISBN003", "Libro Tres", "Autor C", null);
+    }
+
+    @Test
+    @DisplayName("obtenerTodosLosLibros consulta la página siguiente solo cuando el suscriptor pide más elementos")
+    void obtenerTodosLosLibros_consultaPaginasBajoDemanda() {
+        when(libroServiceMock.obtenerPaginaDeLibros(null, Paginacion.LOTE_DE_RECORRIDO, null))
+                .thenReturn(new PaginaDTO<>(List.of(libro1, libro2), "c1"));
+        when(libroServiceMock.obtenerPaginaDeLibros("c1", Paginacion.LOTE_DE_RECORRIDO, null))
+                .thenReturn(new PaginaDTO<>(List.of(libro3), null));
+
+        StepVerifier.create(libroServiceReactivo.obtenerTodosLosLibros(), 1)
+                .expectNext(libro1)
+                .then(() -> verify(libroServiceMock, never()).obtenerPaginaDeLibros(eq("c1"), anyInt(), any()))
+                .thenRequest(2)
+                .expectNext(libro2, libro3)
+                .verifyComplete();
+
+        verify(libroServiceMock, times(2)).obtenerPaginaDeLibros(any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("obtenerLibroPorId devuelve un Mono vacío si el libro no existe")
+    void obtenerLibroPorId_noExistente_devuelveVacio() {
+        when(libroServiceMock.obtenerLibroPorId(99L)).thenReturn(Optional.empty());
+        when(libroServiceMock.obtenerLibroPorId(1L)).thenReturn(Optional.of(libro1));
+
+        StepVerifier.create(libroServiceReactivo.obtenerLibroPorId(99L)).verifyComplete();
+        StepVerifier.create(libroServiceReactivo.obtenerLibroPorId(1L)).expectNext(libro1).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("La llamada al servicio síncrono se ejecuta en el planificador y no en el hilo que se suscribe")
+    void obtenerLibroPorId_seEjecutaEnElPlanificador() {
+        Scheduler planificador = Schedulers.newSingle("planificador-prueba");
+        try {
+            libroServiceReactivo = new LibroServiceReactivoImpl(libroServiceMock, planificador);
+            String[] hilo = new String[1];
+            when(libroServiceMock.obtenerLibroPorId(1L)).thenAnswer(invocacion -> {
+                hilo[0] = Thread.currentThread().getName();
+                return Optional.of(libro1);
+            });
+
+            assertEquals(libro1, libroServiceReactivo.obtenerLibroPorId(1L).block());
+            assertTrue(hilo[0].startsWith("planificador-prueba"), "Hilo inesperado: " + hilo[0]);
+        } finally {
+            planificador.dispose();
+        }
+    }
+
+    @Test
+    @DisplayName("Las excepciones del servicio se propagan como error del Mono")
+    void actualizarLibro_conConflicto_propagaError() {
+        when(libroServiceMock.actualizarLibro(1L, libro1, 3L)).thenThrow(new ConflictoDeVersionException("conflicto"));
+
+        StepVerifier.create(libroServiceReactivo.actualizarLibro(1L, libro1, 3L))
+                .expectError(ConflictoDeVersionException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("importarLibros entrega todas las filas del flujo al servicio de importación")
+    void importarLibros_consumeTodasLasFilas() {
+        when(libroServiceMock.importarLibros(any())).thenAnswer(invocacion -> {
+            Iterator<FilaDeImportacion> filas = invocacion.getArgument(0);
+            long total = 0;
+            while (filas.hasNext()) {
+                filas.next();
+                total++;
+            }
+            return new InformeDeImportacionDTO(total, total, List.of());
+        });
+        Flux<FilaDeImportacion> filas = Flux.range(1, 1_000).map(i -> new FilaDeImportacion(i, libro1, null));
+
+        StepVerifier.create(libroServiceReactivo.importarLibros(filas))
+                .expectNextMatches(informe -> informe.filasProcesadas() == 1_000)
+                .verifyComplete();
+    }
+}
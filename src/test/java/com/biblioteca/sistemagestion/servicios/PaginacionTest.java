@@ -0,0 +1,106 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.repositorios.Orden;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginacionTest {
+
+    private final List<Long> ids = LongStream.rangeClosed(1, 25).boxed().toList();
+
+    private List<Long> consultar(Long despuesDeId, int limite, Orden orden) {
+        List<Long> resultado = new ArrayList<>();
+        List<Long> recorrido = orden == Orden.ASCENDENTE ? ids : ids.reversed();
+        for (Long id : recorrido) {
+            boolean posterior = despuesDeId == null
+                    || (orden == Orden.ASCENDENTE ? id > despuesDeId : id < despuesDeId);
+            if (posterior && resultado.size() < limite) {
+                resultado.add(id);
+            }
+        }
+        return resultado;
+    }
+
+    @Test
+    @DisplayName("Seguir los cursores recorre todos los elementos una sola vez")
+    void paginar_siguiendoCursores_recorreTodo() {
+        List<Long> recorridos = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaDTO<Long> pagina = Paginacion.paginar(cursor, 10, null, this::consultar, Function.identity());
+            recorridos.addAll(pagina.elementos());
+            cursor = pagina.siguienteCursor();
+        } while (cursor != null);
+
+        assertEquals(ids, recorridos);
+    }
+
+    @Test
+    @DisplayName("El orden descendente se conserva en el cursor")
+    void paginar_descendente_conservaOrdenEnCursor() {
+        PaginaDTO<Long> primera = Paginacion.paginar(null, 3, "desc", this::consultar, Function.identity());
+        PaginaDTO<Long> segunda = Paginacion.paginar(primera.siguienteCursor(), 3, null, this::consultar, Function.identity());
+
+        assertEquals(List.of(25L, 24L, 23L), primera.elementos());
+        assertEquals(List.of(22L, 21L, 20L), segunda.elementos());
+        assertThrows(IllegalArgumentException.class,
+                () -> Paginacion.paginar(primera.siguienteCursor(), 3, "asc", this::consultar, Function.identity()));
+    }
+
+    @Test
+    @DisplayName("recorrer entrega todos los elementos en orden pidiendo lotes acotados")
+    void recorrer_entregaTodoEnLotesAcotados() {
+        List<Integer> limitesPedidos = new ArrayList<>();
+        List<Long> recorridos = new ArrayList<>();
+
+        Paginacion.<Long>recorrer((despuesDeId, limite, orden) -> {
+            limitesPedidos.add(limite);
+            return consultar(despuesDeId, limite, orden);
+        }, Function.identity(), recorridos::add);
+
+        assertEquals(ids, recorridos);
+        assertTrue(limitesPedidos.stream().allMatch(limite -> limite == Paginacion.LOTE_DE_RECORRIDO));
+    }
+
+    @Test
+    @DisplayName("La última página no tiene cursor siguiente")
+    void paginar_ultimaPagina_sinCursor() {
+        PaginaDTO<Long> pagina = Paginacion.paginar(null, 25, null, this::consultar, Function.identity());
+
+        assertEquals(25, pagina.elementos().size());
+        assertNull(pagina.siguienteCursor());
+    }
+
+    @Test
+    @DisplayName("Límites fuera de rango, órdenes y cursores inválidos se rechazan")
+    void paginar_parametrosInvalidos_lanzaIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Paginacion.paginar(null, 0, null, this::consultar, Function.identity()));
+        assertThrows(IllegalArgumentException.class,
+                () -> Paginacion.paginar(null, Paginacion.LIMITE_MAXIMO + 1, null, this::consultar, Function.identity()));
+        assertThrows(IllegalArgumentException.class,
+                () -> Paginacion.paginar(null, 10, "alfabetico", this::consultar, Function.identity()));
+        assertThrows(IllegalArgumentException.class,
+                () -> Paginacion.paginar("no-es-un-cursor", 10, null, this::consultar, Function.identity()));
+    }
+
+    @Test
+    @DisplayName("Si la consulta devuelve menos elementos por borrados concurrentes se completa la página")
+    void paginar_consultaIncompleta_completaPagina() {
+        Paginacion.ConsultaDePagina<Long> conHuecos = (despuesDeId, limite, orden) ->
+                consultar(despuesDeId, limite, orden).stream().filter(id -> id != 2 && id != 3).toList();
+
+        PaginaDTO<Long> pagina = Paginacion.paginar(null, 3, null, conHuecos, Function.identity());
+
+        assertEquals(List.of(1L, 4L, 5L), pagina.elementos());
+        assertNotNull(pagina.siguienteCursor());
+    }
+}
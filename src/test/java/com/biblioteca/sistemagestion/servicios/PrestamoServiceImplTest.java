@@ -1,17 +1,27 @@
 package com.biblioteca.sistemagestion.servicios;
 
+import com.biblioteca.sistemagestion.busqueda.AutocompletadoDeCatalogo;
+import com.biblioteca.sistemagestion.busqueda.BuscadorDeAutores;
+import com.biblioteca.sistemagestion.busqueda.IndiceDeBusqueda;
+import com.biblioteca.sistemagestion.cache.CacheDeLecturas;
+import com.biblioteca.sistemagestion.dtos.ResultadoDeDevolucionDTO;
+import com.biblioteca.sistemagestion.dtos.ResultadoDePrestamoDTO;
 import com.biblioteca.sistemagestion.modelo.Libro;
 import com.biblioteca.sistemagestion.modelo.Usuario;
 import com.biblioteca.sistemagestion.modelo.Prestamo;
 import com.biblioteca.sistemagestion.modelo.EstadoLibro;
 import com.biblioteca.sistemagestion.modelo.EstadoUsuario;
 import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.LibroRepositoryImpl;
+import com.biblioteca.sistemagestion.repositorios.PrestamoRepositoryImpl;
+import com.biblioteca.sistemagestion.repositorios.UsuarioRepositoryImpl;
 import com.biblioteca.sistemagestion.repositorios.UsuarioRepository;
 import com.biblioteca.sistemagestion.repositorios.PrestamoRepository;
 import com.biblioteca.sistemagestion.excepciones.LibroNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoNoDisponibleException;
 import com.biblioteca.sistemagestion.excepciones.PrestamoNoEncontradoException;
+import com.biblioteca.sistemagestion.transacciones.GestorDeTransacciones;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,6 +29,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -28,6 +39,12 @@ import java.util.Optional;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -41,6 +58,8 @@ class PrestamoServiceImplTest {
     private UsuarioRepository usuarioRepositoryMock;
     @Mock
     private PrestamoRepository prestamoRepositoryMock;
+    @Spy
+    private GestorDeTransacciones gestorDeTransacciones = new GestorDeTransacciones();
 
     @InjectMocks
     private PrestamoServiceImpl prestamoService;
@@ -80,7 +99,7 @@ class PrestamoServiceImplTest {
     void realizarPrestamo_Exitoso() {
         when(libroRepositoryMock.findById(libroIdExistente)).thenReturn(Optional.of(libroDisponible));
         when(usuarioRepositoryMock.findById(usuarioIdExistente)).thenReturn(Optional.of(usuarioActivo));
-        when(libroRepositoryMock.save(any(Libro.class))).thenReturn(libroDisponible);
+        when(libroRepositoryMock.compareAndSetEstado(libroIdExistente, EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO)).thenReturn(true);
         when(prestamoRepositoryMock.save(any(Prestamo.class))).thenAnswer(invocation -> {
             Prestamo p = invocation.getArgument(0);
             if (p.getId() == null) {
@@ -99,10 +118,39 @@ class PrestamoServiceImplTest {
 
         verify(libroRepositoryMock).findById(libroIdExistente);
         verify(usuarioRepositoryMock).findById(usuarioIdExistente);
-        verify(libroRepositoryMock).save(libroDisponible);
+        verify(libroRepositoryMock).compareAndSetEstado(libroIdExistente, EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO);
+        verify(libroRepositoryMock, never()).save(any(Libro.class));
         verify(prestamoRepositoryMock).save(any(Prestamo.class));
     }
 
+    @Test
+    @DisplayName("realizarPrestamo no crea el préstamo si otra operación reservó el libro antes")
+    void realizarPrestamo_CuandoPierdeLaReserva_LanzaRecursoNoDisponibleException() {
+        when(libroRepositoryMock.findById(libroIdExistente)).thenReturn(Optional.of(libroDisponible));
+        when(usuarioRepositoryMock.findById(usuarioIdExistente)).thenReturn(Optional.of(usuarioActivo));
+        when(libroRepositoryMock.compareAndSetEstado(libroIdExistente, EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO)).thenReturn(false);
+
+        RecursoNoDisponibleException excepcion = assertThrows(RecursoNoDisponibleException.class,
+                () -> prestamoService.realizarPrestamo(libroIdExistente, usuarioIdExistente, fechaDevolucionValida));
+
+        assertTrue(excepcion.getMessage().contains("otra operación"));
+        verify(prestamoRepositoryMock, never()).save(any(Prestamo.class));
+    }
+
+    @Test
+    @DisplayName("realizarPrestamo devuelve el libro a DISPONIBLE si no se puede guardar el préstamo")
+    void realizarPrestamo_CuandoFallaGuardarPrestamo_LiberaElLibro() {
+        when(libroRepositoryMock.findById(libroIdExistente)).thenReturn(Optional.of(libroDisponible));
+        when(usuarioRepositoryMock.findById(usuarioIdExistente)).thenReturn(Optional.of(usuarioActivo));
+        when(libroRepositoryMock.compareAndSetEstado(eq(libroIdExistente), any(), any())).thenReturn(true);
+        when(prestamoRepositoryMock.save(any(Prestamo.class))).thenThrow(new IllegalStateException("fallo"));
+
+        assertThrows(IllegalStateException.class,
+                () -> prestamoService.realizarPrestamo(libroIdExistente, usuarioIdExistente, fechaDevolucionValida));
+
+        verify(libroRepositoryMock).compareAndSetEstado(libroIdExistente, EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE);
+    }
+
     @Test
     @DisplayName("realizarPrestamo lanza LibroNoEncontradoException")
     void realizarPrestamo_CuandoLibroNoEncontrado_LanzaLibroNoEncontradoException() {
@@ -144,6 +192,20 @@ class PrestamoServiceImplTest {
         verifyNoInteractions(prestamoRepositoryMock);
     }
 
+    @Test
+    @DisplayName("realizarPrestamo lanza RecursoNoDisponibleException si el libro ya tiene un préstamo activo")
+    void realizarPrestamo_CuandoLibroTienePrestamoActivo_LanzaRecursoNoDisponibleException() {
+        when(libroRepositoryMock.findById(libroIdExistente)).thenReturn(Optional.of(libroDisponible));
+        when(usuarioRepositoryMock.findById(usuarioIdExistente)).thenReturn(Optional.of(usuarioActivo));
+        when(prestamoRepositoryMock.findActiveByLibroId(libroIdExistente)).thenReturn(Optional.of(prestamoExistente));
+
+        assertThrows(RecursoNoDisponibleException.class, () -> {
+            prestamoService.realizarPrestamo(libroIdExistente, usuarioIdExistente, fechaDevolucionValida);
+        });
+        verify(libroRepositoryMock, never()).save(any(Libro.class));
+        verify(prestamoRepositoryMock, never()).save(any(Prestamo.class));
+    }
+
     @Test
     @DisplayName("realizarPrestamo lanza IllegalArgumentException si fechaDevolucion es inválida")
     void realizarPrestamo_ConFechaDevolucionInvalida_LanzaIllegalArgumentException() {
@@ -154,20 +216,136 @@ class PrestamoServiceImplTest {
         });
     }
 
+    @Test
+    @DisplayName("realizarPrestamos deshace los préstamos ya creados del lote si uno falla al guardarse")
+    void realizarPrestamos_CuandoFallaUnGuardado_DeshaceElLote() {
+        Libro otroDisponible = new Libro("ISBN-003", "Otro Disponible", "Autor Tres");
+        otroDisponible.setId(3L);
+        when(usuarioRepositoryMock.findById(usuarioIdExistente)).thenReturn(Optional.of(usuarioActivo));
+        when(libroRepositoryMock.findById(libroIdExistente)).thenReturn(Optional.of(libroDisponible));
+        when(libroRepositoryMock.findById(3L)).thenReturn(Optional.of(otroDisponible));
+        when(prestamoRepositoryMock.findActiveByLibroId(anyLong())).thenReturn(Optional.empty());
+        when(libroRepositoryMock.compareAndSetEstado(anyLong(), any(), any())).thenReturn(true);
+        when(prestamoRepositoryMock.save(any(Prestamo.class)))
+                .thenAnswer(invocation -> {
+                    Prestamo p = invocation.getArgument(0);
+                    p.setId(500L);
+                    return p;
+                })
+                .thenThrow(new IllegalStateException("fallo"));
+
+        assertThrows(IllegalStateException.class, () -> prestamoService.realizarPrestamos(usuarioIdExistente,
+                List.of(libroIdExistente, 3L), fechaDevolucionValida));
+
+        verify(prestamoRepositoryMock).deleteById(500L);
+        verify(libroRepositoryMock).compareAndSetEstado(libroIdExistente, EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE);
+        verify(libroRepositoryMock).compareAndSetEstado(3L, EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE);
+    }
+
+    @Test
+    @DisplayName("registrarDevolucion restaura el préstamo si no se puede liberar el libro")
+    void registrarDevolucion_CuandoFallaLiberarLibro_RestauraPrestamo() {
+        when(prestamoRepositoryMock.findById(prestamoIdExistente)).thenReturn(Optional.of(prestamoExistente));
+        when(prestamoRepositoryMock.deleteById(prestamoIdExistente)).thenReturn(true);
+        when(libroRepositoryMock.compareAndSetEstado(libroIdPrestado, EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE))
+                .thenThrow(new IllegalStateException("fallo"));
+
+        assertThrows(IllegalStateException.class, () -> prestamoService.registrarDevolucion(prestamoIdExistente));
+
+        verify(prestamoRepositoryMock).save(prestamoExistente);
+    }
+
+    @Test
+    @DisplayName("realizarPrestamos busca al usuario una vez y presta sólo los libros disponibles")
+    void realizarPrestamos_PrestaDisponiblesEInformaRechazados() {
+        Libro otroDisponible = new Libro("ISBN-003", "Otro Disponible", "Autor Tres");
+        otroDisponible.setId(3L);
+        otroDisponible.setEstado(EstadoLibro.DISPONIBLE);
+        when(usuarioRepositoryMock.findById(usuarioIdExistente)).thenReturn(Optional.of(usuarioActivo));
+        when(libroRepositoryMock.findById(libroIdExistente)).thenReturn(Optional.of(libroDisponible));
+        when(libroRepositoryMock.findById(libroIdPrestado)).thenReturn(Optional.of(libroYaPrestado));
+        when(libroRepositoryMock.findById(3L)).thenReturn(Optional.of(otroDisponible));
+        when(libroRepositoryMock.findById(999L)).thenReturn(Optional.empty());
+        when(prestamoRepositoryMock.findActiveByLibroId(anyLong())).thenReturn(Optional.empty());
+        when(libroRepositoryMock.compareAndSetEstado(libroIdExistente, EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO)).thenReturn(true);
+        when(libroRepositoryMock.compareAndSetEstado(3L, EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO)).thenReturn(true);
+        long[] secuencia = {500L};
+        when(prestamoRepositoryMock.save(any(Prestamo.class))).thenAnswer(invocation -> {
+            Prestamo p = invocation.getArgument(0);
+            p.setId(secuencia[0]++);
+            return p;
+        });
+
+        List<ResultadoDePrestamoDTO> resultados = prestamoService.realizarPrestamos(usuarioIdExistente,
+                List.of(libroIdExistente, libroIdPrestado, 999L, 3L, libroIdExistente), fechaDevolucionValida);
+
+        assertEquals(5, resultados.size());
+        assertEquals(ResultadoDePrestamoDTO.exitoso(libroIdExistente, 500L), resultados.get(0));
+        assertNull(resultados.get(1).prestamoId());
+        assertTrue(resultados.get(1).error().contains("no está disponible"));
+        assertEquals(ResultadoDePrestamoDTO.fallido(999L, "Libro no encontrado con ID: 999"), resultados.get(2));
+        assertEquals(ResultadoDePrestamoDTO.exitoso(3L, 501L), resultados.get(3));
+        assertTrue(resultados.get(4).error().contains("repetido"));
+        assertEquals(EstadoLibro.PRESTADO, libroDisponible.getEstado());
+        assertEquals(EstadoLibro.PRESTADO, otroDisponible.getEstado());
+
+        verify(usuarioRepositoryMock, times(1)).findById(usuarioIdExistente);
+        verify(libroRepositoryMock, times(1)).findById(libroIdExistente);
+        verify(libroRepositoryMock, never()).save(libroYaPrestado);
+        verify(prestamoRepositoryMock, times(2)).save(any(Prestamo.class));
+    }
+
+    @Test
+    @DisplayName("realizarPrestamos lanza UsuarioNoEncontradoException sin tocar los libros")
+    void realizarPrestamos_CuandoUsuarioNoEncontrado_LanzaExcepcion() {
+        when(usuarioRepositoryMock.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(UsuarioNoEncontradoException.class,
+                () -> prestamoService.realizarPrestamos(999L, List.of(libroIdExistente), fechaDevolucionValida));
+
+        verifyNoInteractions(libroRepositoryMock, prestamoRepositoryMock);
+    }
+
+    @Test
+    @DisplayName("realizarPrestamos rechaza lotes vacíos o demasiado grandes")
+    void realizarPrestamos_ConLoteVacioOExcesivo_LanzaIllegalArgumentException() {
+        List<Long> excesivo = new ArrayList<>();
+        for (long id = 1; id <= PrestamoServiceImpl.LIBROS_MAXIMOS_POR_LOTE + 1; id++) {
+            excesivo.add(id);
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> prestamoService.realizarPrestamos(usuarioIdExistente, List.of(), fechaDevolucionValida));
+        assertThrows(IllegalArgumentException.class,
+                () -> prestamoService.realizarPrestamos(usuarioIdExistente, excesivo, fechaDevolucionValida));
+        verifyNoInteractions(usuarioRepositoryMock);
+    }
+
     @Test
     @DisplayName("registrarDevolucion exitoso")
     void registrarDevolucion_Exitoso() {
         when(prestamoRepositoryMock.findById(prestamoIdExistente)).thenReturn(Optional.of(prestamoExistente));
-        when(libroRepositoryMock.save(any(Libro.class))).thenReturn(libroYaPrestado);
-        doNothing().when(prestamoRepositoryMock).deleteById(prestamoIdExistente);
+        when(prestamoRepositoryMock.deleteById(prestamoIdExistente)).thenReturn(true);
 
         Prestamo prestamoDevuelto = prestamoService.registrarDevolucion(prestamoIdExistente);
 
         assertNotNull(prestamoDevuelto);
-        assertEquals(EstadoLibro.DISPONIBLE, libroYaPrestado.getEstado());
         verify(prestamoRepositoryMock).findById(prestamoIdExistente);
-        verify(libroRepositoryMock).save(libroYaPrestado);
         verify(prestamoRepositoryMock).deleteById(prestamoIdExistente);
+        verify(libroRepositoryMock).compareAndSetEstado(libroIdPrestado, EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE);
+        verify(libroRepositoryMock, never()).save(any(Libro.class));
+    }
+
+    @Test
+    @DisplayName("registrarDevolucion lanza PrestamoNoEncontradoException si otra operación ya lo devolvió")
+    void registrarDevolucion_CuandoYaFueDevuelto_LanzaPrestamoNoEncontradoException() {
+        when(prestamoRepositoryMock.findById(prestamoIdExistente)).thenReturn(Optional.of(prestamoExistente));
+        when(prestamoRepositoryMock.deleteById(prestamoIdExistente)).thenReturn(false);
+
+        assertThrows(PrestamoNoEncontradoException.class,
+                () -> prestamoService.registrarDevolucion(prestamoIdExistente));
+
+        verifyNoInteractions(libroRepositoryMock);
     }
 
     @Test
@@ -198,6 +376,159 @@ class PrestamoServiceImplTest {
     }
 
 
+    @Test
+    @DisplayName("registrarDevoluciones agrupa las escrituras e informa el estado de cada préstamo")
+    void registrarDevoluciones_AgrupaEscriturasEInformaEstados() {
+        Prestamo sinLibro = new Prestamo(null, usuarioActivo, fechaDevolucionValida);
+        sinLibro.setId(101L);
+        when(prestamoRepositoryMock.findById(prestamoIdExistente)).thenReturn(Optional.of(prestamoExistente));
+        when(prestamoRepositoryMock.findById(101L)).thenReturn(Optional.of(sinLibro));
+        when(prestamoRepositoryMock.findById(999L)).thenReturn(Optional.empty());
+        when(prestamoRepositoryMock.deleteAllById(List.of(prestamoIdExistente))).thenReturn(List.of(prestamoIdExistente));
+
+        List<ResultadoDeDevolucionDTO> resultados = prestamoService.registrarDevoluciones(
+                List.of(prestamoIdExistente, 999L, 101L, prestamoIdExistente));
+
+        assertEquals(List.of(
+                new ResultadoDeDevolucionDTO(prestamoIdExistente, ResultadoDeDevolucionDTO.Estado.DEVUELTO),
+                new ResultadoDeDevolucionDTO(999L, ResultadoDeDevolucionDTO.Estado.NO_ENCONTRADO),
+                new ResultadoDeDevolucionDTO(101L, ResultadoDeDevolucionDTO.Estado.SIN_LIBRO),
+                new ResultadoDeDevolucionDTO(prestamoIdExistente, ResultadoDeDevolucionDTO.Estado.REPETIDO)), resultados);
+        verify(prestamoRepositoryMock).deleteAllById(List.of(prestamoIdExistente));
+        verify(libroRepositoryMock).compareAndSetEstado(libroIdPrestado, EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE);
+        verify(libroRepositoryMock, never()).save(any());
+        verify(prestamoRepositoryMock, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("registrarDevolucionesPorLibro usa el préstamo activo e informa los que otra operación ya cerró")
+    void registrarDevolucionesPorLibro_UsaPrestamoActivo() {
+        when(prestamoRepositoryMock.findActiveByLibroId(libroIdPrestado)).thenReturn(Optional.of(prestamoExistente));
+        when(prestamoRepositoryMock.findActiveByLibroId(libroIdExistente)).thenReturn(Optional.empty());
+        when(prestamoRepositoryMock.deleteAllById(List.of(prestamoIdExistente))).thenReturn(List.of());
+
+        List<ResultadoDeDevolucionDTO> resultados = prestamoService.registrarDevolucionesPorLibro(
+                List.of(libroIdPrestado, libroIdExistente));
+
+        assertEquals(List.of(
+                new ResultadoDeDevolucionDTO(libroIdPrestado, ResultadoDeDevolucionDTO.Estado.YA_DEVUELTO),
+                new ResultadoDeDevolucionDTO(libroIdExistente, ResultadoDeDevolucionDTO.Estado.NO_ENCONTRADO)), resultados);
+        verify(prestamoRepositoryMock).deleteAllById(List.of(prestamoIdExistente));
+        verifyNoInteractions(libroRepositoryMock);
+    }
+
+    @Test
+    @DisplayName("registrarDevoluciones sin préstamos válidos no escribe en los repositorios")
+    void registrarDevoluciones_SinPrestamosValidos_NoEscribe() {
+        when(prestamoRepositoryMock.findById(999L)).thenReturn(Optional.empty());
+
+        List<ResultadoDeDevolucionDTO> resultados = prestamoService.registrarDevoluciones(List.of(999L));
+
+        assertEquals(ResultadoDeDevolucionDTO.Estado.NO_ENCONTRADO, resultados.get(0).estado());
+        verifyNoInteractions(libroRepositoryMock);
+        verify(prestamoRepositoryMock, never()).deleteAllById(any());
+    }
+
+    @Test
+    @DisplayName("Miles de préstamos y devoluciones concurrentes del mismo libro tienen un único ganador")
+    void prestamoYDevolucion_concurrentes_unicoGanador() throws Exception {
+        LibroRepositoryImpl libros = new LibroRepositoryImpl();
+        PrestamoRepositoryImpl prestamos = new PrestamoRepositoryImpl();
+        UsuarioRepositoryImpl usuarios = new UsuarioRepositoryImpl();
+        PrestamoServiceImpl servicio = new PrestamoServiceImpl(prestamos, libros, usuarios, new GestorDeTransacciones());
+        Long libroId = libros.save(new Libro("ISBN-CONC", "Título disputado", "Autor")).getId();
+        Long usuarioId = usuarios.save(new Usuario("Usuario Concurrente", "concurrente@example.com")).getId();
+        int hilos = 4_000;
+
+        List<Prestamo> creados = enParalelo(hilos,
+                () -> servicio.realizarPrestamo(libroId, usuarioId, fechaDevolucionValida), RecursoNoDisponibleException.class);
+
+        assertEquals(1, creados.size());
+        assertEquals(1, prestamos.findByLibroId(libroId).size());
+        assertEquals(EstadoLibro.PRESTADO, libros.findById(libroId).orElseThrow().getEstado());
+
+        Long prestamoId = creados.get(0).getId();
+        List<Prestamo> devueltos = enParalelo(hilos,
+                () -> servicio.registrarDevolucion(prestamoId), PrestamoNoEncontradoException.class);
+
+        assertEquals(1, devueltos.size());
+        assertTrue(prestamos.findAll().isEmpty());
+        assertEquals(EstadoLibro.DISPONIBLE, libros.findById(libroId).orElseThrow().getEstado());
+    }
+
+    @Test
+    @DisplayName("Eliminar un libro mientras se presta se ordena con el préstamo en lugar de dejarlo a medias")
+    void eliminarLibro_concurrenteConPrestamo_seSerializa() throws Exception {
+        LibroRepositoryImpl libros = new LibroRepositoryImpl();
+        PrestamoRepositoryImpl prestamos = new PrestamoRepositoryImpl();
+        UsuarioRepositoryImpl usuarios = new UsuarioRepositoryImpl();
+        GestorDeTransacciones gestor = new GestorDeTransacciones();
+        PrestamoServiceImpl servicio = new PrestamoServiceImpl(prestamos, libros, usuarios, gestor);
+        LibroServiceImpl catalogo = new LibroServiceImpl(libros, new IndiceDeBusqueda(libros),
+                new AutocompletadoDeCatalogo(libros), new BuscadorDeAutores(libros), new VersionesDelCatalogo(libros),
+                new CacheDeLecturas<>(0, Libro::getId), gestor);
+        Long usuarioId = usuarios.save(new Usuario("Usuario Concurrente", "concurrente@example.com")).getId();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            for (int i = 0; i < 2_000; i++) {
+                Long libroId = libros.save(new Libro("ISBN-BORRADO-" + i, "Título", "Autor")).getId();
+                CountDownLatch inicio = new CountDownLatch(1);
+                Future<Prestamo> prestamo = executor.submit(() -> {
+                    inicio.await();
+                    try {
+                        return servicio.realizarPrestamo(libroId, usuarioId, fechaDevolucionValida);
+                    } catch (LibroNoEncontradoException e) {
+                        return null;
+                    }
+                });
+                Future<?> borrado = executor.submit(() -> {
+                    inicio.await();
+                    catalogo.eliminarLibro(libroId);
+                    return null;
+                });
+                inicio.countDown();
+
+                Prestamo creado = prestamo.get(10, TimeUnit.SECONDS);
+                borrado.get(10, TimeUnit.SECONDS);
+                assertFalse(libros.existsById(libroId));
+                if (creado != null) {
+                    assertEquals(EstadoLibro.PRESTADO, creado.getLibro().getEstado());
+                    assertEquals(List.of(creado), prestamos.findByLibroId(libroId));
+                } else {
+                    assertTrue(prestamos.findByLibroId(libroId).isEmpty());
+                }
+            }
+        }
+    }
+
+    private static List<Prestamo> enParalelo(int hilos, Callable<Prestamo> operacion,
+                                             Class<? extends RuntimeException> rechazoEsperado) throws Exception {
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<Prestamo>> tareas = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(executor.submit(() -> {
+                    inicio.await();
+                    try {
+                        return operacion.call();
+                    } catch (RuntimeException e) {
+                        assertInstanceOf(rechazoEsperado, e);
+                        return null;
+                    }
+                }));
+            }
+            inicio.countDown();
+            List<Prestamo> exitosos = new ArrayList<>();
+            for (Future<Prestamo> tarea : tareas) {
+                Prestamo prestamo = tarea.get(60, TimeUnit.SECONDS);
+                if (prestamo != null) {
+                    exitosos.add(prestamo);
+                }
+            }
+            return exitosos;
+        }
+    }
+
     @Test
     @DisplayName("obtenerPrestamoPorId cuando existe devuelve Optional con Prestamo")
     void obtenerPrestamoPorId_CuandoExiste_DevuelveOptionalConPrestamo() {
@@ -255,4 +586,13 @@ class PrestamoServiceImplTest {
         assertEquals(listaEsperada, resultado);
         verify(prestamoRepositoryMock).findByLibroId(libroIdPrestado);
     }
+
+    @Test
+    @DisplayName("obtenerPrestamoActivoPorLibro delega en el índice de préstamos activos")
+    void obtenerPrestamoActivoPorLibro_DevuelvePrestamoActivo() {
+        when(prestamoRepositoryMock.findActiveByLibroId(libroIdPrestado)).thenReturn(Optional.of(prestamoExistente));
+        Optional<Prestamo> resultado = prestamoService.obtenerPrestamoActivoPorLibro(libroIdPrestado);
+        assertEquals(Optional.of(prestamoExistente), resultado);
+        verify(prestamoRepositoryMock).findActiveByLibroId(libroIdPrestado);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.dtos.ResultadoDePrestamoDTO;
+import com.biblioteca.sistemagestion.excepciones.RecursoNoDisponibleException;
+import com.biblioteca.sistemagestion.modelo.Prestamo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrestamoServiceReactivoImplTest {
+
+    @Mock
+    private PrestamoService prestamoServiceMock;
+
+    private PrestamoServiceReactivoImpl prestamoServiceReactivo;
+
+    private final LocalDate devolucion = LocalDate.of(2025, 6, 1);
+
+    @BeforeEach
+    void setUp() {
+        prestamoServiceReactivo = new PrestamoServiceReactivoImpl(prestamoServiceMock, Schedulers.immediate());
+    }
+
+    @Test
+    @DisplayName("realizarPrestamos emite un resultado por libro en el orden del servicio")
+    void realizarPrestamos_emiteUnResultadoPorLibro() {
+        when(prestamoServiceMock.realizarPrestamos(1L, List.of(10L, 11L), devolucion)).thenReturn(List.of(
+                ResultadoDePrestamoDTO.exitoso(10L, 100L),
+                ResultadoDePrestamoDTO.fallido(11L, "no disponible")));
+
+        StepVerifier.create(prestamoServiceReactivo.realizarPrestamos(1L, List.of(10L, 11L), devolucion))
+                .expectNext(ResultadoDePrestamoDTO.exitoso(10L, 100L))
+                .expectNext(ResultadoDePrestamoDTO.fallido(11L, "no disponible"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("realizarPrestamo propaga RecursoNoDisponibleException como error")
+    void realizarPrestamo_libroNoDisponible_propagaError() {
+        when(prestamoServiceMock.realizarPrestamo(10L, 1L, devolucion))
+                .thenThrow(new RecursoNoDisponibleException("prestado"));
+
+        StepVerifier.create(prestamoServiceReactivo.realizarPrestamo(10L, 1L, devolucion))
+                .expectError(RecursoNoDisponibleException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("obtenerPrestamosPorUsuario emite los préstamos de la lista del servicio")
+    void obtenerPrestamosPorUsuario_emitePrestamos() {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(100L);
+        when(prestamoServiceMock.obtenerPrestamosPorUsuario(1L)).thenReturn(List.of(prestamo));
+
+        StepVerifier.create(prestamoServiceReactivo.obtenerPrestamosPorUsuario(1L))
+                .expectNext(prestamo)
+                .verifyComplete();
+    }
+}
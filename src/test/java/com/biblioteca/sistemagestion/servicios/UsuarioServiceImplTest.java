@@ -1,8 +1,11 @@
 package com.biblioteca.sistemagestion.servicios;
 
+import com.biblioteca.sistemagestion.cache.CacheDeLecturas;
 import com.biblioteca.sistemagestion.modelo.Usuario;
 import com.biblioteca.sistemagestion.modelo.EstadoUsuario;
 import com.biblioteca.sistemagestion.repositorios.UsuarioRepository;
+import com.biblioteca.sistemagestion.repositorios.UsuarioRepositoryImpl;
+import com.biblioteca.sistemagestion.transacciones.GestorDeTransacciones;
 import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
 import com.biblioteca.sistemagestion.excepciones.RecursoDuplicadoException;
 
@@ -12,12 +15,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +37,12 @@ class UsuarioServiceImplTest {
     @Mock
     private UsuarioRepository usuarioRepositoryMock;
 
+    @Spy
+    private CacheDeLecturas<Usuario> cacheDeUsuarios = new CacheDeLecturas<>(100, Usuario::getId);
+
+    @Spy
+    private GestorDeTransacciones gestorDeTransacciones = new GestorDeTransacciones();
+
     @InjectMocks
     private UsuarioServiceImpl usuarioService;
 
@@ -192,7 +207,7 @@ class UsuarioServiceImplTest {
 
         verify(usuarioRepositoryMock).findById(idExistente);
         verify(usuarioRepositoryMock).findByEmail(datosActualizacion.getEmail());
-        verify(usuarioRepositoryMock).save(usuarioExistente);
+        verify(usuarioRepositoryMock).save(usuarioResultado);
     }
 
     @Test
@@ -233,6 +248,34 @@ class UsuarioServiceImplTest {
     }
 
 
+    @Test
+    @DisplayName("actualizarUsuario sin versión esperada no falla aunque otras actualizaciones concurran")
+    void actualizarUsuario_sinVersionEsperadaConcurrente_siempreTieneExito() throws Exception {
+        UsuarioRepositoryImpl usuarios = new UsuarioRepositoryImpl();
+        UsuarioServiceImpl servicio = new UsuarioServiceImpl(usuarios, new CacheDeLecturas<>(0, Usuario::getId),
+                new GestorDeTransacciones());
+        Long id = usuarios.save(new Usuario("Usuario Concurrente", "concurrente@example.com")).getId();
+        int actualizaciones = 2_000;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            CountDownLatch inicio = new CountDownLatch(1);
+            List<Future<Usuario>> resultados = new ArrayList<>();
+            for (int i = 0; i < actualizaciones; i++) {
+                String nombre = "Nombre " + i;
+                resultados.add(executor.submit(() -> {
+                    inicio.await();
+                    return servicio.actualizarUsuario(id, new Usuario(nombre, "concurrente@example.com"));
+                }));
+            }
+            inicio.countDown();
+            for (Future<Usuario> resultado : resultados) {
+                assertNotNull(resultado.get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(actualizaciones + 1L, usuarios.findById(id).orElseThrow().getVersion());
+    }
+
     @Test
     @DisplayName("eliminarUsuario cuando el usuario existe llama a deleteById del repositorio")
     void eliminarUsuario_cuandoUsuarioExiste_llamaDeleteDelRepositorio() {
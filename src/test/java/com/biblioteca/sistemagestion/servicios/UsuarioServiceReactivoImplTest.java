@@ -0,0 +1,67 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.dtos.PaginaDTO;
+import com.biblioteca.sistemagestion.excepciones.UsuarioNoEncontradoException;
+import com.biblioteca.sistemagestion.modelo.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsuarioServiceReactivoImplTest {
+
+    @Mock
+    private UsuarioService usuarioServiceMock;
+
+    private UsuarioServiceReactivoImpl usuarioServiceReactivo;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuarioServiceReactivo = new UsuarioServiceReactivoImpl(usuarioServiceMock, Schedulers.immediate());
+        usuario = new Usuario("Usuario Test", "test@example.com");
+        usuario.setId(1L);
+    }
+
+    @Test
+    @DisplayName("obtenerTodosLosUsuarios termina tras la última página sin volver a consultar")
+    void obtenerTodosLosUsuarios_terminaTrasUltimaPagina() {
+        when(usuarioServiceMock.obtenerPaginaDeUsuarios(null, Paginacion.LOTE_DE_RECORRIDO, null))
+                .thenReturn(new PaginaDTO<>(List.of(usuario), null));
+
+        StepVerifier.create(usuarioServiceReactivo.obtenerTodosLosUsuarios())
+                .expectNext(usuario)
+                .verifyComplete();
+        verify(usuarioServiceMock, times(1)).obtenerPaginaDeUsuarios(any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("obtenerUsuarioPorEmail devuelve un Mono vacío si el email no está registrado")
+    void obtenerUsuarioPorEmail_noRegistrado_devuelveVacio() {
+        when(usuarioServiceMock.obtenerUsuarioPorEmail("otro@example.com")).thenReturn(Optional.empty());
+
+        StepVerifier.create(usuarioServiceReactivo.obtenerUsuarioPorEmail("otro@example.com")).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("eliminarUsuario no invoca al servicio hasta la suscripción y propaga sus errores")
+    void eliminarUsuario_esPerezosoYPropagaErrores() {
+        doThrow(new UsuarioNoEncontradoException("no existe")).when(usuarioServiceMock).eliminarUsuario(99L);
+
+        var eliminacion = usuarioServiceReactivo.eliminarUsuario(99L);
+        verifyNoInteractions(usuarioServiceMock);
+
+        StepVerifier.create(eliminacion).expectError(UsuarioNoEncontradoException.class).verify();
+    }
+}
@@ -0,0 +1,81 @@
+package com.biblioteca.sistemagestion.servicios;
+
+import com.biblioteca.sistemagestion.modelo.EstadoLibro;
+import com.biblioteca.sistemagestion.modelo.Libro;
+import com.biblioteca.sistemagestion.repositorios.LibroRepository;
+import com.biblioteca.sistemagestion.repositorios.LibroRepositoryImpl;
+import com.biblioteca.sistemagestion.repositorios.OyenteDeMutaciones;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VersionesDelCatalogoTest {
+
+    @Test
+    @DisplayName("Los libros existentes y los que se guardan después quedan registrados con su versión")
+    void versionDeLibro_sigueLasVersionesDelRepositorio() {
+        LibroRepository repositorio = spy(new LibroRepositoryImpl());
+        Libro existente = repositorio.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+        VersionesDelCatalogo versiones = new VersionesDelCatalogo(repositorio);
+
+        assertEquals(VersionesDelCatalogo.ARRANQUE + "-1", versiones.versionDeLibro(existente.getId()).orElseThrow().etiqueta());
+
+        repositorio.compareAndSetEstado(existente.getId(), EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO);
+        assertEquals(VersionesDelCatalogo.ARRANQUE + "-2", versiones.versionDeLibro(existente.getId()).orElseThrow().etiqueta());
+
+        repositorio.deleteById(existente.getId());
+        assertTrue(versiones.versionDeLibro(existente.getId()).isEmpty());
+        verify(repositorio, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("La etiqueta del catálogo cambia con cada alta, modificación o baja")
+    void versionDelCatalogo_cambiaConCadaMutacion() {
+        LibroRepository repositorio = new LibroRepositoryImpl();
+        VersionesDelCatalogo versiones = new VersionesDelCatalogo(repositorio);
+        String inicial = versiones.versionDelCatalogo().etiqueta();
+        assertEquals(inicial, versiones.versionDelCatalogo().etiqueta());
+
+        Libro libro = repositorio.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+        String trasAlta = versiones.versionDelCatalogo().etiqueta();
+        assertNotEquals(inicial, trasAlta);
+
+        repositorio.deleteById(libro.getId());
+        assertNotEquals(trasAlta, versiones.versionDelCatalogo().etiqueta());
+    }
+
+    @Test
+    @DisplayName("La etiqueta del catálogo no avanza hasta que el repositorio publica el cambio")
+    void versionDelCatalogo_noAvanzaAntesDePublicarElCambio() {
+        LibroRepository repositorio = new LibroRepositoryImpl();
+        VersionesDelCatalogo versiones = new VersionesDelCatalogo(repositorio);
+        String inicial = versiones.versionDelCatalogo().etiqueta();
+        List<String> etiquetasDuranteLaEscritura = new ArrayList<>();
+        List<Integer> librosDuranteLaEscritura = new ArrayList<>();
+        repositorio.agregarOyente(new OyenteDeMutaciones<>() {
+            @Override
+            public void guardado(Libro libro) {
+                etiquetasDuranteLaEscritura.add(versiones.versionDelCatalogo().etiqueta());
+                librosDuranteLaEscritura.add(repositorio.findAll().size());
+            }
+
+            @Override
+            public void eliminado(long id) {
+            }
+        });
+
+        assertTrue(repositorio.findAll().isEmpty());
+
+        repositorio.save(new Libro("978-111", "Rayuela", "Julio Cortázar"));
+
+        assertEquals(List.of(0), librosDuranteLaEscritura);
+        assertEquals(List.of(inicial), etiquetasDuranteLaEscritura);
+        assertNotEquals(inicial, versiones.versionDelCatalogo().etiqueta());
+        assertEquals(1, repositorio.findAll().size());
+    }
+}
@@ -0,0 +1,108 @@
+package com.biblioteca.sistemagestion.transacciones;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GestorDeTransaccionesTest {
+
+    private final GestorDeTransacciones gestor = new GestorDeTransacciones();
+
+    @Test
+    @DisplayName("Si el trabajo falla se ejecutan las compensaciones en orden inverso y se relanza el error")
+    void ejecutar_conError_deshaceEnOrdenInverso() {
+        List<String> deshechos = new ArrayList<>();
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> gestor.ejecutar(List.of(Recurso.libro(1)), unidad -> {
+                    unidad.alDeshacer(() -> deshechos.add("primero"));
+                    unidad.alDeshacer(() -> {
+                        throw new IllegalArgumentException("compensación fallida");
+                    });
+                    unidad.alDeshacer(() -> deshechos.add("tercero"));
+                    throw new IllegalStateException("fallo");
+                }));
+
+        assertEquals(List.of("tercero", "primero"), deshechos);
+        assertEquals(1, error.getSuppressed().length);
+    }
+
+    @Test
+    @DisplayName("Si el trabajo termina bien no se ejecuta ninguna compensación")
+    void ejecutar_sinError_noDeshace() {
+        List<String> deshechos = new ArrayList<>();
+
+        String resultado = gestor.ejecutar(List.of(Recurso.libro(1), Recurso.usuario(1)), unidad -> {
+            unidad.alDeshacer(() -> deshechos.add("no debería ejecutarse"));
+            return "ok";
+        });
+
+        assertEquals("ok", resultado);
+        assertTrue(deshechos.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Transacciones que piden los mismos recursos en orden opuesto no se bloquean mutuamente")
+    void ejecutar_recursosEnOrdenOpuesto_noProduceInterbloqueo() throws Exception {
+        int iteraciones = 20_000;
+        long[] contador = new long[1];
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < 4; h++) {
+            List<Recurso> recursos = h % 2 == 0
+                    ? List.of(Recurso.libro(7), Recurso.usuario(3), Recurso.prestamo(11))
+                    : List.of(Recurso.prestamo(11), Recurso.usuario(3), Recurso.libro(7));
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < iteraciones; i++) {
+                    gestor.ejecutar(recursos, unidad -> contador[0]++);
+                }
+                return null;
+            }));
+        }
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(4L * iteraciones, contador[0]);
+    }
+
+    @Test
+    @DisplayName("Transacciones sobre recursos distintos avanzan en paralelo")
+    void ejecutar_recursosDistintos_noSeBloquean() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> retenida = executor.submit(() -> gestor.ejecutar(List.of(Recurso.libro(1)), unidad -> {
+            dentro.countDown();
+            try {
+                return liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        assertTrue(dentro.await(10, TimeUnit.SECONDS));
+
+        try {
+            assertEquals("libre", gestor.ejecutar(List.of(Recurso.libro(2), Recurso.usuario(1)), unidad -> "libre"));
+        } finally {
+            liberar.countDown();
+        }
+        retenida.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+}